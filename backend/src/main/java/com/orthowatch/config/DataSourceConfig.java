@@ -0,0 +1,56 @@
+package com.orthowatch.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.quartz.QuartzDataSource;
+import org.springframework.boot.autoconfigure.quartz.SchedulerFactoryBeanCustomizer;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+/**
+ * Connection pools. The application pool is the one Spring Boot would build from {@code
+ * spring.datasource.*}; the Quartz job store (trigger acquisition, cluster check-ins, misfire
+ * handling) gets a small pool of its own, {@code app.quartz.datasource.maximum-pool-size}, so the
+ * scheduler never queues behind request or background work, nor starves it. Job bodies still run on
+ * the application pool; see the connection budget in {@code application-prod.yml}.
+ */
+@Configuration
+public class DataSourceConfig {
+
+  @Bean
+  @Primary
+  @ConfigurationProperties("spring.datasource.hikari")
+  public HikariDataSource dataSource(DataSourceProperties properties) {
+    return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+  }
+
+  @Bean(destroyMethod = "close")
+  @QuartzDataSource
+  public HikariDataSource quartzDataSource(
+      DataSourceProperties properties,
+      @Value("${app.quartz.datasource.maximum-pool-size:3}") int maximumPoolSize) {
+    HikariDataSource dataSource =
+        properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    dataSource.setPoolName("quartz");
+    dataSource.setMaximumPoolSize(maximumPoolSize);
+    dataSource.setMinimumIdle(1);
+    return dataSource;
+  }
+
+  // Runs after Spring Boot's own customizer, which would pair the Quartz pool with the JPA
+  // transaction manager of the application pool
+  @Bean
+  @Order(1)
+  public SchedulerFactoryBeanCustomizer quartzTransactionManagerCustomizer(
+      @QuartzDataSource DataSource quartzDataSource) {
+    return schedulerFactoryBean ->
+        schedulerFactoryBean.setTransactionManager(
+            new DataSourceTransactionManager(quartzDataSource));
+  }
+}
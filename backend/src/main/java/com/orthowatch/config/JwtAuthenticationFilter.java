@@ -1,5 +1,8 @@
 package com.orthowatch.config;
 
+import com.orthowatch.service.PrincipalCache;
+import com.orthowatch.service.TokenRevocationService;
+import com.orthowatch.util.JwtClaims;
 import com.orthowatch.util.JwtUtil;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -7,11 +10,13 @@ import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -23,7 +28,12 @@ import java.io.IOException;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtUtil jwtUtil;
-    private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
+    private final TokenRevocationService tokenRevocationService;
+
+    // "database" resolves authorities from the users table (cached); "claims" trusts the token's role
+    @Value("${app.security.auth-mode:database}")
+    private String authMode;
 
     @Override
     protected void doFilterInternal(
@@ -34,7 +44,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader("Authorization");
         String jwt = null;
-        String userEmail = null;
 
         // Try to get token from Authorization header
         if (authHeader != null && authHeader.startsWith("Bearer ")) {
@@ -51,14 +60,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             }
         }
 
-        if (jwt != null) {
-            userEmail = jwtUtil.extractUsername(jwt);
+        // One parse verifies signature and expiry; the claims feed the principal lookup
+        JwtClaims claims = null;
+        if (jwt != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            claims = jwtUtil.verifyAccessToken(jwt).orElse(null);
         }
 
-        if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+        if (claims != null) {
+            UserDetails userDetails = "claims".equalsIgnoreCase(authMode)
+                    ? principalFromClaims(claims)
+                    : principalCache.loadPrincipal(claims.subject());
 
-            if (jwtUtil.validateToken(jwt, userDetails.getUsername())) {
+            if (userDetails != null && userDetails.isEnabled()) {
                 UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                         userDetails,
                         null,
@@ -70,4 +83,28 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * Builds the principal from verified claims alone, or returns null if the token was revoked or
+     * the deny-list cannot be read: the database knows nothing of tokens revoked at logout, so it
+     * is no substitute. Tokens without a role claim, issued before roles were carried in tokens,
+     * are still resolved from the database without the deny-list.
+     */
+    private UserDetails principalFromClaims(JwtClaims claims) {
+        if (claims.role() == null) {
+            return principalCache.loadPrincipal(claims.subject());
+        }
+        try {
+            if (tokenRevocationService.isRevoked(claims)) {
+                return null;
+            }
+        } catch (DataAccessException e) {
+            logger.warn("Token deny-list unavailable, rejecting token: " + e.getMessage());
+            return null;
+        }
+        return User.withUsername(claims.subject())
+                .password("")
+                .roles(claims.role())
+                .build();
+    }
 }
@@ -0,0 +1,49 @@
+package com.orthowatch.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Dedicated pool for BCrypt verification on login.
+ *
+ * <p>BCrypt at strength 12 costs roughly 250ms of CPU per attempt. Running it on a fixed-size pool
+ * with a bounded queue caps how many cores login can consume; once the queue is full new attempts
+ * are rejected immediately instead of piling up on request threads.
+ */
+@Configuration
+public class PasswordHashingConfig {
+
+  @Bean(destroyMethod = "shutdown")
+  public ExecutorService passwordHashExecutor(
+      MeterRegistry meterRegistry,
+      @Value("${app.security.password-hashing.threads:0}") int threads,
+      @Value("${app.security.password-hashing.queue-capacity:32}") int queueCapacity) {
+    int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors());
+    AtomicInteger counter = new AtomicInteger();
+    ThreadFactory threadFactory =
+        runnable -> {
+          Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+          thread.setDaemon(true);
+          return thread;
+        };
+    ThreadPoolExecutor executor =
+        new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            threadFactory,
+            new ThreadPoolExecutor.AbortPolicy());
+    return ExecutorServiceMetrics.monitor(meterRegistry, executor, "password.hash");
+  }
+}
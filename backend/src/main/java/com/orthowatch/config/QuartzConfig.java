@@ -0,0 +1,168 @@
+package com.orthowatch.config;
+
+import com.orthowatch.job.AuditPartitionMaintenanceJob;
+import com.orthowatch.job.ChecklistDispatchJob;
+import com.orthowatch.job.ConsentTimeoutSweepJob;
+import com.orthowatch.job.ConversationTimeoutJob;
+import com.orthowatch.job.NightlyRiskScoringJob;
+import com.orthowatch.job.NonResponseSweepJob;
+import org.quartz.CronScheduleBuilder;
+import org.quartz.JobBuilder;
+import org.quartz.JobDetail;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.Trigger;
+import org.quartz.TriggerBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Recurring Quartz jobs. Spring Boot registers these JobDetail and Trigger beans on startup. */
+@Configuration
+public class QuartzConfig {
+
+  @Bean
+  @ConditionalOnProperty(
+      name = "app.consent-timeout.mode",
+      havingValue = "sweeper",
+      matchIfMissing = true)
+  public JobDetail consentTimeoutSweepJobDetail() {
+    return JobBuilder.newJob(ConsentTimeoutSweepJob.class)
+        .withIdentity("consent-timeout-sweep", "maintenance")
+        .storeDurably()
+        .build();
+  }
+
+  @Bean
+  @ConditionalOnProperty(
+      name = "app.consent-timeout.mode",
+      havingValue = "sweeper",
+      matchIfMissing = true)
+  public Trigger consentTimeoutSweepTrigger(
+      JobDetail consentTimeoutSweepJobDetail,
+      @Value("${app.consent-timeout.sweep-interval-seconds:300}") int intervalSeconds) {
+    return TriggerBuilder.newTrigger()
+        .forJob(consentTimeoutSweepJobDetail)
+        .withIdentity("consent-timeout-sweep-trigger", "maintenance")
+        .withSchedule(
+            SimpleScheduleBuilder.simpleSchedule()
+                .withIntervalInSeconds(intervalSeconds)
+                .repeatForever()
+                .withMisfireHandlingInstructionNextWithRemainingCount())
+        .build();
+  }
+
+  @Bean
+  public JobDetail auditPartitionMaintenanceJobDetail() {
+    return JobBuilder.newJob(AuditPartitionMaintenanceJob.class)
+        .withIdentity("audit-partition-maintenance", "maintenance")
+        .storeDurably()
+        .build();
+  }
+
+  @Bean
+  public Trigger auditPartitionMaintenanceTrigger(
+      JobDetail auditPartitionMaintenanceJobDetail,
+      @Value("${app.audit.partitions.maintenance-cron:0 15 3 * * ?}") String cron) {
+    return TriggerBuilder.newTrigger()
+        .forJob(auditPartitionMaintenanceJobDetail)
+        .withIdentity("audit-partition-maintenance-trigger", "maintenance")
+        .withSchedule(
+            CronScheduleBuilder.cronSchedule(cron).withMisfireHandlingInstructionFireAndProceed())
+        .build();
+  }
+
+  @Bean
+  @ConditionalOnProperty(
+      name = "app.risk.scoring.enabled",
+      havingValue = "true",
+      matchIfMissing = true)
+  public JobDetail nightlyRiskScoringJobDetail() {
+    return JobBuilder.newJob(NightlyRiskScoringJob.class)
+        .withIdentity("nightly-risk-scoring", "maintenance")
+        .storeDurably()
+        .build();
+  }
+
+  @Bean
+  @ConditionalOnProperty(
+      name = "app.risk.scoring.enabled",
+      havingValue = "true",
+      matchIfMissing = true)
+  public Trigger nightlyRiskScoringTrigger(
+      JobDetail nightlyRiskScoringJobDetail,
+      @Value("${app.risk.scoring.cron:0 30 1 * * ?}") String cron) {
+    return TriggerBuilder.newTrigger()
+        .forJob(nightlyRiskScoringJobDetail)
+        .withIdentity("nightly-risk-scoring-trigger", "maintenance")
+        .withSchedule(
+            CronScheduleBuilder.cronSchedule(cron).withMisfireHandlingInstructionFireAndProceed())
+        .build();
+  }
+
+  @Bean
+  public JobDetail checklistDispatchJobDetail() {
+    return JobBuilder.newJob(ChecklistDispatchJob.class)
+        .withIdentity("checklist-dispatch", "maintenance")
+        .storeDurably()
+        .build();
+  }
+
+  @Bean
+  public Trigger checklistDispatchTrigger(JobDetail checklistDispatchJobDetail) {
+    // A missed tick needs no catch-up: the next one claims everything that is due
+    return TriggerBuilder.newTrigger()
+        .forJob(checklistDispatchJobDetail)
+        .withIdentity("checklist-dispatch-trigger", "maintenance")
+        .withSchedule(
+            SimpleScheduleBuilder.simpleSchedule()
+                .withIntervalInSeconds(60)
+                .repeatForever()
+                .withMisfireHandlingInstructionNextWithRemainingCount())
+        .build();
+  }
+
+  @Bean
+  public JobDetail conversationTimeoutJobDetail() {
+    return JobBuilder.newJob(ConversationTimeoutJob.class)
+        .withIdentity("conversation-timeout", "maintenance")
+        .storeDurably()
+        .build();
+  }
+
+  @Bean
+  public Trigger conversationTimeoutTrigger(JobDetail conversationTimeoutJobDetail) {
+    return TriggerBuilder.newTrigger()
+        .forJob(conversationTimeoutJobDetail)
+        .withIdentity("conversation-timeout-trigger", "maintenance")
+        .withSchedule(
+            SimpleScheduleBuilder.simpleSchedule()
+                .withIntervalInSeconds(60)
+                .repeatForever()
+                .withMisfireHandlingInstructionNextWithRemainingCount())
+        .build();
+  }
+
+  @Bean
+  public JobDetail nonResponseSweepJobDetail() {
+    return JobBuilder.newJob(NonResponseSweepJob.class)
+        .withIdentity("non-response-sweep", "maintenance")
+        .storeDurably()
+        .build();
+  }
+
+  @Bean
+  public Trigger nonResponseSweepTrigger(
+      JobDetail nonResponseSweepJobDetail,
+      @Value("${app.non-response.sweep-interval-seconds:300}") int intervalSeconds) {
+    return TriggerBuilder.newTrigger()
+        .forJob(nonResponseSweepJobDetail)
+        .withIdentity("non-response-sweep-trigger", "maintenance")
+        .withSchedule(
+            SimpleScheduleBuilder.simpleSchedule()
+                .withIntervalInSeconds(intervalSeconds)
+                .repeatForever()
+                .withMisfireHandlingInstructionNextWithRemainingCount())
+        .build();
+  }
+}
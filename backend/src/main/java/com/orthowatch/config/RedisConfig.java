@@ -0,0 +1,66 @@
+package com.orthowatch.config;
+
+import com.orthowatch.messaging.EpisodeRoutingIndex;
+import com.orthowatch.service.AlertSlaEnforcer;
+import com.orthowatch.service.DashboardEventBroker;
+import com.orthowatch.service.PrincipalCache;
+import java.nio.charset.StandardCharsets;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Redis pub/sub wiring for state that is shared across backend nodes: one listener container, and
+ * so one subscription connection, carries the channels of every feature that is shared.
+ */
+@Configuration
+public class RedisConfig {
+
+  @Bean
+  @ConditionalOnExpression(
+      "${app.security.principal-cache.redis-enabled:false} or ${app.routing.redis-enabled:false}"
+          + " or ${app.dashboard.redis-enabled:false} or ${app.alert-sla.redis-enabled:false}")
+  public RedisMessageListenerContainer redisMessageListenerContainer(
+      RedisConnectionFactory connectionFactory,
+      PrincipalCache principalCache,
+      EpisodeRoutingIndex routingIndex,
+      DashboardEventBroker eventBroker,
+      AlertSlaEnforcer alertSlaEnforcer,
+      @Value("${app.security.principal-cache.redis-enabled:false}") boolean principalsShared,
+      @Value("${app.routing.redis-enabled:false}") boolean routesShared,
+      @Value("${app.dashboard.redis-enabled:false}") boolean dashboardShared,
+      @Value("${app.alert-sla.redis-enabled:false}") boolean alertChangesShared) {
+    RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+    container.setConnectionFactory(connectionFactory);
+    if (principalsShared) {
+      container.addMessageListener(
+          (message, pattern) ->
+              principalCache.evictLocal(new String(message.getBody(), StandardCharsets.UTF_8)),
+          new ChannelTopic(PrincipalCache.EVICTION_CHANNEL));
+    }
+    if (routesShared) {
+      container.addMessageListener(
+          (message, pattern) ->
+              routingIndex.evictLocal(new String(message.getBody(), StandardCharsets.UTF_8)),
+          new ChannelTopic(EpisodeRoutingIndex.EVICTION_CHANNEL));
+    }
+    if (dashboardShared) {
+      container.addMessageListener(
+          (message, pattern) ->
+              eventBroker.receive(new String(message.getBody(), StandardCharsets.UTF_8)),
+          new ChannelTopic(DashboardEventBroker.CHANNEL));
+    }
+    if (alertChangesShared) {
+      container.addMessageListener(
+          (message, pattern) ->
+              alertSlaEnforcer.receiveChanged(
+                  new String(message.getBody(), StandardCharsets.UTF_8)),
+          new ChannelTopic(AlertSlaEnforcer.CHANGED_CHANNEL));
+    }
+    return container;
+  }
+}
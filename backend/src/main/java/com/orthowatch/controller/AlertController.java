@@ -0,0 +1,47 @@
+package com.orthowatch.controller;
+
+import com.orthowatch.dto.AlertInboxPage;
+import com.orthowatch.service.AlertInboxService;
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+@RestController
+@RequestMapping("/api/v1/alerts")
+@RequiredArgsConstructor
+public class AlertController {
+
+  private final AlertInboxService alertInboxService;
+
+  /**
+   * The signed-in clinician's alerts in one status, most urgent SLA deadline first. Follow {@code
+   * nextCursor} for further pages. Polling clients should send the last ETag in If-None-Match; the
+   * response is 304 until an alert on the page changes.
+   */
+  @GetMapping("/inbox")
+  @PreAuthorize("hasAnyRole('SURGEON', 'NURSE', 'ADMIN')")
+  public ResponseEntity<AlertInboxPage> inbox(
+      @RequestParam(defaultValue = "PENDING") String status,
+      @RequestParam(required = false) String cursor,
+      @RequestParam(defaultValue = "50") int limit,
+      Authentication authentication,
+      WebRequest webRequest) {
+    AlertInboxService.Inbox inbox =
+        alertInboxService.fetch(authentication.getName(), status, cursor, limit, Instant.now());
+    if (webRequest.checkNotModified(inbox.etag())) {
+      return null;
+    }
+    return ResponseEntity.ok()
+        .eTag(inbox.etag())
+        .cacheControl(CacheControl.noCache().cachePrivate())
+        .body(inbox.page());
+  }
+}
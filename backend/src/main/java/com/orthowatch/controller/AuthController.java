@@ -3,12 +3,15 @@ package com.orthowatch.controller;
 import com.orthowatch.dto.LoginRequest;
 import com.orthowatch.dto.LoginResponse;
 import com.orthowatch.service.AuthService;
+import com.orthowatch.service.LoginRateLimiter;
 import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
@@ -17,13 +20,25 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final LoginRateLimiter loginRateLimiter;
 
     @Value("${app.jwt.refresh-expiration}")
     private long refreshExpiration;
 
     @PostMapping("/login")
-    public ResponseEntity<LoginResponse> login(@RequestBody @Valid LoginRequest request, HttpServletResponse response) {
-        LoginResponse loginResponse = authService.login(request);
+    public ResponseEntity<LoginResponse> login(@RequestBody @Valid LoginRequest request, HttpServletRequest httpRequest, HttpServletResponse response) {
+        // Throttle before authenticating so rejected attempts never reach BCrypt. The remote
+        // address is the client's as resolved from X-Forwarded-For by server.forward-headers-strategy
+        String clientIp = httpRequest.getRemoteAddr();
+        loginRateLimiter.checkLogin(clientIp, request.getEmail());
+
+        LoginResponse loginResponse;
+        try {
+            loginResponse = authService.login(request);
+        } catch (AuthenticationException e) {
+            loginRateLimiter.recordFailedLogin(clientIp, request.getEmail());
+            throw e;
+        }
         
         // Set refresh token in HTTP-only cookie
         Cookie refreshCookie = new Cookie("refreshToken", loginResponse.getRefreshToken());
@@ -52,7 +67,16 @@ public class AuthController {
     }
 
     @PostMapping("/logout")
-    public ResponseEntity<Void> logout(HttpServletResponse response) {
+    public ResponseEntity<Void> logout(
+            @RequestHeader(name = "Authorization", required = false) String authHeader,
+            @CookieValue(name = "access_token", required = false) String accessTokenCookie,
+            HttpServletResponse response) {
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            authService.logout(authHeader.substring(7));
+        } else {
+            authService.logout(accessTokenCookie);
+        }
+
         Cookie cookie = new Cookie("refreshToken", null);
         cookie.setHttpOnly(true);
         cookie.setSecure(false);
@@ -0,0 +1,31 @@
+package com.orthowatch.controller;
+
+import com.orthowatch.service.DashboardStreams;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1/dashboard")
+@RequiredArgsConstructor
+public class DashboardController {
+
+  private final DashboardStreams dashboardStreams;
+
+  /**
+   * Server-sent events for the signed-in clinician's dashboard: {@code alert}, {@code risk-score}
+   * and {@code consent} events as they are committed, replacing interval polling. The first event
+   * is {@code ready}; clients should refetch the dashboard on it, which also covers anything missed
+   * while reconnecting.
+   */
+  @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  @PreAuthorize("hasAnyRole('SURGEON', 'NURSE', 'ADMIN')")
+  public SseEmitter stream(Authentication authentication) {
+    return dashboardStreams.open(authentication.getName());
+  }
+}
@@ -1,5 +1,7 @@
 package com.orthowatch.controller;
 
+import com.orthowatch.dto.BulkEnrollmentRequest;
+import com.orthowatch.dto.BulkEnrollmentResponse;
 import com.orthowatch.dto.EnrollmentRequest;
 import com.orthowatch.dto.EnrollmentResponse;
 import com.orthowatch.model.User;
@@ -33,11 +35,7 @@ public class EnrollmentController {
       Authentication authentication,
       HttpServletRequest httpRequest) {
 
-    String email = authentication.getName();
-    User currentUser =
-        userRepository
-            .findByEmail(email)
-            .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
+    User currentUser = currentUser(authentication);
 
     String ipAddress = httpRequest.getRemoteAddr();
     String userAgent = httpRequest.getHeader("User-Agent");
@@ -47,4 +45,32 @@ public class EnrollmentController {
 
     return ResponseEntity.status(HttpStatus.CREATED).body(response);
   }
+
+  /**
+   * Enrolls a discharge-day batch. Each row succeeds or fails independently; the response lists the
+   * outcome of every row in submission order.
+   */
+  @PostMapping("/bulk")
+  @PreAuthorize("hasAnyRole('NURSE', 'ADMIN')")
+  public ResponseEntity<BulkEnrollmentResponse> enrollBulk(
+      @Valid @RequestBody BulkEnrollmentRequest request,
+      Authentication authentication,
+      HttpServletRequest httpRequest) {
+
+    BulkEnrollmentResponse response =
+        enrollmentService.enrollAll(
+            request.getEnrollments(),
+            currentUser(authentication),
+            httpRequest.getRemoteAddr(),
+            httpRequest.getHeader("User-Agent"));
+
+    return ResponseEntity.ok(response);
+  }
+
+  private User currentUser(Authentication authentication) {
+    String email = authentication.getName();
+    return userRepository
+        .findByEmail(email)
+        .orElseThrow(() -> new UsernameNotFoundException("User not found: " + email));
+  }
 }
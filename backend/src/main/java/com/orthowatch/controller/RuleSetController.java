@@ -0,0 +1,38 @@
+package com.orthowatch.controller;
+
+import com.orthowatch.exception.ResourceNotFoundException;
+import com.orthowatch.service.RuleSetVersionService;
+import java.time.Duration;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/rule-sets")
+@RequiredArgsConstructor
+public class RuleSetController {
+
+  private final RuleSetVersionService ruleSetVersionService;
+
+  /**
+   * Returns the full rule set a risk score was computed with, given the score's {@code
+   * ruleVersionId}. Snapshots never change, so responses may be cached indefinitely.
+   */
+  @GetMapping("/{versionId}")
+  @PreAuthorize("hasAnyRole('SURGEON', 'ADMIN')")
+  public ResponseEntity<Map<String, Object>> getSnapshot(@PathVariable String versionId) {
+    Map<String, Object> snapshot =
+        ruleSetVersionService
+            .findSnapshot(versionId)
+            .orElseThrow(() -> new ResourceNotFoundException("Rule set not found: " + versionId));
+    return ResponseEntity.ok()
+        .cacheControl(CacheControl.maxAge(Duration.ofDays(365)).cachePrivate().immutable())
+        .body(snapshot);
+  }
+}
@@ -0,0 +1,56 @@
+package com.orthowatch.controller;
+
+import com.orthowatch.messaging.WebhookIngestor;
+import com.orthowatch.messaging.WhatsAppWebhookVerifier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/webhook/whatsapp")
+@RequiredArgsConstructor
+public class WhatsAppWebhookController {
+
+  private final WebhookIngestor webhookIngestor;
+  private final WhatsAppWebhookVerifier webhookVerifier;
+
+  /** Subscription handshake: echoes the challenge if the verify token matches. */
+  @GetMapping
+  public ResponseEntity<String> verify(
+      @RequestParam("hub.mode") String mode,
+      @RequestParam("hub.verify_token") String verifyToken,
+      @RequestParam("hub.challenge") String challenge) {
+    if ("subscribe".equals(mode) && webhookVerifier.isVerifyTokenValid(verifyToken)) {
+      return ResponseEntity.ok(challenge);
+    }
+    return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+  }
+
+  /**
+   * Accepts a webhook delivery. The payload is only staged durably here; it is parsed and applied
+   * in the background (see {@link WebhookIngestor}). Answers 503 when it could not be staged so
+   * that the provider redelivers later.
+   */
+  @PostMapping
+  public ResponseEntity<Void> receive(
+      @RequestBody byte[] payload,
+      @RequestHeader(value = "X-Hub-Signature-256", required = false) String signature) {
+    if (!webhookVerifier.isSignatureValid(payload, signature)) {
+      return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    }
+    if (!webhookIngestor.accept(payload)) {
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+          .header(HttpHeaders.RETRY_AFTER, "1")
+          .build();
+    }
+    return ResponseEntity.ok().build();
+  }
+}
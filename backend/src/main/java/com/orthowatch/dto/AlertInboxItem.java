@@ -0,0 +1,28 @@
+package com.orthowatch.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AlertInboxItem {
+  private UUID alertId;
+  private String alertType;
+  private String severity;
+  private String status;
+  private boolean autoForwarded;
+  private OffsetDateTime createdAt;
+  private OffsetDateTime slaDeadline;
+  // Seconds until the deadline when the page was read; negative once overdue, null without one
+  private Long slaRemainingSeconds;
+  private UUID episodeId;
+  private String patientName;
+  private Integer dayNumber;
+  private Integer compositeScore;
+}
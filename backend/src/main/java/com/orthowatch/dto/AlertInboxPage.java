@@ -0,0 +1,17 @@
+package com.orthowatch.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AlertInboxPage {
+  private List<AlertInboxItem> items;
+  // Pass back as ?cursor= for the next page; null on the last page
+  private String nextCursor;
+}
@@ -0,0 +1,21 @@
+package com.orthowatch.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkEnrollmentRequest {
+
+  // Rows are validated individually so that one bad row does not reject the whole batch
+  @NotEmpty(message = "At least one enrollment is required")
+  @Size(max = 500, message = "At most 500 enrollments can be submitted at once")
+  private List<EnrollmentRequest> enrollments;
+}
@@ -0,0 +1,18 @@
+package com.orthowatch.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkEnrollmentResponse {
+  private int total;
+  private int created;
+  private int failed;
+  private List<BulkEnrollmentResult> results;
+}
@@ -0,0 +1,19 @@
+package com.orthowatch.dto;
+
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkEnrollmentResult {
+  private int index; // position of the row in the submitted list
+  private String status; // CREATED, FAILED
+  private UUID episodeId;
+  private UUID patientId;
+  private String error;
+}
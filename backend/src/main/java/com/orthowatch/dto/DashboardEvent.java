@@ -0,0 +1,32 @@
+package com.orthowatch.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/** One change pushed to a clinician's dashboard stream; only the fields of its type are set. */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class DashboardEvent {
+  public static final String ALERT = "alert";
+  public static final String RISK_SCORE = "risk-score";
+  public static final String CONSENT = "consent";
+
+  private String type;
+  private UUID episodeId;
+  private UUID alertId;
+  private String alertType;
+  private String severity;
+  private String status;
+  private UUID assignedTo;
+  private Integer dayNumber;
+  private Integer compositeScore;
+  private String riskLevel;
+  private String consentStatus;
+}
@@ -0,0 +1,14 @@
+package com.orthowatch.exception;
+
+public class RateLimitExceededException extends RuntimeException {
+  private final long retryAfterSeconds;
+
+  public RateLimitExceededException(String message, long retryAfterSeconds) {
+    super(message);
+    this.retryAfterSeconds = retryAfterSeconds;
+  }
+
+  public long getRetryAfterSeconds() {
+    return retryAfterSeconds;
+  }
+}
@@ -0,0 +1,42 @@
+package com.orthowatch.job;
+
+import com.orthowatch.service.AuditPartitionService;
+import java.util.List;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Daily upkeep of the {@code clinical_audit_log} partitions: creates upcoming months and, when
+ * archiving is enabled, moves partitions past the hot window to archive files.
+ */
+@Component
+@DisallowConcurrentExecution
+public class AuditPartitionMaintenanceJob implements Job {
+
+  private static final Logger logger = LoggerFactory.getLogger(AuditPartitionMaintenanceJob.class);
+
+  @Autowired private AuditPartitionService auditPartitionService;
+
+  @Value("${app.audit.archive.enabled:false}")
+  private boolean archiveEnabled;
+
+  @Override
+  public void execute(JobExecutionContext context) throws JobExecutionException {
+    try {
+      auditPartitionService.ensurePartitions();
+      if (archiveEnabled) {
+        List<String> archived = auditPartitionService.archiveColdPartitions();
+        logger.info("Audit partition maintenance: archived {}", archived);
+      }
+    } catch (RuntimeException e) {
+      throw new JobExecutionException("Audit partition maintenance failed", e, false);
+    }
+  }
+}
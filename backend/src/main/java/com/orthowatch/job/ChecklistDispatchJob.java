@@ -0,0 +1,23 @@
+package com.orthowatch.job;
+
+import com.orthowatch.service.ChecklistDispatcher;
+import java.time.Instant;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/** Once-a-minute tick of the {@link ChecklistDispatcher}. */
+@Component
+@DisallowConcurrentExecution
+public class ChecklistDispatchJob implements Job {
+
+  @Autowired private ChecklistDispatcher checklistDispatcher;
+
+  @Override
+  public void execute(JobExecutionContext context) throws JobExecutionException {
+    checklistDispatcher.tick(Instant.now());
+  }
+}
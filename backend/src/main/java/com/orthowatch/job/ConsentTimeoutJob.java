@@ -33,7 +33,12 @@ public class ConsentTimeoutJob implements Job {
         .findById(episodeId)
         .ifPresent(
             episode -> {
-              if ("PENDING".equals(episode.getConsentStatus())) {
+              if ("PENDING".equals(episode.getConsentStatus())
+                  && alertRepository.existsByEpisodeIdAndAlertType(episodeId, "CONSENT_TIMEOUT")) {
+                logger.info(
+                    "CONSENT_TIMEOUT alert already exists. No alert needed. episodeId={}",
+                    episodeId);
+              } else if ("PENDING".equals(episode.getConsentStatus())) {
                 createConsentTimeoutAlert(episode);
                 logger.warn(
                     "Consent timeout: patient did not respond within 24h. episodeId={}",
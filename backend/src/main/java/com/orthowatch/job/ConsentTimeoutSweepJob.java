@@ -0,0 +1,63 @@
+package com.orthowatch.job;
+
+import com.orthowatch.dto.DashboardEvent;
+import com.orthowatch.repository.AlertRepository;
+import com.orthowatch.service.DashboardEventBroker;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodic replacement for the per-episode {@link ConsentTimeoutJob}: raises CONSENT_TIMEOUT alerts
+ * for every episode whose consent is still pending after the timeout, in one statement. Safe to
+ * rerun at any time; see {@link AlertRepository#insertConsentTimeoutAlerts}. The alerts raised are
+ * pushed to the surgeons' dashboards.
+ */
+@Component
+@DisallowConcurrentExecution
+public class ConsentTimeoutSweepJob implements Job {
+
+  private static final Logger logger = LoggerFactory.getLogger(ConsentTimeoutSweepJob.class);
+
+  @Autowired private AlertRepository alertRepository;
+  @Autowired private DashboardEventBroker eventBroker;
+
+  @Value("${app.consent-timeout.timeout-hours:24}")
+  private long timeoutHours;
+
+  @Override
+  public void execute(JobExecutionContext context) throws JobExecutionException {
+    OffsetDateTime cutoff = OffsetDateTime.now().minusHours(timeoutHours);
+    List<AlertRepository.RaisedAlert> created = alertRepository.insertConsentTimeoutAlerts(cutoff);
+    for (AlertRepository.RaisedAlert alert : created) {
+      eventBroker.publishAfterCommit(
+          alert.getAssignedTo(),
+          DashboardEvent.builder()
+              .type(DashboardEvent.ALERT)
+              .episodeId(alert.getEpisodeId())
+              .alertId(alert.getId())
+              .alertType("CONSENT_TIMEOUT")
+              .severity("MEDIUM")
+              .status("PENDING")
+              .assignedTo(alert.getAssignedTo())
+              .build());
+    }
+    if (!created.isEmpty()) {
+      logger.warn(
+          "Consent timeout sweep: created {} CONSENT_TIMEOUT alerts for episodes pending since"
+              + " before {}",
+          created.size(),
+          cutoff);
+    } else {
+      logger.debug("Consent timeout sweep: no new timeouts before {}", cutoff);
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package com.orthowatch.job;
+
+import com.orthowatch.messaging.ConversationEngine;
+import java.time.Instant;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/** Once-a-minute sweep that writes checklist conversations left idle past their timeout. */
+@Component
+@DisallowConcurrentExecution
+public class ConversationTimeoutJob implements Job {
+
+  @Autowired private ConversationEngine conversationEngine;
+
+  @Override
+  public void execute(JobExecutionContext context) throws JobExecutionException {
+    conversationEngine.flushExpired(Instant.now());
+  }
+}
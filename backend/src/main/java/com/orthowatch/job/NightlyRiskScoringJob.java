@@ -0,0 +1,30 @@
+package com.orthowatch.job;
+
+import com.orthowatch.service.NightlyRiskScorer;
+import java.time.LocalDate;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Nightly run of {@link NightlyRiskScorer}, keyed by date so that a re-fired or manually triggered
+ * run on the same day resumes where the failed one stopped.
+ */
+@Component
+@DisallowConcurrentExecution
+public class NightlyRiskScoringJob implements Job {
+
+  @Autowired private NightlyRiskScorer nightlyRiskScorer;
+
+  @Override
+  public void execute(JobExecutionContext context) throws JobExecutionException {
+    try {
+      nightlyRiskScorer.run(LocalDate.now().toString());
+    } catch (RuntimeException e) {
+      throw new JobExecutionException("Nightly risk scoring failed", e, false);
+    }
+  }
+}
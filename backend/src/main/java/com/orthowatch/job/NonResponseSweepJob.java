@@ -0,0 +1,23 @@
+package com.orthowatch.job;
+
+import com.orthowatch.service.NonResponseSweeper;
+import java.time.Instant;
+import org.quartz.DisallowConcurrentExecution;
+import org.quartz.Job;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/** Periodic sweep that raises NON_RESPONSE alerts for unanswered daily checklists. */
+@Component
+@DisallowConcurrentExecution
+public class NonResponseSweepJob implements Job {
+
+  @Autowired private NonResponseSweeper nonResponseSweeper;
+
+  @Override
+  public void execute(JobExecutionContext context) throws JobExecutionException {
+    nonResponseSweeper.sweep(Instant.now());
+  }
+}
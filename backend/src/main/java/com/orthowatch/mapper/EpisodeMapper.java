@@ -19,6 +19,7 @@ public interface EpisodeMapper {
   @Mapping(target = "consentTimestamp", ignore = true)
   @Mapping(target = "checklistTime", ignore = true)
   @Mapping(target = "timezone", ignore = true)
+  @Mapping(target = "nextChecklistAt", ignore = true)
   @Mapping(target = "createdAt", ignore = true)
   @Mapping(target = "updatedAt", ignore = true)
   Episode toEntity(EnrollmentRequest request);
@@ -0,0 +1,78 @@
+package com.orthowatch.messaging;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * One answer carried by a checklist reply. Checklist questions are sent as buttons or lists whose
+ * reply ids have the form {@code field:value}, e.g. {@code pain_score:6}, {@code
+ * swelling_level:MILD}, {@code dvt_symptoms:CALF_PAIN,CHEST_PAIN} or {@code consent:GRANTED}. A
+ * plain {@code EMERGENCY} message is also recognised.
+ *
+ * @param field the daily_responses column (or {@code consent} / {@code emergency_override})
+ * @param value the normalised value
+ */
+public record ChecklistAnswer(String field, String value) {
+
+  private static final Set<String> SWELLING_LEVELS = Set.of("NONE", "MILD", "MODERATE", "SEVERE");
+  private static final Set<String> FEVER_LEVELS =
+      Set.of("NO_FEVER", "BELOW_100", "100_TO_102", "ABOVE_102");
+  private static final Set<String> ADHERENCE = Set.of("TOOK_ALL", "MISSED_SOME", "DIDNT_TAKE");
+  private static final Set<String> CONSENT = Set.of("GRANTED", "DECLINED");
+
+  /**
+   * @return the answer, or null if the reply is not a recognised answer (e.g. free text)
+   */
+  public static ChecklistAnswer parse(String reply) {
+    if (reply.equalsIgnoreCase("EMERGENCY")) {
+      return new ChecklistAnswer("emergency_override", "true");
+    }
+    int separator = reply.indexOf(':');
+    if (separator < 0) {
+      return null;
+    }
+    String field = reply.substring(0, separator).trim().toLowerCase(Locale.ROOT);
+    String value = reply.substring(separator + 1).trim().toUpperCase(Locale.ROOT);
+    String normalised =
+        switch (field) {
+          case "pain_score" -> painScore(value);
+          case "swelling_level" -> SWELLING_LEVELS.contains(value) ? value : null;
+          case "fever_level" -> FEVER_LEVELS.contains(value) ? value : null;
+          case "medication_adherence" -> ADHERENCE.contains(value) ? value : null;
+          case "mobility_achieved" -> yesNo(value);
+          case "dvt_symptoms" -> symptoms(value);
+          case "consent" -> CONSENT.contains(value) ? value : null;
+          default -> null;
+        };
+    return normalised != null ? new ChecklistAnswer(field, normalised) : null;
+  }
+
+  private static String painScore(String value) {
+    try {
+      int score = Integer.parseInt(value);
+      return score >= 0 && score <= 10 ? Integer.toString(score) : null;
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static String yesNo(String value) {
+    return switch (value) {
+      case "TRUE", "YES" -> "true";
+      case "FALSE", "NO" -> "false";
+      default -> null;
+    };
+  }
+
+  // NONE is an explicit "no symptoms" answer and becomes an empty list
+  private static String symptoms(String value) {
+    if (value.equals("NONE")) {
+      return "";
+    }
+    boolean valid =
+        !value.isEmpty()
+            && Arrays.stream(value.split(",")).allMatch(s -> s.trim().matches("[A-Z_]{1,50}"));
+    return valid ? value.replace(" ", "") : null;
+  }
+}
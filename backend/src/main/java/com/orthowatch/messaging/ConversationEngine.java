@@ -0,0 +1,221 @@
+package com.orthowatch.messaging;
+
+import com.orthowatch.service.RecoveryTemplateCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Turns the answers of a day's checklist conversation into one {@code daily_responses} write.
+ *
+ * <p>Each episode and day is a small state machine held in {@link ConversationSessions}: answers
+ * are merged into the session as they arrive and nothing is written to the database while it is in
+ * progress. The session ends, and its answers are upserted in one statement, when
+ *
+ * <ul>
+ *   <li>every question the template asks that day has an answer (COMPLETED);
+ *   <li>the patient reports an emergency, which must reach clinicians at once (PARTIAL unless
+ *       complete); or
+ *   <li>nothing has been answered for {@code app.conversation.timeout-minutes}, which {@link
+ *       #flushExpired} picks up (PARTIAL).
+ * </ul>
+ *
+ * A late answer after a timeout starts a new session that is merged into the stored row.
+ */
+@Component
+public class ConversationEngine {
+
+  private static final Logger logger = LoggerFactory.getLogger(ConversationEngine.class);
+
+  static final String RESPONDER_TYPE = "responder_type";
+  static final String TEMPLATE_ID = "template_id";
+  static final String LAST_ANSWER_AT = "last_answer_at";
+
+  private final ConversationSessions sessions;
+  private final RecoveryTemplateCache templateCache;
+  private final InboundMessageStore store;
+  private final Duration timeout;
+  private final int sweepBatchSize;
+  private final Counter completed;
+  private final Counter emergencies;
+  private final Counter timedOut;
+
+  public ConversationEngine(
+      ConversationSessions sessions,
+      RecoveryTemplateCache templateCache,
+      InboundMessageStore store,
+      MeterRegistry meterRegistry,
+      @Value("${app.conversation.timeout-minutes:120}") long timeoutMinutes,
+      @Value("${app.conversation.sweep-batch-size:1000}") int sweepBatchSize) {
+    this.sessions = sessions;
+    this.templateCache = templateCache;
+    this.store = store;
+    this.timeout = Duration.ofMinutes(timeoutMinutes);
+    this.sweepBatchSize = sweepBatchSize;
+    this.completed = flushCounter(meterRegistry, "completed");
+    this.emergencies = flushCounter(meterRegistry, "emergency");
+    this.timedOut = flushCounter(meterRegistry, "timeout");
+    Gauge.builder("orthowatch.conversation.sessions", sessions, ConversationSessions::localSize)
+        .register(meterRegistry);
+  }
+
+  /**
+   * Adds the answers to their conversations and writes those that have ended. Sessions are ended
+   * once the surrounding transaction commits, so a rolled-back batch can be applied again.
+   */
+  public void record(List<ConversationTurn> turns) {
+    if (turns.isEmpty()) {
+      return;
+    }
+    Map<String, Map<String, String>> updates = new LinkedHashMap<>();
+    for (ConversationTurn turn : turns) {
+      EpisodeRoute route = turn.route();
+      String answeredAt = Long.toString(turn.answeredAt().getEpochSecond());
+      Map<String, String> fields =
+          updates.computeIfAbsent(
+              key(route.episodeId(), route.currentDay()),
+              k -> {
+                Map<String, String> session = new HashMap<>();
+                session.put(RESPONDER_TYPE, route.responderType());
+                session.put(TEMPLATE_ID, route.templateId().toString());
+                session.put(ConversationSessions.STARTED_AT, answeredAt);
+                return session;
+              });
+      fields.put(turn.answer().field(), turn.answer().value());
+      fields.put(LAST_ANSWER_AT, answeredAt);
+    }
+
+    Map<String, Map<String, String>> merged = sessions.merge(updates, Instant.now().plus(timeout));
+    List<DailyResponseDraft> ended = new ArrayList<>();
+    merged.forEach(
+        (key, fields) -> {
+          DailyResponseDraft draft = toDraft(key, fields);
+          if (draft.isComplete()) {
+            completed.increment();
+            ended.add(draft);
+          } else if (draft.emergencyOverride()) {
+            emergencies.increment();
+            ended.add(draft);
+          }
+        });
+    if (ended.isEmpty()) {
+      return;
+    }
+    store.upsertResponses(ended);
+    List<String> endedKeys =
+        ended.stream().map(draft -> key(draft.episodeId(), draft.dayNumber())).toList();
+    afterCommit(() -> sessions.remove(endedKeys));
+  }
+
+  /**
+   * Writes conversations idle past the timeout as they stand. Claimed sessions that could not be
+   * written are put back and retried by the next sweep.
+   *
+   * @return the number of conversations written
+   */
+  public int flushExpired(Instant now) {
+    // Put-back sessions must not be claimed again by this sweep
+    Instant retryAt = now.plusMillis(1);
+    int total = 0;
+    Map<String, Map<String, String>> expired;
+    do {
+      expired = sessions.claimExpired(now, sweepBatchSize);
+      if (expired.isEmpty()) {
+        break;
+      }
+      // Claimed sessions are no longer in the store; whatever is not written goes back
+      Map<String, Map<String, String>> unwritten = new LinkedHashMap<>(expired);
+      try {
+        List<DailyResponseDraft> drafts = new ArrayList<>(expired.size());
+        expired.forEach(
+            (key, fields) -> {
+              try {
+                drafts.add(toDraft(key, fields));
+              } catch (RuntimeException e) {
+                logger.warn(
+                    "Failed to read conversation {}, retrying later: {}", key, e.getMessage());
+              }
+            });
+        store.upsertResponses(drafts);
+        drafts.forEach(draft -> unwritten.remove(key(draft.episodeId(), draft.dayNumber())));
+        timedOut.increment(drafts.size());
+        total += drafts.size();
+      } finally {
+        if (!unwritten.isEmpty()) {
+          sessions.merge(unwritten, retryAt);
+        }
+      }
+    } while (expired.size() == sweepBatchSize);
+    if (total > 0) {
+      logger.info("Flushed {} checklist conversations idle for over {}", total, timeout);
+    }
+    return total;
+  }
+
+  private DailyResponseDraft toDraft(String key, Map<String, String> fields) {
+    int separator = key.indexOf(':');
+    UUID episodeId = UUID.fromString(key.substring(0, separator));
+    int dayNumber = Integer.parseInt(key.substring(separator + 1));
+    DailyResponseDraft draft =
+        new DailyResponseDraft(episodeId, dayNumber, fields.get(RESPONDER_TYPE));
+    Instant startedAt = epochSeconds(fields.get(ConversationSessions.STARTED_AT));
+    Instant lastAnswerAt = epochSeconds(fields.get(LAST_ANSWER_AT));
+    fields.forEach(
+        (field, value) -> {
+          if (!field.equals(RESPONDER_TYPE)
+              && !field.equals(TEMPLATE_ID)
+              && !field.equals(ConversationSessions.STARTED_AT)
+              && !field.equals(LAST_ANSWER_AT)) {
+            draft.apply(new ChecklistAnswer(field, value), startedAt);
+          }
+        });
+    UUID templateId = UUID.fromString(fields.get(TEMPLATE_ID));
+    if (templateCache.get(templateId).requiredFields(dayNumber).stream()
+        .allMatch(draft::hasAnswered)) {
+      draft.markCompleted(lastAnswerAt);
+    }
+    return draft;
+  }
+
+  static String key(UUID episodeId, int dayNumber) {
+    return episodeId + ":" + dayNumber;
+  }
+
+  private static Instant epochSeconds(String value) {
+    return Instant.ofEpochSecond(Long.parseLong(value));
+  }
+
+  private static Counter flushCounter(MeterRegistry meterRegistry, String reason) {
+    return Counter.builder("orthowatch.conversation.flushed")
+        .tag("reason", reason)
+        .register(meterRegistry);
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              action.run();
+            }
+          });
+    } else {
+      action.run();
+    }
+  }
+}
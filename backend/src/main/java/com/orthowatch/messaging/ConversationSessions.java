@@ -0,0 +1,234 @@
+package com.orthowatch.messaging;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-progress checklist conversations, one small field map per episode and day.
+ *
+ * <p>A session holds the answers given so far as {@code column -> value} strings plus a few
+ * bookkeeping fields, and an idle deadline. When {@code app.conversation.redis-enabled} is set,
+ * sessions are Redis hashes (so any node can continue a conversation) and deadlines live in one
+ * sorted set; otherwise they are kept in memory on this node. Writes are field-level merges, so two
+ * answers to different questions arriving on different nodes never overwrite each other.
+ *
+ * <p>The in-memory store is for a single node only: its sessions are lost on restart, and the
+ * timeout job that flushes idle sessions runs on whichever node Quartz picks. Startup therefore
+ * fails when Quartz is clustered and sessions are not in Redis.
+ */
+@Component
+public class ConversationSessions {
+
+  static final String REDIS_KEY_PREFIX = "orthowatch:conversation:";
+  static final String DEADLINES_KEY = "orthowatch:conversation:deadlines";
+
+  /** Set only by the first write to a session. */
+  public static final String STARTED_AT = "started_at";
+
+  // Takes sessions whose deadline has passed, atomically, so each is flushed by exactly one node.
+  // Each session comes back as its key followed by its fields flattened to "f1|v1|f2|v2".
+  private static final String CLAIM_EXPIRED_LUA =
+      """
+      local due = redis.call('ZRANGEBYSCORE', KEYS[1], '-inf', ARGV[1], 'LIMIT', 0, tonumber(ARGV[2]))
+      local claimed = {}
+      for _, member in ipairs(due) do
+        redis.call('ZREM', KEYS[1], member)
+        local key = ARGV[3] .. member
+        local fields = redis.call('HGETALL', key)
+        redis.call('DEL', key)
+        if #fields > 0 then
+          table.insert(claimed, member)
+          table.insert(claimed, table.concat(fields, '|'))
+        end
+      end
+      return claimed
+      """;
+
+  @SuppressWarnings("rawtypes")
+  private static final RedisScript<List> CLAIM_EXPIRED_SCRIPT =
+      RedisScript.of(CLAIM_EXPIRED_LUA, List.class);
+
+  private final StringRedisTemplate redisTemplate;
+  private final boolean redisEnabled;
+  private final Duration keyTtl;
+  private final Map<String, LocalSession> localSessions = new ConcurrentHashMap<>();
+
+  public ConversationSessions(
+      StringRedisTemplate redisTemplate,
+      @Value("${app.conversation.redis-enabled:false}") boolean redisEnabled,
+      @Value("${app.conversation.timeout-minutes:120}") long timeoutMinutes,
+      @Value("${spring.quartz.properties.org.quartz.jobStore.isClustered:false}")
+          boolean quartzClustered) {
+    if (quartzClustered && !redisEnabled) {
+      throw new IllegalStateException(
+          "Quartz is clustered but conversation sessions are kept in memory; sessions on nodes"
+              + " other than the one running the timeout job would never be flushed. Set"
+              + " app.conversation.redis-enabled=true.");
+    }
+    this.redisTemplate = redisTemplate;
+    this.redisEnabled = redisEnabled;
+    // Outlives the idle deadline so the sweeper, not Redis, ends the session
+    this.keyTtl = Duration.ofMinutes(timeoutMinutes * 2);
+  }
+
+  /**
+   * Merges the given fields into each session, creating it if needed, pushes its deadline out and
+   * returns every session's full field map after the merge.
+   */
+  public Map<String, Map<String, String>> merge(
+      Map<String, Map<String, String>> updates, Instant deadline) {
+    if (updates.isEmpty()) {
+      return Map.of();
+    }
+    return redisEnabled ? mergeShared(updates, deadline) : mergeLocal(updates, deadline);
+  }
+
+  /** Ends the given sessions. */
+  public void remove(Collection<String> keys) {
+    if (keys.isEmpty()) {
+      return;
+    }
+    if (!redisEnabled) {
+      keys.forEach(localSessions::remove);
+      return;
+    }
+    redisTemplate.executePipelined(
+        (RedisCallback<Object>)
+            connection -> {
+              StringRedisConnection strings = (StringRedisConnection) connection;
+              for (String key : keys) {
+                strings.del(REDIS_KEY_PREFIX + key);
+                strings.zRem(DEADLINES_KEY, key);
+              }
+              return null;
+            });
+  }
+
+  /** Ends up to {@code limit} sessions whose deadline is before {@code now} and returns them. */
+  public Map<String, Map<String, String>> claimExpired(Instant now, int limit) {
+    return redisEnabled ? claimExpiredShared(now, limit) : claimExpiredLocal(now, limit);
+  }
+
+  /** Number of sessions in progress on this node; always 0 when sessions are shared. */
+  public int localSize() {
+    return localSessions.size();
+  }
+
+  private Map<String, Map<String, String>> mergeLocal(
+      Map<String, Map<String, String>> updates, Instant deadline) {
+    Map<String, Map<String, String>> merged = new LinkedHashMap<>();
+    updates.forEach(
+        (key, fields) -> {
+          LocalSession session =
+              localSessions.compute(
+                  key,
+                  (k, existing) -> {
+                    Map<String, String> combined =
+                        existing != null ? new HashMap<>(existing.fields()) : new HashMap<>();
+                    fields.forEach(
+                        (field, value) -> {
+                          if (field.equals(STARTED_AT)) {
+                            combined.putIfAbsent(field, value);
+                          } else {
+                            combined.put(field, value);
+                          }
+                        });
+                    return new LocalSession(Map.copyOf(combined), deadline.toEpochMilli());
+                  });
+          merged.put(key, session.fields());
+        });
+    return merged;
+  }
+
+  private Map<String, Map<String, String>> mergeShared(
+      Map<String, Map<String, String>> updates, Instant deadline) {
+    List<String> keys = new ArrayList<>(updates.keySet());
+    redisTemplate.executePipelined(
+        (RedisCallback<Object>)
+            connection -> {
+              StringRedisConnection strings = (StringRedisConnection) connection;
+              for (String key : keys) {
+                Map<String, String> fields = new HashMap<>(updates.get(key));
+                String startedAt = fields.remove(STARTED_AT);
+                String redisKey = REDIS_KEY_PREFIX + key;
+                if (!fields.isEmpty()) {
+                  strings.hMSet(redisKey, fields);
+                }
+                if (startedAt != null) {
+                  strings.hSetNX(redisKey, STARTED_AT, startedAt);
+                }
+                strings.pExpire(redisKey, keyTtl.toMillis());
+                strings.zAdd(DEADLINES_KEY, deadline.toEpochMilli(), key);
+              }
+              return null;
+            });
+    List<Object> sessions =
+        redisTemplate.executePipelined(
+            (RedisCallback<Object>)
+                connection -> {
+                  StringRedisConnection strings = (StringRedisConnection) connection;
+                  keys.forEach(key -> strings.hGetAll(REDIS_KEY_PREFIX + key));
+                  return null;
+                });
+    Map<String, Map<String, String>> merged = new LinkedHashMap<>();
+    for (int i = 0; i < keys.size(); i++) {
+      @SuppressWarnings("unchecked")
+      Map<String, String> fields = (Map<String, String>) sessions.get(i);
+      merged.put(keys.get(i), fields != null ? fields : Map.of());
+    }
+    return merged;
+  }
+
+  private Map<String, Map<String, String>> claimExpiredLocal(Instant now, int limit) {
+    long nowMillis = now.toEpochMilli();
+    Map<String, Map<String, String>> claimed = new LinkedHashMap<>();
+    for (Map.Entry<String, LocalSession> entry : localSessions.entrySet()) {
+      if (claimed.size() >= limit) {
+        break;
+      }
+      LocalSession session = entry.getValue();
+      if (session.deadlineMillis() <= nowMillis && localSessions.remove(entry.getKey(), session)) {
+        claimed.put(entry.getKey(), session.fields());
+      }
+    }
+    return claimed;
+  }
+
+  private Map<String, Map<String, String>> claimExpiredShared(Instant now, int limit) {
+    List<?> result =
+        redisTemplate.execute(
+            CLAIM_EXPIRED_SCRIPT,
+            List.of(DEADLINES_KEY),
+            Long.toString(now.toEpochMilli()),
+            Integer.toString(limit),
+            REDIS_KEY_PREFIX);
+    Map<String, Map<String, String>> claimed = new LinkedHashMap<>();
+    if (result == null) {
+      return claimed;
+    }
+    for (int i = 0; i + 1 < result.size(); i += 2) {
+      String[] flat = result.get(i + 1).toString().split("\\|", -1);
+      Map<String, String> fields = new HashMap<>();
+      for (int f = 0; f + 1 < flat.length; f += 2) {
+        fields.put(flat[f], flat[f + 1]);
+      }
+      claimed.put(result.get(i).toString(), fields);
+    }
+    return claimed;
+  }
+
+  private record LocalSession(Map<String, String> fields, long deadlineMillis) {}
+}
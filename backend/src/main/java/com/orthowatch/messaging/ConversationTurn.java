@@ -0,0 +1,12 @@
+package com.orthowatch.messaging;
+
+import java.time.Instant;
+
+/**
+ * One checklist answer received from a routed sender.
+ *
+ * @param route where the sender's messages belong
+ * @param answer the parsed answer
+ * @param answeredAt when the sender sent it
+ */
+public record ConversationTurn(EpisodeRoute route, ChecklistAnswer answer, Instant answeredAt) {}
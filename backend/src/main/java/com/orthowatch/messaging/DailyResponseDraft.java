@@ -0,0 +1,120 @@
+package com.orthowatch.messaging;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * The answers of one episode's checklist conversation for a day, written as a single {@code
+ * daily_responses} upsert when the conversation ends. Fields never answered stay null and leave the
+ * stored values untouched.
+ */
+public class DailyResponseDraft {
+
+  private final UUID episodeId;
+  private final int dayNumber;
+  private final String responderType;
+  private Integer painScore;
+  private String swellingLevel;
+  private String feverLevel;
+  private String[] dvtSymptoms;
+  private Boolean mobilityAchieved;
+  private String medicationAdherence;
+  private boolean emergencyOverride;
+  private Instant firstAnswerAt;
+  private Instant completedAt;
+
+  public DailyResponseDraft(UUID episodeId, int dayNumber, String responderType) {
+    this.episodeId = episodeId;
+    this.dayNumber = dayNumber;
+    this.responderType = responderType;
+  }
+
+  /** Applies a checklist answer; later answers to the same question replace earlier ones. */
+  public void apply(ChecklistAnswer answer, Instant answeredAt) {
+    switch (answer.field()) {
+      case "pain_score" -> painScore = Integer.valueOf(answer.value());
+      case "swelling_level" -> swellingLevel = answer.value();
+      case "fever_level" -> feverLevel = answer.value();
+      case "dvt_symptoms" -> dvtSymptoms =
+          answer.value().isEmpty() ? new String[0] : answer.value().split(",");
+      case "mobility_achieved" -> mobilityAchieved = Boolean.valueOf(answer.value());
+      case "medication_adherence" -> medicationAdherence = answer.value();
+      case "emergency_override" -> emergencyOverride = true;
+      default -> throw new IllegalArgumentException("Not a checklist answer: " + answer.field());
+    }
+    if (firstAnswerAt == null || answeredAt.isBefore(firstAnswerAt)) {
+      firstAnswerAt = answeredAt;
+    }
+  }
+
+  /** Whether the given {@code daily_responses} column has been answered. */
+  public boolean hasAnswered(String field) {
+    return switch (field) {
+      case "pain_score" -> painScore != null;
+      case "swelling_level" -> swellingLevel != null;
+      case "fever_level" -> feverLevel != null;
+      case "dvt_symptoms" -> dvtSymptoms != null;
+      case "mobility_achieved" -> mobilityAchieved != null;
+      case "medication_adherence" -> medicationAdherence != null;
+      case "emergency_override" -> emergencyOverride;
+      default -> false;
+    };
+  }
+
+  /** Marks every question of the day as answered; the response is stored as COMPLETED. */
+  public void markCompleted(Instant at) {
+    completedAt = at;
+  }
+
+  public boolean isComplete() {
+    return completedAt != null;
+  }
+
+  public UUID episodeId() {
+    return episodeId;
+  }
+
+  public int dayNumber() {
+    return dayNumber;
+  }
+
+  public String responderType() {
+    return responderType;
+  }
+
+  public Integer painScore() {
+    return painScore;
+  }
+
+  public String swellingLevel() {
+    return swellingLevel;
+  }
+
+  public String feverLevel() {
+    return feverLevel;
+  }
+
+  public String[] dvtSymptoms() {
+    return dvtSymptoms;
+  }
+
+  public Boolean mobilityAchieved() {
+    return mobilityAchieved;
+  }
+
+  public String medicationAdherence() {
+    return medicationAdherence;
+  }
+
+  public boolean emergencyOverride() {
+    return emergencyOverride;
+  }
+
+  public Instant firstAnswerAt() {
+    return firstAnswerAt;
+  }
+
+  public Instant completedAt() {
+    return completedAt;
+  }
+}
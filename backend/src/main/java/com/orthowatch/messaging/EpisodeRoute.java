@@ -0,0 +1,15 @@
+package com.orthowatch.messaging;
+
+import java.util.UUID;
+
+/**
+ * Where a message from a given number belongs.
+ *
+ * @param episodeId the sender's active episode
+ * @param currentDay the episode's latest checklist day; 0 before the first checklist
+ * @param responderType PATIENT or CAREGIVER, depending on which of the patient's numbers matched
+ * @param consentStatus the episode's consent status; checklist answers count only once GRANTED
+ * @param templateId the episode's recovery template, which decides each day's questions
+ */
+public record EpisodeRoute(
+    UUID episodeId, int currentDay, String responderType, String consentStatus, UUID templateId) {}
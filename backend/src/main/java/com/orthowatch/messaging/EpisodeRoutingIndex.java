@@ -0,0 +1,310 @@
+package com.orthowatch.messaging;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.orthowatch.util.PhoneNumbers;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Maps E.164 phone numbers, primary and caregiver, to the active episode they report for.
+ *
+ * <p>Lookups are answered from a local map, then (when {@code app.routing.redis-enabled} is set)
+ * from Redis, and only then from the database, one query for all numbers still missing. Numbers
+ * with no active episode are remembered for a shorter TTL so that unknown senders do not reach the
+ * database on every message.
+ *
+ * <p>Routes change on enrollment, consent, episode status changes and the daily checklist day
+ * advance. Those paths call {@link #refreshEpisodesAfterCommit}, which reloads the affected numbers
+ * once the transaction commits, writes them through to Redis and broadcasts an eviction so that
+ * other nodes drop their local copy. Routes loaded on a lookup miss are only added to Redis where
+ * no entry exists, so they never replace a fresher refresh.
+ *
+ * <p>Without Redis a refresh only reaches this node. The daily day advance runs in a Quartz job, so
+ * under clustered Quartz other nodes would keep routing answers to the previous day for up to the
+ * TTL. Startup therefore fails when Quartz is clustered and the index is not shared.
+ */
+@Component
+public class EpisodeRoutingIndex {
+
+  static final String REDIS_KEY_PREFIX = "orthowatch:route:";
+  public static final String EVICTION_CHANNEL = "orthowatch:route:evict";
+
+  private static final Logger logger = LoggerFactory.getLogger(EpisodeRoutingIndex.class);
+
+  // Cached for numbers that have no active episode; never shared through Redis
+  private static final EpisodeRoute NO_ROUTE = new EpisodeRoute(null, 0, null, null, null);
+
+  private final InboundMessageStore store;
+  private final StringRedisTemplate redisTemplate;
+  private final Cache<String, EpisodeRoute> localCache;
+  private final boolean redisEnabled;
+  private final Duration ttl;
+  private final Counter redisHits;
+  private final Counter databaseLoads;
+
+  public EpisodeRoutingIndex(
+      InboundMessageStore store,
+      StringRedisTemplate redisTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${app.routing.max-size:200000}") long maxSize,
+      @Value("${app.routing.ttl-seconds:3600}") long ttlSeconds,
+      @Value("${app.routing.negative-ttl-seconds:60}") long negativeTtlSeconds,
+      @Value("${app.routing.redis-enabled:false}") boolean redisEnabled,
+      @Value("${spring.quartz.properties.org.quartz.jobStore.isClustered:false}")
+          boolean quartzClustered) {
+    if (quartzClustered && !redisEnabled) {
+      throw new IllegalStateException(
+          "Quartz is clustered but the routing index is local; nodes that did not run the daily"
+              + " checklist advance would route answers to the previous day. Set"
+              + " app.routing.redis-enabled=true.");
+    }
+    this.store = store;
+    this.redisTemplate = redisTemplate;
+    this.redisEnabled = redisEnabled;
+    this.ttl = Duration.ofSeconds(ttlSeconds);
+    this.localCache =
+        Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new RouteExpiry(ttl, Duration.ofSeconds(negativeTtlSeconds)))
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, localCache, "routing");
+    this.redisHits =
+        Counter.builder("orthowatch.routing.lookups")
+            .tag("source", "redis")
+            .register(meterRegistry);
+    this.databaseLoads =
+        Counter.builder("orthowatch.routing.lookups")
+            .tag("source", "database")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Routes for the given numbers, keyed by their E.164 form; numbers without an active episode are
+   * absent from the result.
+   */
+  public Map<String, EpisodeRoute> resolve(Collection<String> numbers) {
+    Map<String, EpisodeRoute> routes = new HashMap<>();
+    List<String> missing = new ArrayList<>();
+    for (String number : normalize(numbers)) {
+      EpisodeRoute cached = localCache.getIfPresent(number);
+      if (cached == null) {
+        missing.add(number);
+      } else if (cached != NO_ROUTE) {
+        routes.put(number, cached);
+      }
+    }
+    if (missing.isEmpty()) {
+      return routes;
+    }
+    if (redisEnabled) {
+      missing = resolveShared(missing, routes);
+      if (missing.isEmpty()) {
+        return routes;
+      }
+    }
+    databaseLoads.increment(missing.size());
+    Map<String, EpisodeRoute> loaded = load(missing);
+    routes.putAll(loaded);
+    if (redisEnabled) {
+      writeShared(loaded, List.of(), false);
+    }
+    return routes;
+  }
+
+  /**
+   * Reloads the routes of the given episodes' numbers once the current transaction commits, or
+   * immediately outside a transaction. Calls within one transaction are reloaded together.
+   */
+  public void refreshEpisodesAfterCommit(Collection<UUID> episodeIds) {
+    if (episodeIds.isEmpty()) {
+      return;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      refreshEpisodes(episodeIds);
+      return;
+    }
+    @SuppressWarnings("unchecked")
+    Set<UUID> pending = (Set<UUID>) TransactionSynchronizationManager.getResource(this);
+    if (pending == null) {
+      Set<UUID> batch = new HashSet<>();
+      TransactionSynchronizationManager.bindResource(this, batch);
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              TransactionSynchronizationManager.unbindResourceIfPossible(EpisodeRoutingIndex.this);
+              if (status == STATUS_COMMITTED) {
+                refreshEpisodes(batch);
+              }
+            }
+          });
+      pending = batch;
+    }
+    pending.addAll(episodeIds);
+  }
+
+  /** Reloads the routes of the given episodes' numbers now, on this node and in Redis. */
+  public void refreshEpisodes(Collection<UUID> episodeIds) {
+    try {
+      refresh(store.phonesOfEpisodes(episodeIds));
+    } catch (DataAccessException e) {
+      // Stale routes still expire with the TTL
+      logger.warn(
+          "Failed to refresh routes for {} episodes: {}", episodeIds.size(), e.getMessage());
+    }
+  }
+
+  /** Reloads the routes of the given numbers now, on this node and in Redis. */
+  public void refresh(Collection<String> numbers) {
+    List<String> normalized = normalize(numbers);
+    if (normalized.isEmpty()) {
+      return;
+    }
+    Map<String, EpisodeRoute> loaded = load(normalized);
+    if (redisEnabled) {
+      List<String> unrouted = normalized.stream().filter(n -> !loaded.containsKey(n)).toList();
+      writeShared(loaded, unrouted, true);
+    }
+  }
+
+  /** Drops the local copy only; invoked for eviction broadcasts received from other nodes. */
+  public void evictLocal(String number) {
+    localCache.invalidate(number);
+  }
+
+  // Loads from the database and caches the result locally, including numbers that have no route
+  private Map<String, EpisodeRoute> load(List<String> numbers) {
+    Map<String, EpisodeRoute> loaded = store.routeBySender(numbers);
+    for (String number : numbers) {
+      localCache.put(number, loaded.getOrDefault(number, NO_ROUTE));
+    }
+    return loaded;
+  }
+
+  private List<String> resolveShared(List<String> numbers, Map<String, EpisodeRoute> routes) {
+    List<String> values;
+    try {
+      values = redisTemplate.opsForValue().multiGet(numbers.stream().map(this::key).toList());
+    } catch (DataAccessException e) {
+      logger.debug(
+          "Shared routing index unavailable, falling back to database: {}", e.getMessage());
+      return numbers;
+    }
+    List<String> missing = new ArrayList<>();
+    for (int i = 0; i < numbers.size(); i++) {
+      String value = values != null ? values.get(i) : null;
+      if (value == null) {
+        missing.add(numbers.get(i));
+        continue;
+      }
+      EpisodeRoute route = decode(value);
+      localCache.put(numbers.get(i), route);
+      routes.put(numbers.get(i), route);
+      redisHits.increment();
+    }
+    return missing;
+  }
+
+  // A read-through fill only adds missing keys: the route it read may already be older than one a
+  // concurrent refresh has written. Refreshes overwrite, delete and broadcast.
+  private void writeShared(
+      Map<String, EpisodeRoute> routes, Collection<String> unrouted, boolean refreshed) {
+    Expiration expiration = Expiration.from(ttl);
+    try {
+      redisTemplate.executePipelined(
+          (RedisCallback<Object>)
+              connection -> {
+                StringRedisConnection strings = (StringRedisConnection) connection;
+                SetOption option = refreshed ? SetOption.upsert() : SetOption.ifAbsent();
+                routes.forEach(
+                    (number, route) -> strings.set(key(number), encode(route), expiration, option));
+                unrouted.forEach(number -> strings.del(key(number)));
+                if (refreshed) {
+                  routes.keySet().forEach(number -> strings.publish(EVICTION_CHANNEL, number));
+                  unrouted.forEach(number -> strings.publish(EVICTION_CHANNEL, number));
+                }
+                return null;
+              });
+    } catch (DataAccessException e) {
+      logger.debug("Failed to share {} routes: {}", routes.size(), e.getMessage());
+    }
+  }
+
+  private String key(String number) {
+    return REDIS_KEY_PREFIX + number;
+  }
+
+  private static List<String> normalize(Collection<String> numbers) {
+    return numbers.stream().map(PhoneNumbers::toE164).filter(Objects::nonNull).distinct().toList();
+  }
+
+  static String encode(EpisodeRoute route) {
+    return route.episodeId()
+        + "|"
+        + route.currentDay()
+        + "|"
+        + route.responderType()
+        + "|"
+        + route.consentStatus()
+        + "|"
+        + route.templateId();
+  }
+
+  static EpisodeRoute decode(String value) {
+    String[] parts = value.split("\\|", 5);
+    return new EpisodeRoute(
+        UUID.fromString(parts[0]),
+        Integer.parseInt(parts[1]),
+        parts[2],
+        parts[3],
+        UUID.fromString(parts[4]));
+  }
+
+  /** Keeps routes for the full TTL and "no active episode" answers for the shorter one. */
+  private record RouteExpiry(Duration ttl, Duration negativeTtl)
+      implements Expiry<String, EpisodeRoute> {
+
+    @Override
+    public long expireAfterCreate(String number, EpisodeRoute route, long currentTime) {
+      return (route == NO_ROUTE ? negativeTtl : ttl).toNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        String number, EpisodeRoute route, long currentTime, long currentDuration) {
+      return expireAfterCreate(number, route, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        String number, EpisodeRoute route, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -0,0 +1,69 @@
+package com.orthowatch.messaging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process provider for development, tests and load runs: accepts every message after an optional
+ * simulated latency, failing a configurable fraction of them with a retryable error. The most
+ * recent messages are kept for inspection.
+ *
+ * <p>Only created in the dev and test profiles, and only when {@code app.messaging.provider=fake}
+ * is set explicitly; anywhere else a real provider must be configured or startup fails.
+ */
+@Component
+@Profile({"dev", "test"})
+@ConditionalOnProperty(name = "app.messaging.provider", havingValue = "fake")
+public class FakeMessagingProvider implements MessagingProvider {
+
+  private static final int RETAINED = 10_000;
+
+  private final long latencyMillis;
+  private final double failureRate;
+  private final ConcurrentLinkedDeque<OutboundMessage> recent = new ConcurrentLinkedDeque<>();
+  private final AtomicLong sentCount = new AtomicLong();
+
+  public FakeMessagingProvider(
+      @Value("${app.messaging.fake.latency-ms:0}") long latencyMillis,
+      @Value("${app.messaging.fake.failure-rate:0.0}") double failureRate) {
+    this.latencyMillis = latencyMillis;
+    this.failureRate = failureRate;
+  }
+
+  @Override
+  public SendResult send(OutboundMessage message) {
+    if (latencyMillis > 0) {
+      try {
+        Thread.sleep(latencyMillis);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return SendResult.retryable("Interrupted");
+      }
+    }
+    if (failureRate > 0 && ThreadLocalRandom.current().nextDouble() < failureRate) {
+      return SendResult.retryable("Simulated provider failure");
+    }
+    recent.addLast(message);
+    if (sentCount.incrementAndGet() > RETAINED) {
+      recent.pollFirst();
+    }
+    return SendResult.sent("fake-" + UUID.randomUUID());
+  }
+
+  /** Messages accepted so far, oldest first (at most the last {@value #RETAINED}). */
+  public List<OutboundMessage> sentMessages() {
+    return new ArrayList<>(recent);
+  }
+
+  public long sentCount() {
+    return sentCount.get();
+  }
+}
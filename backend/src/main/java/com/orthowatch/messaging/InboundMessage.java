@@ -0,0 +1,15 @@
+package com.orthowatch.messaging;
+
+import java.time.Instant;
+
+/**
+ * One message received from a patient or caregiver.
+ *
+ * @param providerMessageId the provider's id for the message, unique per message and repeated when
+ *     the provider redelivers it
+ * @param sender the sender's number in E.164 form
+ * @param sentAt when the sender sent it, by the provider's clock
+ * @param reply the button or list reply id, or the text body for free-text messages
+ */
+public record InboundMessage(
+    String providerMessageId, String sender, Instant sentAt, String reply) {}
@@ -0,0 +1,284 @@
+package com.orthowatch.messaging;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/** Database side of webhook ingest; every method is one statement or one JDBC batch. */
+@Component
+public class InboundMessageStore {
+
+  // A number can belong to several patients' records over time; the newest active episode wins
+  private static final String ROUTE_SQL =
+      """
+      SELECT DISTINCT ON (r.sender) r.sender, e.id, e.current_day, r.responder_type,
+             e.consent_status, e.template_id
+      FROM (
+          SELECT p.id AS patient_id, p.phone_primary AS sender, 'PATIENT' AS responder_type
+          FROM patients p WHERE p.phone_primary = ANY (?)
+          UNION ALL
+          SELECT p.id, p.phone_caregiver, 'CAREGIVER'
+          FROM patients p WHERE p.phone_caregiver = ANY (?)
+      ) r
+      JOIN episodes e ON e.patient_id = r.patient_id AND e.status = 'ACTIVE'
+      ORDER BY r.sender, e.created_at DESC
+      """;
+
+  private static final String PHONES_SQL =
+      "SELECT p.phone_primary, p.phone_caregiver FROM episodes e"
+          + " JOIN patients p ON p.id = e.patient_id WHERE e.id = ANY (?::uuid[])";
+
+  // Records every message in one statement and returns only those not seen before
+  private static final String RECORD_SQL =
+      """
+      INSERT INTO inbound_messages (provider_message_id, sender, episode_id, body, outcome, sent_at)
+      SELECT id, sender, episode_id::uuid, body, outcome, sent_at::timestamptz
+      FROM unnest(?::text[], ?::text[], ?::text[], ?::text[], ?::text[], ?::text[])
+          AS m(id, sender, episode_id, body, outcome, sent_at)
+      ON CONFLICT (provider_message_id) DO NOTHING
+      RETURNING provider_message_id
+      """;
+
+  // Answers only ever fill in or replace fields; a response once COMPLETED stays completed
+  private static final String UPSERT_SQL =
+      "INSERT INTO daily_responses AS d (episode_id, day_number, responder_type, pain_score,"
+          + " swelling_level, fever_level, dvt_symptoms, mobility_achieved, medication_adherence,"
+          + " emergency_override, completion_status, response_started_at, response_completed_at)"
+          + " VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)"
+          + " ON CONFLICT (episode_id, day_number) DO UPDATE SET"
+          + " pain_score = COALESCE(EXCLUDED.pain_score, d.pain_score),"
+          + " swelling_level = COALESCE(EXCLUDED.swelling_level, d.swelling_level),"
+          + " fever_level = COALESCE(EXCLUDED.fever_level, d.fever_level),"
+          + " dvt_symptoms = COALESCE(EXCLUDED.dvt_symptoms, d.dvt_symptoms),"
+          + " mobility_achieved = COALESCE(EXCLUDED.mobility_achieved, d.mobility_achieved),"
+          + " medication_adherence = COALESCE(EXCLUDED.medication_adherence,"
+          + " d.medication_adherence),"
+          + " emergency_override = d.emergency_override OR EXCLUDED.emergency_override,"
+          + " completion_status = CASE WHEN d.completion_status = 'COMPLETED'"
+          + " OR EXCLUDED.completion_status = 'COMPLETED' THEN 'COMPLETED' ELSE 'PARTIAL' END,"
+          + " response_started_at = LEAST(d.response_started_at, EXCLUDED.response_started_at),"
+          + " response_completed_at = COALESCE(d.response_completed_at,"
+          + " EXCLUDED.response_completed_at),"
+          + " updated_at = now()";
+
+  // Moves a pending episode to the patient's decision and, only if it did, completes the consent
+  // log opened at enrollment and audits the decision under the episode's primary surgeon (the
+  // patient has no user account). Data-modifying CTEs run whether or not they are referenced.
+  private static final String CONSENT_SQL =
+      """
+      WITH decided AS (
+          UPDATE episodes
+          SET consent_status = ?, consent_timestamp = ?, updated_at = now()
+          WHERE id = ? AND consent_status = 'PENDING'
+          RETURNING id, primary_surgeon_id, consent_status, consent_timestamp
+      ), logged AS (
+          UPDATE consent_logs c
+          SET status = d.consent_status,
+              granted_at = CASE WHEN d.consent_status = 'GRANTED' THEN d.consent_timestamp END,
+              revoked_at = CASE WHEN d.consent_status = 'GRANTED' THEN NULL
+                                ELSE d.consent_timestamp END
+          FROM decided d
+          WHERE c.episode_id = d.id AND c.consent_type = 'MONITORING'
+      )
+      INSERT INTO clinical_audit_log (user_id, episode_id, action, resource_type, resource_id,
+                                      details, created_at)
+      SELECT d.primary_surgeon_id, d.id, 'RECORD_CONSENT', 'EPISODE', d.id,
+             jsonb_build_object('consentStatus', d.consent_status, 'method', 'WHATSAPP'),
+             d.consent_timestamp
+      FROM decided d
+      """;
+
+  private static final String STAGE_SQL = "INSERT INTO inbound_payloads (payload) VALUES (?)";
+
+  // Oldest pending payloads first; rows claimed by a concurrent batch (another node) are skipped,
+  // and the delete is undone if the claiming transaction rolls back
+  private static final String CLAIM_SQL =
+      """
+      DELETE FROM inbound_payloads
+      WHERE id IN (
+          SELECT id FROM inbound_payloads
+          WHERE failed_at IS NULL
+          ORDER BY id
+          LIMIT ?
+          FOR UPDATE SKIP LOCKED
+      )
+      RETURNING id, payload
+      """;
+
+  private static final String CLAIM_ONE_SQL =
+      "DELETE FROM inbound_payloads WHERE id = ? AND failed_at IS NULL RETURNING id, payload";
+
+  private static final String MARK_FAILED_SQL =
+      "UPDATE inbound_payloads SET failed_at = now() WHERE id = ?";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public InboundMessageStore(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /**
+   * Durably stages a raw webhook payload; one insert, committed on return outside a transaction.
+   */
+  public void stagePayload(byte[] payload) {
+    jdbcTemplate.update(STAGE_SQL, (Object) payload);
+  }
+
+  /**
+   * Removes and returns up to {@code limit} staged payloads, oldest first. Must run in the
+   * transaction that applies them, so that they stay staged if it rolls back.
+   */
+  public List<StagedPayload> claimPayloads(int limit) {
+    List<StagedPayload> payloads =
+        jdbcTemplate.query(
+            CLAIM_SQL,
+            (rs, rowNum) -> new StagedPayload(rs.getLong("id"), rs.getBytes("payload")),
+            limit);
+    payloads.sort(Comparator.comparingLong(StagedPayload::id));
+    return payloads;
+  }
+
+  /** Removes and returns one staged payload, or null if it is gone or failed already. */
+  public StagedPayload claimPayload(long id) {
+    List<StagedPayload> payloads =
+        jdbcTemplate.query(
+            CLAIM_ONE_SQL,
+            (rs, rowNum) -> new StagedPayload(rs.getLong("id"), rs.getBytes("payload")),
+            id);
+    return payloads.isEmpty() ? null : payloads.get(0);
+  }
+
+  /** Keeps a payload that cannot be applied out of later claims, without discarding it. */
+  public void markPayloadFailed(long id) {
+    jdbcTemplate.update(MARK_FAILED_SQL, id);
+  }
+
+  /** Active episode for each of the given numbers that has one, in one query. */
+  public Map<String, EpisodeRoute> routeBySender(Collection<String> senders) {
+    Map<String, EpisodeRoute> routes = new HashMap<>();
+    if (senders.isEmpty()) {
+      return routes;
+    }
+    String[] numbers = senders.toArray(String[]::new);
+    jdbcTemplate.query(
+        ROUTE_SQL,
+        rs -> {
+          routes.put(
+              rs.getString("sender"),
+              new EpisodeRoute(
+                  rs.getObject("id", UUID.class),
+                  rs.getInt("current_day"),
+                  rs.getString("responder_type"),
+                  rs.getString("consent_status"),
+                  rs.getObject("template_id", UUID.class)));
+        },
+        numbers,
+        numbers);
+    return routes;
+  }
+
+  /** Primary and caregiver numbers of the given episodes' patients. */
+  public Set<String> phonesOfEpisodes(Collection<UUID> episodeIds) {
+    Set<String> phones = new HashSet<>();
+    if (episodeIds.isEmpty()) {
+      return phones;
+    }
+    jdbcTemplate.query(
+        PHONES_SQL,
+        rs -> {
+          phones.add(rs.getString("phone_primary"));
+          String caregiver = rs.getString("phone_caregiver");
+          if (caregiver != null) {
+            phones.add(caregiver);
+          }
+        },
+        (Object) episodeIds.stream().map(UUID::toString).toArray(String[]::new));
+    return phones;
+  }
+
+  /**
+   * Records the messages with their ingest outcome and returns the ids of those recorded for the
+   * first time; ids already present are provider redeliveries.
+   */
+  public Set<String> recordNew(
+      List<InboundMessage> messages,
+      Map<String, EpisodeRoute> routes,
+      Map<String, String> outcomes) {
+    int size = messages.size();
+    String[] ids = new String[size];
+    String[] senders = new String[size];
+    String[] episodeIds = new String[size];
+    String[] bodies = new String[size];
+    String[] outcomeValues = new String[size];
+    String[] sentAt = new String[size];
+    for (int i = 0; i < size; i++) {
+      InboundMessage message = messages.get(i);
+      EpisodeRoute route = routes.get(message.sender());
+      ids[i] = message.providerMessageId();
+      senders[i] = message.sender();
+      episodeIds[i] = route != null ? route.episodeId().toString() : null;
+      bodies[i] = message.reply();
+      outcomeValues[i] = outcomes.get(message.providerMessageId());
+      sentAt[i] = message.sentAt().toString();
+    }
+    return new HashSet<>(
+        jdbcTemplate.queryForList(
+            RECORD_SQL, String.class, ids, senders, episodeIds, bodies, outcomeValues, sentAt));
+  }
+
+  /** Writes one upsert per draft, as a single JDBC batch. */
+  public void upsertResponses(Collection<DailyResponseDraft> drafts) {
+    if (drafts.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.batchUpdate(
+        UPSERT_SQL,
+        new ArrayList<>(drafts),
+        drafts.size(),
+        (ps, draft) -> {
+          ps.setObject(1, draft.episodeId());
+          ps.setInt(2, draft.dayNumber());
+          ps.setString(3, draft.responderType());
+          ps.setObject(4, draft.painScore(), Types.INTEGER);
+          ps.setString(5, draft.swellingLevel());
+          ps.setString(6, draft.feverLevel());
+          if (draft.dvtSymptoms() != null) {
+            ps.setArray(7, ps.getConnection().createArrayOf("varchar", draft.dvtSymptoms()));
+          } else {
+            ps.setNull(7, Types.ARRAY);
+          }
+          ps.setObject(8, draft.mobilityAchieved(), Types.BOOLEAN);
+          ps.setString(9, draft.medicationAdherence());
+          ps.setBoolean(10, draft.emergencyOverride());
+          ps.setString(11, draft.isComplete() ? "COMPLETED" : "PARTIAL");
+          ps.setTimestamp(12, Timestamp.from(draft.firstAnswerAt()));
+          ps.setTimestamp(13, draft.isComplete() ? Timestamp.from(draft.completedAt()) : null);
+        });
+  }
+
+  /**
+   * Records consent decisions for episodes whose consent is still pending: the episode, its
+   * monitoring consent log and a {@code RECORD_CONSENT} audit record are written by one statement
+   * per episode, in one JDBC batch. Decisions for episodes no longer pending change nothing.
+   */
+  public void applyConsent(Map<UUID, String> decisions, Instant decidedAt) {
+    if (decisions.isEmpty()) {
+      return;
+    }
+    Timestamp at = Timestamp.from(decidedAt);
+    List<Object[]> rows = new ArrayList<>(decisions.size());
+    decisions.forEach((episodeId, decision) -> rows.add(new Object[] {decision, at, episodeId}));
+    jdbcTemplate.batchUpdate(CONSENT_SQL, rows);
+  }
+}
@@ -0,0 +1,34 @@
+package com.orthowatch.messaging;
+
+/**
+ * The service that actually delivers messages (WhatsApp Business API or similar). Called from the
+ * outbox workers, one message at a time, after rate limiting.
+ */
+public interface MessagingProvider {
+
+  /**
+   * Sends one message. Implementations report failures through the result; an exception is treated
+   * as a retryable failure.
+   */
+  SendResult send(OutboundMessage message);
+
+  /**
+   * @param status SENT, RETRYABLE (e.g. throttled or unavailable) or REJECTED (e.g. invalid number)
+   * @param providerMessageId the provider's id for a sent message
+   * @param error what went wrong, for failures
+   */
+  record SendResult(String status, String providerMessageId, String error) {
+
+    public static SendResult sent(String providerMessageId) {
+      return new SendResult("SENT", providerMessageId, null);
+    }
+
+    public static SendResult retryable(String error) {
+      return new SendResult("RETRYABLE", null, error);
+    }
+
+    public static SendResult rejected(String error) {
+      return new SendResult("REJECTED", null, error);
+    }
+  }
+}
@@ -0,0 +1,42 @@
+package com.orthowatch.messaging;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * A message to send to a patient or caregiver.
+ *
+ * @param episodeId the episode the message belongs to
+ * @param recipient the recipient's phone number
+ * @param messageType DAILY_CHECKLIST, CONSENT_REQUEST or REMINDER
+ * @param dayNumber the monitoring day the message is about; null when not day-specific
+ * @param language the recipient's preferred language code
+ * @param scheduledFor when the message was due
+ */
+public record OutboundMessage(
+    UUID episodeId,
+    String recipient,
+    String messageType,
+    Integer dayNumber,
+    String language,
+    OffsetDateTime scheduledFor) {
+
+  public static OutboundMessage consentRequest(UUID episodeId, String recipient, String language) {
+    return new OutboundMessage(episodeId, recipient, "CONSENT_REQUEST", null, language, null);
+  }
+
+  public static OutboundMessage dailyChecklist(
+      UUID episodeId,
+      String recipient,
+      int dayNumber,
+      String language,
+      OffsetDateTime scheduledFor) {
+    return new OutboundMessage(
+        episodeId, recipient, "DAILY_CHECKLIST", dayNumber, language, scheduledFor);
+  }
+
+  /** Identifies the message for de-duplication: one per type, episode and day. */
+  public String dedupeKey() {
+    return messageType + ":" + episodeId + (dayNumber != null ? ":" + dayNumber : "");
+  }
+}
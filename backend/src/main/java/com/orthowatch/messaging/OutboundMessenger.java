@@ -0,0 +1,13 @@
+package com.orthowatch.messaging;
+
+import java.util.List;
+
+/**
+ * Hands messages to the outbound messaging layer. Called inside the caller's transaction, so an
+ * implementation that records messages for later delivery commits or rolls back with the work that
+ * produced them.
+ */
+public interface OutboundMessenger {
+
+  void send(List<OutboundMessage> messages);
+}
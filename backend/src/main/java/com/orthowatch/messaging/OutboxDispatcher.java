@@ -0,0 +1,351 @@
+package com.orthowatch.messaging;
+
+import com.orthowatch.messaging.MessagingProvider.SendResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Delivers the {@code outbound_messages} outbox through the {@link MessagingProvider}.
+ *
+ * <p>Each worker thread repeatedly claims a batch of due rows (SKIP LOCKED, so workers and nodes
+ * never share a row), sends them one by one within the provider's global and per-number rate
+ * limits, and writes all outcomes back in batched updates. Failed sends are retried with
+ * exponential backoff and full jitter until {@code max-attempts}; a message for a number that was
+ * messaged too recently is put back, without counting an attempt, until its interval has passed.
+ *
+ * <p>Every claim carries a fresh lease token in {@code claimed_by}, and outcomes are written only
+ * where the token still matches: a worker that outlived its lease (the row was claimed again
+ * meanwhile) settles nothing, and the {@code lease_lost} count records the duplicate send.
+ *
+ * <p>Rate limits are enforced per node; with several nodes, configure {@code global-per-second} as
+ * the provider's limit divided by the node count.
+ */
+@Component
+public class OutboxDispatcher {
+
+  private static final Logger logger = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+  // Leases due rows by pushing next_attempt_at past the lease; expired SENDING rows are reclaimed
+  // under a new token
+  private static final String CLAIM_SQL =
+      """
+      UPDATE outbound_messages m
+      SET status = 'SENDING', claimed_by = ?, next_attempt_at = now() + make_interval(secs => ?)
+      FROM (
+          SELECT id FROM outbound_messages
+          WHERE status IN ('PENDING', 'SENDING') AND next_attempt_at <= now()
+          ORDER BY next_attempt_at
+          LIMIT ?
+          FOR UPDATE SKIP LOCKED
+      ) due
+      WHERE m.id = due.id
+      RETURNING m.id, m.episode_id, m.recipient, m.message_type, m.day_number, m.language,
+                m.scheduled_for, m.attempts
+      """;
+
+  // Settles only rows still held under this batch's lease token
+  private static final String MARK_SENT_SQL =
+      "UPDATE outbound_messages SET status = 'SENT', attempts = attempts + 1, sent_at = now(),"
+          + " provider_message_id = ?, last_error = NULL, claimed_by = NULL"
+          + " WHERE id = ? AND claimed_by = ?";
+
+  private static final String RESCHEDULE_SQL =
+      "UPDATE outbound_messages SET status = 'PENDING', attempts = attempts + ?,"
+          + " next_attempt_at = ?, last_error = COALESCE(?, last_error), claimed_by = NULL"
+          + " WHERE id = ? AND claimed_by = ?";
+
+  private static final String MARK_FAILED_SQL =
+      "UPDATE outbound_messages SET status = 'FAILED', attempts = attempts + 1, last_error = ?,"
+          + " claimed_by = NULL WHERE id = ? AND claimed_by = ?";
+
+  private static final String DEPTH_SQL =
+      "SELECT COUNT(*) FROM outbound_messages WHERE status IN ('PENDING', 'SENDING')";
+
+  private final JdbcTemplate jdbcTemplate;
+  private final MessagingProvider provider;
+  private final SendRateLimiter rateLimiter;
+  private final boolean enabled;
+  private final int workers;
+  private final int batchSize;
+  private final long pollIntervalMs;
+  private final int leaseSeconds;
+  private final int maxAttempts;
+  private final Duration backoffBase;
+  private final Duration backoffMax;
+  private final Duration depthRefresh;
+
+  private final AtomicLong queueDepth = new AtomicLong();
+  private final Timer sendLatency;
+  private final Counter sent;
+  private final Counter retried;
+  private final Counter failed;
+  private final Counter leaseLost;
+
+  private final List<Thread> workerThreads = new ArrayList<>();
+  private volatile boolean running;
+  private volatile long depthRefreshedAt;
+
+  public OutboxDispatcher(
+      JdbcTemplate jdbcTemplate,
+      ObjectProvider<MessagingProvider> providers,
+      MeterRegistry meterRegistry,
+      @Value("${app.messaging.outbox.enabled:true}") boolean enabled,
+      @Value("${app.messaging.outbox.workers:2}") int workers,
+      @Value("${app.messaging.outbox.batch-size:50}") int batchSize,
+      @Value("${app.messaging.outbox.poll-interval-ms:500}") long pollIntervalMs,
+      @Value("${app.messaging.outbox.lease-seconds:60}") int leaseSeconds,
+      @Value("${app.messaging.outbox.max-attempts:8}") int maxAttempts,
+      @Value("${app.messaging.outbox.backoff-base-ms:2000}") long backoffBaseMs,
+      @Value("${app.messaging.outbox.backoff-max-ms:600000}") long backoffMaxMs,
+      @Value("${app.messaging.rate-limit.global-per-second:50}") double globalPerSecond,
+      @Value("${app.messaging.rate-limit.per-recipient-interval-ms:1000}")
+          long perRecipientIntervalMs) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.provider =
+        providers.getIfAvailable(
+            () -> {
+              throw new IllegalStateException(
+                  "No MessagingProvider is configured. The fake provider"
+                      + " (app.messaging.provider=fake) is only available in the dev and test"
+                      + " profiles.");
+            });
+    this.rateLimiter =
+        new SendRateLimiter(globalPerSecond, Duration.ofMillis(perRecipientIntervalMs));
+    this.enabled = enabled;
+    this.workers = workers;
+    this.batchSize = batchSize;
+    this.pollIntervalMs = pollIntervalMs;
+    this.leaseSeconds = leaseSeconds;
+    this.maxAttempts = maxAttempts;
+    this.backoffBase = Duration.ofMillis(backoffBaseMs);
+    this.backoffMax = Duration.ofMillis(backoffMaxMs);
+    this.depthRefresh = Duration.ofSeconds(10);
+    Gauge.builder("orthowatch.outbound.queue.depth", queueDepth, AtomicLong::get)
+        .description("Outbox messages waiting to be sent, as of the last refresh")
+        .register(meterRegistry);
+    this.sendLatency =
+        Timer.builder("orthowatch.outbound.send.latency")
+            .description("Time taken by the messaging provider to accept a message")
+            .register(meterRegistry);
+    this.sent =
+        Counter.builder("orthowatch.outbound.messages")
+            .tag("result", "sent")
+            .register(meterRegistry);
+    this.retried =
+        Counter.builder("orthowatch.outbound.messages")
+            .tag("result", "retried")
+            .register(meterRegistry);
+    this.failed =
+        Counter.builder("orthowatch.outbound.messages")
+            .tag("result", "failed")
+            .register(meterRegistry);
+    this.leaseLost =
+        Counter.builder("orthowatch.outbound.messages")
+            .tag("result", "lease_lost")
+            .register(meterRegistry);
+  }
+
+  @PostConstruct
+  void start() {
+    if (!enabled) {
+      return;
+    }
+    running = true;
+    for (int i = 0; i < workers; i++) {
+      Thread worker = new Thread(this::runWorker, "outbox-worker-" + i);
+      worker.setDaemon(true);
+      worker.start();
+      workerThreads.add(worker);
+    }
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    running = false;
+    for (Thread worker : workerThreads) {
+      worker.interrupt();
+    }
+    for (Thread worker : workerThreads) {
+      // Interrupted workers settle the messages they have sent before exiting
+      worker.join(5_000);
+    }
+  }
+
+  private void runWorker() {
+    while (running) {
+      try {
+        refreshQueueDepth();
+        if (processBatch() == 0) {
+          Thread.sleep(pollIntervalMs);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (DataAccessException e) {
+        logger.warn("Outbox worker database error, backing off: {}", e.getMessage());
+        try {
+          Thread.sleep(Math.max(pollIntervalMs, 1_000));
+        } catch (InterruptedException interrupted) {
+          Thread.currentThread().interrupt();
+          return;
+        }
+      }
+    }
+  }
+
+  /**
+   * Claims, sends and settles one batch.
+   *
+   * @return the number of messages claimed
+   */
+  public int processBatch() throws InterruptedException {
+    UUID lease = UUID.randomUUID();
+    List<Claimed> batch = claim(lease);
+    if (batch.isEmpty()) {
+      return 0;
+    }
+    List<Object[]> sentRows = new ArrayList<>();
+    List<Object[]> rescheduledRows = new ArrayList<>();
+    List<Object[]> failedRows = new ArrayList<>();
+    Instant now = Instant.now();
+    int next = 0;
+    try {
+      for (; next < batch.size(); next++) {
+        Claimed claimed = batch.get(next);
+        Duration recipientWait = rateLimiter.tryAcquireRecipient(claimed.message().recipient());
+        if (!recipientWait.isZero()) {
+          rescheduledRows.add(
+              new Object[] {
+                0, Timestamp.from(Instant.now().plus(recipientWait)), null, claimed.id(), lease
+              });
+          continue;
+        }
+        rateLimiter.acquireGlobal();
+        SendResult result = sendTimed(claimed.message());
+        int attempt = claimed.attempts() + 1;
+        if ("SENT".equals(result.status())) {
+          sentRows.add(new Object[] {result.providerMessageId(), claimed.id(), lease});
+          sent.increment();
+        } else if ("RETRYABLE".equals(result.status()) && attempt < maxAttempts) {
+          Instant retryAt = Instant.now().plus(backoff(attempt, backoffBase, backoffMax));
+          rescheduledRows.add(
+              new Object[] {1, Timestamp.from(retryAt), result.error(), claimed.id(), lease});
+          retried.increment();
+        } else {
+          failedRows.add(new Object[] {result.error(), claimed.id(), lease});
+          failed.increment();
+          logger.warn(
+              "Outbound {} for episodeId={} failed after {} attempts: {}",
+              claimed.message().messageType(),
+              claimed.message().episodeId(),
+              attempt,
+              result.error());
+        }
+      }
+    } catch (InterruptedException e) {
+      // Stopping: record what was already sent, or it would be sent again once its lease expires,
+      // and hand the rest of the batch straight back without counting an attempt
+      Timestamp dueNow = Timestamp.from(Instant.now());
+      for (Claimed unsent : batch.subList(next, batch.size())) {
+        rescheduledRows.add(new Object[] {0, dueNow, null, unsent.id(), lease});
+      }
+      throw e;
+    } finally {
+      settle(MARK_SENT_SQL, sentRows);
+      settle(RESCHEDULE_SQL, rescheduledRows);
+      settle(MARK_FAILED_SQL, failedRows);
+    }
+    logger.debug(
+        "Outbox batch of {} settled in {} ms",
+        batch.size(),
+        Duration.between(now, Instant.now()).toMillis());
+    return batch.size();
+  }
+
+  /** Exponential backoff with full jitter: uniform in [0, min(max, base * 2^(attempt-1))]. */
+  static Duration backoff(int attempt, Duration base, Duration max) {
+    long ceiling = base.toMillis() << Math.min(attempt - 1, 30);
+    if (ceiling <= 0 || ceiling > max.toMillis()) {
+      ceiling = max.toMillis();
+    }
+    return Duration.ofMillis(ThreadLocalRandom.current().nextLong(ceiling + 1));
+  }
+
+  private SendResult sendTimed(OutboundMessage message) {
+    Timer.Sample sample = Timer.start();
+    try {
+      return provider.send(message);
+    } catch (RuntimeException e) {
+      return SendResult.retryable(e.getClass().getSimpleName() + ": " + e.getMessage());
+    } finally {
+      sample.stop(sendLatency);
+    }
+  }
+
+  private List<Claimed> claim(UUID lease) {
+    return jdbcTemplate.query(
+        CLAIM_SQL,
+        (rs, rowNum) ->
+            new Claimed(
+                rs.getObject("id", UUID.class),
+                rs.getInt("attempts"),
+                new OutboundMessage(
+                    rs.getObject("episode_id", UUID.class),
+                    rs.getString("recipient"),
+                    rs.getString("message_type"),
+                    (Integer) rs.getObject("day_number"),
+                    rs.getString("language"),
+                    rs.getObject("scheduled_for", OffsetDateTime.class))),
+        lease,
+        leaseSeconds,
+        batchSize);
+  }
+
+  private void settle(String sql, List<Object[]> rows) {
+    if (rows.isEmpty()) {
+      return;
+    }
+    int[] updated = jdbcTemplate.batchUpdate(sql, rows);
+    for (int i = 0; i < updated.length; i++) {
+      if (updated[i] == 0) {
+        // Every settle row ends with (id, lease token)
+        Object[] row = rows.get(i);
+        leaseLost.increment();
+        logger.warn(
+            "Outbox message {} was claimed again before it was settled", row[row.length - 2]);
+      }
+    }
+  }
+
+  private void refreshQueueDepth() {
+    long now = System.currentTimeMillis();
+    if (now - depthRefreshedAt < depthRefresh.toMillis()) {
+      return;
+    }
+    depthRefreshedAt = now;
+    Long depth = jdbcTemplate.queryForObject(DEPTH_SQL, Long.class);
+    queueDepth.set(depth != null ? depth : 0);
+  }
+
+  private record Claimed(UUID id, int attempts, OutboundMessage message) {}
+}
@@ -0,0 +1,57 @@
+package com.orthowatch.messaging;
+
+import com.orthowatch.util.UuidV7;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records messages in the {@code outbound_messages} outbox, as part of the caller's transaction;
+ * {@link OutboxDispatcher} delivers them once committed. Messages already in the outbox (same
+ * {@link OutboundMessage#dedupeKey()}) are ignored.
+ */
+@Component
+public class OutboxMessenger implements OutboundMessenger {
+
+  private static final String INSERT_SQL =
+      "INSERT INTO outbound_messages (id, episode_id, recipient, message_type, day_number,"
+          + " language, dedupe_key, scheduled_for) VALUES (?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT"
+          + " (dedupe_key) DO NOTHING";
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public OutboxMessenger(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  @Override
+  public void send(List<OutboundMessage> messages) {
+    if (messages.isEmpty()) {
+      return;
+    }
+    jdbcTemplate.batchUpdate(
+        INSERT_SQL,
+        messages,
+        messages.size(),
+        (ps, message) -> {
+          ps.setObject(1, UuidV7.randomUuid());
+          ps.setObject(2, message.episodeId());
+          ps.setString(3, message.recipient());
+          ps.setString(4, message.messageType());
+          if (message.dayNumber() != null) {
+            ps.setInt(5, message.dayNumber());
+          } else {
+            ps.setNull(5, Types.INTEGER);
+          }
+          ps.setString(6, message.language() != null ? message.language() : "en");
+          ps.setString(7, message.dedupeKey());
+          ps.setTimestamp(
+              8,
+              message.scheduledFor() != null
+                  ? Timestamp.from(message.scheduledFor().toInstant())
+                  : null);
+        });
+  }
+}
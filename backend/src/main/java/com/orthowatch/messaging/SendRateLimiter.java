@@ -0,0 +1,76 @@
+package com.orthowatch.messaging;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Provider rate limits for one node: a global send rate, spread evenly (one slot every {@code
+ * 1/rate} seconds), and a minimum interval between two messages to the same number.
+ */
+class SendRateLimiter {
+
+  private final long globalIntervalNanos;
+  private final long recipientIntervalNanos;
+  private final LongSupplier nanoClock;
+  private final Cache<String, Long> lastSendByRecipient;
+  private long nextGlobalSlot;
+
+  SendRateLimiter(double globalPerSecond, Duration recipientInterval) {
+    this(globalPerSecond, recipientInterval, System::nanoTime);
+  }
+
+  SendRateLimiter(double globalPerSecond, Duration recipientInterval, LongSupplier nanoClock) {
+    this.globalIntervalNanos = globalPerSecond > 0 ? (long) (1_000_000_000L / globalPerSecond) : 0;
+    this.recipientIntervalNanos = recipientInterval.toNanos();
+    this.nanoClock = nanoClock;
+    this.nextGlobalSlot = nanoClock.getAsLong();
+    this.lastSendByRecipient =
+        Caffeine.newBuilder().expireAfterWrite(recipientInterval.plusSeconds(1)).build();
+  }
+
+  /**
+   * Claims the recipient's next send if its interval has passed.
+   *
+   * @return zero if the message may go now, otherwise how long until it may
+   */
+  Duration tryAcquireRecipient(String recipient) {
+    long now = nanoClock.getAsLong();
+    long[] wait = {0};
+    lastSendByRecipient
+        .asMap()
+        .compute(
+            recipient,
+            (key, last) -> {
+              if (last != null && now - last < recipientIntervalNanos) {
+                wait[0] = recipientIntervalNanos - (now - last);
+                return last;
+              }
+              return now;
+            });
+    return Duration.ofNanos(wait[0]);
+  }
+
+  /** Reserves the next global slot and returns how long the caller must wait for it. */
+  Duration reserveGlobal() {
+    if (globalIntervalNanos == 0) {
+      return Duration.ZERO;
+    }
+    long now = nanoClock.getAsLong();
+    long slot;
+    synchronized (this) {
+      slot = Math.max(nextGlobalSlot, now);
+      nextGlobalSlot = slot + globalIntervalNanos;
+    }
+    return Duration.ofNanos(slot - now);
+  }
+
+  /** Blocks until a global slot is available. */
+  void acquireGlobal() throws InterruptedException {
+    Duration wait = reserveGlobal();
+    if (!wait.isZero()) {
+      Thread.sleep(wait.toMillis(), (int) (wait.toNanos() % 1_000_000));
+    }
+  }
+}
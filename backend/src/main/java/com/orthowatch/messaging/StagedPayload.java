@@ -0,0 +1,9 @@
+package com.orthowatch.messaging;
+
+/**
+ * A webhook delivery as written to {@code inbound_payloads} before it was acknowledged.
+ *
+ * @param id the staging row id, increasing in arrival order
+ * @param payload the raw request body
+ */
+public record StagedPayload(long id, byte[] payload) {}
@@ -0,0 +1,357 @@
+package com.orthowatch.messaging;
+
+import com.orthowatch.dto.DashboardEvent;
+import com.orthowatch.service.DashboardEventBroker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Takes raw WhatsApp webhook payloads off the request thread and applies them in batches.
+ *
+ * <p>{@link #accept} only stages the payload in {@code inbound_payloads} (one insert), so the
+ * provider is acknowledged once the delivery is durable but before any of it is applied. When the
+ * insert fails, or this node already has {@code max-backlog} payloads staged and not yet applied,
+ * it returns false and the webhook answers 503, which makes the provider redeliver later. A
+ * background thread, woken by every accepted payload, claims up to {@code batch-size} staged
+ * payloads at a time and, in the same transaction:
+ *
+ * <ol>
+ *   <li>routes every sender number to its active episode through the {@link EpisodeRoutingIndex},
+ *       usually without touching the database;
+ *   <li>records every message in {@code inbound_messages}, keeping only ids not seen before, so
+ *       provider redeliveries are applied once (one statement);
+ *   <li>hands the answers to the {@link ConversationEngine}, which writes a day's responses only
+ *       when its checklist conversation ends (one JDBC batch for every conversation that did).
+ * </ol>
+ *
+ * A payload leaves {@code inbound_payloads} only when the transaction that applied it commits, so
+ * an acknowledged delivery is not lost to a crash: it is applied by the next batch on any node,
+ * including the first one after a restart. A payload that fails to apply on its own is marked
+ * failed and kept in the table. Conversations kept in memory rather than Redis are still lost to a
+ * crash, but their answers remain in {@code inbound_messages}.
+ */
+@Component
+public class WebhookIngestor {
+
+  private static final Logger logger = LoggerFactory.getLogger(WebhookIngestor.class);
+  private static final long RETRY_BACKOFF_MS = 1_000;
+  private static final int MAX_DAY_NUMBER = 30;
+
+  private final WhatsAppWebhookParser parser;
+  private final InboundMessageStore store;
+  private final EpisodeRoutingIndex routingIndex;
+  private final ConversationEngine conversationEngine;
+  private final DashboardEventBroker eventBroker;
+  private final TransactionTemplate transactionTemplate;
+  private final Semaphore wakeUp = new Semaphore(0);
+  private final AtomicInteger backlog = new AtomicInteger();
+  private final int maxBacklog;
+  private final int batchSize;
+  private final long pollIntervalMs;
+  private final long shutdownTimeoutMs;
+  private final Counter accepted;
+  private final Counter rejected;
+  private final Counter malformed;
+  private final Counter failed;
+  private final Counter duplicates;
+  private final MeterRegistry meterRegistry;
+  private final Timer batchTimer;
+
+  private volatile boolean running;
+  private Thread ingestThread;
+
+  public WebhookIngestor(
+      WhatsAppWebhookParser parser,
+      InboundMessageStore store,
+      EpisodeRoutingIndex routingIndex,
+      ConversationEngine conversationEngine,
+      DashboardEventBroker eventBroker,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry,
+      @Value("${app.webhook.max-backlog:10000}") int maxBacklog,
+      @Value("${app.webhook.batch-size:500}") int batchSize,
+      @Value("${app.webhook.poll-interval-ms:50}") long pollIntervalMs,
+      @Value("${app.webhook.shutdown-timeout-seconds:10}") long shutdownTimeoutSeconds) {
+    this.parser = parser;
+    this.store = store;
+    this.routingIndex = routingIndex;
+    this.conversationEngine = conversationEngine;
+    this.eventBroker = eventBroker;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.maxBacklog = maxBacklog;
+    this.batchSize = batchSize;
+    this.pollIntervalMs = pollIntervalMs;
+    this.shutdownTimeoutMs = TimeUnit.SECONDS.toMillis(shutdownTimeoutSeconds);
+    this.meterRegistry = meterRegistry;
+    Gauge.builder("orthowatch.webhook.backlog", backlog, AtomicInteger::get)
+        .register(meterRegistry);
+    this.accepted =
+        Counter.builder("orthowatch.webhook.payloads")
+            .tag("result", "accepted")
+            .register(meterRegistry);
+    this.rejected =
+        Counter.builder("orthowatch.webhook.payloads")
+            .tag("result", "rejected")
+            .register(meterRegistry);
+    this.malformed =
+        Counter.builder("orthowatch.webhook.payloads")
+            .tag("result", "malformed")
+            .register(meterRegistry);
+    this.failed =
+        Counter.builder("orthowatch.webhook.payloads")
+            .tag("result", "failed")
+            .register(meterRegistry);
+    this.duplicates = messageCounter("DUPLICATE");
+    this.batchTimer = Timer.builder("orthowatch.webhook.batch").register(meterRegistry);
+  }
+
+  @PostConstruct
+  void start() {
+    running = true;
+    // Picks up payloads staged but not applied before the last shutdown or crash
+    wakeUp.release();
+    ingestThread = new Thread(this::runIngest, "webhook-ingest");
+    ingestThread.setDaemon(true);
+    ingestThread.start();
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    running = false;
+    wakeUp.release();
+    ingestThread.join(shutdownTimeoutMs);
+    if (backlog.get() > 0) {
+      logger.info(
+          "Webhook ingest stopped with {} payloads staged for the next start", backlog.get());
+    }
+  }
+
+  /**
+   * Stages a webhook payload for ingest; when this returns true the payload is durable.
+   *
+   * @return false if the backlog is full or the payload could not be stored, and was not taken
+   */
+  public boolean accept(byte[] payload) {
+    if (backlog.get() >= maxBacklog) {
+      rejected.increment();
+      return false;
+    }
+    try {
+      store.stagePayload(payload);
+    } catch (DataAccessException e) {
+      logger.warn("Could not stage webhook payload: {}", e.getMessage());
+      rejected.increment();
+      return false;
+    }
+    backlog.incrementAndGet();
+    accepted.increment();
+    wakeUp.release();
+    return true;
+  }
+
+  private void runIngest() {
+    while (running) {
+      try {
+        drainOnce(pollIntervalMs);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException e) {
+        logger.error("Webhook ingest iteration failed", e);
+      }
+    }
+  }
+
+  /**
+   * Waits up to {@code waitMs} for a payload to be accepted, then ingests staged payloads batch by
+   * batch until none are left.
+   */
+  void drainOnce(long waitMs) throws InterruptedException {
+    if (!wakeUp.tryAcquire(waitMs, TimeUnit.MILLISECONDS)) {
+      return;
+    }
+    wakeUp.drainPermits();
+    int stagedBefore = backlog.get();
+    int claimed = 0;
+    int count;
+    do {
+      count = ingestBatch();
+      claimed += count;
+    } while (count == batchSize);
+    // Everything this node staged before the drain has now been applied, here or by another node
+    int appliedElsewhere = stagedBefore - claimed;
+    if (appliedElsewhere > 0) {
+      applied(appliedElsewhere);
+    }
+  }
+
+  /** Claims and applies one batch of staged payloads; returns how many were claimed. */
+  private int ingestBatch() throws InterruptedException {
+    List<Long> claimed = new ArrayList<>(batchSize);
+    while (true) {
+      claimed.clear();
+      try {
+        Integer count =
+            batchTimer.record(
+                () ->
+                    transactionTemplate.execute(
+                        status -> {
+                          List<StagedPayload> payloads = store.claimPayloads(batchSize);
+                          payloads.forEach(payload -> claimed.add(payload.id()));
+                          applyPayloads(payloads);
+                          return payloads.size();
+                        }));
+        applied(count);
+        return count;
+      } catch (TransientDataAccessException | DataAccessResourceFailureException e) {
+        logger.warn(
+            "Webhook batch of {} payloads failed transiently, retrying: {}",
+            claimed.size(),
+            e.getMessage());
+        Thread.sleep(RETRY_BACKOFF_MS);
+      } catch (DataAccessException e) {
+        applyOneByOne(claimed);
+        return claimed.size();
+      }
+    }
+  }
+
+  // Isolates the payload that made the batch fail; the others are still applied
+  private void applyOneByOne(List<Long> ids) {
+    for (long id : ids) {
+      try {
+        transactionTemplate.executeWithoutResult(
+            status -> {
+              StagedPayload payload = store.claimPayload(id);
+              if (payload != null) {
+                applyPayloads(List.of(payload));
+              }
+            });
+        applied(1);
+      } catch (DataAccessException e) {
+        logger.error("Failed to ingest staged webhook payload {}: {}", id, e.getMessage());
+        failed.increment();
+        store.markPayloadFailed(id);
+        applied(1);
+      }
+    }
+  }
+
+  private void applied(int count) {
+    backlog.updateAndGet(staged -> Math.max(0, staged - count));
+  }
+
+  private void applyPayloads(List<StagedPayload> payloads) {
+    List<InboundMessage> messages = new ArrayList<>();
+    for (StagedPayload payload : payloads) {
+      try {
+        messages.addAll(parser.parse(payload.payload()));
+      } catch (IllegalArgumentException e) {
+        malformed.increment();
+        logger.warn("Dropping malformed webhook payload {}: {}", payload.id(), e.getMessage());
+      }
+    }
+    if (!messages.isEmpty()) {
+      apply(messages);
+    }
+  }
+
+  /** Routes, de-duplicates and applies one batch of messages; runs inside a transaction. */
+  void apply(List<InboundMessage> batch) {
+    Map<String, InboundMessage> byId = new LinkedHashMap<>();
+    for (InboundMessage message : batch) {
+      byId.putIfAbsent(message.providerMessageId(), message);
+    }
+    List<InboundMessage> messages = new ArrayList<>(byId.values());
+    messages.sort(Comparator.comparing(InboundMessage::sentAt));
+
+    Map<String, EpisodeRoute> routes =
+        routingIndex.resolve(messages.stream().map(InboundMessage::sender).distinct().toList());
+    Map<String, ChecklistAnswer> answers = new HashMap<>();
+    Map<String, String> outcomes = new HashMap<>();
+    for (InboundMessage message : messages) {
+      EpisodeRoute route = routes.get(message.sender());
+      ChecklistAnswer answer = ChecklistAnswer.parse(message.reply());
+      String outcome;
+      if (route == null) {
+        outcome = "UNROUTED";
+      } else if (answer == null) {
+        outcome = "UNPARSED";
+      } else if (!"consent".equals(answer.field())
+          && (!"GRANTED".equals(route.consentStatus())
+              || route.currentDay() < 1
+              || route.currentDay() > MAX_DAY_NUMBER)) {
+        outcome = "IGNORED";
+      } else {
+        outcome = "APPLIED";
+        answers.put(message.providerMessageId(), answer);
+      }
+      outcomes.put(message.providerMessageId(), outcome);
+    }
+
+    Set<String> fresh = store.recordNew(messages, routes, outcomes);
+    duplicates.increment(messages.size() - fresh.size());
+
+    List<ConversationTurn> turns = new ArrayList<>();
+    Map<UUID, String> consentDecisions = new HashMap<>();
+    for (InboundMessage message : messages) {
+      if (!fresh.contains(message.providerMessageId())) {
+        continue;
+      }
+      String outcome = outcomes.get(message.providerMessageId());
+      messageCounter(outcome).increment();
+      ChecklistAnswer answer = answers.get(message.providerMessageId());
+      if (answer == null) {
+        continue;
+      }
+      EpisodeRoute route = routes.get(message.sender());
+      if ("consent".equals(answer.field())) {
+        consentDecisions.put(route.episodeId(), answer.value());
+      } else {
+        turns.add(new ConversationTurn(route, answer, message.sentAt()));
+      }
+    }
+    conversationEngine.record(turns);
+    store.applyConsent(consentDecisions, Instant.now());
+    routingIndex.refreshEpisodesAfterCommit(consentDecisions.keySet());
+    consentDecisions.forEach(
+        (episodeId, decision) ->
+            eventBroker.publishToCareTeamAfterCommit(
+                DashboardEvent.builder()
+                    .type(DashboardEvent.CONSENT)
+                    .episodeId(episodeId)
+                    .consentStatus(decision)
+                    .build()));
+  }
+
+  private Counter messageCounter(String outcome) {
+    return Counter.builder("orthowatch.webhook.messages")
+        .tag("outcome", outcome)
+        .register(meterRegistry);
+  }
+}
@@ -0,0 +1,71 @@
+package com.orthowatch.messaging;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orthowatch.util.PhoneNumbers;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.stereotype.Component;
+
+/**
+ * Extracts patient messages from WhatsApp Cloud API webhook payloads ({@code entry[].changes[]
+ * .value.messages[]}). Delivery status callbacks and unsupported message types are skipped.
+ */
+@Component
+public class WhatsAppWebhookParser {
+
+  private final ObjectMapper objectMapper;
+
+  public WhatsAppWebhookParser(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+  }
+
+  /**
+   * @throws IllegalArgumentException if the payload is not JSON
+   */
+  public List<InboundMessage> parse(byte[] payload) {
+    JsonNode root;
+    try {
+      root = objectMapper.readTree(payload);
+    } catch (IOException e) {
+      throw new IllegalArgumentException("Webhook payload is not valid JSON", e);
+    }
+    List<InboundMessage> messages = new ArrayList<>();
+    for (JsonNode entry : root.path("entry")) {
+      for (JsonNode change : entry.path("changes")) {
+        for (JsonNode message : change.path("value").path("messages")) {
+          String reply = replyOf(message);
+          String id = message.path("id").asText(null);
+          String from = message.path("from").asText(null);
+          if (reply != null && id != null && from != null) {
+            messages.add(
+                new InboundMessage(
+                    id,
+                    PhoneNumbers.toE164(from),
+                    Instant.ofEpochSecond(message.path("timestamp").asLong()),
+                    reply.trim()));
+          }
+        }
+      }
+    }
+    return messages;
+  }
+
+  private static String replyOf(JsonNode message) {
+    return switch (message.path("type").asText()) {
+      case "text" -> message.path("text").path("body").asText(null);
+      case "button" -> message.path("button").path("payload").asText(null);
+      case "interactive" -> {
+        JsonNode interactive = message.path("interactive");
+        JsonNode reply =
+            interactive.has("button_reply")
+                ? interactive.path("button_reply")
+                : interactive.path("list_reply");
+        yield reply.path("id").asText(null);
+      }
+      default -> null;
+    };
+  }
+}
@@ -0,0 +1,88 @@
+package com.orthowatch.messaging;
+
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Checks that webhook calls come from the provider: POSTs carry an {@code X-Hub-Signature-256} HMAC
+ * of the body keyed with the app secret, and the one-off subscription handshake echoes the
+ * configured verify token. With no app secret configured every POST is rejected, unless {@code
+ * app.webhook.whatsapp.allow-unsigned} is set for local development, when signatures are not
+ * checked.
+ */
+@Component
+public class WhatsAppWebhookVerifier {
+
+  private static final Logger logger = LoggerFactory.getLogger(WhatsAppWebhookVerifier.class);
+
+  private static final String SIGNATURE_PREFIX = "sha256=";
+
+  private final SecretKeySpec key;
+  private final String verifyToken;
+  private final boolean allowUnsigned;
+
+  // Mac instances are not thread-safe; one per request thread avoids re-initialising per call
+  private final ThreadLocal<Mac> mac;
+
+  public WhatsAppWebhookVerifier(
+      @Value("${app.webhook.whatsapp.app-secret:}") String appSecret,
+      @Value("${app.webhook.whatsapp.verify-token:}") String verifyToken,
+      @Value("${app.webhook.whatsapp.allow-unsigned:false}") boolean allowUnsigned) {
+    this.key =
+        appSecret.isEmpty()
+            ? null
+            : new SecretKeySpec(appSecret.getBytes(StandardCharsets.UTF_8), "HmacSHA256");
+    this.verifyToken = verifyToken;
+    this.allowUnsigned = allowUnsigned;
+    if (key == null) {
+      logger.warn(
+          allowUnsigned
+              ? "No WhatsApp app secret configured; accepting unsigned webhook deliveries"
+              : "No WhatsApp app secret configured; rejecting all webhook deliveries");
+    }
+    this.mac = ThreadLocal.withInitial(this::newMac);
+  }
+
+  public boolean isSignatureValid(byte[] body, String signatureHeader) {
+    if (key == null) {
+      return allowUnsigned;
+    }
+    if (signatureHeader == null || !signatureHeader.startsWith(SIGNATURE_PREFIX)) {
+      return false;
+    }
+    byte[] expected = mac.get().doFinal(body);
+    byte[] actual;
+    try {
+      actual = HexFormat.of().parseHex(signatureHeader.substring(SIGNATURE_PREFIX.length()));
+    } catch (IllegalArgumentException e) {
+      return false;
+    }
+    return MessageDigest.isEqual(expected, actual);
+  }
+
+  public boolean isVerifyTokenValid(String token) {
+    return !verifyToken.isEmpty()
+        && token != null
+        && MessageDigest.isEqual(
+            verifyToken.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private Mac newMac() {
+    try {
+      Mac instance = Mac.getInstance("HmacSHA256");
+      instance.init(key);
+      return instance;
+    } catch (NoSuchAlgorithmException | InvalidKeyException e) {
+      throw new IllegalStateException("HmacSHA256 not available", e);
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.orthowatch.model;
 
+import com.orthowatch.service.AlertChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import java.time.OffsetDateTime;
@@ -16,11 +17,11 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 @AllArgsConstructor
 @Entity
 @Table(name = "alerts")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, AlertChangeListener.class})
 public class Alert {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.UUID)
+  @TimeOrderedUuid
   private UUID id;
 
   @NotNull
@@ -38,6 +39,9 @@ public class Alert {
   @Column(nullable = false)
   private String severity; // LOW, MEDIUM, HIGH, CRITICAL
 
+  @Column(name = "day_number")
+  private Integer dayNumber; // NON_RESPONSE only: the unanswered monitoring day
+
   @NotNull
   @ManyToOne(fetch = FetchType.LAZY)
   @JoinColumn(name = "assigned_to", nullable = false)
@@ -0,0 +1,52 @@
+package com.orthowatch.model;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import lombok.*;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "batch_checkpoints")
+@EntityListeners(AuditingEntityListener.class)
+public class BatchCheckpoint {
+
+  @Id private String id; // jobName:runKey
+
+  @Column(name = "job_name", nullable = false)
+  private String jobName;
+
+  @Column(name = "run_key", nullable = false)
+  private String runKey;
+
+  @Column(nullable = false)
+  private String status; // RUNNING, COMPLETED, FAILED
+
+  // Last key of the last committed chunk; the run resumes after it
+  @Column(name = "last_key")
+  private UUID lastKey;
+
+  @Column(name = "items_processed", nullable = false)
+  private long itemsProcessed;
+
+  @Column(name = "records_written", nullable = false)
+  private long recordsWritten;
+
+  @Column(name = "alerts_written", nullable = false)
+  private long alertsWritten;
+
+  @Column(name = "started_at", nullable = false, updatable = false)
+  private OffsetDateTime startedAt;
+
+  @LastModifiedDate
+  @Column(name = "updated_at", nullable = false)
+  private OffsetDateTime updatedAt;
+
+  @Column(name = "completed_at")
+  private OffsetDateTime completedAt;
+}
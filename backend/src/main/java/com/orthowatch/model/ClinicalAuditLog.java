@@ -20,7 +20,7 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 public class ClinicalAuditLog {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.UUID)
+  @TimeOrderedUuid
   private UUID id;
 
   @ManyToOne(fetch = FetchType.LAZY)
@@ -1,5 +1,6 @@
 package com.orthowatch.model;
 
+import com.orthowatch.service.EpisodeChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import java.time.LocalDate;
@@ -18,11 +19,11 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 @AllArgsConstructor
 @Entity
 @Table(name = "episodes")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, EpisodeChangeListener.class})
 public class Episode {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.UUID)
+  @TimeOrderedUuid
   private UUID id;
 
   @NotNull
@@ -86,6 +87,10 @@ public class Episode {
   @Column(nullable = false)
   private String timezone = "Asia/Kolkata";
 
+  // When the next daily checklist is due (UTC); null once monitoring has ended
+  @Column(name = "next_checklist_at")
+  private OffsetDateTime nextChecklistAt;
+
   @CreatedDate
   @Column(name = "created_at", nullable = false, updatable = false)
   private OffsetDateTime createdAt;
@@ -0,0 +1,64 @@
+package com.orthowatch.model;
+
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+import java.util.UUID;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "episode_risk_trends")
+@EntityListeners(AuditingEntityListener.class)
+public class EpisodeRiskTrend implements Persistable<UUID> {
+
+  @Id
+  @Column(name = "episode_id")
+  private UUID episodeId;
+
+  @JdbcTypeCode(SqlTypes.ARRAY)
+  @Column(name = "recent_days", columnDefinition = "integer[]", nullable = false)
+  private int[] recentDays;
+
+  @JdbcTypeCode(SqlTypes.ARRAY)
+  @Column(name = "recent_scores", columnDefinition = "integer[]", nullable = false)
+  private int[] recentScores;
+
+  @Column(nullable = false)
+  private double ewma;
+
+  @Column(name = "prior_ewma", nullable = false)
+  private double priorEwma;
+
+  @Column(nullable = false)
+  private double slope;
+
+  @Column(name = "sample_count", nullable = false)
+  private int sampleCount;
+
+  @LastModifiedDate
+  @Column(name = "updated_at", nullable = false)
+  private OffsetDateTime updatedAt;
+
+  // The id is the episode's, so Spring Data cannot tell new rows apart; set on rows being created
+  // so saveAll inserts them without a lookup
+  @Transient private boolean isNew;
+
+  @Override
+  public UUID getId() {
+    return episodeId;
+  }
+
+  @PostLoad
+  @PostPersist
+  void markNotNew() {
+    isNew = false;
+  }
+}
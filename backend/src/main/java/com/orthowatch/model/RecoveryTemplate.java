@@ -1,5 +1,6 @@
 package com.orthowatch.model;
 
+import com.orthowatch.service.RecoveryTemplateChangeListener;
 import io.hypersistence.utils.hibernate.type.json.JsonType;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.type.SqlTypes;
@@ -22,11 +23,11 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 @AllArgsConstructor
 @Entity
 @Table(name = "recovery_templates")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, RecoveryTemplateChangeListener.class})
 public class RecoveryTemplate {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.UUID)
+  @TimeOrderedUuid
   private UUID id;
 
   @NotNull
@@ -1,5 +1,6 @@
 package com.orthowatch.model;
 
+import com.orthowatch.service.RiskScoreChangeListener;
 import io.hypersistence.utils.hibernate.type.json.JsonType;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
@@ -17,11 +18,11 @@ import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 @AllArgsConstructor
 @Entity
 @Table(name = "risk_scores")
-@EntityListeners(AuditingEntityListener.class)
+@EntityListeners({AuditingEntityListener.class, RiskScoreChangeListener.class})
 public class RiskScore {
 
   @Id
-  @GeneratedValue(strategy = GenerationType.UUID)
+  @TimeOrderedUuid
   private UUID id;
 
   @NotNull
@@ -44,13 +45,10 @@ public class RiskScore {
 
   private String trajectory; // IMPROVING, STABLE, WORSENING
 
+  // Content hash of the rule set used; the full rules are stored once in rule_set_versions
   @Column(name = "rule_version_id", nullable = false)
   private String ruleVersionId;
 
-  @Type(JsonType.class)
-  @Column(name = "rule_set_snapshot", columnDefinition = "jsonb", nullable = false)
-  private Map<String, Object> ruleSetSnapshot;
-
   @Builder.Default
   @Column(name = "calculated_at", nullable = false)
   private OffsetDateTime calculatedAt = OffsetDateTime.now();
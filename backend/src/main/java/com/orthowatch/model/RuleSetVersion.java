@@ -0,0 +1,34 @@
+package com.orthowatch.model;
+
+import io.hypersistence.utils.hibernate.type.json.JsonType;
+import jakarta.persistence.*;
+import java.time.OffsetDateTime;
+import java.util.Map;
+import lombok.*;
+import org.hibernate.annotations.Type;
+
+/**
+ * Immutable snapshot of an active rule set, keyed by its content hash (see {@link
+ * com.orthowatch.risk.CompiledRuleSet#versionOf}). Written once per distinct rule set and
+ * referenced by {@link RiskScore#getRuleVersionId()}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "rule_set_versions")
+public class RuleSetVersion {
+
+  @Id private String id;
+
+  @Type(JsonType.class)
+  @Column(columnDefinition = "jsonb", nullable = false, updatable = false)
+  private Map<String, Object> snapshot;
+
+  @Column(name = "rule_count", nullable = false, updatable = false)
+  private int ruleCount;
+
+  @Column(name = "created_at", nullable = false, updatable = false, insertable = false)
+  private OffsetDateTime createdAt;
+}
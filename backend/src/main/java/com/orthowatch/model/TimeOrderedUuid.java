@@ -0,0 +1,19 @@
+package com.orthowatch.model;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Generates entity IDs as time-ordered (version 7) UUIDs; see {@link com.orthowatch.util.UuidV7}.
+ * Use in place of {@code @GeneratedValue(strategy = GenerationType.UUID)}, which produces random
+ * version 4 UUIDs.
+ */
+@IdGeneratorType(TimeOrderedUuidGenerator.class)
+@Retention(RUNTIME)
+@Target({FIELD, METHOD})
+public @interface TimeOrderedUuid {}
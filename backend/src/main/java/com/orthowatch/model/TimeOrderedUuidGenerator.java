@@ -0,0 +1,26 @@
+package com.orthowatch.model;
+
+import com.orthowatch.util.UuidV7;
+import java.util.EnumSet;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+
+/** Hibernate generator behind {@link TimeOrderedUuid}. */
+public class TimeOrderedUuidGenerator implements BeforeExecutionGenerator {
+
+  @Override
+  public Object generate(
+      SharedSessionContractImplementor session,
+      Object owner,
+      Object currentValue,
+      EventType eventType) {
+    return UuidV7.randomUuid();
+  }
+
+  @Override
+  public EnumSet<EventType> getEventTypes() {
+    return EventTypeSets.INSERT_ONLY;
+  }
+}
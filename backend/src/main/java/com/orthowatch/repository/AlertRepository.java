@@ -1,12 +1,52 @@
 package com.orthowatch.repository;
 
 import com.orthowatch.model.Alert;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 public interface AlertRepository extends JpaRepository<Alert, UUID> {
   List<Alert> findByAssignedToIdAndStatus(UUID assignedToId, String status);
 
   List<Alert> findByEpisodeId(UUID episodeId);
+
+  boolean existsByEpisodeIdAndAlertType(UUID episodeId, String alertType);
+
+  /**
+   * Creates a CONSENT_TIMEOUT alert, assigned to the primary surgeon, for every episode whose
+   * consent has been pending since before {@code cutoff}. Runs as a single INSERT ... SELECT that
+   * walks the partial index on pending episodes; the unique partial index on CONSENT_TIMEOUT alerts
+   * makes reruns and races with the per-episode job no-ops.
+   *
+   * @return the alerts created
+   */
+  @Transactional
+  @Query(
+      value =
+          """
+          INSERT INTO alerts (episode_id, alert_type, severity, assigned_to, status)
+          SELECT e.id, 'CONSENT_TIMEOUT', 'MEDIUM', e.primary_surgeon_id, 'PENDING'
+          FROM episodes e
+          WHERE e.consent_status = 'PENDING'
+            AND e.created_at < :cutoff
+            AND NOT EXISTS (
+              SELECT 1 FROM alerts a
+              WHERE a.episode_id = e.id AND a.alert_type = 'CONSENT_TIMEOUT')
+          ON CONFLICT (episode_id) WHERE alert_type = 'CONSENT_TIMEOUT' DO NOTHING
+          RETURNING id AS "id", episode_id AS "episodeId", assigned_to AS "assignedTo"
+          """,
+      nativeQuery = true)
+  List<RaisedAlert> insertConsentTimeoutAlerts(@Param("cutoff") OffsetDateTime cutoff);
+
+  interface RaisedAlert {
+    UUID getId();
+
+    UUID getEpisodeId();
+
+    UUID getAssignedTo();
+  }
 }
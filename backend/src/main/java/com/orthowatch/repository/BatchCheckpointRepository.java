@@ -0,0 +1,6 @@
+package com.orthowatch.repository;
+
+import com.orthowatch.model.BatchCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BatchCheckpointRepository extends JpaRepository<BatchCheckpoint, String> {}
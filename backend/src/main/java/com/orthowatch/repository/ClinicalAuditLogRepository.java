@@ -1,12 +1,32 @@
 package com.orthowatch.repository;
 
 import com.orthowatch.model.ClinicalAuditLog;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+/**
+ * The audit log is partitioned by month on {@code created_at}, so every lookup takes a half-open
+ * {@code [from, to)} window; only the partitions overlapping it are scanned.
+ */
 public interface ClinicalAuditLogRepository extends JpaRepository<ClinicalAuditLog, UUID> {
-  List<ClinicalAuditLog> findByUserId(UUID userId);
 
-  List<ClinicalAuditLog> findByEpisodeId(UUID episodeId);
+  @Query(
+      "SELECT a FROM ClinicalAuditLog a WHERE a.user.id = :userId"
+          + " AND a.createdAt >= :from AND a.createdAt < :to ORDER BY a.createdAt DESC")
+  List<ClinicalAuditLog> findByUserIdWithin(
+      @Param("userId") UUID userId,
+      @Param("from") OffsetDateTime from,
+      @Param("to") OffsetDateTime to);
+
+  @Query(
+      "SELECT a FROM ClinicalAuditLog a WHERE a.episodeId = :episodeId"
+          + " AND a.createdAt >= :from AND a.createdAt < :to ORDER BY a.createdAt DESC")
+  List<ClinicalAuditLog> findByEpisodeIdWithin(
+      @Param("episodeId") UUID episodeId,
+      @Param("from") OffsetDateTime from,
+      @Param("to") OffsetDateTime to);
 }
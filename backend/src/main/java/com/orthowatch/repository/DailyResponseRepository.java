@@ -1,10 +1,26 @@
 package com.orthowatch.repository;
 
 import com.orthowatch.model.DailyResponse;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface DailyResponseRepository extends JpaRepository<DailyResponse, UUID> {
   Optional<DailyResponse> findByEpisodeIdAndDayNumber(UUID episodeId, int dayNumber);
+
+  /**
+   * Answered responses of the given episodes that have no risk score yet, ordered by episode and
+   * day so that each episode's trend is advanced in day order.
+   */
+  @Query(
+      "SELECT r FROM DailyResponse r WHERE r.episode.id IN :episodeIds"
+          + " AND r.completionStatus <> 'PENDING'"
+          + " AND NOT EXISTS (SELECT 1 FROM RiskScore s"
+          + " WHERE s.episode.id = r.episode.id AND s.dayNumber = r.dayNumber)"
+          + " ORDER BY r.episode.id, r.dayNumber")
+  List<DailyResponse> findUnscoredByEpisodeIdIn(@Param("episodeIds") Collection<UUID> episodeIds);
 }
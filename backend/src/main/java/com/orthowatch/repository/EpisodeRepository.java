@@ -1,17 +1,98 @@
 package com.orthowatch.repository;
 
 import com.orthowatch.model.Episode;
+import jakarta.persistence.QueryHint;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+/**
+ * Episodes. Background jobs that touch every episode in a status should use the projection variants
+ * below ({@link #streamSummariesByStatus} or the keyset pages) rather than loading {@link Episode}
+ * entities: projections are not managed, so memory stays flat however many rows match.
+ */
 public interface EpisodeRepository extends JpaRepository<Episode, UUID> {
+
+  /** Rows fetched per round trip by the streaming queries. */
+  String STREAM_FETCH_SIZE = "500";
+
+  String SUMMARY_SELECT =
+      "SELECT e.id AS id, e.patient.id AS patientId, e.primarySurgeon.id AS primarySurgeonId,"
+          + " e.secondaryClinician.id AS secondaryClinicianId, e.surgeryDate AS surgeryDate,"
+          + " e.dischargeDate AS dischargeDate, e.currentDay AS currentDay,"
+          + " e.consentStatus AS consentStatus FROM Episode e";
+
   List<Episode> findByPatientId(UUID patientId);
 
   List<Episode> findByPrimarySurgeonId(UUID primarySurgeonId);
 
-  List<Episode> findByStatus(String status);
-
   boolean existsByPatientIdAndTemplateSurgeryTypeAndStatus(
       UUID patientId, String surgeryType, String status);
+
+  /** Patient and surgery type of every episode in the given status, for a batch of patients. */
+  @Query(
+      "SELECT e.patient.id AS patientId, e.template.surgeryType AS surgeryType FROM Episode e"
+          + " WHERE e.patient.id IN :patientIds AND e.status = :status")
+  List<PatientSurgeryType> findSurgeryTypesByPatientIdInAndStatus(
+      @Param("patientIds") Collection<UUID> patientIds, @Param("status") String status);
+
+  /**
+   * Streams the summary of every episode in the given status, in id order, in one query.
+   *
+   * <p>Rows are pulled from a server-side cursor {@value #STREAM_FETCH_SIZE} at a time, which the
+   * PostgreSQL driver only does inside a transaction, so call this from a (read-only) transactional
+   * method and close the stream, e.g. with try-with-resources. The transaction stays open until the
+   * stream is drained; jobs that write as they go and want to commit along the way should page
+   * through {@link #findSummariesByStatusAfter} instead.
+   */
+  @QueryHints({
+    @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+    @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+    @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+  })
+  @Query(SUMMARY_SELECT + " WHERE e.status = :status ORDER BY e.id")
+  Stream<EpisodeSummary> streamSummariesByStatus(@Param("status") String status);
+
+  /**
+   * Keyset page of episode summaries in the given status, in id order, starting after {@code
+   * afterId} (use the nil UUID for the first page). Each page is a short query of its own, so
+   * callers can commit between pages.
+   */
+  @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+  @Query(SUMMARY_SELECT + " WHERE e.status = :status AND e.id > :afterId ORDER BY e.id")
+  List<EpisodeSummary> findSummariesByStatusAfter(
+      @Param("status") String status, @Param("afterId") UUID afterId, Limit limit);
+
+  /** The scalar columns of an episode that scheduling and sweep jobs work from. */
+  interface EpisodeSummary {
+    UUID getId();
+
+    UUID getPatientId();
+
+    UUID getPrimarySurgeonId();
+
+    UUID getSecondaryClinicianId();
+
+    LocalDate getSurgeryDate();
+
+    LocalDate getDischargeDate();
+
+    int getCurrentDay();
+
+    String getConsentStatus();
+  }
+
+  interface PatientSurgeryType {
+    UUID getPatientId();
+
+    String getSurgeryType();
+  }
 }
@@ -0,0 +1,19 @@
+package com.orthowatch.repository;
+
+import com.orthowatch.model.EpisodeRiskTrend;
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface EpisodeRiskTrendRepository extends JpaRepository<EpisodeRiskTrend, UUID> {
+
+  /** Reads the episodes' trend rows locked for update, in a fixed order to avoid deadlocks. */
+  @Lock(LockModeType.PESSIMISTIC_WRITE)
+  @Query("SELECT t FROM EpisodeRiskTrend t WHERE t.episodeId IN :episodeIds ORDER BY t.episodeId")
+  List<EpisodeRiskTrend> findForUpdate(@Param("episodeIds") Collection<UUID> episodeIds);
+}
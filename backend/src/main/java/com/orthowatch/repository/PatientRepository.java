@@ -1,6 +1,8 @@
 package com.orthowatch.repository;
 
 import com.orthowatch.model.Patient;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,4 +11,6 @@ public interface PatientRepository extends JpaRepository<Patient, UUID> {
   Optional<Patient> findByPhonePrimary(String phonePrimary);
 
   Optional<Patient> findByHospitalMrn(String hospitalMrn);
+
+  List<Patient> findByPhonePrimaryIn(Collection<String> phones);
 }
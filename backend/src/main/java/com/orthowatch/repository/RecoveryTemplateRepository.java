@@ -1,6 +1,8 @@
 package com.orthowatch.repository;
 
 import com.orthowatch.model.RecoveryTemplate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,4 +11,6 @@ public interface RecoveryTemplateRepository extends JpaRepository<RecoveryTempla
   Optional<RecoveryTemplate> findBySurgeryType(String surgeryType);
 
   Optional<RecoveryTemplate> findBySurgeryTypeAndIsActiveTrue(String surgeryType);
+
+  List<RecoveryTemplate> findBySurgeryTypeInAndIsActiveTrue(Collection<String> surgeryTypes);
 }
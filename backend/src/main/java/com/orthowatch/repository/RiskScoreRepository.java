@@ -1,6 +1,7 @@
 package com.orthowatch.repository;
 
 import com.orthowatch.model.RiskScore;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -9,4 +10,6 @@ public interface RiskScoreRepository extends JpaRepository<RiskScore, UUID> {
   List<RiskScore> findByEpisodeId(UUID episodeId);
 
   List<RiskScore> findByEpisodeIdOrderByDayNumberDesc(UUID episodeId);
+
+  List<RiskScore> findByEpisodeIdInOrderByDayNumberAsc(Collection<UUID> episodeIds);
 }
@@ -0,0 +1,32 @@
+package com.orthowatch.repository;
+
+import com.orthowatch.model.RuleSetVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface RuleSetVersionRepository extends JpaRepository<RuleSetVersion, String> {
+
+  /**
+   * Stores a snapshot unless one with the same content hash already exists; concurrent callers on
+   * other nodes are harmless.
+   *
+   * @return 1 if the snapshot was stored, 0 if it already existed
+   */
+  @Transactional
+  @Modifying
+  @Query(
+      value =
+          """
+          INSERT INTO rule_set_versions (id, snapshot, rule_count)
+          VALUES (:id, CAST(:snapshot AS jsonb), :ruleCount)
+          ON CONFLICT (id) DO NOTHING
+          """,
+      nativeQuery = true)
+  int insertIfAbsent(
+      @Param("id") String id,
+      @Param("snapshot") String snapshotJson,
+      @Param("ruleCount") int ruleCount);
+}
@@ -0,0 +1,37 @@
+package com.orthowatch.risk;
+
+import com.orthowatch.model.DailyResponse;
+import com.orthowatch.model.RiskRule;
+import java.util.function.Predicate;
+
+/** An active {@link RiskRule} with its condition compiled to a predicate. */
+public record CompiledRule(
+    String ruleName,
+    String conditionExpression,
+    String riskLevel,
+    int weight,
+    int version,
+    Predicate<DailyResponse> condition) {
+
+  /**
+   * @throws RuleExpressionException if the rule's condition is invalid
+   */
+  public static CompiledRule of(RiskRule rule) {
+    try {
+      return new CompiledRule(
+          rule.getRuleName(),
+          rule.getConditionExpression(),
+          rule.getRiskLevel(),
+          rule.getWeight(),
+          rule.getVersion(),
+          RuleCompiler.compile(rule.getConditionExpression()));
+    } catch (RuleExpressionException e) {
+      throw new RuleExpressionException(
+          "Risk rule '" + rule.getRuleName() + "': " + e.getMessage());
+    }
+  }
+
+  public boolean matches(DailyResponse response) {
+    return condition.test(response);
+  }
+}
@@ -0,0 +1,136 @@
+package com.orthowatch.risk;
+
+import com.orthowatch.model.DailyResponse;
+import com.orthowatch.model.RiskRule;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable, compiled set of active risk rules, identified by a hash of the rules' content.
+ *
+ * <p>A response's composite score is the sum of the weights of the rules it matches, capped at 100;
+ * its risk level is the highest level among those rules, or LOW when none match.
+ */
+public final class CompiledRuleSet {
+
+  private static final List<String> LEVELS = List.of("LOW", "MEDIUM", "HIGH");
+
+  private final String versionId;
+  private final CompiledRule[] rules;
+  private final Map<String, Object> snapshot;
+
+  private CompiledRuleSet(String versionId, CompiledRule[] rules) {
+    this.versionId = versionId;
+    this.rules = rules;
+    this.snapshot = buildSnapshot(versionId, rules);
+  }
+
+  /**
+   * Compiles the given rules.
+   *
+   * @throws RuleExpressionException if any rule's condition is invalid
+   */
+  public static CompiledRuleSet compile(List<RiskRule> activeRules) {
+    List<RiskRule> sorted = sorted(activeRules);
+    return new CompiledRuleSet(
+        versionOf(sorted), sorted.stream().map(CompiledRule::of).toArray(CompiledRule[]::new));
+  }
+
+  /**
+   * Content hash of a rule set, e.g. {@code rs-3f9a0c1b2d4e5f60}. Rules with the same names,
+   * expressions, levels, weights and versions always hash the same, in any order.
+   */
+  public static String versionOf(List<RiskRule> activeRules) {
+    StringBuilder canonical = new StringBuilder();
+    for (RiskRule rule : sorted(activeRules)) {
+      canonical
+          .append(rule.getRuleName())
+          .append('\u0000')
+          .append(rule.getVersion())
+          .append('\u0000')
+          .append(rule.getRiskLevel())
+          .append('\u0000')
+          .append(rule.getWeight())
+          .append('\u0000')
+          .append(rule.getConditionExpression())
+          .append('\n');
+    }
+    try {
+      byte[] hash =
+          MessageDigest.getInstance("SHA-256")
+              .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+      return "rs-" + HexFormat.of().formatHex(hash, 0, 8);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  public String versionId() {
+    return versionId;
+  }
+
+  public List<CompiledRule> rules() {
+    return List.of(rules);
+  }
+
+  /** The rule set as stored alongside each score: version plus every rule's definition. */
+  public Map<String, Object> snapshot() {
+    return snapshot;
+  }
+
+  public Assessment evaluate(DailyResponse response) {
+    int score = 0;
+    int level = 0;
+    List<CompiledRule> matched = null;
+    for (CompiledRule rule : rules) {
+      if (rule.matches(response)) {
+        if (matched == null) {
+          matched = new ArrayList<>(4);
+        }
+        matched.add(rule);
+        score += rule.weight();
+        level = Math.max(level, LEVELS.indexOf(rule.riskLevel()));
+      }
+    }
+    return new Assessment(
+        Math.min(score, 100), LEVELS.get(level), matched != null ? matched : List.of());
+  }
+
+  /** Outcome of evaluating one response against the rule set. */
+  public record Assessment(int compositeScore, String riskLevel, List<CompiledRule> matchedRules) {
+
+    /** Matched rule names mapped to their weights, in rule order. */
+    public Map<String, Object> contributingFactors() {
+      Map<String, Object> factors = new LinkedHashMap<>();
+      for (CompiledRule rule : matchedRules) {
+        factors.put(rule.ruleName(), rule.weight());
+      }
+      return factors;
+    }
+  }
+
+  private static List<RiskRule> sorted(List<RiskRule> rules) {
+    return rules.stream().sorted(Comparator.comparing(RiskRule::getRuleName)).toList();
+  }
+
+  private static Map<String, Object> buildSnapshot(String versionId, CompiledRule[] rules) {
+    List<Map<String, Object>> definitions = new ArrayList<>(rules.length);
+    for (CompiledRule rule : rules) {
+      definitions.add(
+          Map.of(
+              "ruleName", rule.ruleName(),
+              "conditionExpression", rule.conditionExpression(),
+              "riskLevel", rule.riskLevel(),
+              "weight", rule.weight(),
+              "version", rule.version()));
+    }
+    return Map.of("ruleVersionId", versionId, "rules", List.copyOf(definitions));
+  }
+}
@@ -0,0 +1,95 @@
+package com.orthowatch.risk;
+
+import java.util.Arrays;
+
+/**
+ * Rolling trend of an episode's composite risk scores: the last {@code window} scores with their
+ * day numbers, an exponentially weighted moving average and the least-squares slope (points per
+ * day) over the window. Immutable; {@link #add} does a fixed amount of work per score regardless of
+ * how long the episode has been running. {@code priorEwma} is the average before the latest score,
+ * kept so that re-scoring the latest day is exact.
+ */
+public record RiskTrend(
+    int[] recentDays,
+    int[] recentScores,
+    double ewma,
+    double priorEwma,
+    double slope,
+    int sampleCount) {
+
+  public static final String IMPROVING = "IMPROVING";
+  public static final String STABLE = "STABLE";
+  public static final String WORSENING = "WORSENING";
+
+  public static RiskTrend empty() {
+    return new RiskTrend(new int[0], new int[0], 0, 0, 0, 0);
+  }
+
+  public int lastDayNumber() {
+    return recentDays.length == 0 ? 0 : recentDays[recentDays.length - 1];
+  }
+
+  /**
+   * Folds in the score for {@code dayNumber}. A score for the latest day replaces it (a re-score);
+   * callers must rebuild from history for anything older.
+   */
+  public RiskTrend add(int dayNumber, int score, int window, double alpha) {
+    int last = lastDayNumber();
+    if (recentDays.length > 0 && dayNumber < last) {
+      throw new IllegalArgumentException(
+          "Day " + dayNumber + " is older than the latest scored day " + last);
+    }
+    boolean replace = recentDays.length > 0 && dayNumber == last;
+    int kept = replace ? recentDays.length - 1 : recentDays.length;
+    int from = Math.max(0, kept + 1 - window);
+    int[] days = Arrays.copyOfRange(recentDays, from, kept + 1);
+    int[] scores = Arrays.copyOfRange(recentScores, from, kept + 1);
+    days[days.length - 1] = dayNumber;
+    scores[scores.length - 1] = score;
+
+    // A re-score redoes the latest EWMA step from the average before it
+    double base = replace ? priorEwma : ewma;
+    int count = replace ? sampleCount : sampleCount + 1;
+    double nextEwma = count == 1 ? score : alpha * score + (1 - alpha) * base;
+    return new RiskTrend(days, scores, nextEwma, base, slopeOf(days, scores), count);
+  }
+
+  /**
+   * WORSENING when scores rise faster than {@code threshold} points per day, IMPROVING when they
+   * fall faster, STABLE otherwise; null until there are two scores to compare.
+   */
+  public String trajectory(double threshold) {
+    if (recentScores.length < 2) {
+      return null;
+    }
+    if (slope > threshold) {
+      return WORSENING;
+    }
+    if (slope < -threshold) {
+      return IMPROVING;
+    }
+    return STABLE;
+  }
+
+  private static double slopeOf(int[] days, int[] scores) {
+    int n = days.length;
+    if (n < 2) {
+      return 0;
+    }
+    double meanDay = 0;
+    double meanScore = 0;
+    for (int i = 0; i < n; i++) {
+      meanDay += days[i];
+      meanScore += scores[i];
+    }
+    meanDay /= n;
+    meanScore /= n;
+    double covariance = 0;
+    double variance = 0;
+    for (int i = 0; i < n; i++) {
+      covariance += (days[i] - meanDay) * (scores[i] - meanScore);
+      variance += (days[i] - meanDay) * (days[i] - meanDay);
+    }
+    return variance == 0 ? 0 : covariance / variance;
+  }
+}
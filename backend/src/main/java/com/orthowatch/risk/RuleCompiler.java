@@ -0,0 +1,178 @@
+package com.orthowatch.risk;
+
+import com.orthowatch.model.DailyResponse;
+import com.orthowatch.risk.RuleExpression.And;
+import com.orthowatch.risk.RuleExpression.Compare;
+import com.orthowatch.risk.RuleExpression.Contains;
+import com.orthowatch.risk.RuleExpression.In;
+import com.orthowatch.risk.RuleExpression.IsEmpty;
+import com.orthowatch.risk.RuleExpression.IsNull;
+import com.orthowatch.risk.RuleExpression.Not;
+import com.orthowatch.risk.RuleExpression.Operator;
+import com.orthowatch.risk.RuleExpression.Or;
+import com.orthowatch.risk.RuleField.Kind;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Turns a {@link RuleExpression} into a tree of {@link Predicate}s. Field accessors, operators and
+ * literals are resolved here, once, so evaluation is a handful of getter calls and comparisons. A
+ * missing (null) value never satisfies a comparison, IN or CONTAINS condition.
+ */
+public final class RuleCompiler {
+
+  private RuleCompiler() {}
+
+  public static Predicate<DailyResponse> compile(String conditionExpression) {
+    return compile(RuleExpressionParser.parse(conditionExpression));
+  }
+
+  public static Predicate<DailyResponse> compile(RuleExpression expression) {
+    return switch (expression) {
+      case And and -> all(compileAll(and.operands()));
+      case Or or -> any(compileAll(or.operands()));
+      case Not not -> compile(not.operand()).negate();
+      case Compare compare -> compare(compare);
+      case In in -> in(in);
+      case IsNull isNull -> isNull(isNull);
+      case IsEmpty isEmpty -> isEmpty(isEmpty);
+      case Contains contains -> contains(contains);
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Predicate<DailyResponse>[] compileAll(List<RuleExpression> operands) {
+    return operands.stream().map(RuleCompiler::compile).toArray(Predicate[]::new);
+  }
+
+  private static Predicate<DailyResponse> all(Predicate<DailyResponse>[] operands) {
+    if (operands.length == 2) {
+      Predicate<DailyResponse> left = operands[0];
+      Predicate<DailyResponse> right = operands[1];
+      return response -> left.test(response) && right.test(response);
+    }
+    return response -> {
+      for (Predicate<DailyResponse> operand : operands) {
+        if (!operand.test(response)) {
+          return false;
+        }
+      }
+      return true;
+    };
+  }
+
+  private static Predicate<DailyResponse> any(Predicate<DailyResponse>[] operands) {
+    if (operands.length == 2) {
+      Predicate<DailyResponse> left = operands[0];
+      Predicate<DailyResponse> right = operands[1];
+      return response -> left.test(response) || right.test(response);
+    }
+    return response -> {
+      for (Predicate<DailyResponse> operand : operands) {
+        if (operand.test(response)) {
+          return true;
+        }
+      }
+      return false;
+    };
+  }
+
+  private static Predicate<DailyResponse> compare(Compare compare) {
+    RuleField field = compare.field();
+    Function<DailyResponse, Object> accessor = field.accessor();
+    Object literal = compare.literal();
+    if (field.kind() == Kind.NUMBER) {
+      int expected = requireLiteral(field, literal, Integer.class);
+      return switch (compare.operator()) {
+        case EQ -> response -> accessor.apply(response) instanceof Integer v && v == expected;
+        case NE -> response -> accessor.apply(response) instanceof Integer v && v != expected;
+        case LT -> response -> accessor.apply(response) instanceof Integer v && v < expected;
+        case LE -> response -> accessor.apply(response) instanceof Integer v && v <= expected;
+        case GT -> response -> accessor.apply(response) instanceof Integer v && v > expected;
+        case GE -> response -> accessor.apply(response) instanceof Integer v && v >= expected;
+      };
+    }
+    if (field.kind() == Kind.TEXT_LIST) {
+      throw new RuleExpressionException(
+          field.expressionName() + " is a list; use CONTAINS or IS [NOT] EMPTY");
+    }
+    if (compare.operator() != Operator.EQ && compare.operator() != Operator.NE) {
+      throw new RuleExpressionException(
+          field.expressionName() + " only supports = and != comparisons");
+    }
+    Class<?> type = field.kind() == Kind.TEXT ? String.class : Boolean.class;
+    Object expected = requireLiteral(field, literal, type);
+    boolean equal = compare.operator() == Operator.EQ;
+    return response -> {
+      Object value = accessor.apply(response);
+      return value != null && expected.equals(value) == equal;
+    };
+  }
+
+  private static Predicate<DailyResponse> in(In in) {
+    RuleField field = in.field();
+    if (field.kind() != Kind.NUMBER && field.kind() != Kind.TEXT) {
+      throw new RuleExpressionException(field.expressionName() + " does not support IN");
+    }
+    Class<?> type = field.kind() == Kind.NUMBER ? Integer.class : String.class;
+    for (Object literal : in.literals()) {
+      requireLiteral(field, literal, type);
+    }
+    Function<DailyResponse, Object> accessor = field.accessor();
+    Set<Object> expected = Set.copyOf(in.literals());
+    return response -> {
+      Object value = accessor.apply(response);
+      return value != null && expected.contains(value);
+    };
+  }
+
+  private static Predicate<DailyResponse> isNull(IsNull isNull) {
+    Function<DailyResponse, Object> accessor = isNull.field().accessor();
+    return isNull.negated()
+        ? response -> accessor.apply(response) != null
+        : response -> accessor.apply(response) == null;
+  }
+
+  private static Predicate<DailyResponse> isEmpty(IsEmpty isEmpty) {
+    Function<DailyResponse, Object> accessor = requireList(isEmpty.field());
+    Predicate<DailyResponse> empty =
+        response -> !(accessor.apply(response) instanceof String[] values) || values.length == 0;
+    return isEmpty.negated() ? empty.negate() : empty;
+  }
+
+  private static Predicate<DailyResponse> contains(Contains contains) {
+    Function<DailyResponse, Object> accessor = requireList(contains.field());
+    String expected = contains.literal();
+    return response -> {
+      if (accessor.apply(response) instanceof String[] values) {
+        for (String value : values) {
+          if (expected.equals(value)) {
+            return true;
+          }
+        }
+      }
+      return false;
+    };
+  }
+
+  private static Function<DailyResponse, Object> requireList(RuleField field) {
+    if (field.kind() != Kind.TEXT_LIST) {
+      throw new RuleExpressionException(field.expressionName() + " is not a list");
+    }
+    return field.accessor();
+  }
+
+  private static <T> T requireLiteral(RuleField field, Object literal, Class<T> type) {
+    if (!type.isInstance(literal)) {
+      throw new RuleExpressionException(
+          field.expressionName()
+              + " expects "
+              + (type == Integer.class
+                  ? "a number"
+                  : type == String.class ? "a quoted string" : "TRUE or FALSE"));
+    }
+    return type.cast(literal);
+  }
+}
@@ -0,0 +1,38 @@
+package com.orthowatch.risk;
+
+import java.util.List;
+
+/**
+ * Syntax tree of a risk rule's {@code condition_expression}, as produced by {@link
+ * RuleExpressionParser}. Literals are {@link Integer}, {@link String} or {@link Boolean}.
+ */
+public sealed interface RuleExpression {
+
+  record And(List<RuleExpression> operands) implements RuleExpression {}
+
+  record Or(List<RuleExpression> operands) implements RuleExpression {}
+
+  record Not(RuleExpression operand) implements RuleExpression {}
+
+  /** {@code field op literal}, where op is one of {@code = != < <= > >=}. */
+  record Compare(RuleField field, Operator operator, Object literal) implements RuleExpression {}
+
+  record In(RuleField field, List<Object> literals) implements RuleExpression {}
+
+  /** {@code field IS NULL}, or {@code IS NOT NULL} when negated. */
+  record IsNull(RuleField field, boolean negated) implements RuleExpression {}
+
+  /** {@code field IS EMPTY} for list fields, or {@code IS NOT EMPTY} when negated. */
+  record IsEmpty(RuleField field, boolean negated) implements RuleExpression {}
+
+  record Contains(RuleField field, String literal) implements RuleExpression {}
+
+  enum Operator {
+    EQ,
+    NE,
+    LT,
+    LE,
+    GT,
+    GE
+  }
+}
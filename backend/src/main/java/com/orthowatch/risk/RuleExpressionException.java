@@ -0,0 +1,9 @@
+package com.orthowatch.risk;
+
+/** A {@code condition_expression} that cannot be parsed or does not type-check. */
+public class RuleExpressionException extends IllegalArgumentException {
+
+  public RuleExpressionException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,237 @@
+package com.orthowatch.risk;
+
+import com.orthowatch.risk.RuleExpression.And;
+import com.orthowatch.risk.RuleExpression.Compare;
+import com.orthowatch.risk.RuleExpression.Contains;
+import com.orthowatch.risk.RuleExpression.In;
+import com.orthowatch.risk.RuleExpression.IsEmpty;
+import com.orthowatch.risk.RuleExpression.IsNull;
+import com.orthowatch.risk.RuleExpression.Not;
+import com.orthowatch.risk.RuleExpression.Operator;
+import com.orthowatch.risk.RuleExpression.Or;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parses a {@code condition_expression} into a {@link RuleExpression}.
+ *
+ * <pre>
+ * expression := or
+ * or         := and ('OR' and)*
+ * and        := unary ('AND' unary)*
+ * unary      := 'NOT' unary | '(' expression ')' | condition
+ * condition  := field ('=' | '!=' | '&lt;&gt;' | '&lt;' | '&lt;=' | '&gt;' | '&gt;=') literal
+ *             | field 'IN' '(' literal (',' literal)* ')'
+ *             | field 'IS' ['NOT'] ('NULL' | 'EMPTY')
+ *             | field 'CONTAINS' string
+ * literal    := integer | 'single-quoted string' | TRUE | FALSE
+ * </pre>
+ *
+ * Keywords are case-insensitive; field names are the snake_case names in {@link RuleField}, e.g.
+ * {@code swelling_level = 'SEVERE' AND pain_score >= 6}.
+ */
+public final class RuleExpressionParser {
+
+  private final String source;
+  private int position;
+
+  private RuleExpressionParser(String source) {
+    this.source = source;
+  }
+
+  public static RuleExpression parse(String source) {
+    RuleExpressionParser parser = new RuleExpressionParser(source);
+    RuleExpression expression = parser.parseOr();
+    parser.skipWhitespace();
+    if (parser.position < source.length()) {
+      throw parser.error("Unexpected input");
+    }
+    return expression;
+  }
+
+  private RuleExpression parseOr() {
+    List<RuleExpression> operands = new ArrayList<>();
+    operands.add(parseAnd());
+    while (acceptKeyword("OR")) {
+      operands.add(parseAnd());
+    }
+    return operands.size() == 1 ? operands.get(0) : new Or(List.copyOf(operands));
+  }
+
+  private RuleExpression parseAnd() {
+    List<RuleExpression> operands = new ArrayList<>();
+    operands.add(parseUnary());
+    while (acceptKeyword("AND")) {
+      operands.add(parseUnary());
+    }
+    return operands.size() == 1 ? operands.get(0) : new And(List.copyOf(operands));
+  }
+
+  private RuleExpression parseUnary() {
+    if (acceptKeyword("NOT")) {
+      return new Not(parseUnary());
+    }
+    if (accept("(")) {
+      RuleExpression inner = parseOr();
+      expect(")");
+      return inner;
+    }
+    return parseCondition();
+  }
+
+  private RuleExpression parseCondition() {
+    int fieldStart = skipWhitespace();
+    RuleField field;
+    try {
+      field = RuleField.byName(identifier());
+    } catch (RuleExpressionException e) {
+      position = fieldStart;
+      throw error(e.getMessage());
+    }
+    if (acceptKeyword("IS")) {
+      boolean negated = acceptKeyword("NOT");
+      if (acceptKeyword("NULL")) {
+        return new IsNull(field, negated);
+      }
+      if (acceptKeyword("EMPTY")) {
+        return new IsEmpty(field, negated);
+      }
+      throw error("Expected NULL or EMPTY");
+    }
+    if (acceptKeyword("IN")) {
+      expect("(");
+      List<Object> literals = new ArrayList<>();
+      do {
+        literals.add(literal());
+      } while (accept(","));
+      expect(")");
+      return new In(field, List.copyOf(literals));
+    }
+    if (acceptKeyword("CONTAINS")) {
+      if (!(literal() instanceof String text)) {
+        throw error("CONTAINS expects a string");
+      }
+      return new Contains(field, text);
+    }
+    return new Compare(field, operator(), literal());
+  }
+
+  private Operator operator() {
+    skipWhitespace();
+    for (String symbol : new String[] {"<=", ">=", "!=", "<>", "=", "<", ">"}) {
+      if (source.startsWith(symbol, position)) {
+        position += symbol.length();
+        return switch (symbol) {
+          case "<=" -> Operator.LE;
+          case ">=" -> Operator.GE;
+          case "!=", "<>" -> Operator.NE;
+          case "=" -> Operator.EQ;
+          case "<" -> Operator.LT;
+          default -> Operator.GT;
+        };
+      }
+    }
+    throw error("Expected a comparison operator");
+  }
+
+  private Object literal() {
+    skipWhitespace();
+    if (position >= source.length()) {
+      throw error("Expected a value");
+    }
+    char c = source.charAt(position);
+    if (c == '\'') {
+      return string();
+    }
+    if (c == '-' || Character.isDigit(c)) {
+      int start = position++;
+      while (position < source.length() && Character.isDigit(source.charAt(position))) {
+        position++;
+      }
+      try {
+        return Integer.valueOf(source.substring(start, position));
+      } catch (NumberFormatException e) {
+        position = start;
+        throw error("Invalid number");
+      }
+    }
+    if (acceptKeyword("TRUE")) {
+      return Boolean.TRUE;
+    }
+    if (acceptKeyword("FALSE")) {
+      return Boolean.FALSE;
+    }
+    throw error("Expected a value");
+  }
+
+  private String string() {
+    StringBuilder value = new StringBuilder();
+    position++;
+    while (position < source.length()) {
+      char c = source.charAt(position++);
+      if (c == '\'') {
+        if (position < source.length() && source.charAt(position) == '\'') {
+          value.append('\'');
+          position++;
+        } else {
+          return value.toString();
+        }
+      } else {
+        value.append(c);
+      }
+    }
+    throw error("Unterminated string");
+  }
+
+  private String identifier() {
+    int start = position;
+    while (position < source.length()
+        && (Character.isLetterOrDigit(source.charAt(position)) || source.charAt(position) == '_')) {
+      position++;
+    }
+    if (start == position) {
+      throw error("Expected a field name");
+    }
+    return source.substring(start, position).toLowerCase(Locale.ROOT);
+  }
+
+  private boolean acceptKeyword(String keyword) {
+    skipWhitespace();
+    int end = position + keyword.length();
+    if (source.regionMatches(true, position, keyword, 0, keyword.length())
+        && (end == source.length()
+            || !(Character.isLetterOrDigit(source.charAt(end)) || source.charAt(end) == '_'))) {
+      position = end;
+      return true;
+    }
+    return false;
+  }
+
+  private boolean accept(String symbol) {
+    skipWhitespace();
+    if (source.startsWith(symbol, position)) {
+      position += symbol.length();
+      return true;
+    }
+    return false;
+  }
+
+  private void expect(String symbol) {
+    if (!accept(symbol)) {
+      throw error("Expected '" + symbol + "'");
+    }
+  }
+
+  private int skipWhitespace() {
+    while (position < source.length() && Character.isWhitespace(source.charAt(position))) {
+      position++;
+    }
+    return position;
+  }
+
+  private RuleExpressionException error(String message) {
+    return new RuleExpressionException(
+        message + " at position " + position + " in '" + source + "'");
+  }
+}
@@ -0,0 +1,63 @@
+package com.orthowatch.risk;
+
+import com.orthowatch.model.DailyResponse;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The {@link DailyResponse} fields a rule may reference, with their expression names. Accessors are
+ * plain getters bound here once, so evaluation never goes through reflection.
+ */
+public enum RuleField {
+  DAY_NUMBER("day_number", Kind.NUMBER, DailyResponse::getDayNumber),
+  PAIN_SCORE("pain_score", Kind.NUMBER, DailyResponse::getPainScore),
+  SWELLING_LEVEL("swelling_level", Kind.TEXT, DailyResponse::getSwellingLevel),
+  FEVER_LEVEL("fever_level", Kind.TEXT, DailyResponse::getFeverLevel),
+  DVT_SYMPTOMS("dvt_symptoms", Kind.TEXT_LIST, DailyResponse::getDvtSymptoms),
+  MOBILITY_ACHIEVED("mobility_achieved", Kind.BOOLEAN, DailyResponse::getMobilityAchieved),
+  MEDICATION_ADHERENCE("medication_adherence", Kind.TEXT, DailyResponse::getMedicationAdherence),
+  RESPONDER_TYPE("responder_type", Kind.TEXT, DailyResponse::getResponderType),
+  EMERGENCY_OVERRIDE("emergency_override", Kind.BOOLEAN, DailyResponse::isEmergencyOverride);
+
+  enum Kind {
+    NUMBER,
+    TEXT,
+    BOOLEAN,
+    TEXT_LIST
+  }
+
+  private static final Map<String, RuleField> BY_NAME =
+      Arrays.stream(values()).collect(Collectors.toMap(RuleField::expressionName, f -> f));
+
+  private final String expressionName;
+  private final Kind kind;
+  private final Function<DailyResponse, Object> accessor;
+
+  RuleField(String expressionName, Kind kind, Function<DailyResponse, Object> accessor) {
+    this.expressionName = expressionName;
+    this.kind = kind;
+    this.accessor = accessor;
+  }
+
+  public String expressionName() {
+    return expressionName;
+  }
+
+  Kind kind() {
+    return kind;
+  }
+
+  Function<DailyResponse, Object> accessor() {
+    return accessor;
+  }
+
+  static RuleField byName(String name) {
+    RuleField field = BY_NAME.get(name);
+    if (field == null) {
+      throw new RuleExpressionException("Unknown field '" + name + "'");
+    }
+    return field;
+  }
+}
@@ -0,0 +1,42 @@
+package com.orthowatch.service;
+
+import com.orthowatch.dto.DashboardEvent;
+import com.orthowatch.model.Alert;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that pushes {@link Alert} rows raised or changed through JPA to the assigned
+ * clinician's dashboard, and reports them to the {@link AlertSlaEnforcer}, once the transaction
+ * commits. Alerts written in SQL are published and reported by their writers.
+ */
+@Component
+@RequiredArgsConstructor
+public class AlertChangeListener {
+
+  private final DashboardEventBroker eventBroker;
+  private final AlertSlaEnforcer alertSlaEnforcer;
+
+  @PostPersist
+  @PostUpdate
+  public void onAlertChanged(Alert alert) {
+    UUID assignedTo = alert.getAssignedTo().getId();
+    eventBroker.publishAfterCommit(
+        assignedTo,
+        DashboardEvent.builder()
+            .type(DashboardEvent.ALERT)
+            .episodeId(alert.getEpisode().getId())
+            .alertId(alert.getId())
+            .alertType(alert.getAlertType())
+            .severity(alert.getSeverity())
+            .status(alert.getStatus())
+            .assignedTo(assignedTo)
+            .dayNumber(alert.getDayNumber())
+            .build());
+    alertSlaEnforcer.deadlinesChangedAfterCommit(List.of(alert.getId()));
+  }
+}
@@ -0,0 +1,230 @@
+package com.orthowatch.service;
+
+import com.orthowatch.dto.AlertInboxItem;
+import com.orthowatch.dto.AlertInboxPage;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+/**
+ * A clinician's alert inbox: their alerts in one status, most urgent SLA deadline first (alerts
+ * without a deadline last), as flat rows with the patient's name, the day and the risk score read
+ * in the same query.
+ *
+ * <p>Pages are keyset pages on (sla_deadline, id) over the (assigned_to, status, sla_deadline, id)
+ * index, so every page costs the same however deep the client has scrolled. A page after a row with
+ * a deadline seeks on the row comparison alone, which NULL deadlines never satisfy, and if it comes
+ * up short is topped up from the start of the alerts without one. Each page carries a weak ETag
+ * over its stored content; the SLA countdown, which moves every second, is left out so a polling
+ * client gets 304s until an alert on the page actually changes.
+ */
+@Service
+public class AlertInboxService {
+
+  public static final int MAX_PAGE_SIZE = 200;
+
+  private static final Set<String> STATUSES =
+      Set.of("PENDING", "ACKNOWLEDGED", "RESOLVED", "EXPIRED", "CANCELLED");
+
+  private static final String SELECT_SQL =
+      """
+      SELECT a.id, a.alert_type, a.severity, a.status, a.auto_forwarded, a.created_at,
+             a.updated_at, a.sla_deadline, e.id AS episode_id, p.full_name AS patient_name,
+             COALESCE(a.day_number, rs.day_number, e.current_day) AS day_number,
+             rs.composite_score
+      FROM alerts a
+      JOIN episodes e ON e.id = a.episode_id
+      JOIN patients p ON p.id = e.patient_id
+      LEFT JOIN risk_scores rs ON rs.id = a.risk_score_id
+      WHERE a.assigned_to = (SELECT u.id FROM users u WHERE u.email = ?)
+        AND a.status = ?
+      """;
+
+  private static final String ORDER_SQL = " ORDER BY a.sla_deadline NULLS LAST, a.id LIMIT ?";
+
+  private static final String FIRST_PAGE_SQL = SELECT_SQL + ORDER_SQL;
+
+  // Only rows with a deadline: an OR with "sla_deadline IS NULL" would stop the index seek
+  private static final String AFTER_DEADLINE_SQL =
+      SELECT_SQL + " AND (a.sla_deadline, a.id) > (CAST(? AS timestamptz), ?)" + ORDER_SQL;
+
+  // Deadlines sort before NULL, so rows without one follow every row with one
+  private static final String NO_DEADLINE_SQL =
+      SELECT_SQL + " AND a.sla_deadline IS NULL" + ORDER_SQL;
+
+  private static final String AFTER_NO_DEADLINE_SQL =
+      SELECT_SQL + " AND a.sla_deadline IS NULL AND a.id > ?" + ORDER_SQL;
+
+  private final JdbcTemplate jdbcTemplate;
+
+  public AlertInboxService(JdbcTemplate jdbcTemplate) {
+    this.jdbcTemplate = jdbcTemplate;
+  }
+
+  /** A page of the inbox and its ETag. */
+  public record Inbox(AlertInboxPage page, String etag) {}
+
+  /**
+   * Reads one page of the clinician's inbox.
+   *
+   * @param cursor the previous page's {@code nextCursor}, or null for the first page
+   * @throws IllegalArgumentException for an unknown status, bad cursor or page size
+   */
+  public Inbox fetch(String email, String status, String cursor, int limit, Instant now) {
+    if (!STATUSES.contains(status)) {
+      throw new IllegalArgumentException("Unknown alert status: " + status);
+    }
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
+    }
+    // One row beyond the page tells whether there is a next one
+    int fetch = limit + 1;
+    RowMapper<Row> mapper = (rs, rowNum) -> Row.of(rs);
+    List<Row> rows = new ArrayList<>();
+    if (cursor == null || cursor.isBlank()) {
+      rows.addAll(jdbcTemplate.query(FIRST_PAGE_SQL, mapper, email, status, fetch));
+    } else {
+      Cursor after = Cursor.decode(cursor);
+      if (after.deadline() != null) {
+        rows.addAll(
+            jdbcTemplate.query(
+                AFTER_DEADLINE_SQL,
+                mapper,
+                email,
+                status,
+                Timestamp.from(after.deadline()),
+                after.id(),
+                fetch));
+        if (rows.size() < fetch) {
+          rows.addAll(
+              jdbcTemplate.query(NO_DEADLINE_SQL, mapper, email, status, fetch - rows.size()));
+        }
+      } else {
+        rows.addAll(
+            jdbcTemplate.query(AFTER_NO_DEADLINE_SQL, mapper, email, status, after.id(), fetch));
+      }
+    }
+
+    String nextCursor = null;
+    if (rows.size() > limit) {
+      rows.remove(limit);
+      Row last = rows.get(limit - 1);
+      nextCursor =
+          new Cursor(last.slaDeadline() != null ? last.slaDeadline().toInstant() : null, last.id())
+              .encode();
+    }
+    List<AlertInboxItem> items = rows.stream().map(row -> row.toItem(now)).toList();
+    return new Inbox(new AlertInboxPage(items, nextCursor), etag(rows, nextCursor));
+  }
+
+  private static String etag(List<Row> rows, String nextCursor) {
+    StringBuilder canonical = new StringBuilder();
+    for (Row row : rows) {
+      canonical.append(row.fingerprint()).append('\n');
+    }
+    canonical.append(nextCursor);
+    try {
+      byte[] hash =
+          MessageDigest.getInstance("SHA-256")
+              .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+      return "W/\"" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  private record Row(
+      UUID id,
+      String alertType,
+      String severity,
+      String status,
+      boolean autoForwarded,
+      OffsetDateTime createdAt,
+      OffsetDateTime updatedAt,
+      OffsetDateTime slaDeadline,
+      UUID episodeId,
+      String patientName,
+      Integer dayNumber,
+      Integer compositeScore) {
+
+    static Row of(ResultSet rs) throws SQLException {
+      return new Row(
+          rs.getObject("id", UUID.class),
+          rs.getString("alert_type"),
+          rs.getString("severity"),
+          rs.getString("status"),
+          rs.getBoolean("auto_forwarded"),
+          rs.getObject("created_at", OffsetDateTime.class),
+          rs.getObject("updated_at", OffsetDateTime.class),
+          rs.getObject("sla_deadline", OffsetDateTime.class),
+          rs.getObject("episode_id", UUID.class),
+          rs.getString("patient_name"),
+          rs.getObject("day_number", Integer.class),
+          rs.getObject("composite_score", Integer.class));
+    }
+
+    // Everything a client renders except the countdown; patient renames do not touch the alert row
+    String fingerprint() {
+      return id + "|" + updatedAt + "|" + patientName + "|" + dayNumber + "|" + compositeScore;
+    }
+
+    AlertInboxItem toItem(Instant now) {
+      return AlertInboxItem.builder()
+          .alertId(id)
+          .alertType(alertType)
+          .severity(severity)
+          .status(status)
+          .autoForwarded(autoForwarded)
+          .createdAt(createdAt)
+          .slaDeadline(slaDeadline)
+          .slaRemainingSeconds(
+              slaDeadline != null
+                  ? Duration.between(now, slaDeadline.toInstant()).toSeconds()
+                  : null)
+          .episodeId(episodeId)
+          .patientName(patientName)
+          .dayNumber(dayNumber)
+          .compositeScore(compositeScore)
+          .build();
+    }
+  }
+
+  /** Opaque page position: the last row's deadline (null if it had none) and id. */
+  record Cursor(Instant deadline, UUID id) {
+
+    String encode() {
+      String raw = (deadline != null ? deadline.toString() : "") + "|" + id;
+      return Base64.getUrlEncoder()
+          .withoutPadding()
+          .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Cursor decode(String cursor) {
+      try {
+        String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        int separator = raw.indexOf('|');
+        String deadline = raw.substring(0, separator);
+        return new Cursor(
+            deadline.isEmpty() ? null : Instant.parse(deadline),
+            UUID.fromString(raw.substring(separator + 1)));
+      } catch (RuntimeException e) {
+        throw new IllegalArgumentException("Invalid cursor");
+      }
+    }
+  }
+}
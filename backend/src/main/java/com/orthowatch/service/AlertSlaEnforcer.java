@@ -0,0 +1,448 @@
+package com.orthowatch.service;
+
+import com.orthowatch.dto.DashboardEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Enforces alert SLAs: when a PENDING alert reaches its {@code sla_deadline} it is forwarded once
+ * to the episode's secondary clinician, with a new deadline of {@code
+ * hospital_settings.escalation_sla_hours}, or marked EXPIRED if it has no one to go to or was
+ * already forwarded.
+ *
+ * <p>Deadlines are held in an in-process {@link SlaTimerWheel}, so nothing polls {@code alerts} for
+ * due rows. Exactly one node owns the wheel: the one holding a Postgres session-level advisory lock
+ * on a connection of its own, opened outside the pool so it never takes a pooled connection. If
+ * that node dies its session ends, the lock is released and another node takes over within {@code
+ * app.alert-sla.acquire-retry-seconds}. A new owner rebuilds the wheel from all pending alerts with
+ * a deadline.
+ *
+ * <p>After that the owner only hears of changes: code that raises an alert, or changes its status
+ * or deadline, calls {@link #deadlinesChangedAfterCommit}, which publishes the alert ids on {@link
+ * #CHANGED_CHANNEL} once the transaction commits, and the owner re-reads just those rows. Pub/sub
+ * is fire-and-forget, so the wheel is also rebuilt every {@code app.alert-sla.resync-minutes} to
+ * pick up anything missed while a node was cut off from Redis. Without Redis ({@code
+ * app.alert-sla.redis-enabled}) changes only reach an owner on the same node, so startup fails when
+ * Quartz is clustered.
+ *
+ * <p>Firing is a conditional UPDATE (still PENDING, deadline passed), so an alert acknowledged in
+ * the meantime, or a timer fired twice across an ownership change, is left alone. Forwarded and
+ * expired alerts are pushed to the dashboards of the clinicians concerned.
+ */
+@Service
+public class AlertSlaEnforcer {
+
+  private static final Logger logger = LoggerFactory.getLogger(AlertSlaEnforcer.class);
+
+  public static final String CHANGED_CHANNEL = "orthowatch:alert-sla:changed";
+
+  // Arbitrary application-wide key for pg_try_advisory_lock
+  static final long LOCK_KEY = 0x4f52_5448_534c_4100L;
+
+  private static final String PENDING_SQL =
+      "SELECT id, sla_deadline FROM alerts WHERE status = 'PENDING' AND sla_deadline IS NOT NULL";
+
+  private static final String CHANGED_SQL =
+      "SELECT id, status, sla_deadline FROM alerts WHERE id = ANY (?::uuid[])";
+
+  // Forwards or expires the given alerts if they are still pending past their deadline
+  private static final String FIRE_SQL =
+      """
+      WITH due AS (
+          SELECT a.id, e.secondary_clinician_id, a.assigned_to AS previous_assignee,
+                 NOT a.auto_forwarded
+                     AND e.secondary_clinician_id IS NOT NULL
+                     AND e.secondary_clinician_id <> a.assigned_to AS forward
+          FROM alerts a
+          JOIN episodes e ON e.id = a.episode_id
+          WHERE a.id = ANY (?::uuid[])
+            AND a.status = 'PENDING'
+            AND a.sla_deadline <= CAST(? AS timestamptz)
+          FOR UPDATE OF a
+      )
+      UPDATE alerts a
+      SET assigned_to = CASE WHEN d.forward THEN d.secondary_clinician_id ELSE a.assigned_to END,
+          auto_forwarded = a.auto_forwarded OR d.forward,
+          status = CASE WHEN d.forward THEN a.status ELSE 'EXPIRED' END,
+          sla_deadline = CASE WHEN d.forward
+                              THEN CAST(? AS timestamptz) + make_interval(hours => COALESCE(
+                                  (SELECT s.escalation_sla_hours FROM hospital_settings s
+                                   ORDER BY s.created_at LIMIT 1), ?))
+                              ELSE a.sla_deadline END,
+          updated_at = now()
+      FROM due d
+      WHERE a.id = d.id
+      RETURNING a.id, d.forward, a.sla_deadline, a.episode_id, a.alert_type, a.severity,
+                a.status, a.assigned_to, a.day_number, d.previous_assignee
+      """;
+
+  private final DataSourceProperties dataSourceProperties;
+  private final JdbcTemplate jdbcTemplate;
+  private final StringRedisTemplate redisTemplate;
+  private final DashboardEventBroker eventBroker;
+  private final boolean enabled;
+  private final boolean redisEnabled;
+  private final long tickMillis;
+  private final Duration resyncInterval;
+  private final Duration acquireRetry;
+  private final int forwardSlaHours;
+  private final Counter forwarded;
+  private final Counter expired;
+  private final AtomicInteger pendingTimers = new AtomicInteger();
+  // Alerts reported changed, handed from the listener thread to the worker
+  private final Queue<UUID> changed = new ConcurrentLinkedQueue<>();
+
+  private volatile boolean running;
+  // Whether changes are worth queueing: only the owner applies them
+  private volatile boolean owning;
+  private Thread worker;
+
+  // Owned by the worker thread
+  private Connection lockConnection;
+  private SlaTimerWheel wheel;
+  private Instant lastRebuildAt;
+  // Last lock acquisition attempt, or while owning, last check that the lock is still held
+  private Instant lastAcquireAttemptAt = Instant.EPOCH;
+
+  public AlertSlaEnforcer(
+      DataSourceProperties dataSourceProperties,
+      JdbcTemplate jdbcTemplate,
+      StringRedisTemplate redisTemplate,
+      DashboardEventBroker eventBroker,
+      MeterRegistry meterRegistry,
+      @Value("${app.alert-sla.enabled:true}") boolean enabled,
+      @Value("${app.alert-sla.tick-millis:1000}") long tickMillis,
+      @Value("${app.alert-sla.resync-minutes:30}") long resyncMinutes,
+      @Value("${app.alert-sla.acquire-retry-seconds:15}") long acquireRetrySeconds,
+      @Value("${app.alert-sla.forward-sla-hours:2}") int forwardSlaHours,
+      @Value("${app.alert-sla.redis-enabled:false}") boolean redisEnabled,
+      @Value("${spring.quartz.properties.org.quartz.jobStore.isClustered:false}")
+          boolean quartzClustered) {
+    if (quartzClustered && !redisEnabled) {
+      throw new IllegalStateException(
+          "Quartz is clustered but alert SLA changes are only reported on this node; alerts raised"
+              + " by jobs on other nodes would not be timed until the next resync. Set"
+              + " app.alert-sla.redis-enabled=true.");
+    }
+    this.dataSourceProperties = dataSourceProperties;
+    this.jdbcTemplate = jdbcTemplate;
+    this.redisTemplate = redisTemplate;
+    this.eventBroker = eventBroker;
+    this.enabled = enabled;
+    this.redisEnabled = redisEnabled;
+    this.tickMillis = tickMillis;
+    this.resyncInterval = Duration.ofMinutes(resyncMinutes);
+    this.acquireRetry = Duration.ofSeconds(acquireRetrySeconds);
+    this.forwardSlaHours = forwardSlaHours;
+    this.forwarded =
+        Counter.builder("orthowatch.alerts.sla")
+            .tag("outcome", "forwarded")
+            .register(meterRegistry);
+    this.expired =
+        Counter.builder("orthowatch.alerts.sla").tag("outcome", "expired").register(meterRegistry);
+    Gauge.builder("orthowatch.alerts.sla.timers", pendingTimers, AtomicInteger::get)
+        .description("Alert SLA timers held by this node; 0 unless it owns the wheel")
+        .register(meterRegistry);
+  }
+
+  @PostConstruct
+  void start() {
+    if (!enabled) {
+      return;
+    }
+    running = true;
+    worker = new Thread(this::run, "alert-sla");
+    worker.setDaemon(true);
+    worker.start();
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    running = false;
+    if (worker != null) {
+      worker.interrupt();
+      worker.join(5_000);
+    }
+  }
+
+  private void run() {
+    try {
+      while (running) {
+        try {
+          if (ownsWheel()) {
+            tick(Instant.now());
+          }
+        } catch (DataAccessException | SQLException e) {
+          logger.warn("Alert SLA enforcement failed, releasing ownership: {}", e.getMessage());
+          release();
+        }
+        Thread.sleep(tickMillis);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      release();
+    }
+  }
+
+  /**
+   * Reports alerts that were raised, or whose status or deadline changed, to the owner of the
+   * wheel, on whichever node, once the current transaction commits (or at once outside one). Calls
+   * within one transaction are reported together.
+   */
+  public void deadlinesChangedAfterCommit(Collection<UUID> alertIds) {
+    if (alertIds.isEmpty()) {
+      return;
+    }
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      publishChanged(alertIds);
+      return;
+    }
+    @SuppressWarnings("unchecked")
+    Set<UUID> pending = (Set<UUID>) TransactionSynchronizationManager.getResource(this);
+    if (pending == null) {
+      Set<UUID> batch = new HashSet<>();
+      TransactionSynchronizationManager.bindResource(this, batch);
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              TransactionSynchronizationManager.unbindResourceIfPossible(AlertSlaEnforcer.this);
+              if (status == STATUS_COMMITTED) {
+                publishChanged(batch);
+              }
+            }
+          });
+      pending = batch;
+    }
+    pending.addAll(alertIds);
+  }
+
+  /** Queues alert ids received on {@link #CHANGED_CHANNEL}, if this node owns the wheel. */
+  public void receiveChanged(String message) {
+    if (!owning) {
+      return;
+    }
+    for (String alertId : message.split(",")) {
+      changed.add(UUID.fromString(alertId));
+    }
+  }
+
+  private void publishChanged(Collection<UUID> alertIds) {
+    String message = alertIds.stream().map(UUID::toString).collect(Collectors.joining(","));
+    if (redisEnabled) {
+      try {
+        redisTemplate.convertAndSend(CHANGED_CHANNEL, message);
+        return;
+      } catch (DataAccessException e) {
+        // The owner picks these up at its next resync at the latest
+        logger.warn(
+            "Failed to report {} changed alert deadlines: {}", alertIds.size(), e.getMessage());
+      }
+    }
+    receiveChanged(message);
+  }
+
+  /**
+   * Fires every timer due at {@code now}, first rebuilding the wheel or applying reported changes
+   * as needed. Only called by the owner.
+   *
+   * @return the number of alerts forwarded or expired
+   */
+  public int tick(Instant now) {
+    if (wheel == null || !now.isBefore(lastRebuildAt.plus(resyncInterval))) {
+      rebuild(now);
+    } else {
+      applyChanges();
+    }
+    List<UUID> due = wheel.advanceTo(now.toEpochMilli() / tickMillis);
+    pendingTimers.set(wheel.size());
+    return due.isEmpty() ? 0 : fire(due, now);
+  }
+
+  private void rebuild(Instant now) {
+    // Changes reported before the read below are covered by it
+    owning = true;
+    changed.clear();
+    SlaTimerWheel rebuilt = new SlaTimerWheel(now.toEpochMilli() / tickMillis);
+    wheel = rebuilt;
+    jdbcTemplate.query(PENDING_SQL, (RowCallbackHandler) this::schedule);
+    lastRebuildAt = now;
+    logger.info("Alert SLA wheel rebuilt with {} pending deadlines", rebuilt.size());
+  }
+
+  // Reschedules reported alerts that are still pending with a deadline and cancels the rest,
+  // including any that no longer exist
+  private void applyChanges() {
+    Set<UUID> alertIds = new HashSet<>();
+    UUID alertId;
+    while ((alertId = changed.poll()) != null) {
+      alertIds.add(alertId);
+    }
+    if (alertIds.isEmpty()) {
+      return;
+    }
+    Set<UUID> gone = new HashSet<>(alertIds);
+    jdbcTemplate.query(
+        CHANGED_SQL,
+        (RowCallbackHandler)
+            rs -> {
+              UUID id = rs.getObject("id", UUID.class);
+              gone.remove(id);
+              if ("PENDING".equals(rs.getString("status"))
+                  && rs.getObject("sla_deadline") != null) {
+                schedule(rs);
+              } else {
+                wheel.cancel(id);
+              }
+            },
+        (Object) alertIds.stream().map(UUID::toString).toArray(String[]::new));
+    gone.forEach(wheel::cancel);
+  }
+
+  private void schedule(ResultSet rs) throws SQLException {
+    wheel.schedule(
+        rs.getObject("id", UUID.class),
+        deadlineTick(rs.getObject("sla_deadline", OffsetDateTime.class).toInstant()));
+  }
+
+  private int fire(List<UUID> alertIds, Instant now) {
+    Timestamp at = Timestamp.from(now);
+    int[] handled = {0};
+    jdbcTemplate.query(
+        FIRE_SQL,
+        rs -> {
+          handled[0]++;
+          boolean forward = rs.getBoolean("forward");
+          if (forward) {
+            forwarded.increment();
+            schedule(rs);
+          } else {
+            expired.increment();
+          }
+          publish(rs, forward);
+        },
+        (Object) alertIds.stream().map(UUID::toString).toArray(String[]::new),
+        at,
+        at,
+        forwardSlaHours);
+    if (handled[0] > 0) {
+      logger.info("Alert SLA: {} alerts passed their deadline", handled[0]);
+    }
+    return handled[0];
+  }
+
+  // Tells the clinician now holding the alert, and after a forward the one who no longer does
+  private void publish(ResultSet rs, boolean forward) throws SQLException {
+    UUID assignedTo = rs.getObject("assigned_to", UUID.class);
+    DashboardEvent event =
+        DashboardEvent.builder()
+            .type(DashboardEvent.ALERT)
+            .episodeId(rs.getObject("episode_id", UUID.class))
+            .alertId(rs.getObject("id", UUID.class))
+            .alertType(rs.getString("alert_type"))
+            .severity(rs.getString("severity"))
+            .status(rs.getString("status"))
+            .assignedTo(assignedTo)
+            .dayNumber(rs.getObject("day_number", Integer.class))
+            .build();
+    eventBroker.publishAfterCommit(assignedTo, event);
+    if (forward) {
+      eventBroker.publishAfterCommit(rs.getObject("previous_assignee", UUID.class), event);
+    }
+  }
+
+  // Rounded up, so a timer never fires before the deadline the database compares against
+  private long deadlineTick(Instant deadline) {
+    return Math.floorDiv(deadline.toEpochMilli() + tickMillis - 1, tickMillis);
+  }
+
+  private boolean ownsWheel() throws SQLException {
+    Instant now = Instant.now();
+    if (now.isBefore(lastAcquireAttemptAt.plus(acquireRetry))) {
+      return lockConnection != null;
+    }
+    lastAcquireAttemptAt = now;
+    if (lockConnection != null) {
+      if (lockConnection.isValid(2)) {
+        return true;
+      }
+      logger.warn("Alert SLA lock connection lost, giving up ownership");
+      release();
+    }
+    Connection connection = openLockConnection();
+    try (PreparedStatement statement =
+        connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+      statement.setLong(1, LOCK_KEY);
+      try (ResultSet rs = statement.executeQuery()) {
+        if (rs.next() && rs.getBoolean(1)) {
+          lockConnection = connection;
+          logger.info("Took ownership of alert SLA enforcement");
+          return true;
+        }
+      }
+    } catch (SQLException e) {
+      connection.close();
+      throw e;
+    }
+    connection.close();
+    return false;
+  }
+
+  // Outside the pool: the lock is held for as long as the node owns the wheel, which would pin a
+  // pooled connection indefinitely
+  private Connection openLockConnection() throws SQLException {
+    return DriverManager.getConnection(
+        dataSourceProperties.determineUrl(),
+        dataSourceProperties.determineUsername(),
+        dataSourceProperties.determinePassword());
+  }
+
+  private void release() {
+    owning = false;
+    wheel = null;
+    changed.clear();
+    pendingTimers.set(0);
+    if (lockConnection != null) {
+      // Not pooled, so closing ends the session and with it the lock
+      try {
+        lockConnection.close();
+      } catch (SQLException e) {
+        logger.debug("Failed to close alert SLA lock connection: {}", e.getMessage());
+      }
+      lockConnection = null;
+    }
+  }
+}
@@ -0,0 +1,294 @@
+package com.orthowatch.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orthowatch.model.ClinicalAuditLog;
+import com.orthowatch.repository.ClinicalAuditLogRepository;
+import com.orthowatch.util.UuidV7;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Single entry point for writing {@link ClinicalAuditLog} records.
+ *
+ * <p>In {@code sync} mode records are saved in the caller's transaction, exactly as before. In
+ * {@code async} mode (the default) they are handed to a bounded in-memory queue once the caller's
+ * transaction commits, and a background thread writes them as multi-row inserts. The guarantees
+ * are:
+ *
+ * <ul>
+ *   <li>Nothing is dropped when the queue is full: the caller waits up to {@code offer-timeout-ms}
+ *       for space, and a record that still does not fit is handed to the writer thread through an
+ *       unbounded overflow list it drains first. The request thread never writes itself, so a burst
+ *       cannot take a second pooled connection per request, and nothing is thrown after the
+ *       caller's commit.
+ *   <li>Transient database failures are retried until the database comes back; a batch that fails
+ *       for any other reason is retried row by row, and rows that still fail are logged in full.
+ *   <li>Graceful shutdown drains the queue. Records still queued when the process is killed are
+ *       lost, so at most {@code queue-capacity} records (plus any overflow) are at risk; use {@code
+ *       sync} mode where that is unacceptable.
+ * </ul>
+ */
+@Service
+public class AuditLogWriter {
+
+  private static final Logger logger = LoggerFactory.getLogger(AuditLogWriter.class);
+
+  private static final String INSERT_PREFIX =
+      "INSERT INTO clinical_audit_log (id, user_id, episode_id, action, resource_type,"
+          + " resource_id, risk_score_at_action, details, ip_address, user_agent, created_at)"
+          + " VALUES ";
+  private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?, ?, ?, ?::jsonb, ?, ?, ?)";
+  private static final long RETRY_BACKOFF_MS = 1000;
+
+  private final ClinicalAuditLogRepository clinicalAuditLogRepository;
+  private final JdbcTemplate jdbcTemplate;
+  private final ObjectMapper objectMapper;
+  private final boolean async;
+  private final long offerTimeoutMs;
+  private final int batchSize;
+  private final long flushIntervalMs;
+  private final long shutdownTimeoutMs;
+  private final BlockingQueue<ClinicalAuditLog> queue;
+  // Records that did not fit in the queue in time; drained by the writer thread before the queue
+  private final ConcurrentLinkedQueue<ClinicalAuditLog> overflow = new ConcurrentLinkedQueue<>();
+  private final Counter written;
+  private final Counter overflowed;
+  private final Counter failed;
+
+  private volatile boolean running;
+  private Thread writerThread;
+
+  public AuditLogWriter(
+      ClinicalAuditLogRepository clinicalAuditLogRepository,
+      JdbcTemplate jdbcTemplate,
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${app.audit.mode:async}") String mode,
+      @Value("${app.audit.queue-capacity:10000}") int queueCapacity,
+      @Value("${app.audit.batch-size:100}") int batchSize,
+      @Value("${app.audit.flush-interval-ms:200}") long flushIntervalMs,
+      @Value("${app.audit.offer-timeout-ms:500}") long offerTimeoutMs,
+      @Value("${app.audit.shutdown-timeout-seconds:10}") long shutdownTimeoutSeconds) {
+    this.clinicalAuditLogRepository = clinicalAuditLogRepository;
+    this.jdbcTemplate = jdbcTemplate;
+    this.objectMapper = objectMapper;
+    this.async = "async".equalsIgnoreCase(mode);
+    this.offerTimeoutMs = offerTimeoutMs;
+    this.batchSize = batchSize;
+    this.flushIntervalMs = flushIntervalMs;
+    this.shutdownTimeoutMs = TimeUnit.SECONDS.toMillis(shutdownTimeoutSeconds);
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    Gauge.builder("orthowatch.audit.queue.depth", queue, BlockingQueue::size)
+        .register(meterRegistry);
+    Gauge.builder("orthowatch.audit.overflow.depth", overflow, ConcurrentLinkedQueue::size)
+        .register(meterRegistry);
+    this.written = Counter.builder("orthowatch.audit.written").register(meterRegistry);
+    this.overflowed = Counter.builder("orthowatch.audit.overflowed").register(meterRegistry);
+    this.failed = Counter.builder("orthowatch.audit.failed").register(meterRegistry);
+  }
+
+  @PostConstruct
+  void start() {
+    if (!async) {
+      return;
+    }
+    running = true;
+    writerThread = new Thread(this::runWriter, "audit-log-writer");
+    writerThread.setDaemon(true);
+    writerThread.start();
+  }
+
+  @PreDestroy
+  void stop() throws InterruptedException {
+    if (writerThread == null) {
+      return;
+    }
+    running = false;
+    writerThread.join(shutdownTimeoutMs);
+    if (!queue.isEmpty() || !overflow.isEmpty()) {
+      logger.error(
+          "Audit log writer stopped with {} records still queued", queue.size() + overflow.size());
+    }
+  }
+
+  public void write(ClinicalAuditLog auditLog) {
+    writeAll(List.of(auditLog));
+  }
+
+  /** Writes the records now (sync mode) or once the surrounding transaction commits (async). */
+  public void writeAll(Collection<ClinicalAuditLog> auditLogs) {
+    if (auditLogs.isEmpty()) {
+      return;
+    }
+    if (!async) {
+      clinicalAuditLogRepository.saveAll(auditLogs);
+      return;
+    }
+    // Stamp now so that ids and created_at reflect when the action happened, not when it was
+    // flushed
+    OffsetDateTime now = OffsetDateTime.now();
+    List<ClinicalAuditLog> records = new ArrayList<>(auditLogs);
+    for (ClinicalAuditLog record : records) {
+      if (record.getId() == null) {
+        record.setId(UuidV7.randomUuid());
+      }
+      if (record.getCreatedAt() == null) {
+        record.setCreatedAt(now);
+      }
+    }
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              enqueue(records);
+            }
+          });
+    } else {
+      enqueue(records);
+    }
+  }
+
+  // Runs after the caller's commit, so it must not throw; a full queue slows the caller down
+  // instead
+  private void enqueue(List<ClinicalAuditLog> records) {
+    for (ClinicalAuditLog record : records) {
+      boolean queued = false;
+      if (!Thread.currentThread().isInterrupted()) {
+        try {
+          queued = queue.offer(record, offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      if (!queued) {
+        overflow.add(record);
+        overflowed.increment();
+      }
+    }
+  }
+
+  private void runWriter() {
+    while (running || !queue.isEmpty() || !overflow.isEmpty()) {
+      try {
+        drainOnce(flushIntervalMs);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      } catch (RuntimeException e) {
+        logger.error("Audit log writer iteration failed", e);
+      }
+    }
+  }
+
+  /**
+   * Writes overflowed records and whatever is queued, waiting up to {@code waitMs} for a record if
+   * there are none.
+   */
+  void drainOnce(long waitMs) throws InterruptedException {
+    List<ClinicalAuditLog> batch = new ArrayList<>(batchSize);
+    ClinicalAuditLog next;
+    while (batch.size() < batchSize && (next = overflow.poll()) != null) {
+      batch.add(next);
+    }
+    if (batch.isEmpty()) {
+      ClinicalAuditLog first = queue.poll(waitMs, TimeUnit.MILLISECONDS);
+      if (first == null) {
+        return;
+      }
+      batch.add(first);
+    }
+    queue.drainTo(batch, batchSize - batch.size());
+    writeBatch(batch);
+  }
+
+  private void writeBatch(List<ClinicalAuditLog> batch) throws InterruptedException {
+    while (true) {
+      try {
+        insertRows(batch);
+        written.increment(batch.size());
+        return;
+      } catch (TransientDataAccessException | DataAccessResourceFailureException e) {
+        logger.warn(
+            "Audit log batch of {} failed transiently, retrying: {}", batch.size(), e.getMessage());
+        Thread.sleep(RETRY_BACKOFF_MS);
+      } catch (DataAccessException e) {
+        writeRowByRow(batch);
+        return;
+      }
+    }
+  }
+
+  private void writeRowByRow(List<ClinicalAuditLog> batch) {
+    for (ClinicalAuditLog record : batch) {
+      try {
+        insertRows(List.of(record));
+        written.increment();
+      } catch (DataAccessException e) {
+        failed.increment();
+        logger.error(
+            "Failed to write audit record id={} userId={} episodeId={} action={} details={}: {}",
+            record.getId(),
+            record.getUser() != null ? record.getUser().getId() : null,
+            record.getEpisodeId(),
+            record.getAction(),
+            record.getDetails(),
+            e.getMessage());
+      }
+    }
+  }
+
+  private void insertRows(List<ClinicalAuditLog> rows) {
+    StringBuilder sql = new StringBuilder(INSERT_PREFIX);
+    List<Object> args = new ArrayList<>(rows.size() * 11);
+    for (int i = 0; i < rows.size(); i++) {
+      ClinicalAuditLog row = rows.get(i);
+      sql.append(i == 0 ? "" : ", ").append(ROW_PLACEHOLDERS);
+      args.add(row.getId());
+      args.add(row.getUser() != null ? row.getUser().getId() : null);
+      args.add(row.getEpisodeId());
+      args.add(row.getAction());
+      args.add(row.getResourceType());
+      args.add(row.getResourceId());
+      args.add(row.getRiskScoreAtAction());
+      args.add(toJson(row));
+      args.add(row.getIpAddress());
+      args.add(row.getUserAgent());
+      args.add(row.getCreatedAt());
+    }
+    jdbcTemplate.update(sql.toString(), args.toArray());
+  }
+
+  private String toJson(ClinicalAuditLog row) {
+    if (row.getDetails() == null) {
+      return null;
+    }
+    try {
+      return objectMapper.writeValueAsString(row.getDetails());
+    } catch (JsonProcessingException e) {
+      throw new IllegalArgumentException("Audit details are not serializable", e);
+    }
+  }
+}
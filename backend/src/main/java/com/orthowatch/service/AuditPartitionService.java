@@ -0,0 +1,216 @@
+package com.orthowatch.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Maintains the monthly partitions of {@code clinical_audit_log}.
+ *
+ * <p>Partitions are created {@code months-ahead} months in advance. Partitions older than {@code
+ * hot-months} are the cold tier: each is detached, exported to {@code
+ * <directory>/clinical_audit_log_yYYYYmMM.ndjson.gz} (one JSON object per row), and dropped only
+ * once the file is complete and synced to disk. Every step can be rerun, so a run that dies half
+ * way is finished by the next one.
+ */
+@Service
+public class AuditPartitionService {
+
+  private static final Logger logger = LoggerFactory.getLogger(AuditPartitionService.class);
+
+  // Partition names are interpolated into DDL, so only names matching this pattern are touched
+  private static final Pattern PARTITION_NAME =
+      Pattern.compile("clinical_audit_log_y(\\d{4})m(\\d{2})");
+  private static final int EXPORT_FETCH_SIZE = 1000;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final JdbcTemplate exportJdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final ObjectMapper objectMapper;
+  private final int monthsAhead;
+  private final int hotMonths;
+  private final Path archiveDirectory;
+
+  public AuditPartitionService(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      ObjectMapper objectMapper,
+      @Value("${app.audit.partitions.months-ahead:3}") int monthsAhead,
+      @Value("${app.audit.archive.hot-months:13}") int hotMonths,
+      @Value("${app.audit.archive.directory:./audit-archive}") String archiveDirectory) {
+    this.jdbcTemplate = jdbcTemplate;
+    // The PostgreSQL driver only streams a result set inside a transaction with a fetch size set
+    this.exportJdbcTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+    this.exportJdbcTemplate.setFetchSize(EXPORT_FETCH_SIZE);
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.objectMapper = objectMapper;
+    this.monthsAhead = monthsAhead;
+    this.hotMonths = hotMonths;
+    this.archiveDirectory = Path.of(archiveDirectory);
+  }
+
+  /** Creates any missing partitions from the current month to {@code months-ahead} months out. */
+  public void ensurePartitions() {
+    YearMonth current = YearMonth.now(ZoneOffset.UTC);
+    for (int i = 0; i <= monthsAhead; i++) {
+      LocalDate monthStart = current.plusMonths(i).atDay(1);
+      jdbcTemplate.queryForObject(
+          "SELECT ensure_clinical_audit_log_partition(?)", String.class, monthStart);
+    }
+  }
+
+  /**
+   * Detaches, exports and drops every partition older than the hot window.
+   *
+   * @return the partitions archived by this run
+   */
+  public List<String> archiveColdPartitions() {
+    YearMonth oldestHot = YearMonth.now(ZoneOffset.UTC).minusMonths(hotMonths - 1L);
+    List<String> archived = new ArrayList<>();
+    for (PartitionTable partition : listMonthlyPartitions()) {
+      if (partition.month().isBefore(oldestHot)) {
+        archive(partition);
+        archived.add(partition.name());
+      }
+    }
+    return archived;
+  }
+
+  private List<PartitionTable> listMonthlyPartitions() {
+    // Detached partitions from an interrupted run are no longer children, so list by name
+    return jdbcTemplate
+        .query(
+            "SELECT c.relname, i.inhparent IS NOT NULL AS attached FROM pg_class c"
+                + " JOIN pg_namespace n ON n.oid = c.relnamespace"
+                + " LEFT JOIN pg_inherits i ON i.inhrelid = c.oid"
+                + " WHERE n.nspname = current_schema() AND c.relkind = 'r'"
+                + " AND c.relname LIKE 'clinical\\_audit\\_log\\_y%' ORDER BY c.relname",
+            (rs, rowNum) -> PartitionTable.parse(rs.getString(1), rs.getBoolean(2)))
+        .stream()
+        .filter(partition -> partition != null)
+        .toList();
+  }
+
+  private void archive(PartitionTable partition) {
+    if (partition.attached()) {
+      jdbcTemplate.execute("ALTER TABLE clinical_audit_log DETACH PARTITION " + partition.name());
+    }
+    Path target = archiveDirectory.resolve(partition.name() + ".ndjson.gz");
+    long exported = export(partition.name(), target);
+    Long expected =
+        jdbcTemplate.queryForObject("SELECT count(*) FROM " + partition.name(), Long.class);
+    if (expected == null || expected != exported) {
+      throw new IllegalStateException(
+          "Archive of " + partition.name() + " has " + exported + " rows, expected " + expected);
+    }
+    jdbcTemplate.execute("DROP TABLE " + partition.name());
+    logger.info("Archived audit partition {} ({} rows) to {}", partition.name(), exported, target);
+  }
+
+  private long export(String partitionName, Path target) {
+    Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+    try {
+      Files.createDirectories(archiveDirectory);
+      long rows;
+      try (Writer writer =
+          new BufferedWriter(
+              new OutputStreamWriter(
+                  new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8))) {
+        rows = writeRows(partitionName, writer);
+      }
+      try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+        channel.force(true);
+      }
+      Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      return rows;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to archive " + partitionName + " to " + target, e);
+    }
+  }
+
+  private long writeRows(String partitionName, Writer writer) {
+    long[] rows = {0};
+    transactionTemplate.executeWithoutResult(
+        status ->
+            exportJdbcTemplate.query(
+                "SELECT id, user_id, episode_id, action, resource_type, resource_id,"
+                    + " risk_score_at_action, details::text AS details, ip_address, user_agent,"
+                    + " created_at FROM "
+                    + partitionName
+                    + " ORDER BY created_at, id",
+                rs -> {
+                  try {
+                    writer.write(objectMapper.writeValueAsString(toJson(rs)));
+                    writer.write('\n');
+                    rows[0]++;
+                  } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                  }
+                }));
+    return rows[0];
+  }
+
+  private ObjectNode toJson(ResultSet rs) throws SQLException, IOException {
+    ObjectNode row = objectMapper.createObjectNode();
+    row.put("id", rs.getString("id"));
+    row.put("user_id", rs.getString("user_id"));
+    row.put("episode_id", rs.getString("episode_id"));
+    row.put("action", rs.getString("action"));
+    row.put("resource_type", rs.getString("resource_type"));
+    row.put("resource_id", rs.getString("resource_id"));
+    int riskScore = rs.getInt("risk_score_at_action");
+    if (rs.wasNull()) {
+      row.putNull("risk_score_at_action");
+    } else {
+      row.put("risk_score_at_action", riskScore);
+    }
+    String details = rs.getString("details");
+    row.set("details", details != null ? objectMapper.readTree(details) : null);
+    row.put("ip_address", rs.getString("ip_address"));
+    row.put("user_agent", rs.getString("user_agent"));
+    row.put("created_at", rs.getObject("created_at", OffsetDateTime.class).toString());
+    return row;
+  }
+
+  record PartitionTable(String name, YearMonth month, boolean attached) {
+
+    static PartitionTable parse(String name, boolean attached) {
+      Matcher matcher = PARTITION_NAME.matcher(name);
+      if (!matcher.matches()) {
+        return null;
+      }
+      YearMonth month =
+          YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+      return new PartitionTable(name, month, attached);
+    }
+  }
+}
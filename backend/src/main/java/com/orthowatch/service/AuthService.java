@@ -2,17 +2,24 @@ package com.orthowatch.service;
 
 import com.orthowatch.dto.LoginRequest;
 import com.orthowatch.dto.LoginResponse;
+import com.orthowatch.exception.RateLimitExceededException;
 import com.orthowatch.model.User;
 import com.orthowatch.repository.UserRepository;
 import com.orthowatch.util.JwtUtil;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
 @Service
 @RequiredArgsConstructor
 public class AuthService {
@@ -20,9 +27,11 @@ public class AuthService {
     private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
     private final JwtUtil jwtUtil;
+    private final TokenRevocationService tokenRevocationService;
+    private final ExecutorService passwordHashExecutor;
 
     public LoginResponse login(LoginRequest request) {
-        Authentication authentication = authenticationManager.authenticate(
+        Authentication authentication = authenticateOffThread(
                 new UsernamePasswordAuthenticationToken(
                         request.getEmail(),
                         request.getPassword()
@@ -66,7 +75,12 @@ public class AuthService {
         if (username != null && jwtUtil.validateRefreshToken(refreshToken, username)) {
              User user = userRepository.findByEmail(username)
                      .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-             
+
+             // Access tokens may be trusted without a DB lookup, so never mint one for a disabled user
+             if (!user.isActive()) {
+                 throw new BadCredentialsException("User account is disabled");
+             }
+
              String newAccessToken = jwtUtil.generateAccessToken(user.getEmail(), user.getRole(), user.getFullName());
              
              return LoginResponse.builder()
@@ -79,4 +93,37 @@ public class AuthService {
         }
         throw new RuntimeException("Invalid refresh token"); // Should be a custom exception handled by GlobalExceptionHandler
     }
+
+    /**
+     * Revokes the caller's access token so it cannot be replayed after logout.
+     *
+     * @throws org.springframework.dao.DataAccessException if the revocation could not be recorded,
+     *     so that the caller is not told it has logged out while the token is still accepted
+     */
+    public void logout(String accessToken) {
+        if (accessToken == null) {
+            return;
+        }
+        jwtUtil.verifyAccessToken(accessToken)
+                .ifPresent(claims -> tokenRevocationService.revokeToken(claims.tokenId(), claims.expiresAt()));
+    }
+
+    /**
+     * Runs the BCrypt check on the bounded password-hash pool. When the pool's queue is full the
+     * attempt is rejected straight away rather than queueing behind other logins.
+     */
+    private Authentication authenticateOffThread(Authentication credentials) {
+        try {
+            return CompletableFuture
+                    .supplyAsync(() -> authenticationManager.authenticate(credentials), passwordHashExecutor)
+                    .join();
+        } catch (RejectedExecutionException e) {
+            throw new RateLimitExceededException("Login service is busy. Please try again shortly.", 1);
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
 }
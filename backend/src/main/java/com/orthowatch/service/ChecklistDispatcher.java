@@ -0,0 +1,208 @@
+package com.orthowatch.service;
+
+import com.orthowatch.messaging.EpisodeRoutingIndex;
+import com.orthowatch.messaging.OutboundMessage;
+import com.orthowatch.messaging.OutboundMessenger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Sends each active episode's daily checklist at its local checklist time.
+ *
+ * <p>Due times live in {@code episodes.next_checklist_at}. A {@link DispatchWheel} built from one
+ * aggregate query holds how many checklists fall in each UTC minute of the next 24 hours, so most
+ * ticks are answered from memory. When the current minute has work, due episodes are claimed in
+ * batches with {@code FOR UPDATE SKIP LOCKED}, advanced to their next local checklist time and
+ * handed to the {@link OutboundMessenger} in the same transaction; concurrent nodes never claim the
+ * same episode.
+ *
+ * <p>The wheel is rebuilt every {@code app.checklist.wheel-refresh-minutes} so that episodes
+ * enrolled (possibly on another node) since the last build are picked up; each claim takes every
+ * due episode, not just the current minute's, so nothing is sent later than that interval.
+ */
+@Service
+public class ChecklistDispatcher {
+
+  private static final Logger logger = LoggerFactory.getLogger(ChecklistDispatcher.class);
+
+  private static final String DUE_COUNTS_SQL =
+      "SELECT FLOOR(EXTRACT(EPOCH FROM next_checklist_at) / 60)::bigint AS minute, COUNT(*)"
+          + " FROM episodes WHERE status = 'ACTIVE' AND next_checklist_at < ? GROUP BY 1";
+
+  // Claims due episodes and moves each to its next local checklist time (skipping days missed
+  // while nothing was dispatching), or clears it after the template's last monitoring day.
+  private static final String CLAIM_SQL =
+      """
+      WITH due AS (
+          SELECT e.id, e.next_checklist_at AS due_at,
+                 (e.next_checklist_at AT TIME ZONE e.timezone)::date - e.discharge_date AS day_number,
+                 GREATEST((e.next_checklist_at AT TIME ZONE e.timezone)::date + 1,
+                          (CAST(? AS timestamptz) AT TIME ZONE e.timezone)::date
+                              + CASE WHEN (CAST(? AS timestamptz) AT TIME ZONE e.timezone)::time
+                                          < e.checklist_time THEN 0 ELSE 1 END) AS next_date
+          FROM episodes e
+          WHERE e.status = 'ACTIVE' AND e.next_checklist_at <= ?
+          ORDER BY e.next_checklist_at
+          LIMIT ?
+          FOR UPDATE SKIP LOCKED
+      )
+      UPDATE episodes e
+      SET next_checklist_at = CASE WHEN d.next_date - e.discharge_date > t.monitoring_days THEN NULL
+                                   ELSE (d.next_date + e.checklist_time) AT TIME ZONE e.timezone END,
+          current_day = CASE WHEN e.consent_status = 'GRANTED'
+                             THEN GREATEST(e.current_day, d.day_number) ELSE e.current_day END,
+          updated_at = now()
+      FROM due d, recovery_templates t, patients p
+      WHERE e.id = d.id AND t.id = e.template_id AND p.id = e.patient_id
+      RETURNING e.id, p.phone_primary, p.preferred_language, e.consent_status, d.day_number,
+                d.due_at
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final TransactionTemplate transactionTemplate;
+  private final OutboundMessenger outboundMessenger;
+  private final EpisodeRoutingIndex routingIndex;
+  private final int batchSize;
+  private final Duration wheelRefresh;
+  private final Duration maxLateness;
+  private final Counter dispatched;
+  private final Counter skipped;
+
+  private DispatchWheel wheel;
+  private Instant wheelBuiltAt;
+
+  public ChecklistDispatcher(
+      JdbcTemplate jdbcTemplate,
+      PlatformTransactionManager transactionManager,
+      OutboundMessenger outboundMessenger,
+      EpisodeRoutingIndex routingIndex,
+      MeterRegistry meterRegistry,
+      @Value("${app.checklist.batch-size:500}") int batchSize,
+      @Value("${app.checklist.wheel-refresh-minutes:15}") long wheelRefreshMinutes,
+      @Value("${app.checklist.max-lateness-minutes:360}") long maxLatenessMinutes) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.outboundMessenger = outboundMessenger;
+    this.routingIndex = routingIndex;
+    this.batchSize = batchSize;
+    this.wheelRefresh = Duration.ofMinutes(wheelRefreshMinutes);
+    this.maxLateness = Duration.ofMinutes(maxLatenessMinutes);
+    this.dispatched =
+        Counter.builder("orthowatch.checklist.dispatched")
+            .tag("result", "sent")
+            .register(meterRegistry);
+    this.skipped =
+        Counter.builder("orthowatch.checklist.dispatched")
+            .tag("result", "skipped")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Dispatches whatever is due at {@code now}.
+   *
+   * @return the number of checklists handed to the messenger
+   */
+  public synchronized int tick(Instant now) {
+    long minute = now.getEpochSecond() / 60;
+    if (wheel == null || !wheel.covers(minute) || !now.isBefore(wheelBuiltAt.plus(wheelRefresh))) {
+      rebuildWheel(now);
+    }
+    if (!wheel.hasDueThrough(minute)) {
+      return 0;
+    }
+    int sent = dispatchDue(now);
+    wheel.markDispatchedThrough(minute);
+    return sent;
+  }
+
+  private void rebuildWheel(Instant now) {
+    long startMinute = now.getEpochSecond() / 60;
+    Timestamp end =
+        Timestamp.from(Instant.ofEpochSecond((startMinute + DispatchWheel.MINUTES) * 60));
+    Map<Long, Integer> dueCounts = new HashMap<>();
+    jdbcTemplate.query(
+        DUE_COUNTS_SQL,
+        rs -> {
+          dueCounts.put(rs.getLong(1), rs.getInt(2));
+        },
+        end);
+    wheel = new DispatchWheel(startMinute, dueCounts);
+    wheelBuiltAt = now;
+    logger.debug("Checklist wheel rebuilt: {} checklists due in the next 24h", wheel.pending());
+  }
+
+  /** Claims and sends due checklists batch by batch until none are left. */
+  int dispatchDue(Instant now) {
+    int total = 0;
+    int claimed;
+    do {
+      int[] counts = transactionTemplate.execute(status -> claimBatch(now));
+      claimed = counts[0];
+      total += counts[1];
+    } while (claimed == batchSize);
+    if (total > 0) {
+      logger.info("Dispatched {} daily checklists", total);
+    }
+    return total;
+  }
+
+  private int[] claimBatch(Instant now) {
+    Timestamp at = Timestamp.from(now);
+    OffsetDateTime staleBefore = OffsetDateTime.ofInstant(now.minus(maxLateness), ZoneOffset.UTC);
+    List<OutboundMessage> messages = new ArrayList<>();
+    List<UUID> advanced = new ArrayList<>();
+    int[] claimed = {0};
+    jdbcTemplate.query(
+        CLAIM_SQL,
+        rs -> {
+          claimed[0]++;
+          OffsetDateTime dueAt = rs.getObject("due_at", OffsetDateTime.class);
+          int dayNumber = rs.getInt("day_number");
+          if ("GRANTED".equals(rs.getString("consent_status"))) {
+            advanced.add(rs.getObject("id", UUID.class));
+          }
+          // Consent still pending, or a checklist missed by long enough that it no longer
+          // makes sense: the day is skipped, the episode has already moved on to its next one
+          if ("GRANTED".equals(rs.getString("consent_status"))
+              && dayNumber >= 1
+              && !dueAt.isBefore(staleBefore)) {
+            messages.add(
+                OutboundMessage.dailyChecklist(
+                    rs.getObject("id", UUID.class),
+                    rs.getString("phone_primary"),
+                    dayNumber,
+                    rs.getString("preferred_language"),
+                    dueAt));
+          }
+        },
+        at,
+        at,
+        at,
+        batchSize);
+    if (!messages.isEmpty()) {
+      outboundMessenger.send(messages);
+    }
+    // Inbound answers are routed to the episode's current day, which has just moved on
+    routingIndex.refreshEpisodesAfterCommit(advanced);
+    dispatched.increment(messages.size());
+    skipped.increment(claimed[0] - messages.size());
+    return new int[] {claimed[0], messages.size()};
+  }
+}
@@ -0,0 +1,218 @@
+package com.orthowatch.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orthowatch.dto.DashboardEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Pushes alert, risk score and consent changes to the dashboards of the clinicians they concern.
+ *
+ * <p>Writers publish from inside their transaction; events are held until it commits, so a
+ * dashboard never shows a change that was rolled back, and everything written in one transaction
+ * goes out together. Events addressed to an episode's care team are resolved to its primary surgeon
+ * and secondary clinician with one query per transaction.
+ *
+ * <p>When {@code app.dashboard.redis-enabled} is set, events are published on one Redis channel and
+ * every node hands them to the {@link DashboardStreams} it holds, so a clinician connected to any
+ * node sees changes made on any other; otherwise they only reach streams on this node. Pushes are
+ * best effort: a lost event is corrected when the dashboard next reconnects and refetches.
+ *
+ * <p>Local-only delivery is for a single node: the Quartz jobs that raise and escalate alerts, and
+ * the webhook that records consent, run on whichever node picks them up, so most clinicians would
+ * never see their events. Startup therefore fails when Quartz is clustered without Redis fan-out.
+ */
+@Service
+public class DashboardEventBroker {
+
+  public static final String CHANNEL = "orthowatch:dashboard:events";
+
+  private static final Logger logger = LoggerFactory.getLogger(DashboardEventBroker.class);
+
+  private static final String CARE_TEAM_SQL =
+      """
+      SELECT id, primary_surgeon_id, secondary_clinician_id
+      FROM episodes
+      WHERE id = ANY (?::uuid[])
+      """;
+
+  private final DashboardStreams streams;
+  private final JdbcTemplate jdbcTemplate;
+  private final StringRedisTemplate redisTemplate;
+  private final ObjectMapper objectMapper;
+  private final boolean redisEnabled;
+  private final Counter published;
+
+  public DashboardEventBroker(
+      DashboardStreams streams,
+      JdbcTemplate jdbcTemplate,
+      StringRedisTemplate redisTemplate,
+      ObjectMapper objectMapper,
+      MeterRegistry meterRegistry,
+      @Value("${app.dashboard.redis-enabled:false}") boolean redisEnabled,
+      @Value("${spring.quartz.properties.org.quartz.jobStore.isClustered:false}")
+          boolean quartzClustered) {
+    if (quartzClustered && !redisEnabled) {
+      throw new IllegalStateException(
+          "Quartz is clustered but dashboard events only reach streams on the node that raised"
+              + " them; clinicians connected to other nodes would miss alerts from scheduled jobs."
+              + " Set app.dashboard.redis-enabled=true.");
+    }
+    this.streams = streams;
+    this.jdbcTemplate = jdbcTemplate;
+    this.redisTemplate = redisTemplate;
+    this.objectMapper = objectMapper;
+    this.redisEnabled = redisEnabled;
+    this.published = Counter.builder("orthowatch.dashboard.events").register(meterRegistry);
+  }
+
+  /** Sends the event to one clinician once the current transaction commits. */
+  public void publishAfterCommit(UUID clinicianId, DashboardEvent event) {
+    afterCommit(new Delivery(clinicianId, event));
+  }
+
+  /**
+   * Sends the event to the primary surgeon and secondary clinician of its episode once the current
+   * transaction commits.
+   */
+  public void publishToCareTeamAfterCommit(DashboardEvent event) {
+    afterCommit(new Delivery(null, event));
+  }
+
+  /** Hands an event received on {@link #CHANNEL} to the streams open on this node. */
+  public void receive(String message) {
+    String[] parts = message.split("\\|", 3);
+    if (parts.length == 3) {
+      streams.deliver(UUID.fromString(parts[0]), parts[1], parts[2]);
+    }
+  }
+
+  private void afterCommit(Delivery delivery) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      publish(List.of(delivery));
+      return;
+    }
+    @SuppressWarnings("unchecked")
+    List<Delivery> pending = (List<Delivery>) TransactionSynchronizationManager.getResource(this);
+    if (pending == null) {
+      List<Delivery> batch = new ArrayList<>();
+      TransactionSynchronizationManager.bindResource(this, batch);
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+              TransactionSynchronizationManager.unbindResourceIfPossible(DashboardEventBroker.this);
+              if (status == STATUS_COMMITTED) {
+                publish(batch);
+              }
+            }
+          });
+      pending = batch;
+    }
+    pending.add(delivery);
+  }
+
+  private void publish(Collection<Delivery> deliveries) {
+    // Without Redis, only streams on this node can receive anything
+    if (!redisEnabled && streams.size() == 0) {
+      return;
+    }
+    List<String> messages;
+    try {
+      messages = encode(deliveries);
+    } catch (DataAccessException e) {
+      logger.debug("Failed to resolve dashboard event recipients: {}", e.getMessage());
+      return;
+    }
+    published.increment(messages.size());
+    if (redisEnabled) {
+      try {
+        redisTemplate.executePipelined(
+            (RedisCallback<Object>)
+                connection -> {
+                  StringRedisConnection strings = (StringRedisConnection) connection;
+                  messages.forEach(message -> strings.publish(CHANNEL, message));
+                  return null;
+                });
+        return;
+      } catch (DataAccessException e) {
+        logger.debug(
+            "Failed to publish {} dashboard events, delivering locally: {}",
+            messages.size(),
+            e.getMessage());
+      }
+    }
+    messages.forEach(this::receive);
+  }
+
+  // One "clinicianId|type|json" message per recipient
+  private List<String> encode(Collection<Delivery> deliveries) {
+    Map<UUID, List<UUID>> careTeams = careTeams(deliveries);
+    List<String> messages = new ArrayList<>();
+    for (Delivery delivery : deliveries) {
+      String json;
+      try {
+        json = objectMapper.writeValueAsString(delivery.event());
+      } catch (JsonProcessingException e) {
+        logger.warn("Failed to serialize dashboard event: {}", e.getMessage());
+        continue;
+      }
+      List<UUID> recipients =
+          delivery.clinicianId() != null
+              ? List.of(delivery.clinicianId())
+              : careTeams.getOrDefault(delivery.event().getEpisodeId(), List.of());
+      for (UUID recipient : recipients) {
+        messages.add(recipient + "|" + delivery.event().getType() + "|" + json);
+      }
+    }
+    return messages;
+  }
+
+  private Map<UUID, List<UUID>> careTeams(Collection<Delivery> deliveries) {
+    String[] episodeIds =
+        deliveries.stream()
+            .filter(delivery -> delivery.clinicianId() == null)
+            .map(delivery -> delivery.event().getEpisodeId().toString())
+            .distinct()
+            .toArray(String[]::new);
+    Map<UUID, List<UUID>> careTeams = new HashMap<>();
+    if (episodeIds.length == 0) {
+      return careTeams;
+    }
+    jdbcTemplate.query(
+        CARE_TEAM_SQL,
+        (RowCallbackHandler)
+            rs -> {
+              List<UUID> team = new ArrayList<>(2);
+              team.add(rs.getObject("primary_surgeon_id", UUID.class));
+              UUID secondary = rs.getObject("secondary_clinician_id", UUID.class);
+              if (secondary != null && !team.contains(secondary)) {
+                team.add(secondary);
+              }
+              careTeams.put(rs.getObject("id", UUID.class), team);
+            },
+        (Object) episodeIds);
+    return careTeams;
+  }
+
+  private record Delivery(UUID clinicianId, DashboardEvent event) {}
+}
@@ -0,0 +1,181 @@
+package com.orthowatch.service;
+
+import com.orthowatch.exception.ResourceNotFoundException;
+import com.orthowatch.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-sent event streams of dashboard changes open on this node, by clinician.
+ *
+ * <p>Each stream has a small bounded queue drained by its own virtual thread, which blocks on the
+ * queue and writes heartbeats while it is idle; an open dashboard costs a parked virtual thread
+ * rather than a request thread or a poll. Delivery only enqueues, so one slow client never holds up
+ * the others; a stream whose queue fills up is closed and the client reconnects. Every stream
+ * starts with a {@code ready} event, after which the client refetches what it shows once and then
+ * applies the pushed deltas.
+ */
+@Component
+public class DashboardStreams {
+
+  static final String READY_EVENT = "ready";
+
+  private static final Logger logger = LoggerFactory.getLogger(DashboardStreams.class);
+
+  private final UserRepository userRepository;
+  private final Map<UUID, List<Stream>> streams = new ConcurrentHashMap<>();
+  private final AtomicInteger open = new AtomicInteger();
+  private final Duration streamTimeout;
+  private final Duration heartbeat;
+  private final int queueCapacity;
+  private final int maxStreamsPerClinician;
+  private final Counter overflows;
+
+  public DashboardStreams(
+      UserRepository userRepository,
+      MeterRegistry meterRegistry,
+      @Value("${app.dashboard.stream-timeout-minutes:30}") long streamTimeoutMinutes,
+      @Value("${app.dashboard.heartbeat-seconds:25}") long heartbeatSeconds,
+      @Value("${app.dashboard.queue-capacity:256}") int queueCapacity,
+      @Value("${app.dashboard.max-streams-per-clinician:5}") int maxStreamsPerClinician) {
+    this.userRepository = userRepository;
+    this.streamTimeout = Duration.ofMinutes(streamTimeoutMinutes);
+    this.heartbeat = Duration.ofSeconds(heartbeatSeconds);
+    this.queueCapacity = queueCapacity;
+    this.maxStreamsPerClinician = maxStreamsPerClinician;
+    Gauge.builder("orthowatch.dashboard.streams", open, AtomicInteger::get).register(meterRegistry);
+    this.overflows = Counter.builder("orthowatch.dashboard.overflows").register(meterRegistry);
+  }
+
+  /**
+   * Opens a stream for the clinician with the given email. Beyond {@code
+   * app.dashboard.max-streams-per-clinician}, the clinician's oldest stream is closed.
+   */
+  public SseEmitter open(String email) {
+    UUID clinicianId =
+        userRepository
+            .findByEmail(email)
+            .orElseThrow(() -> new ResourceNotFoundException("User not found: " + email))
+            .getId();
+    Stream stream = new Stream(clinicianId, new SseEmitter(streamTimeout.toMillis()));
+    List<Stream> clinicianStreams =
+        streams.compute(
+            clinicianId,
+            (id, list) -> {
+              List<Stream> current = list != null ? list : new CopyOnWriteArrayList<>();
+              current.add(stream);
+              return current;
+            });
+    open.incrementAndGet();
+    while (clinicianStreams.size() > maxStreamsPerClinician) {
+      clinicianStreams.get(0).close();
+    }
+    stream.emitter.onCompletion(stream::close);
+    stream.emitter.onTimeout(stream::close);
+    stream.emitter.onError(error -> stream.close());
+    stream.queue.offer(new Message(READY_EVENT, "{}"));
+    stream.worker = Thread.ofVirtual().name("dashboard-stream-" + clinicianId).start(stream::run);
+    return stream.emitter;
+  }
+
+  /** Queues an event, already serialized to JSON, on every stream the clinician has open here. */
+  public void deliver(UUID clinicianId, String type, String json) {
+    List<Stream> clinicianStreams = streams.get(clinicianId);
+    if (clinicianStreams == null) {
+      return;
+    }
+    for (Stream stream : clinicianStreams) {
+      if (!stream.queue.offer(new Message(type, json))) {
+        overflows.increment();
+        logger.debug("Dashboard stream of {} fell behind, closing it", clinicianId);
+        stream.close();
+      }
+    }
+  }
+
+  /** Number of streams open on this node. */
+  public int size() {
+    return open.get();
+  }
+
+  @PreDestroy
+  public void closeAll() {
+    streams.values().forEach(clinicianStreams -> clinicianStreams.forEach(Stream::close));
+  }
+
+  private record Message(String type, String json) {}
+
+  private final class Stream {
+    private final UUID clinicianId;
+    private final SseEmitter emitter;
+    private final BlockingQueue<Message> queue = new ArrayBlockingQueue<>(queueCapacity);
+    private final AtomicBoolean closed = new AtomicBoolean();
+    private volatile Thread worker;
+
+    private Stream(UUID clinicianId, SseEmitter emitter) {
+      this.clinicianId = clinicianId;
+      this.emitter = emitter;
+    }
+
+    private void run() {
+      try {
+        while (!closed.get()) {
+          Message message = queue.poll(heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+          if (message == null) {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+          } else {
+            emitter.send(
+                SseEmitter.event()
+                    .name(message.type())
+                    .data(message.json(), MediaType.APPLICATION_JSON));
+          }
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (IOException | IllegalStateException e) {
+        // The client went away; the container reports it through onError/onCompletion as well
+        logger.debug("Dashboard stream of {} ended: {}", clinicianId, e.getMessage());
+      } finally {
+        close();
+      }
+    }
+
+    private void close() {
+      if (!closed.compareAndSet(false, true)) {
+        return;
+      }
+      streams.computeIfPresent(
+          clinicianId,
+          (id, list) -> {
+            list.remove(this);
+            return list.isEmpty() ? null : list;
+          });
+      open.decrementAndGet();
+      Thread thread = worker;
+      if (thread != null && thread != Thread.currentThread()) {
+        thread.interrupt();
+      }
+      emitter.complete();
+    }
+  }
+}
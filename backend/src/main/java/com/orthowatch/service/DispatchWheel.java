@@ -0,0 +1,64 @@
+package com.orthowatch.service;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Count of checklists due in each UTC minute of a 24-hour window, so a dispatcher tick can tell
+ * from memory whether there is anything to claim. Not thread-safe; owned by {@link
+ * ChecklistDispatcher}.
+ */
+class DispatchWheel {
+
+  static final int MINUTES = 24 * 60;
+
+  private final long startMinute;
+  private final int[] dueByMinute = new int[MINUTES];
+  private long dispatchedThrough;
+
+  /**
+   * @param startMinute first epoch minute of the window
+   * @param dueCounts due checklists by epoch minute; minutes before the window are overdue and
+   *     count towards its first bucket, minutes after it are ignored
+   */
+  DispatchWheel(long startMinute, Map<Long, Integer> dueCounts) {
+    this.startMinute = startMinute;
+    this.dispatchedThrough = startMinute - 1;
+    dueCounts.forEach(
+        (minute, count) -> {
+          long slot = Math.max(minute - startMinute, 0);
+          if (slot < MINUTES) {
+            dueByMinute[(int) slot] += count;
+          }
+        });
+  }
+
+  boolean covers(long minute) {
+    return minute >= startMinute && minute < startMinute + MINUTES;
+  }
+
+  /** Whether anything is due in a minute up to and including {@code minute} not yet dispatched. */
+  boolean hasDueThrough(long minute) {
+    int from = (int) (dispatchedThrough + 1 - startMinute);
+    int to = (int) Math.min(minute - startMinute, MINUTES - 1);
+    for (int slot = from; slot <= to; slot++) {
+      if (dueByMinute[slot] > 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  void markDispatchedThrough(long minute) {
+    int from = (int) (dispatchedThrough + 1 - startMinute);
+    int to = (int) Math.min(minute - startMinute, MINUTES - 1);
+    if (to >= from) {
+      Arrays.fill(dueByMinute, from, to + 1, 0);
+      dispatchedThrough = startMinute + to;
+    }
+  }
+
+  int pending() {
+    return Arrays.stream(dueByMinute).sum();
+  }
+}
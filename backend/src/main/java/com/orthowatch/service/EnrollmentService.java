@@ -1,27 +1,41 @@
 package com.orthowatch.service;
 
+import com.orthowatch.dto.BulkEnrollmentResponse;
+import com.orthowatch.dto.BulkEnrollmentResult;
 import com.orthowatch.dto.EnrollmentRequest;
 import com.orthowatch.dto.EnrollmentResponse;
 import com.orthowatch.exception.DuplicateResourceException;
 import com.orthowatch.exception.ResourceNotFoundException;
 import com.orthowatch.mapper.EpisodeMapper;
 import com.orthowatch.mapper.PatientMapper;
+import com.orthowatch.messaging.OutboundMessage;
+import com.orthowatch.messaging.OutboundMessenger;
 import com.orthowatch.model.ClinicalAuditLog;
 import com.orthowatch.model.ConsentLog;
 import com.orthowatch.model.Episode;
 import com.orthowatch.model.Patient;
 import com.orthowatch.model.RecoveryTemplate;
 import com.orthowatch.model.User;
-import com.orthowatch.repository.ClinicalAuditLogRepository;
 import com.orthowatch.repository.ConsentLogRepository;
 import com.orthowatch.repository.EpisodeRepository;
 import com.orthowatch.repository.PatientRepository;
 import com.orthowatch.repository.RecoveryTemplateRepository;
 import com.orthowatch.repository.UserRepository;
+import com.orthowatch.util.ChecklistSchedule;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import org.quartz.JobBuilder;
 import org.quartz.JobDetail;
@@ -32,6 +46,7 @@ import org.quartz.Trigger;
 import org.quartz.TriggerBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -54,19 +69,23 @@ public class EnrollmentService {
   private final RecoveryTemplateRepository recoveryTemplateRepository;
   private final UserRepository userRepository;
   private final ConsentLogRepository consentLogRepository;
-  private final ClinicalAuditLogRepository clinicalAuditLogRepository;
+  private final AuditLogWriter auditLogWriter;
+  private final OutboundMessenger outboundMessenger;
   private final PatientMapper patientMapper;
   private final EpisodeMapper episodeMapper;
   private final Scheduler scheduler;
+  private final Validator validator;
+
+  // sweeper (default) or per-episode; see app.consent-timeout in application.yml
+  @Value("${app.consent-timeout.mode:sweeper}")
+  private String consentTimeoutMode;
 
   @Transactional
   public EnrollmentResponse enroll(
       EnrollmentRequest request, User currentUser, String ipAddress, String userAgent) {
 
     // 1. Validate surgery date <= discharge date
-    if (request.getSurgeryDate().isAfter(request.getDischargeDate())) {
-      throw new IllegalArgumentException("Surgery date must be on or before discharge date");
-    }
+    validateDates(request);
 
     // 2. Look up active recovery template by surgery type
     RecoveryTemplate template =
@@ -126,6 +145,232 @@ public class EnrollmentService {
                 });
 
     // 6. Create episode
+    Episode episode =
+        episodeRepository.save(
+            newEpisode(request, patient, template, primarySurgeon, secondaryClinician));
+
+    // 7. Create consent log entry and queue the consent request
+    consentLogRepository.save(newConsentLog(episode, patient));
+    outboundMessenger.send(List.of(consentRequest(episode, patient)));
+
+    // 8. Create audit log
+    auditLogWriter.write(newAuditLog(request, episode, patient, currentUser, ipAddress, userAgent));
+
+    // 9. Schedule consent timeout job (the periodic sweeper covers this episode otherwise)
+    if ("per-episode".equals(consentTimeoutMode)) {
+      scheduleConsentTimeoutJob(episode.getId());
+    }
+
+    logger.info(
+        "Patient enrolled successfully: episodeId={}, patientId={}",
+        episode.getId(),
+        patient.getId());
+
+    // 10. Build response
+    return EnrollmentResponse.builder()
+        .episodeId(episode.getId())
+        .patientId(patient.getId())
+        .status(episode.getStatus())
+        .consentStatus(episode.getConsentStatus())
+        .message("Patient enrolled. Consent message sent via WhatsApp.")
+        .build();
+  }
+
+  /**
+   * Enrolls a batch of patients in one transaction with partial-failure semantics: rows that fail
+   * validation, reference an unknown template or clinician, or duplicate an active episode are
+   * reported as FAILED and skipped, while the remaining rows are created.
+   *
+   * <p>Templates, clinicians, existing patients and their active episodes are resolved for the
+   * whole batch with one {@code IN} query each, and new rows are persisted grouped by table so that
+   * Hibernate sends them as JDBC batches.
+   */
+  @Transactional
+  public BulkEnrollmentResponse enrollAll(
+      List<EnrollmentRequest> requests, User currentUser, String ipAddress, String userAgent) {
+    BulkEnrollmentResult[] results = new BulkEnrollmentResult[requests.size()];
+    List<Integer> validRows = new ArrayList<>();
+    for (int i = 0; i < requests.size(); i++) {
+      String error = validationError(requests.get(i));
+      if (error != null) {
+        results[i] = failed(i, error);
+      } else {
+        validRows.add(i);
+      }
+    }
+
+    // 1. Resolve everything the valid rows reference, one query per table
+    List<EnrollmentRequest> valid = validRows.stream().map(requests::get).toList();
+    Map<String, RecoveryTemplate> templates =
+        valid.isEmpty()
+            ? Map.of()
+            : recoveryTemplateRepository
+                .findBySurgeryTypeInAndIsActiveTrue(
+                    distinct(valid, EnrollmentRequest::getSurgeryType))
+                .stream()
+                .collect(
+                    Collectors.toMap(
+                        RecoveryTemplate::getSurgeryType, Function.identity(), (a, b) -> a));
+    Set<UUID> clinicianIds = new HashSet<>(distinct(valid, EnrollmentRequest::getPrimarySurgeonId));
+    clinicianIds.addAll(distinct(valid, EnrollmentRequest::getSecondaryClinicianId));
+    Map<UUID, User> clinicians =
+        userRepository.findAllById(clinicianIds).stream()
+            .collect(Collectors.toMap(User::getId, Function.identity()));
+    Map<String, Patient> patientsByPhone =
+        valid.isEmpty()
+            ? new HashMap<>()
+            : patientRepository
+                .findByPhonePrimaryIn(distinct(valid, EnrollmentRequest::getPhonePrimary))
+                .stream()
+                .collect(
+                    Collectors.toMap(
+                        Patient::getPhonePrimary, Function.identity(), (a, b) -> a, HashMap::new));
+
+    // Active episodes keyed by phone|surgeryType; rows created below are added as they are accepted
+    Map<UUID, String> phoneByPatientId =
+        patientsByPhone.values().stream()
+            .collect(Collectors.toMap(Patient::getId, Patient::getPhonePrimary));
+    Set<String> activeEpisodes = new HashSet<>();
+    if (!phoneByPatientId.isEmpty()) {
+      episodeRepository
+          .findSurgeryTypesByPatientIdInAndStatus(phoneByPatientId.keySet(), "ACTIVE")
+          .forEach(
+              e ->
+                  activeEpisodes.add(
+                      phoneByPatientId.get(e.getPatientId()) + "|" + e.getSurgeryType()));
+    }
+
+    // 2. Build entities for every row that passes the same checks as single enrollment
+    List<Patient> newPatients = new ArrayList<>();
+    List<Episode> episodes = new ArrayList<>();
+    List<Integer> episodeRows = new ArrayList<>();
+    for (int i : validRows) {
+      EnrollmentRequest request = requests.get(i);
+      RecoveryTemplate template = templates.get(request.getSurgeryType());
+      User primarySurgeon = clinicians.get(request.getPrimarySurgeonId());
+      User secondaryClinician =
+          request.getSecondaryClinicianId() != null
+              ? clinicians.get(request.getSecondaryClinicianId())
+              : null;
+      String activeKey = request.getPhonePrimary() + "|" + request.getSurgeryType();
+
+      if (template == null) {
+        results[i] =
+            failed(
+                i,
+                "No active recovery template found for surgery type: " + request.getSurgeryType());
+      } else if (primarySurgeon == null || !"SURGEON".equals(primarySurgeon.getRole())) {
+        results[i] = failed(i, "Surgeon not found with ID: " + request.getPrimarySurgeonId());
+      } else if (request.getSecondaryClinicianId() != null && secondaryClinician == null) {
+        results[i] = failed(i, "Clinician not found with ID: " + request.getSecondaryClinicianId());
+      } else if (!activeEpisodes.add(activeKey)) {
+        results[i] =
+            failed(
+                i,
+                "Patient already has an active episode for surgery type: "
+                    + request.getSurgeryType());
+      } else {
+        Patient patient = patientsByPhone.get(request.getPhonePrimary());
+        if (patient != null) {
+          patientMapper.updateEntity(request, patient);
+        } else {
+          patient = patientMapper.toEntity(request);
+          patientsByPhone.put(request.getPhonePrimary(), patient);
+          newPatients.add(patient);
+        }
+        episodes.add(newEpisode(request, patient, template, primarySurgeon, secondaryClinician));
+        episodeRows.add(i);
+      }
+    }
+
+    // 3. Persist table by table so each group is flushed as JDBC batches
+    patientRepository.saveAll(newPatients);
+    episodeRepository.saveAll(episodes);
+    List<ConsentLog> consentLogs = new ArrayList<>(episodes.size());
+    List<ClinicalAuditLog> auditLogs = new ArrayList<>(episodes.size());
+    List<OutboundMessage> consentRequests = new ArrayList<>(episodes.size());
+    for (int j = 0; j < episodes.size(); j++) {
+      Episode episode = episodes.get(j);
+      EnrollmentRequest request = requests.get(episodeRows.get(j));
+      consentLogs.add(newConsentLog(episode, episode.getPatient()));
+      consentRequests.add(consentRequest(episode, episode.getPatient()));
+      auditLogs.add(
+          newAuditLog(request, episode, episode.getPatient(), currentUser, ipAddress, userAgent));
+    }
+    consentLogRepository.saveAll(consentLogs);
+    outboundMessenger.send(consentRequests);
+    auditLogWriter.writeAll(auditLogs);
+
+    for (int j = 0; j < episodes.size(); j++) {
+      Episode episode = episodes.get(j);
+      if ("per-episode".equals(consentTimeoutMode)) {
+        scheduleConsentTimeoutJob(episode.getId());
+      }
+      int row = episodeRows.get(j);
+      results[row] =
+          BulkEnrollmentResult.builder()
+              .index(row)
+              .status("CREATED")
+              .episodeId(episode.getId())
+              .patientId(episode.getPatient().getId())
+              .build();
+    }
+
+    logger.info(
+        "Bulk enrollment completed: total={}, created={}, failed={}",
+        requests.size(),
+        episodes.size(),
+        requests.size() - episodes.size());
+
+    return BulkEnrollmentResponse.builder()
+        .total(requests.size())
+        .created(episodes.size())
+        .failed(requests.size() - episodes.size())
+        .results(List.of(results))
+        .build();
+  }
+
+  private void validateDates(EnrollmentRequest request) {
+    if (request.getSurgeryDate().isAfter(request.getDischargeDate())) {
+      throw new IllegalArgumentException("Surgery date must be on or before discharge date");
+    }
+  }
+
+  /** Returns the row's validation errors in the same format as a rejected single request. */
+  private String validationError(EnrollmentRequest request) {
+    if (request == null) {
+      return "Enrollment is required";
+    }
+    Set<ConstraintViolation<EnrollmentRequest>> violations = validator.validate(request);
+    if (!violations.isEmpty()) {
+      return violations.stream()
+          .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+          .sorted()
+          .collect(Collectors.joining("; "));
+    }
+    try {
+      validateDates(request);
+      return null;
+    } catch (IllegalArgumentException e) {
+      return e.getMessage();
+    }
+  }
+
+  private static BulkEnrollmentResult failed(int index, String error) {
+    return BulkEnrollmentResult.builder().index(index).status("FAILED").error(error).build();
+  }
+
+  private static <T> Set<T> distinct(
+      List<EnrollmentRequest> requests, Function<EnrollmentRequest, T> field) {
+    return requests.stream().map(field).filter(Objects::nonNull).collect(Collectors.toSet());
+  }
+
+  private Episode newEpisode(
+      EnrollmentRequest request,
+      Patient patient,
+      RecoveryTemplate template,
+      User primarySurgeon,
+      User secondaryClinician) {
     Episode episode = episodeMapper.toEntity(request);
     episode.setPatient(patient);
     episode.setTemplate(template);
@@ -133,9 +378,21 @@ public class EnrollmentService {
     episode.setSecondaryClinician(secondaryClinician);
     episode.setStatus("ACTIVE");
     episode.setConsentStatus("PENDING");
-    episode = episodeRepository.save(episode);
+    episode.setNextChecklistAt(
+        ChecklistSchedule.firstChecklistAt(
+            request.getDischargeDate(),
+            episode.getChecklistTime(),
+            episode.getTimezone(),
+            Instant.now()));
+    return episode;
+  }
+
+  private static OutboundMessage consentRequest(Episode episode, Patient patient) {
+    return OutboundMessage.consentRequest(
+        episode.getId(), patient.getPhonePrimary(), patient.getPreferredLanguage());
+  }
 
-    // 7. Create consent log entry
+  private ConsentLog newConsentLog(Episode episode, Patient patient) {
     ConsentLog consentLog =
         ConsentLog.builder()
             .episode(episode)
@@ -151,41 +408,29 @@ public class EnrollmentService {
     // Initial consent request is logged as GRANTED with null grantedAt to indicate pending
     // The actual consent will be updated when patient responds
     consentLog.setStatus("GRANTED");
-    consentLogRepository.save(consentLog);
-
-    // 8. Create audit log
-    ClinicalAuditLog auditLog =
-        ClinicalAuditLog.builder()
-            .user(currentUser)
-            .episodeId(episode.getId())
-            .action("ENROLL_PATIENT")
-            .resourceType("EPISODE")
-            .resourceId(episode.getId())
-            .details(
-                Map.of(
-                    "patientName", request.getPatientName(),
-                    "surgeryType", request.getSurgeryType(),
-                    "patientId", patient.getId().toString()))
-            .ipAddress(ipAddress)
-            .userAgent(userAgent)
-            .build();
-    clinicalAuditLogRepository.save(auditLog);
-
-    // 9. Schedule consent timeout job
-    scheduleConsentTimeoutJob(episode.getId());
-
-    logger.info(
-        "Patient enrolled successfully: episodeId={}, patientId={}",
-        episode.getId(),
-        patient.getId());
+    return consentLog;
+  }
 
-    // 10. Build response
-    return EnrollmentResponse.builder()
+  private ClinicalAuditLog newAuditLog(
+      EnrollmentRequest request,
+      Episode episode,
+      Patient patient,
+      User currentUser,
+      String ipAddress,
+      String userAgent) {
+    return ClinicalAuditLog.builder()
+        .user(currentUser)
         .episodeId(episode.getId())
-        .patientId(patient.getId())
-        .status(episode.getStatus())
-        .consentStatus(episode.getConsentStatus())
-        .message("Patient enrolled. Consent message sent via WhatsApp.")
+        .action("ENROLL_PATIENT")
+        .resourceType("EPISODE")
+        .resourceId(episode.getId())
+        .details(
+            Map.of(
+                "patientName", request.getPatientName(),
+                "surgeryType", request.getSurgeryType(),
+                "patientId", patient.getId().toString()))
+        .ipAddress(ipAddress)
+        .userAgent(userAgent)
         .build();
   }
 
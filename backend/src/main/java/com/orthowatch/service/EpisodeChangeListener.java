@@ -0,0 +1,34 @@
+package com.orthowatch.service;
+
+import com.orthowatch.messaging.EpisodeRoutingIndex;
+import com.orthowatch.model.Episode;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that keeps the {@link EpisodeRoutingIndex} in step with {@link Episode} rows:
+ * new enrollments, consent decisions and status changes made through JPA reroute the patient's
+ * numbers once the transaction commits. All episodes written in one transaction are reloaded
+ * together, so a bulk enrollment costs one routing refresh rather than one per row.
+ */
+@Component
+@RequiredArgsConstructor
+public class EpisodeChangeListener {
+
+  private final EpisodeRoutingIndex routingIndex;
+
+  @PostPersist
+  @PostUpdate
+  public void onEpisodeChanged(Episode episode) {
+    routingIndex.refreshEpisodesAfterCommit(List.of(episode.getId()));
+  }
+
+  @PostRemove
+  public void onEpisodeRemoved(Episode episode) {
+    routingIndex.refreshEpisodesAfterCommit(List.of(episode.getId()));
+  }
+}
@@ -0,0 +1,240 @@
+package com.orthowatch.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orthowatch.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Service;
+
+/**
+ * Token-bucket throttle for login attempts, keyed per client IP and per email.
+ *
+ * <p>Checked before the password is hashed so that a credential-stuffing burst is rejected for the
+ * cost of a Redis round trip rather than a BCrypt computation. When {@code
+ * app.security.login-rate-limit.redis-enabled} is set the buckets live in Redis and are shared by
+ * every node; otherwise, or whenever Redis is unreachable, an in-memory bucket per node is used.
+ *
+ * <p>Buckets hold whole tokens and refill one token per {@code period / capacity}, so the
+ * documented "5 attempts per 15 minutes" is a capacity of 5 with one token back every 3 minutes.
+ *
+ * <p>Both buckets are only charged for failed logins, see {@link #recordFailedLogin}: behind a
+ * hospital NAT a whole ward shares one address, and a clinician signing in on several devices
+ * through the day must not lock their own account out. Successful sign-ins cost nothing.
+ */
+@Service
+public class LoginRateLimiter {
+
+  static final String REDIS_KEY_PREFIX = "orthowatch:ratelimit:login:";
+
+  // Returns {allowed, retryAfterMillis}. Uses the Redis clock so that every node agrees on time.
+  // ARGV[3] = 1 takes a token; 0 only checks that one is left.
+  private static final String TOKEN_BUCKET_LUA =
+      """
+      local capacity = tonumber(ARGV[1])
+      local interval = tonumber(ARGV[2])
+      local take = ARGV[3] == '1'
+      local clock = redis.call('TIME')
+      local now = clock[1] * 1000 + math.floor(clock[2] / 1000)
+      local state = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+      local tokens = tonumber(state[1])
+      local ts = tonumber(state[2])
+      if tokens == nil then
+        tokens = capacity
+        ts = now
+      end
+      local refilled = math.floor((now - ts) / interval)
+      if refilled > 0 then
+        tokens = math.min(capacity, tokens + refilled)
+        ts = ts + refilled * interval
+      end
+      if tokens >= capacity then
+        ts = now
+      end
+      local allowed = 0
+      local retry = 0
+      if tokens >= 1 then
+        allowed = 1
+        if take then
+          tokens = tokens - 1
+        end
+      else
+        retry = interval - (now - ts)
+      end
+      if not take then
+        return {allowed, retry}
+      end
+      redis.call('HSET', KEYS[1], 'tokens', tokens, 'ts', ts)
+      redis.call('PEXPIRE', KEYS[1], capacity * interval)
+      return {allowed, retry}
+      """;
+
+  @SuppressWarnings("rawtypes")
+  private static final RedisScript<List> TOKEN_BUCKET_SCRIPT =
+      RedisScript.of(TOKEN_BUCKET_LUA, List.class);
+
+  private static final Logger logger = LoggerFactory.getLogger(LoginRateLimiter.class);
+
+  private final StringRedisTemplate redisTemplate;
+  private final boolean enabled;
+  private final boolean redisEnabled;
+  private final Limit perIp;
+  private final Limit perEmail;
+  private final Cache<String, LocalBucket> localBuckets;
+  private final Counter rejectedByIp;
+  private final Counter rejectedByEmail;
+
+  public LoginRateLimiter(
+      StringRedisTemplate redisTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${app.security.login-rate-limit.enabled:true}") boolean enabled,
+      @Value("${app.security.login-rate-limit.redis-enabled:false}") boolean redisEnabled,
+      @Value("${app.security.login-rate-limit.per-ip.capacity:5}") int perIpCapacity,
+      @Value("${app.security.login-rate-limit.per-ip.period-seconds:900}") long perIpPeriod,
+      @Value("${app.security.login-rate-limit.per-email.capacity:5}") int perEmailCapacity,
+      @Value("${app.security.login-rate-limit.per-email.period-seconds:900}") long perEmailPeriod) {
+    this.redisTemplate = redisTemplate;
+    this.enabled = enabled;
+    this.redisEnabled = redisEnabled;
+    this.perIp = Limit.of(perIpCapacity, Duration.ofSeconds(perIpPeriod));
+    this.perEmail = Limit.of(perEmailCapacity, Duration.ofSeconds(perEmailPeriod));
+    this.localBuckets =
+        Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofSeconds(Math.max(perIpPeriod, perEmailPeriod)))
+            .build();
+    this.rejectedByIp =
+        Counter.builder("orthowatch.login.rate_limited").tag("key", "ip").register(meterRegistry);
+    this.rejectedByEmail =
+        Counter.builder("orthowatch.login.rate_limited")
+            .tag("key", "email")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Checks that the client's IP bucket and the email's bucket both still have a token, without
+   * taking one.
+   *
+   * @throws RateLimitExceededException if either bucket is empty
+   */
+  public void checkLogin(String clientIp, String email) {
+    if (!enabled) {
+      return;
+    }
+    consume("ip:" + clientIp, perIp, rejectedByIp, false);
+    if (email != null) {
+      consume(emailKey(email), perEmail, rejectedByEmail, false);
+    }
+  }
+
+  /**
+   * Takes one token from the client's IP bucket and the email's after a failed login; never throws.
+   */
+  public void recordFailedLogin(String clientIp, String email) {
+    if (!enabled) {
+      return;
+    }
+    charge("ip:" + clientIp, perIp);
+    if (email != null) {
+      charge(emailKey(email), perEmail);
+    }
+  }
+
+  private static String emailKey(String email) {
+    return "email:" + email.trim().toLowerCase(Locale.ROOT);
+  }
+
+  private void charge(String key, Limit limit) {
+    if (redisEnabled) {
+      consumeShared(key, limit, true);
+    } else {
+      consumeLocal(key, limit, true);
+    }
+  }
+
+  private void consume(String key, Limit limit, Counter rejected, boolean take) {
+    long retryAfterMillis =
+        redisEnabled ? consumeShared(key, limit, take) : consumeLocal(key, limit, take);
+    if (retryAfterMillis > 0) {
+      rejected.increment();
+      throw new RateLimitExceededException(
+          "Too many login attempts. Please try again later.",
+          Math.max(1, (retryAfterMillis + 999) / 1000));
+    }
+  }
+
+  /**
+   * Returns 0 if a token was left (and taken, if {@code take}), otherwise the milliseconds until
+   * the next token.
+   */
+  private long consumeShared(String key, Limit limit, boolean take) {
+    try {
+      List<?> result =
+          redisTemplate.execute(
+              TOKEN_BUCKET_SCRIPT,
+              List.of(REDIS_KEY_PREFIX + key),
+              String.valueOf(limit.capacity()),
+              String.valueOf(limit.intervalMillis()),
+              take ? "1" : "0");
+      if (result == null || result.size() < 2) {
+        return consumeLocal(key, limit, take);
+      }
+      return ((Number) result.get(0)).longValue() == 1 ? 0 : ((Number) result.get(1)).longValue();
+    } catch (DataAccessException e) {
+      logger.warn("Shared login rate limiter unavailable, using local bucket: {}", e.getMessage());
+      return consumeLocal(key, limit, take);
+    }
+  }
+
+  private long consumeLocal(String key, Limit limit, boolean take) {
+    return localBuckets
+        .get(key, k -> new LocalBucket(limit.capacity()))
+        .tryConsume(limit, System.currentTimeMillis(), take);
+  }
+
+  record Limit(int capacity, long intervalMillis) {
+    static Limit of(int capacity, Duration period) {
+      return new Limit(capacity, Math.max(1, period.toMillis() / capacity));
+    }
+  }
+
+  /** In-memory equivalent of the Lua bucket, used when Redis is disabled or unreachable. */
+  static final class LocalBucket {
+    private long tokens;
+    private long timestamp = -1;
+
+    LocalBucket(int capacity) {
+      this.tokens = capacity;
+    }
+
+    synchronized long tryConsume(Limit limit, long now, boolean take) {
+      if (timestamp < 0) {
+        timestamp = now;
+      }
+      long refilled = (now - timestamp) / limit.intervalMillis();
+      if (refilled > 0) {
+        tokens = Math.min(limit.capacity(), tokens + refilled);
+        timestamp += refilled * limit.intervalMillis();
+      }
+      if (tokens >= limit.capacity()) {
+        timestamp = now;
+      }
+      if (tokens >= 1) {
+        if (take) {
+          tokens--;
+        }
+        return 0;
+      }
+      return limit.intervalMillis() - (now - timestamp);
+    }
+  }
+}
@@ -0,0 +1,242 @@
+package com.orthowatch.service;
+
+import com.orthowatch.model.Alert;
+import com.orthowatch.model.BatchCheckpoint;
+import com.orthowatch.model.DailyResponse;
+import com.orthowatch.model.RiskScore;
+import com.orthowatch.repository.AlertRepository;
+import com.orthowatch.repository.BatchCheckpointRepository;
+import com.orthowatch.repository.DailyResponseRepository;
+import com.orthowatch.repository.EpisodeRepository;
+import com.orthowatch.repository.EpisodeRepository.EpisodeSummary;
+import com.orthowatch.repository.RiskScoreRepository;
+import com.orthowatch.repository.UserRepository;
+import com.orthowatch.risk.CompiledRuleSet;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Scores every unscored, answered daily response of every active episode, one chunk of episodes at
+ * a time.
+ *
+ * <p>Each chunk is one transaction that costs a fixed number of round trips however many episodes
+ * it holds:
+ *
+ * <ol>
+ *   <li>the next keyset page of active episode ids;
+ *   <li>their unscored responses, in one query;
+ *   <li>rule evaluation on a fork-join pool;
+ *   <li>their trend rows, locked and updated together;
+ *   <li>batched inserts of the scores and any HIGH_RISK alerts;
+ *   <li>the run's checkpoint.
+ * </ol>
+ *
+ * A run is identified by its run key (the nightly job uses the date). Rerunning a key that did not
+ * complete resumes after the last committed chunk; rerunning a completed key does nothing. Work a
+ * failed run never reached is picked up by the next run anyway, since only unscored responses are
+ * read.
+ */
+@Service
+public class NightlyRiskScorer {
+
+  public static final String JOB_NAME = "nightly-risk-scoring";
+
+  private static final Logger logger = LoggerFactory.getLogger(NightlyRiskScorer.class);
+  private static final UUID FIRST_KEY = new UUID(0L, 0L);
+
+  private final EpisodeRepository episodeRepository;
+  private final DailyResponseRepository dailyResponseRepository;
+  private final RiskScoreRepository riskScoreRepository;
+  private final AlertRepository alertRepository;
+  private final UserRepository userRepository;
+  private final BatchCheckpointRepository batchCheckpointRepository;
+  private final RiskEngine riskEngine;
+  private final RiskTrendService riskTrendService;
+  private final TransactionTemplate transactionTemplate;
+  private final ForkJoinPool evaluationPool;
+  private final int chunkSize;
+  private final Duration alertSla;
+
+  public NightlyRiskScorer(
+      EpisodeRepository episodeRepository,
+      DailyResponseRepository dailyResponseRepository,
+      RiskScoreRepository riskScoreRepository,
+      AlertRepository alertRepository,
+      UserRepository userRepository,
+      BatchCheckpointRepository batchCheckpointRepository,
+      RiskEngine riskEngine,
+      RiskTrendService riskTrendService,
+      PlatformTransactionManager transactionManager,
+      @Value("${app.risk.scoring.chunk-size:1000}") int chunkSize,
+      @Value("${app.risk.scoring.parallelism:0}") int parallelism,
+      @Value("${app.risk.scoring.alert-sla-minutes:60}") long alertSlaMinutes) {
+    this.episodeRepository = episodeRepository;
+    this.dailyResponseRepository = dailyResponseRepository;
+    this.riskScoreRepository = riskScoreRepository;
+    this.alertRepository = alertRepository;
+    this.userRepository = userRepository;
+    this.batchCheckpointRepository = batchCheckpointRepository;
+    this.riskEngine = riskEngine;
+    this.riskTrendService = riskTrendService;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.evaluationPool =
+        new ForkJoinPool(
+            parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    this.chunkSize = chunkSize;
+    this.alertSla = Duration.ofMinutes(alertSlaMinutes);
+  }
+
+  @PreDestroy
+  void shutdown() {
+    evaluationPool.shutdown();
+  }
+
+  /**
+   * Runs (or resumes) the scoring run with the given key.
+   *
+   * @return the run's checkpoint after the last chunk
+   */
+  public BatchCheckpoint run(String runKey) {
+    long started = System.nanoTime();
+    BatchCheckpoint checkpoint = startOrResume(runKey);
+    if ("COMPLETED".equals(checkpoint.getStatus())) {
+      logger.info("Risk scoring run {} already completed", runKey);
+      return checkpoint;
+    }
+    try {
+      while (!"COMPLETED".equals(checkpoint.getStatus())) {
+        BatchCheckpoint current = checkpoint;
+        checkpoint = transactionTemplate.execute(status -> processChunk(current));
+      }
+    } catch (RuntimeException e) {
+      markFailed(runKey);
+      throw e;
+    }
+    logger.info(
+        "Risk scoring run {}: {} episodes, {} scores, {} alerts in {} ms",
+        runKey,
+        checkpoint.getItemsProcessed(),
+        checkpoint.getRecordsWritten(),
+        checkpoint.getAlertsWritten(),
+        Duration.ofNanos(System.nanoTime() - started).toMillis());
+    return checkpoint;
+  }
+
+  private BatchCheckpoint startOrResume(String runKey) {
+    String id = JOB_NAME + ":" + runKey;
+    BatchCheckpoint checkpoint =
+        batchCheckpointRepository
+            .findById(id)
+            .orElseGet(
+                () ->
+                    BatchCheckpoint.builder()
+                        .id(id)
+                        .jobName(JOB_NAME)
+                        .runKey(runKey)
+                        .startedAt(OffsetDateTime.now())
+                        .build());
+    if (!"COMPLETED".equals(checkpoint.getStatus())) {
+      if (checkpoint.getLastKey() != null) {
+        logger.info(
+            "Resuming risk scoring run {} after episode {}", runKey, checkpoint.getLastKey());
+      }
+      checkpoint.setStatus("RUNNING");
+      checkpoint = batchCheckpointRepository.save(checkpoint);
+    }
+    return checkpoint;
+  }
+
+  private BatchCheckpoint processChunk(BatchCheckpoint checkpoint) {
+    UUID after = checkpoint.getLastKey() != null ? checkpoint.getLastKey() : FIRST_KEY;
+    List<EpisodeSummary> episodes =
+        episodeRepository.findSummariesByStatusAfter("ACTIVE", after, Limit.of(chunkSize));
+    if (episodes.isEmpty()) {
+      checkpoint.setStatus("COMPLETED");
+      checkpoint.setCompletedAt(OffsetDateTime.now());
+      return batchCheckpointRepository.save(checkpoint);
+    }
+
+    Map<UUID, UUID> surgeonByEpisode = new HashMap<>();
+    for (EpisodeSummary episode : episodes) {
+      surgeonByEpisode.put(episode.getId(), episode.getPrimarySurgeonId());
+    }
+    List<DailyResponse> responses =
+        dailyResponseRepository.findUnscoredByEpisodeIdIn(surgeonByEpisode.keySet());
+
+    List<RiskScore> scores = evaluate(responses);
+    riskTrendService.applyAll(scores);
+    riskScoreRepository.saveAll(scores);
+    List<Alert> alerts = highRiskAlerts(scores, surgeonByEpisode);
+    alertRepository.saveAll(alerts);
+
+    checkpoint.setLastKey(episodes.get(episodes.size() - 1).getId());
+    checkpoint.setItemsProcessed(checkpoint.getItemsProcessed() + episodes.size());
+    checkpoint.setRecordsWritten(checkpoint.getRecordsWritten() + scores.size());
+    checkpoint.setAlertsWritten(checkpoint.getAlertsWritten() + alerts.size());
+    return batchCheckpointRepository.save(checkpoint);
+  }
+
+  private List<RiskScore> evaluate(List<DailyResponse> responses) {
+    if (responses.isEmpty()) {
+      return List.of();
+    }
+    CompiledRuleSet ruleSet = riskEngine.currentRuleSet();
+    // Evaluation only reads already-loaded fields; persistence stays on the transaction's thread
+    return evaluationPool
+        .submit(
+            () ->
+                responses.parallelStream()
+                    .map(response -> riskEngine.score(ruleSet, response))
+                    .toList())
+        .join();
+  }
+
+  private List<Alert> highRiskAlerts(List<RiskScore> scores, Map<UUID, UUID> surgeonByEpisode) {
+    List<Alert> alerts = new ArrayList<>();
+    OffsetDateTime deadline = OffsetDateTime.now().plus(alertSla);
+    for (RiskScore score : scores) {
+      if (!"HIGH".equals(score.getRiskLevel())) {
+        continue;
+      }
+      UUID surgeonId = surgeonByEpisode.get(score.getEpisode().getId());
+      alerts.add(
+          Alert.builder()
+              .episode(score.getEpisode())
+              .riskScore(score)
+              .alertType("HIGH_RISK")
+              .severity(score.getCompositeScore() >= 80 ? "CRITICAL" : "HIGH")
+              .assignedTo(userRepository.getReferenceById(surgeonId))
+              .slaDeadline(deadline)
+              .build());
+    }
+    return alerts;
+  }
+
+  private void markFailed(String runKey) {
+    try {
+      batchCheckpointRepository
+          .findById(JOB_NAME + ":" + runKey)
+          .ifPresent(
+              checkpoint -> {
+                checkpoint.setStatus("FAILED");
+                batchCheckpointRepository.save(checkpoint);
+              });
+    } catch (RuntimeException e) {
+      logger.warn("Failed to mark risk scoring run {} as failed: {}", runKey, e.getMessage());
+    }
+  }
+}
@@ -0,0 +1,221 @@
+package com.orthowatch.service;
+
+import com.orthowatch.dto.DashboardEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+/**
+ * Raises NON_RESPONSE alerts for episodes whose latest daily checklist went unanswered.
+ *
+ * <p>An episode's current day is the last checklist sent to it, due at its local {@code
+ * checklist_time} on discharge date + day. Once {@code app.non-response.grace-minutes} have passed
+ * since then without a PARTIAL or COMPLETED response for that day, the primary surgeon gets a
+ * NON_RESPONSE alert. Severity starts at LOW and rises one level per consecutive missed day (up to
+ * CRITICAL), taken from the previous day's alert if that day is still unanswered.
+ *
+ * <p>Active episodes are walked in id order, {@code app.non-response.chunk-size} at a time, each
+ * chunk one anti-join INSERT ... SELECT against {@code daily_responses} and {@code alerts}, so a
+ * sweep costs a bounded number of index range scans however many episodes are active. The unique
+ * index on (episode, day) for NON_RESPONSE alerts makes reruns and concurrent sweeps no-ops. The
+ * statement returns the alerts it raised, which are pushed to the surgeons' dashboards and reported
+ * to the {@link AlertSlaEnforcer} so their deadlines are timed.
+ */
+@Service
+public class NonResponseSweeper {
+
+  private static final Logger logger = LoggerFactory.getLogger(NonResponseSweeper.class);
+  private static final UUID FIRST_KEY = new UUID(0L, 0L);
+
+  private static final String SWEEP_CHUNK_SQL =
+      """
+      WITH chunk AS (
+          SELECT e.id, e.primary_surgeon_id, e.current_day, e.consent_status,
+                 (e.discharge_date + e.current_day + e.checklist_time) AT TIME ZONE e.timezone
+                     AS due_at
+          FROM episodes e
+          WHERE e.status = 'ACTIVE' AND e.id > ?
+          ORDER BY e.id
+          LIMIT ?
+      ),
+      missed AS (
+          SELECT c.id, c.primary_surgeon_id, c.current_day,
+                 CASE prev.severity WHEN 'LOW' THEN 'MEDIUM'
+                                    WHEN 'MEDIUM' THEN 'HIGH'
+                                    WHEN 'HIGH' THEN 'CRITICAL'
+                                    WHEN 'CRITICAL' THEN 'CRITICAL'
+                                    ELSE 'LOW' END AS severity
+          FROM chunk c
+          LEFT JOIN alerts prev
+                 ON prev.episode_id = c.id
+                AND prev.alert_type = 'NON_RESPONSE'
+                AND prev.day_number = c.current_day - 1
+                AND NOT EXISTS (
+                    SELECT 1 FROM daily_responses pr
+                    WHERE pr.episode_id = c.id
+                      AND pr.day_number = c.current_day - 1
+                      AND pr.completion_status <> 'PENDING')
+          WHERE c.consent_status = 'GRANTED'
+            AND c.current_day >= 1
+            AND c.due_at <= CAST(? AS timestamptz)
+            AND c.due_at > CAST(? AS timestamptz)
+            AND NOT EXISTS (
+                SELECT 1 FROM daily_responses r
+                WHERE r.episode_id = c.id
+                  AND r.day_number = c.current_day
+                  AND r.completion_status <> 'PENDING')
+            AND NOT EXISTS (
+                SELECT 1 FROM alerts a
+                WHERE a.episode_id = c.id
+                  AND a.alert_type = 'NON_RESPONSE'
+                  AND a.day_number = c.current_day)
+      ),
+      inserted AS (
+          INSERT INTO alerts (episode_id, alert_type, severity, assigned_to, status, day_number,
+                              sla_deadline)
+          SELECT id, 'NON_RESPONSE', severity, primary_surgeon_id, 'PENDING', current_day,
+                 CAST(? AS timestamptz)
+          FROM missed
+          ON CONFLICT (episode_id, day_number) WHERE alert_type = 'NON_RESPONSE' DO NOTHING
+          RETURNING id, episode_id, assigned_to, severity, day_number
+      )
+      SELECT s.scanned, s.last_id,
+             i.id AS alert_id, i.episode_id, i.assigned_to, i.severity, i.day_number
+      FROM (SELECT (SELECT COUNT(*) FROM chunk) AS scanned,
+                   (SELECT id FROM chunk ORDER BY id DESC LIMIT 1) AS last_id) s
+      LEFT JOIN inserted i ON true
+      """;
+
+  private final JdbcTemplate jdbcTemplate;
+  private final DashboardEventBroker eventBroker;
+  private final AlertSlaEnforcer alertSlaEnforcer;
+  private final int chunkSize;
+  private final Duration grace;
+  private final Duration lookback;
+  private final Duration alertSla;
+  private final Counter created;
+  private final Counter escalated;
+
+  public NonResponseSweeper(
+      JdbcTemplate jdbcTemplate,
+      DashboardEventBroker eventBroker,
+      AlertSlaEnforcer alertSlaEnforcer,
+      MeterRegistry meterRegistry,
+      @Value("${app.non-response.chunk-size:5000}") int chunkSize,
+      @Value("${app.non-response.grace-minutes:240}") long graceMinutes,
+      @Value("${app.non-response.lookback-hours:24}") long lookbackHours,
+      @Value("${app.non-response.alert-sla-minutes:120}") long alertSlaMinutes,
+      @Value("${app.conversation.timeout-minutes:120}") long conversationTimeoutMinutes) {
+    this.jdbcTemplate = jdbcTemplate;
+    this.eventBroker = eventBroker;
+    this.alertSlaEnforcer = alertSlaEnforcer;
+    this.chunkSize = chunkSize;
+    // Answers stay in the conversation session until it completes or times out; a shorter grace
+    // would alert on patients who are answering but not yet written to daily_responses
+    this.grace = Duration.ofMinutes(Math.max(graceMinutes, conversationTimeoutMinutes + 5));
+    this.lookback = Duration.ofHours(lookbackHours);
+    this.alertSla = Duration.ofMinutes(alertSlaMinutes);
+    this.created =
+        Counter.builder("orthowatch.non_response.alerts")
+            .tag("kind", "first")
+            .register(meterRegistry);
+    this.escalated =
+        Counter.builder("orthowatch.non_response.alerts")
+            .tag("kind", "escalated")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Alerts on every checklist unanswered at {@code now}.
+   *
+   * @return the number of alerts created
+   */
+  public int sweep(Instant now) {
+    Timestamp dueBefore = Timestamp.from(now.minus(grace));
+    // Checklists due before the lookback (e.g. while the sweeper was down) are not alerted on
+    Timestamp dueAfter = Timestamp.from(now.minus(lookback));
+    Timestamp slaDeadline = Timestamp.from(now.plus(alertSla));
+    UUID after = FIRST_KEY;
+    int total = 0;
+    int totalEscalated = 0;
+    while (true) {
+      ChunkResult chunk = new ChunkResult();
+      jdbcTemplate.query(
+          SWEEP_CHUNK_SQL,
+          (RowCallbackHandler) chunk::add,
+          after,
+          chunkSize,
+          dueBefore,
+          dueAfter,
+          slaDeadline);
+      alertSlaEnforcer.deadlinesChangedAfterCommit(chunk.alertIds);
+      total += chunk.created;
+      totalEscalated += chunk.escalated;
+      if (chunk.scanned < chunkSize || chunk.lastId == null) {
+        break;
+      }
+      after = chunk.lastId;
+    }
+    created.increment(total - totalEscalated);
+    escalated.increment(totalEscalated);
+    if (total > 0) {
+      logger.warn(
+          "Non-response sweep: created {} NON_RESPONSE alerts ({} escalated) for checklists due"
+              + " before {}",
+          total,
+          totalEscalated,
+          dueBefore.toInstant());
+    }
+    return total;
+  }
+
+  /** One row per alert the chunk raised, or a single row without one if it raised none. */
+  private final class ChunkResult {
+    private int scanned;
+    private UUID lastId;
+    private int created;
+    private int escalated;
+    private final List<UUID> alertIds = new ArrayList<>();
+
+    private void add(ResultSet rs) throws SQLException {
+      scanned = rs.getInt("scanned");
+      lastId = rs.getObject("last_id", UUID.class);
+      UUID alertId = rs.getObject("alert_id", UUID.class);
+      if (alertId == null) {
+        return;
+      }
+      String severity = rs.getString("severity");
+      created++;
+      alertIds.add(alertId);
+      if (!"LOW".equals(severity)) {
+        escalated++;
+      }
+      UUID assignedTo = rs.getObject("assigned_to", UUID.class);
+      eventBroker.publishAfterCommit(
+          assignedTo,
+          DashboardEvent.builder()
+              .type(DashboardEvent.ALERT)
+              .episodeId(rs.getObject("episode_id", UUID.class))
+              .alertId(alertId)
+              .alertType("NON_RESPONSE")
+              .severity(severity)
+              .status("PENDING")
+              .assignedTo(assignedTo)
+              .dayNumber(rs.getObject("day_number", Integer.class))
+              .build());
+    }
+  }
+}
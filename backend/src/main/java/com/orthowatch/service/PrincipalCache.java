@@ -0,0 +1,156 @@
+package com.orthowatch.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orthowatch.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Bounded, TTL-evicting cache of authenticated principals keyed by email.
+ *
+ * <p>Used by the JWT filter so that authenticated requests do not need a {@code users} lookup each
+ * time. Only the fields that drive authorization (role and active flag) are cached; the password
+ * hash stays on the login path. When {@code app.security.principal-cache.redis-enabled} is set,
+ * entries are also shared through Redis and evictions are broadcast so that every node drops its
+ * local copy.
+ */
+@Service
+public class PrincipalCache {
+
+  static final String REDIS_KEY_PREFIX = "orthowatch:principal:";
+  public static final String EVICTION_CHANNEL = "orthowatch:principal:evict";
+
+  private static final Logger logger = LoggerFactory.getLogger(PrincipalCache.class);
+
+  private final UserRepository userRepository;
+  private final StringRedisTemplate redisTemplate;
+  private final Cache<String, CachedPrincipal> localCache;
+  private final boolean redisEnabled;
+  private final Duration ttl;
+  private final Counter redisHits;
+  private final Counter redisMisses;
+
+  public PrincipalCache(
+      UserRepository userRepository,
+      StringRedisTemplate redisTemplate,
+      MeterRegistry meterRegistry,
+      @Value("${app.security.principal-cache.max-size:10000}") long maxSize,
+      @Value("${app.security.principal-cache.ttl-seconds:300}") long ttlSeconds,
+      @Value("${app.security.principal-cache.redis-enabled:false}") boolean redisEnabled) {
+    this.userRepository = userRepository;
+    this.redisTemplate = redisTemplate;
+    this.redisEnabled = redisEnabled;
+    this.ttl = Duration.ofSeconds(ttlSeconds);
+    this.localCache =
+        Caffeine.newBuilder().maximumSize(maxSize).expireAfterWrite(ttl).recordStats().build();
+    CaffeineCacheMetrics.monitor(meterRegistry, localCache, "principal");
+    this.redisHits =
+        Counter.builder("orthowatch.principal.redis").tag("result", "hit").register(meterRegistry);
+    this.redisMisses =
+        Counter.builder("orthowatch.principal.redis").tag("result", "miss").register(meterRegistry);
+  }
+
+  /**
+   * Returns the principal for the given email, consulting the local cache, then Redis (when
+   * enabled), then the database.
+   *
+   * @throws UsernameNotFoundException if no user exists with that email
+   */
+  public UserDetails loadPrincipal(String email) {
+    return localCache.get(email, this::loadFromBackingStores).toUserDetails();
+  }
+
+  /** Drops the principal for the given email on this node and, when shared, on every node. */
+  public void evict(String email) {
+    localCache.invalidate(email);
+    if (!redisEnabled) {
+      return;
+    }
+    try {
+      redisTemplate.delete(REDIS_KEY_PREFIX + email);
+      redisTemplate.convertAndSend(EVICTION_CHANNEL, email);
+    } catch (DataAccessException e) {
+      logger.warn("Failed to evict shared principal for {}: {}", email, e.getMessage());
+    }
+  }
+
+  /** Drops the local copy only; invoked for eviction broadcasts received from other nodes. */
+  public void evictLocal(String email) {
+    localCache.invalidate(email);
+  }
+
+  private CachedPrincipal loadFromBackingStores(String email) {
+    if (redisEnabled) {
+      CachedPrincipal shared = readShared(email);
+      if (shared != null) {
+        redisHits.increment();
+        return shared;
+      }
+      redisMisses.increment();
+    }
+
+    CachedPrincipal principal =
+        userRepository
+            .findByEmail(email)
+            .map(user -> new CachedPrincipal(user.getEmail(), user.getRole(), user.isActive()))
+            .orElseThrow(
+                () -> new UsernameNotFoundException("User not found with email: " + email));
+
+    if (redisEnabled) {
+      writeShared(principal);
+    }
+    return principal;
+  }
+
+  private CachedPrincipal readShared(String email) {
+    try {
+      String value = redisTemplate.opsForValue().get(REDIS_KEY_PREFIX + email);
+      return value != null ? CachedPrincipal.decode(email, value) : null;
+    } catch (DataAccessException e) {
+      logger.debug(
+          "Shared principal cache unavailable, falling back to database: {}", e.getMessage());
+      return null;
+    }
+  }
+
+  private void writeShared(CachedPrincipal principal) {
+    try {
+      redisTemplate
+          .opsForValue()
+          .set(REDIS_KEY_PREFIX + principal.email(), principal.encode(), ttl);
+    } catch (DataAccessException e) {
+      logger.debug("Failed to share principal for {}: {}", principal.email(), e.getMessage());
+    }
+  }
+
+  /** Authorization-relevant snapshot of a {@link com.orthowatch.model.User}. */
+  record CachedPrincipal(String email, String role, boolean active) {
+
+    String encode() {
+      return role + "|" + (active ? "1" : "0");
+    }
+
+    static CachedPrincipal decode(String email, String value) {
+      int separator = value.indexOf('|');
+      return new CachedPrincipal(
+          email, value.substring(0, separator), value.charAt(separator + 1) == '1');
+    }
+
+    UserDetails toUserDetails() {
+      // Credentials are never cached; the JWT has already been verified by the caller.
+      return User.builder().username(email).password("").roles(role).disabled(!active).build();
+    }
+  }
+}
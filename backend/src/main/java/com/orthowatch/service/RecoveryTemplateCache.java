@@ -0,0 +1,107 @@
+package com.orthowatch.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.orthowatch.exception.ResourceNotFoundException;
+import com.orthowatch.model.RecoveryTemplate;
+import com.orthowatch.repository.RecoveryTemplateRepository;
+import com.orthowatch.template.CompiledTemplate;
+import com.orthowatch.template.TemplateConfigException;
+import java.time.Duration;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Compiled {@link RecoveryTemplate}s by id.
+ *
+ * <p>Templates are compiled once per version (see {@link CompiledTemplate#versionOf}) and re-read
+ * at most every {@code app.templates.refresh-seconds}; edits made through JPA are picked up at once
+ * through {@link RecoveryTemplateChangeListener}. If an edited template fails to compile, the last
+ * good compilation stays in use.
+ */
+@Service
+public class RecoveryTemplateCache {
+
+  private static final Logger logger = LoggerFactory.getLogger(RecoveryTemplateCache.class);
+
+  private final RecoveryTemplateRepository templateRepository;
+  private final Cache<String, CompiledTemplate> compiledByVersion =
+      Caffeine.newBuilder().maximumSize(256).build();
+  private final LoadingCache<UUID, CompiledTemplate> templates;
+
+  public RecoveryTemplateCache(
+      RecoveryTemplateRepository templateRepository,
+      @Value("${app.templates.refresh-seconds:300}") long refreshSeconds) {
+    this.templateRepository = templateRepository;
+    this.templates =
+        Caffeine.newBuilder()
+            .refreshAfterWrite(Duration.ofSeconds(refreshSeconds))
+            // Reload on the calling thread, as the risk rules do
+            .executor(Runnable::run)
+            .build(new TemplateLoader());
+  }
+
+  /**
+   * The compiled template.
+   *
+   * @throws ResourceNotFoundException if there is no such template
+   * @throws TemplateConfigException if it has never compiled
+   */
+  public CompiledTemplate get(UUID templateId) {
+    CompiledTemplate template = templates.get(templateId);
+    if (template == null) {
+      throw new ResourceNotFoundException("Recovery template not found: " + templateId);
+    }
+    return template;
+  }
+
+  /** Re-reads the template now if it is cached, e.g. after it is edited. */
+  public void invalidate(UUID templateId) {
+    if (templates.asMap().containsKey(templateId)) {
+      templates.refresh(templateId);
+    }
+  }
+
+  private CompiledTemplate compile(RecoveryTemplate template) {
+    return compiledByVersion.get(
+        CompiledTemplate.versionOf(template),
+        version -> {
+          CompiledTemplate compiled = CompiledTemplate.compile(template);
+          logger.info(
+              "Compiled recovery template {} ({})",
+              template.getSurgeryType(),
+              compiled.versionId());
+          return compiled;
+        });
+  }
+
+  private class TemplateLoader implements CacheLoader<UUID, CompiledTemplate> {
+
+    @Override
+    public CompiledTemplate load(UUID templateId) {
+      return templateRepository
+          .findById(templateId)
+          .map(RecoveryTemplateCache.this::compile)
+          .orElse(null);
+    }
+
+    @Override
+    public CompiledTemplate reload(UUID templateId, CompiledTemplate current) {
+      try {
+        return load(templateId);
+      } catch (TemplateConfigException e) {
+        logger.error(
+            "Recovery template {} failed to compile, keeping {}: {}",
+            templateId,
+            current.versionId(),
+            e.getMessage());
+        return current;
+      }
+    }
+  }
+}
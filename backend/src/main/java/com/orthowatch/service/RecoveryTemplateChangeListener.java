@@ -0,0 +1,36 @@
+package com.orthowatch.service;
+
+import com.orthowatch.model.RecoveryTemplate;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that drops a {@link RecoveryTemplate}'s compiled form from the {@link
+ * RecoveryTemplateCache} once an edit or deletion commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class RecoveryTemplateChangeListener {
+
+  private final RecoveryTemplateCache templateCache;
+
+  @PostUpdate
+  @PostRemove
+  public void onTemplateChanged(RecoveryTemplate template) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      templateCache.invalidate(template.getId());
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            templateCache.invalidate(template.getId());
+          }
+        });
+  }
+}
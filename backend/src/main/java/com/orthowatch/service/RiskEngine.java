@@ -0,0 +1,112 @@
+package com.orthowatch.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orthowatch.model.DailyResponse;
+import com.orthowatch.model.RiskRule;
+import com.orthowatch.model.RiskScore;
+import com.orthowatch.repository.RiskRuleRepository;
+import com.orthowatch.risk.CompiledRuleSet;
+import com.orthowatch.risk.RuleExpressionException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Scores daily responses against the active {@link RiskRule}s.
+ *
+ * <p>Rules are compiled once per rule-set version (see {@link CompiledRuleSet#versionOf}) and the
+ * active rules are re-read at most every {@code app.risk.rule-refresh-seconds}, so scoring itself
+ * neither queries nor parses anything. If a changed rule set fails to compile, the last good one
+ * stays in use. Each new version is stored once in {@code rule_set_versions}, which scores
+ * reference by id.
+ */
+@Service
+public class RiskEngine {
+
+  private static final Logger logger = LoggerFactory.getLogger(RiskEngine.class);
+
+  private final RiskRuleRepository riskRuleRepository;
+  private final RuleSetVersionService ruleSetVersionService;
+  private final long refreshNanos;
+  private final Cache<String, CompiledRuleSet> compiledByVersion =
+      Caffeine.newBuilder().maximumSize(8).build();
+
+  private volatile CompiledRuleSet current;
+  private volatile long loadedAtNanos;
+
+  public RiskEngine(
+      RiskRuleRepository riskRuleRepository,
+      RuleSetVersionService ruleSetVersionService,
+      @Value("${app.risk.rule-refresh-seconds:30}") long refreshSeconds) {
+    this.riskRuleRepository = riskRuleRepository;
+    this.ruleSetVersionService = ruleSetVersionService;
+    this.refreshNanos = Duration.ofSeconds(refreshSeconds).toNanos();
+  }
+
+  /** Scores the response with the current rule set. Trajectory is left for the caller to set. */
+  public RiskScore score(DailyResponse response) {
+    return score(currentRuleSet(), response);
+  }
+
+  /** Scores the response with a given rule set; batch callers resolve the rule set once. */
+  public RiskScore score(CompiledRuleSet ruleSet, DailyResponse response) {
+    CompiledRuleSet.Assessment assessment = ruleSet.evaluate(response);
+    return RiskScore.builder()
+        .episode(response.getEpisode())
+        .dayNumber(response.getDayNumber())
+        .compositeScore(assessment.compositeScore())
+        .riskLevel(assessment.riskLevel())
+        .contributingFactors(assessment.contributingFactors())
+        .ruleVersionId(ruleSet.versionId())
+        .calculatedAt(OffsetDateTime.now())
+        .build();
+  }
+
+  /** The compiled active rule set, reloading it when the refresh interval has passed. */
+  public CompiledRuleSet currentRuleSet() {
+    CompiledRuleSet ruleSet = current;
+    if (ruleSet == null || System.nanoTime() - loadedAtNanos > refreshNanos) {
+      ruleSet = reload();
+    }
+    return ruleSet;
+  }
+
+  /** Forces the next scoring call to re-read the active rules, e.g. after a rule is edited. */
+  public void invalidate() {
+    loadedAtNanos = System.nanoTime() - refreshNanos - 1;
+  }
+
+  private synchronized CompiledRuleSet reload() {
+    if (current != null && System.nanoTime() - loadedAtNanos <= refreshNanos) {
+      return current;
+    }
+    List<RiskRule> activeRules = riskRuleRepository.findByIsActiveTrue();
+    String versionId = CompiledRuleSet.versionOf(activeRules);
+    try {
+      current = compiledByVersion.get(versionId, v -> compile(activeRules));
+    } catch (RuleExpressionException e) {
+      if (current == null) {
+        throw e;
+      }
+      logger.error(
+          "Active risk rules failed to compile, keeping rule set {}: {}",
+          current.versionId(),
+          e.getMessage());
+    }
+    loadedAtNanos = System.nanoTime();
+    return current;
+  }
+
+  private CompiledRuleSet compile(List<RiskRule> activeRules) {
+    CompiledRuleSet ruleSet = CompiledRuleSet.compile(activeRules);
+    ruleSetVersionService.register(ruleSet);
+    logger.info(
+        "Compiled risk rule set {} ({} rules)", ruleSet.versionId(), ruleSet.rules().size());
+    return ruleSet;
+  }
+}
@@ -0,0 +1,31 @@
+package com.orthowatch.service;
+
+import com.orthowatch.dto.DashboardEvent;
+import com.orthowatch.model.RiskScore;
+import jakarta.persistence.PostPersist;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that pushes new {@link RiskScore} rows to the dashboards of the episode's
+ * care team once the transaction commits. A nightly scoring chunk resolves its recipients in one
+ * query.
+ */
+@Component
+@RequiredArgsConstructor
+public class RiskScoreChangeListener {
+
+  private final DashboardEventBroker eventBroker;
+
+  @PostPersist
+  public void onRiskScoreCreated(RiskScore score) {
+    eventBroker.publishToCareTeamAfterCommit(
+        DashboardEvent.builder()
+            .type(DashboardEvent.RISK_SCORE)
+            .episodeId(score.getEpisode().getId())
+            .dayNumber(score.getDayNumber())
+            .compositeScore(score.getCompositeScore())
+            .riskLevel(score.getRiskLevel())
+            .build());
+  }
+}
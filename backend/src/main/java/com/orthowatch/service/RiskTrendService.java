@@ -0,0 +1,167 @@
+package com.orthowatch.service;
+
+import com.orthowatch.model.EpisodeRiskTrend;
+import com.orthowatch.model.RiskScore;
+import com.orthowatch.repository.EpisodeRiskTrendRepository;
+import com.orthowatch.repository.RiskScoreRepository;
+import com.orthowatch.risk.RiskTrend;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Maintains each episode's {@link RiskTrend} in {@code episode_risk_trends} and derives a score's
+ * trajectory from it.
+ *
+ * <p>Scores normally arrive in day order and cost one locked row read and one write per episode,
+ * batched across all episodes passed to {@link #applyAll}. The episode's score history is read only
+ * to seed a trend that does not exist yet (episodes scored before the table existed) or when a day
+ * older than the latest is scored.
+ */
+@Service
+public class RiskTrendService {
+
+  private final EpisodeRiskTrendRepository episodeRiskTrendRepository;
+  private final RiskScoreRepository riskScoreRepository;
+  private final int window;
+  private final double alpha;
+  private final double slopeThreshold;
+
+  public RiskTrendService(
+      EpisodeRiskTrendRepository episodeRiskTrendRepository,
+      RiskScoreRepository riskScoreRepository,
+      @Value("${app.risk.trend.window:5}") int window,
+      @Value("${app.risk.trend.ewma-alpha:0.3}") double alpha,
+      @Value("${app.risk.trend.slope-threshold:2.0}") double slopeThreshold) {
+    this.episodeRiskTrendRepository = episodeRiskTrendRepository;
+    this.riskScoreRepository = riskScoreRepository;
+    this.window = window;
+    this.alpha = alpha;
+    this.slopeThreshold = slopeThreshold;
+  }
+
+  /**
+   * Folds the score into its episode's trend and sets the score's trajectory.
+   *
+   * @return the episode's updated trend
+   */
+  @Transactional
+  public RiskTrend apply(RiskScore score) {
+    return applyAll(List.of(score)).get(score.getEpisode().getId());
+  }
+
+  /**
+   * Folds each score into its episode's trend, in list order, and sets each score's trajectory.
+   * Scores for the same episode must be in day order.
+   *
+   * @return the updated trend of every episode involved
+   */
+  @Transactional
+  public Map<UUID, RiskTrend> applyAll(List<RiskScore> scores) {
+    Set<UUID> episodeIds =
+        scores.stream()
+            .map(score -> score.getEpisode().getId())
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    Map<UUID, EpisodeRiskTrend> rows = new LinkedHashMap<>();
+    for (EpisodeRiskTrend row : episodeRiskTrendRepository.findForUpdate(episodeIds)) {
+      rows.put(row.getEpisodeId(), row);
+    }
+    Set<UUID> unseeded = new LinkedHashSet<>(episodeIds);
+    unseeded.removeAll(rows.keySet());
+    Map<UUID, List<RiskScore>> histories = historiesOf(unseeded);
+
+    Map<UUID, RiskTrend> trends = new HashMap<>();
+    for (RiskScore score : scores) {
+      UUID episodeId = score.getEpisode().getId();
+      RiskTrend current = trends.get(episodeId);
+      if (current == null && rows.containsKey(episodeId)) {
+        current = toTrend(rows.get(episodeId));
+      }
+      RiskTrend next;
+      if (current != null && score.getDayNumber() >= current.lastDayNumber()) {
+        next = addScore(current, score);
+      } else {
+        List<RiskScore> history =
+            histories.containsKey(episodeId)
+                ? histories.get(episodeId)
+                : riskScoreRepository.findByEpisodeIdOrderByDayNumberDesc(episodeId).reversed();
+        next = rebuild(history, score);
+      }
+      trends.put(episodeId, next);
+    }
+
+    List<EpisodeRiskTrend> changed = new ArrayList<>(trends.size());
+    trends.forEach(
+        (episodeId, trend) -> {
+          EpisodeRiskTrend row = rows.get(episodeId);
+          if (row == null) {
+            row = EpisodeRiskTrend.builder().episodeId(episodeId).isNew(true).build();
+          }
+          row.setRecentDays(trend.recentDays());
+          row.setRecentScores(trend.recentScores());
+          row.setEwma(trend.ewma());
+          row.setPriorEwma(trend.priorEwma());
+          row.setSlope(trend.slope());
+          row.setSampleCount(trend.sampleCount());
+          changed.add(row);
+        });
+    episodeRiskTrendRepository.saveAll(changed);
+    return trends;
+  }
+
+  private Map<UUID, List<RiskScore>> historiesOf(Set<UUID> episodeIds) {
+    Map<UUID, List<RiskScore>> histories = new HashMap<>();
+    for (UUID episodeId : episodeIds) {
+      histories.put(episodeId, new ArrayList<>());
+    }
+    if (!episodeIds.isEmpty()) {
+      for (RiskScore stored :
+          riskScoreRepository.findByEpisodeIdInOrderByDayNumberAsc(episodeIds)) {
+        histories.get(stored.getEpisode().getId()).add(stored);
+      }
+    }
+    return histories;
+  }
+
+  /** Replays stored scores in day order, with {@code score} in place of any stored for its day. */
+  private RiskTrend rebuild(List<RiskScore> history, RiskScore score) {
+    RiskTrend trend = RiskTrend.empty();
+    boolean added = false;
+    for (RiskScore stored : history) {
+      if (stored.getDayNumber() == score.getDayNumber()) {
+        continue;
+      }
+      if (!added && stored.getDayNumber() > score.getDayNumber()) {
+        trend = addScore(trend, score);
+        added = true;
+      }
+      trend = trend.add(stored.getDayNumber(), stored.getCompositeScore(), window, alpha);
+    }
+    return added ? trend : addScore(trend, score);
+  }
+
+  private RiskTrend addScore(RiskTrend trend, RiskScore score) {
+    RiskTrend next = trend.add(score.getDayNumber(), score.getCompositeScore(), window, alpha);
+    score.setTrajectory(next.trajectory(slopeThreshold));
+    return next;
+  }
+
+  private static RiskTrend toTrend(EpisodeRiskTrend row) {
+    return new RiskTrend(
+        row.getRecentDays(),
+        row.getRecentScores(),
+        row.getEwma(),
+        row.getPriorEwma(),
+        row.getSlope(),
+        row.getSampleCount());
+  }
+}
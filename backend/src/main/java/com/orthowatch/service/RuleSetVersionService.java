@@ -0,0 +1,69 @@
+package com.orthowatch.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.orthowatch.model.RiskScore;
+import com.orthowatch.model.RuleSetVersion;
+import com.orthowatch.repository.RuleSetVersionRepository;
+import com.orthowatch.risk.CompiledRuleSet;
+import java.util.Map;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Persists each distinct rule set once in {@code rule_set_versions} and reads snapshots back for
+ * audits. Snapshots are immutable, so everything read or written is kept in a small local cache.
+ */
+@Service
+@RequiredArgsConstructor
+public class RuleSetVersionService {
+
+  private static final Logger logger = LoggerFactory.getLogger(RuleSetVersionService.class);
+
+  private final RuleSetVersionRepository ruleSetVersionRepository;
+  private final ObjectMapper objectMapper;
+
+  private final Cache<String, Map<String, Object>> snapshots =
+      Caffeine.newBuilder().maximumSize(64).build();
+
+  /** Makes sure the rule set's snapshot is stored; a no-op for versions already seen. */
+  public void register(CompiledRuleSet ruleSet) {
+    if (snapshots.getIfPresent(ruleSet.versionId()) != null) {
+      return;
+    }
+    try {
+      int inserted =
+          ruleSetVersionRepository.insertIfAbsent(
+              ruleSet.versionId(),
+              objectMapper.writeValueAsString(ruleSet.snapshot()),
+              ruleSet.rules().size());
+      if (inserted > 0) {
+        logger.info("Stored rule set snapshot {}", ruleSet.versionId());
+      }
+    } catch (JsonProcessingException e) {
+      throw new IllegalStateException("Rule set snapshot is not serializable", e);
+    }
+    snapshots.put(ruleSet.versionId(), ruleSet.snapshot());
+  }
+
+  /** The full rule set a score was computed with, or empty for an unknown version. */
+  public Optional<Map<String, Object>> findSnapshot(String versionId) {
+    Map<String, Object> cached = snapshots.getIfPresent(versionId);
+    if (cached != null) {
+      return Optional.of(cached);
+    }
+    Optional<Map<String, Object>> stored =
+        ruleSetVersionRepository.findById(versionId).map(RuleSetVersion::getSnapshot);
+    stored.ifPresent(snapshot -> snapshots.put(versionId, snapshot));
+    return stored;
+  }
+
+  public Optional<Map<String, Object>> findSnapshot(RiskScore score) {
+    return findSnapshot(score.getRuleVersionId());
+  }
+}
@@ -0,0 +1,142 @@
+package com.orthowatch.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Hierarchical timer wheel of alert SLA deadlines, in whole ticks (epoch millis / tick length).
+ *
+ * <p>Four levels of 64 slots: level 0 holds timers due within the next 64 ticks, one tick per slot;
+ * each higher level covers 64 times the span of the one below. As time advances, the slot of a
+ * higher level that comes due is cascaded into the levels below, so every timer is touched at most
+ * once per level and scheduling, firing and rescheduling are O(1) however many alerts are pending.
+ * Deadlines beyond the top level (about 194 days at one-second ticks) wait in an overflow list.
+ *
+ * <p>Rescheduling an alert replaces its deadline; the old timer is dropped when its slot comes up.
+ * Not thread-safe; owned by {@link AlertSlaEnforcer}.
+ */
+class SlaTimerWheel {
+
+  private static final int BITS = 6;
+  private static final int SLOTS = 1 << BITS;
+  private static final int MASK = SLOTS - 1;
+  private static final int LEVELS = 4;
+
+  private final List<Timer>[][] wheels;
+  private final List<Timer> overflow = new ArrayList<>();
+  private final List<UUID> due = new ArrayList<>();
+  private final Map<UUID, Long> deadlines = new HashMap<>();
+  private long currentTick;
+
+  @SuppressWarnings("unchecked")
+  SlaTimerWheel(long startTick) {
+    this.currentTick = startTick;
+    this.wheels = new List[LEVELS][SLOTS];
+    for (List<Timer>[] level : wheels) {
+      for (int slot = 0; slot < SLOTS; slot++) {
+        level[slot] = new ArrayList<>();
+      }
+    }
+  }
+
+  /** Schedules (or moves) the alert's timer; deadlines not after the current tick fire next. */
+  void schedule(UUID alertId, long deadlineTick) {
+    Long previous = deadlines.put(alertId, deadlineTick);
+    if (previous != null && previous == deadlineTick) {
+      return;
+    }
+    if (deadlineTick <= currentTick) {
+      due.add(alertId);
+    } else {
+      place(new Timer(alertId, deadlineTick));
+    }
+  }
+
+  /** Forgets the alert's timer, e.g. once it has been acknowledged. */
+  void cancel(UUID alertId) {
+    deadlines.remove(alertId);
+  }
+
+  /**
+   * Advances to {@code nowTick} and returns the alerts whose deadline has been reached, each once.
+   */
+  List<UUID> advanceTo(long nowTick) {
+    List<UUID> fired = new ArrayList<>();
+    collect(due, fired);
+    due.clear();
+    while (currentTick < nowTick) {
+      currentTick++;
+      for (int level = LEVELS - 1; level >= 1; level--) {
+        if ((currentTick & ((1L << (BITS * level)) - 1)) == 0) {
+          cascade(wheels[level][(int) ((currentTick >>> (BITS * level)) & MASK)]);
+        }
+      }
+      if ((currentTick & ((1L << (BITS * LEVELS)) - 1)) == 0) {
+        cascade(overflow);
+      }
+      List<Timer> slot = wheels[0][(int) (currentTick & MASK)];
+      collectTimers(slot, fired);
+      slot.clear();
+    }
+    return fired;
+  }
+
+  /** Number of alerts with a pending timer. */
+  int size() {
+    return deadlines.size();
+  }
+
+  // Deadline is at or after the current tick; at the current tick only while cascading, before
+  // the current level-0 slot is fired
+  private void place(Timer timer) {
+    long deadline = timer.deadlineTick();
+    for (int level = 0; level < LEVELS; level++) {
+      int shift = BITS * (level + 1);
+      if ((deadline >>> shift) == (currentTick >>> shift)) {
+        wheels[level][(int) ((deadline >>> (BITS * level)) & MASK)].add(timer);
+        return;
+      }
+    }
+    overflow.add(timer);
+  }
+
+  private void cascade(List<Timer> timers) {
+    List<Timer> moving = new ArrayList<>(timers);
+    timers.clear();
+    for (Timer timer : moving) {
+      if (isCurrent(timer)) {
+        place(timer);
+      }
+    }
+  }
+
+  private void collectTimers(List<Timer> timers, List<UUID> fired) {
+    for (Timer timer : timers) {
+      if (isCurrent(timer)) {
+        deadlines.remove(timer.alertId());
+        fired.add(timer.alertId());
+      }
+    }
+  }
+
+  private void collect(List<UUID> alertIds, List<UUID> fired) {
+    for (UUID alertId : alertIds) {
+      Long deadline = deadlines.get(alertId);
+      if (deadline != null && deadline <= currentTick) {
+        deadlines.remove(alertId);
+        fired.add(alertId);
+      }
+    }
+  }
+
+  // A timer is stale once its alert was cancelled or rescheduled to another deadline
+  private boolean isCurrent(Timer timer) {
+    Long deadline = deadlines.get(timer.alertId());
+    return deadline != null && deadline == timer.deadlineTick();
+  }
+
+  private record Timer(UUID alertId, long deadlineTick) {}
+}
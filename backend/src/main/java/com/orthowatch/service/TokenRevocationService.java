@@ -0,0 +1,119 @@
+package com.orthowatch.service;
+
+import com.orthowatch.util.JwtClaims;
+import com.orthowatch.util.JwtUtil;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Redis-backed deny-list consulted when {@code app.security.auth-mode} is {@code claims}.
+ *
+ * <p>In that mode the JWT filter trusts the role carried by the access token instead of reading the
+ * {@code users} table, so two things can make a still-unexpired token stale:
+ *
+ * <ul>
+ *   <li>the user was deactivated, deleted or given a different role, recorded per email as the
+ *       user's current {@code role|active} state; tokens that disagree with it are rejected;
+ *   <li>a single token was retired (logout), recorded per {@code jti}.
+ * </ul>
+ *
+ * Entries only need to outlive the tokens they reject, so user entries expire after one access
+ * token lifetime and token entries at the token's own expiry. Both are looked up with one {@code
+ * MGET}. Logout fails rather than report success when its entry cannot be written, and the JWT
+ * filter rejects tokens while the deny-list cannot be read. In {@code database} mode every method
+ * is a no-op.
+ */
+@Service
+public class TokenRevocationService {
+
+  static final String USER_KEY_PREFIX = "orthowatch:revoked:user:";
+  static final String TOKEN_KEY_PREFIX = "orthowatch:revoked:jti:";
+
+  private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+  private final StringRedisTemplate redisTemplate;
+  private final boolean enabled;
+  private final Duration userEntryTtl;
+
+  public TokenRevocationService(
+      StringRedisTemplate redisTemplate,
+      JwtUtil jwtUtil,
+      @Value("${app.security.auth-mode:database}") String authMode) {
+    this.redisTemplate = redisTemplate;
+    this.enabled = "claims".equalsIgnoreCase(authMode);
+    this.userEntryTtl = Duration.ofMillis(jwtUtil.getAccessExpiration());
+  }
+
+  /**
+   * Records the user's current role and active flag so that access tokens issued with a different
+   * role, or for a user who is no longer active, are rejected until they expire.
+   */
+  public void revokeUser(String email, String currentRole, boolean active) {
+    if (!enabled) {
+      return;
+    }
+    try {
+      redisTemplate
+          .opsForValue()
+          .set(USER_KEY_PREFIX + email, currentRole + "|" + (active ? "1" : "0"), userEntryTtl);
+    } catch (DataAccessException e) {
+      logger.error(
+          "Failed to revoke tokens for {}; they stay valid until expiry: {}",
+          email,
+          e.getMessage());
+    }
+  }
+
+  /**
+   * Rejects a single access token, identified by its {@code jti}, until it expires.
+   *
+   * @throws DataAccessException if the revocation could not be recorded; the token stays valid
+   */
+  public void revokeToken(String tokenId, Instant expiresAt) {
+    if (!enabled || tokenId == null) {
+      return;
+    }
+    Duration remaining = Duration.between(Instant.now(), expiresAt);
+    if (remaining.isNegative() || remaining.isZero()) {
+      return;
+    }
+    try {
+      redisTemplate.opsForValue().set(TOKEN_KEY_PREFIX + tokenId, "1", remaining);
+    } catch (DataAccessException e) {
+      logger.error("Failed to revoke token {}: {}", tokenId, e.getMessage());
+      throw e;
+    }
+  }
+
+  /**
+   * Returns whether the verified token has been revoked.
+   *
+   * @throws DataAccessException if Redis cannot be reached; callers must not treat that as "not
+   *     revoked"
+   */
+  public boolean isRevoked(JwtClaims claims) {
+    String tokenKey = TOKEN_KEY_PREFIX + (claims.tokenId() != null ? claims.tokenId() : "");
+    List<String> values =
+        redisTemplate.opsForValue().multiGet(List.of(USER_KEY_PREFIX + claims.subject(), tokenKey));
+    if (values == null) {
+      return false;
+    }
+    if (claims.tokenId() != null && values.get(1) != null) {
+      return true;
+    }
+    String userState = values.get(0);
+    if (userState == null) {
+      return false;
+    }
+    int separator = userState.indexOf('|');
+    boolean active = userState.charAt(separator + 1) == '1';
+    return !active || !userState.substring(0, separator).equals(claims.role());
+  }
+}
@@ -0,0 +1,63 @@
+package com.orthowatch.service;
+
+import com.orthowatch.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * JPA entity listener that evicts cached principals when a {@link User} row changes, so role
+ * changes and deactivations take effect on the next request instead of after the cache TTL. In
+ * claims mode it also records the new state with {@link TokenRevocationService} so outstanding
+ * access tokens that no longer match are rejected.
+ *
+ * <p>Eviction is deferred until the surrounding transaction commits; evicting earlier would let a
+ * concurrent request repopulate the cache from the not-yet-committed (old) row.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserChangeListener {
+
+  private final PrincipalCache principalCache;
+  private final TokenRevocationService tokenRevocationService;
+
+  @PostUpdate
+  public void onUserUpdated(User user) {
+    String email = user.getEmail();
+    String role = user.getRole();
+    boolean active = user.isActive();
+    afterCommit(
+        () -> {
+          principalCache.evict(email);
+          tokenRevocationService.revokeUser(email, role, active);
+        });
+  }
+
+  @PostRemove
+  public void onUserRemoved(User user) {
+    String email = user.getEmail();
+    String role = user.getRole();
+    afterCommit(
+        () -> {
+          principalCache.evict(email);
+          tokenRevocationService.revokeUser(email, role, false);
+        });
+  }
+
+  private static void afterCommit(Runnable action) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(
+          new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+              action.run();
+            }
+          });
+    } else {
+      action.run();
+    }
+  }
+}
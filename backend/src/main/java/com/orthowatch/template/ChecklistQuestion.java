@@ -0,0 +1,48 @@
+package com.orthowatch.template;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * The questions a recovery template may ask in a daily checklist, with the name used in {@code
+ * checklist_config} and the {@code daily_responses} column the answer fills.
+ */
+public enum ChecklistQuestion {
+  PAIN_SCORE("pain_score", "pain_score"),
+  SWELLING_LEVEL("swelling_level", "swelling_level"),
+  FEVER_CHECK("fever_check", "fever_level"),
+  DVT_SYMPTOMS("dvt_symptoms", "dvt_symptoms"),
+  MOBILITY_CHECK("mobility_check", "mobility_achieved"),
+  MEDICATION_ADHERENCE("medication_adherence", "medication_adherence"),
+  // Answered by uploading a photo rather than in the conversation
+  WOUND_IMAGE("wound_image", null);
+
+  private static final Map<String, ChecklistQuestion> BY_CONFIG_NAME =
+      Arrays.stream(values()).collect(Collectors.toMap(ChecklistQuestion::configName, q -> q));
+
+  private final String configName;
+  private final String responseField;
+
+  ChecklistQuestion(String configName, String responseField) {
+    this.configName = configName;
+    this.responseField = responseField;
+  }
+
+  public String configName() {
+    return configName;
+  }
+
+  /** The {@code daily_responses} column the answer fills, or null if it has none. */
+  public String responseField() {
+    return responseField;
+  }
+
+  static ChecklistQuestion byConfigName(String name) {
+    ChecklistQuestion question = BY_CONFIG_NAME.get(name);
+    if (question == null) {
+      throw new TemplateConfigException("Unknown checklist question '" + name + "'");
+    }
+    return question;
+  }
+}
@@ -0,0 +1,220 @@
+package com.orthowatch.template;
+
+import com.orthowatch.model.RecoveryTemplate;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * An immutable, compiled {@link RecoveryTemplate}: its checklist, milestones and image days
+ * resolved into arrays indexed by monitoring day, so that lookups never touch the JSON config.
+ *
+ * <p>Days the checklist does not list ask the questions of the closest earlier listed day; days
+ * before the first listed one ask {@link #DEFAULT_QUESTIONS}. Days past the end of the plan ask
+ * those of its last day.
+ */
+public final class CompiledTemplate {
+
+  /** Asked on days before the first one a template lists, or when it lists none. */
+  public static final List<ChecklistQuestion> DEFAULT_QUESTIONS =
+      List.of(
+          ChecklistQuestion.PAIN_SCORE,
+          ChecklistQuestion.SWELLING_LEVEL,
+          ChecklistQuestion.FEVER_CHECK,
+          ChecklistQuestion.MOBILITY_CHECK,
+          ChecklistQuestion.MEDICATION_ADHERENCE);
+
+  private final UUID templateId;
+  private final String versionId;
+  private final int monitoringDays;
+  private final ChecklistQuestion[][] questionsByDay;
+  private final Set<String>[] requiredFieldsByDay;
+  private final Milestone[] milestonesByDay;
+  private final BitSet imageDays;
+
+  @SuppressWarnings("unchecked")
+  private CompiledTemplate(
+      UUID templateId,
+      String versionId,
+      int monitoringDays,
+      ChecklistQuestion[][] questionsByDay,
+      Milestone[] milestonesByDay,
+      BitSet imageDays) {
+    this.templateId = templateId;
+    this.versionId = versionId;
+    this.monitoringDays = monitoringDays;
+    this.questionsByDay = questionsByDay;
+    this.milestonesByDay = milestonesByDay;
+    this.imageDays = imageDays;
+    this.requiredFieldsByDay = new Set[questionsByDay.length];
+    for (int day = 0; day < questionsByDay.length; day++) {
+      requiredFieldsByDay[day] =
+          Arrays.stream(questionsByDay[day])
+              .map(ChecklistQuestion::responseField)
+              .filter(Objects::nonNull)
+              .collect(Collectors.toUnmodifiableSet());
+    }
+  }
+
+  /**
+   * Compiles the template's configuration.
+   *
+   * @throws TemplateConfigException if a day key, question name or milestone is invalid
+   */
+  public static CompiledTemplate compile(RecoveryTemplate template) {
+    TreeMap<Integer, ChecklistQuestion[]> listedDays = checklistDays(template.getChecklistConfig());
+    TreeMap<Integer, Milestone> milestones = milestones(template.getMilestoneConfig());
+    List<Integer> mandatoryImageDays =
+        template.getMandatoryImageDays() != null ? template.getMandatoryImageDays() : List.of();
+
+    int lastDay = template.getMonitoringDays();
+    if (!listedDays.isEmpty()) {
+      lastDay = Math.max(lastDay, listedDays.lastKey());
+    }
+    if (!milestones.isEmpty()) {
+      lastDay = Math.max(lastDay, milestones.lastKey());
+    }
+
+    ChecklistQuestion[] defaults = DEFAULT_QUESTIONS.toArray(ChecklistQuestion[]::new);
+    ChecklistQuestion[][] questionsByDay = new ChecklistQuestion[lastDay + 1][];
+    Milestone[] milestonesByDay = new Milestone[lastDay + 1];
+    for (int day = 0; day <= lastDay; day++) {
+      Map.Entry<Integer, ChecklistQuestion[]> listed = listedDays.floorEntry(day);
+      questionsByDay[day] = listed != null ? listed.getValue() : defaults;
+      milestonesByDay[day] = milestones.get(day);
+    }
+
+    BitSet imageDays = new BitSet(lastDay + 1);
+    for (Integer day : mandatoryImageDays) {
+      if (day == null || day < 0) {
+        throw new TemplateConfigException("Invalid mandatory image day " + day);
+      }
+      imageDays.set(day);
+    }
+
+    return new CompiledTemplate(
+        template.getId(),
+        versionOf(template),
+        template.getMonitoringDays(),
+        questionsByDay,
+        milestonesByDay,
+        imageDays);
+  }
+
+  /**
+   * Version of a template, e.g. {@code 0190a1b2-...@1718000000000}: its id and last modification
+   * time. Every update through JPA moves {@code updatedAt}, so an edited template compiles anew.
+   */
+  public static String versionOf(RecoveryTemplate template) {
+    long modified =
+        template.getUpdatedAt() != null ? template.getUpdatedAt().toInstant().toEpochMilli() : 0;
+    return template.getId() + "@" + modified;
+  }
+
+  public UUID templateId() {
+    return templateId;
+  }
+
+  public String versionId() {
+    return versionId;
+  }
+
+  public int monitoringDays() {
+    return monitoringDays;
+  }
+
+  /** The questions asked on the given day. */
+  public List<ChecklistQuestion> questions(int day) {
+    return List.of(questionsByDay[index(day)]);
+  }
+
+  /** The {@code daily_responses} columns that must be answered on the given day. */
+  public Set<String> requiredFields(int day) {
+    return requiredFieldsByDay[index(day)];
+  }
+
+  /** The milestone expected by the given day, or null if there is none. */
+  public Milestone milestone(int day) {
+    return day >= 0 && day < milestonesByDay.length ? milestonesByDay[day] : null;
+  }
+
+  /** Whether a wound photo is mandatory on the given day. */
+  public boolean requiresImage(int day) {
+    return day >= 0 && imageDays.get(day);
+  }
+
+  private int index(int day) {
+    return Math.max(0, Math.min(day, questionsByDay.length - 1));
+  }
+
+  private static TreeMap<Integer, ChecklistQuestion[]> checklistDays(Map<String, Object> config) {
+    TreeMap<Integer, ChecklistQuestion[]> days = new TreeMap<>();
+    Object listed = config != null ? config.get("days") : null;
+    if (listed == null) {
+      return days;
+    }
+    if (!(listed instanceof Map<?, ?> byDay)) {
+      throw new TemplateConfigException("checklist_config.days must be an object");
+    }
+    byDay.forEach(
+        (day, entry) -> {
+          if (!(entry instanceof Map<?, ?> dayConfig)
+              || !(dayConfig.get("questions") instanceof Collection<?> names)) {
+            throw new TemplateConfigException(
+                "checklist_config.days." + day + " must list its questions");
+          }
+          days.put(
+              dayNumber(day),
+              names.stream()
+                  .map(name -> ChecklistQuestion.byConfigName(String.valueOf(name)))
+                  .distinct()
+                  .toArray(ChecklistQuestion[]::new));
+        });
+    return days;
+  }
+
+  private static TreeMap<Integer, Milestone> milestones(Map<String, Object> config) {
+    TreeMap<Integer, Milestone> milestones = new TreeMap<>();
+    Object listed = config != null ? config.get("milestones") : null;
+    if (listed == null) {
+      return milestones;
+    }
+    if (!(listed instanceof Map<?, ?> byDay)) {
+      throw new TemplateConfigException("milestone_config.milestones must be an object");
+    }
+    byDay.forEach(
+        (key, entry) -> {
+          if (!(entry instanceof Map<?, ?> milestone)) {
+            throw new TemplateConfigException(
+                "milestone_config.milestones." + key + " must be an object");
+          }
+          int day = dayNumber(key);
+          milestones.put(
+              day,
+              new Milestone(
+                  day,
+                  Objects.toString(milestone.get("label"), null),
+                  Objects.toString(milestone.get("expected"), null)));
+        });
+    return milestones;
+  }
+
+  private static int dayNumber(Object key) {
+    try {
+      int day = Integer.parseInt(key.toString().trim());
+      if (day >= 0) {
+        return day;
+      }
+    } catch (NumberFormatException e) {
+      // Reported below
+    }
+    throw new TemplateConfigException("Invalid day '" + key + "'");
+  }
+}
@@ -0,0 +1,10 @@
+package com.orthowatch.template;
+
+/**
+ * A recovery milestone from a template's {@code milestone_config}.
+ *
+ * @param day the monitoring day by which it is expected
+ * @param label short name, e.g. "Assisted Walking"
+ * @param expected what the care team expects to see by then
+ */
+public record Milestone(int day, String label, String expected) {}
@@ -0,0 +1,9 @@
+package com.orthowatch.template;
+
+/** A recovery template whose checklist or milestone configuration cannot be compiled. */
+public class TemplateConfigException extends IllegalArgumentException {
+
+  public TemplateConfigException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,34 @@
+package com.orthowatch.util;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+
+/**
+ * Daily checklist times. Checklists go out at the episode's local {@code checklistTime} in its IANA
+ * {@code timezone}, starting the day after discharge; day N of monitoring is discharge date + N.
+ */
+public final class ChecklistSchedule {
+
+  private ChecklistSchedule() {}
+
+  /**
+   * The first checklist still ahead of {@code now}: day 1 at the local checklist time, or, for an
+   * episode enrolled after that has passed, the next local occurrence.
+   */
+  public static OffsetDateTime firstChecklistAt(
+      LocalDate dischargeDate, LocalTime checklistTime, String timezone, Instant now) {
+    ZoneId zone = ZoneId.of(timezone);
+    ZonedDateTime first = dischargeDate.plusDays(1).atTime(checklistTime).atZone(zone);
+    if (first.toInstant().isAfter(now)) {
+      return first.withZoneSameInstant(ZoneOffset.UTC).toOffsetDateTime();
+    }
+    ZonedDateTime today = now.atZone(zone).toLocalDate().atTime(checklistTime).atZone(zone);
+    ZonedDateTime next = today.toInstant().isAfter(now) ? today : today.plusDays(1);
+    return next.withZoneSameInstant(ZoneOffset.UTC).toOffsetDateTime();
+  }
+}
@@ -0,0 +1,21 @@
+package com.orthowatch.util;
+
+import java.time.Instant;
+
+/**
+ * Claims of an access token whose signature and expiry have already been verified.
+ *
+ * @param subject the user's email
+ * @param role the user's role at the time the token was issued (ADMIN, SURGEON, NURSE)
+ * @param fullName the user's display name
+ * @param tokenId the token's {@code jti}, used to revoke a single token; null for older tokens
+ * @param issuedAt when the token was issued
+ * @param expiresAt when the token stops being valid
+ */
+public record JwtClaims(
+    String subject,
+    String role,
+    String fullName,
+    String tokenId,
+    Instant issuedAt,
+    Instant expiresAt) {}
@@ -1,7 +1,11 @@
 package com.orthowatch.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
@@ -12,9 +16,17 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Function;
 
 @Component
@@ -34,13 +46,41 @@ public class JwtUtil {
     @Value("${app.jwt.refresh-expiration}")
     private long refreshExpiration;
 
+    @Value("${app.jwt.claims-cache.enabled:true}")
+    private boolean claimsCacheEnabled;
+
+    @Value("${app.jwt.claims-cache.ttl-seconds:60}")
+    private long claimsCacheTtlSeconds;
+
+    @Value("${app.jwt.claims-cache.max-size:10000}")
+    private long claimsCacheMaxSize;
+
     private SecretKey key;
     private SecretKey refreshKey;
 
+    // Parsers are immutable and thread-safe, so they are built once per key rather than per call
+    private JwtParser accessParser;
+    private JwtParser refreshParser;
+
+    // Verified access-token claims keyed by SHA-256 digest of the raw token; null when disabled
+    private Cache<String, JwtClaims> verifiedClaimsCache;
+
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret));
         this.refreshKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(refreshSecret));
+        this.accessParser = Jwts.parser().verifyWith(key).build();
+        this.refreshParser = Jwts.parser().verifyWith(refreshKey).build();
+        if (claimsCacheEnabled) {
+            this.verifiedClaimsCache = Caffeine.newBuilder()
+                    .maximumSize(claimsCacheMaxSize)
+                    .expireAfter(new ClaimsExpiry(Duration.ofSeconds(claimsCacheTtlSeconds)))
+                    .build();
+        }
+    }
+
+    public long getAccessExpiration() {
+        return accessExpiration;
     }
 
     public String generateAccessToken(String username, String role, String fullName) {
@@ -58,26 +98,66 @@ public class JwtUtil {
         return Jwts.builder()
                 .claims(claims)
                 .subject(subject)
+                .id(UUID.randomUUID().toString())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + expiration))
                 .signWith(signKey)
                 .compact();
     }
 
-    public boolean validateToken(String token, String username) {
+    /**
+     * Verifies an access token with a single parse and returns its claims.
+     *
+     * <p>Tokens seen recently are answered from a short-lived cache keyed by the token's digest, so
+     * repeated requests with the same token skip signature verification. A tampered token has a
+     * different digest and always goes through full verification.
+     *
+     * @return the verified claims, or empty if the token is malformed, forged or expired
+     */
+    public Optional<JwtClaims> verifyAccessToken(String token) {
+        String digest = null;
+        if (verifiedClaimsCache != null) {
+            digest = digest(token);
+            JwtClaims cached = verifiedClaimsCache.getIfPresent(digest);
+            if (cached != null) {
+                return Optional.of(cached);
+            }
+        }
         try {
-            final String extractedUsername = extractUsername(token);
-            return (extractedUsername.equals(username) && !isTokenExpired(token, key));
+            Claims claims = accessParser.parseSignedClaims(token).getPayload();
+            // Revocation is decided by issue time, so a token without one cannot be checked
+            if (claims.getIssuedAt() == null || claims.getExpiration() == null) {
+                logger.error("Invalid JWT token: missing iat or exp claim");
+                return Optional.empty();
+            }
+            JwtClaims verified = new JwtClaims(
+                    claims.getSubject(),
+                    claims.get("role", String.class),
+                    claims.get("fullName", String.class),
+                    claims.getId(),
+                    claims.getIssuedAt().toInstant(),
+                    claims.getExpiration().toInstant());
+            if (verifiedClaimsCache != null) {
+                verifiedClaimsCache.put(digest, verified);
+            }
+            return Optional.of(verified);
         } catch (JwtException | IllegalArgumentException e) {
             logger.error("Invalid JWT token: {}", e.getMessage());
-            return false;
+            return Optional.empty();
         }
     }
 
+    public boolean validateToken(String token, String username) {
+        return verifyAccessToken(token)
+                .map(claims -> claims.subject().equals(username))
+                .orElse(false);
+    }
+
     public boolean validateRefreshToken(String token, String username) {
         try {
+            // parseSignedClaims rejects expired tokens, so one parse covers signature and expiry
             final String extractedUsername = extractUsername(token, refreshKey);
-            return (extractedUsername.equals(username) && !isTokenExpired(token, refreshKey));
+            return extractedUsername.equals(username);
         } catch (JwtException | IllegalArgumentException e) {
             logger.error("Invalid Refresh token: {}", e.getMessage());
             return false;
@@ -95,7 +175,7 @@ public class JwtUtil {
     public Date extractExpiration(String token) {
         return extractClaim(token, Claims::getExpiration, key);
     }
-    
+
     public String extractRole(String token) {
         return extractClaim(token, claims -> claims.get("role", String.class), key);
     }
@@ -110,18 +190,47 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token, SecretKey signKey) {
-        return Jwts.parser()
-                .verifyWith(signKey)
-                .build()
+        return parserFor(signKey)
                 .parseSignedClaims(token)
                 .getPayload();
     }
 
-    private boolean isTokenExpired(String token, SecretKey signKey) {
-        return extractExpiration(token, signKey).before(new Date());
+    private JwtParser parserFor(SecretKey signKey) {
+        if (signKey == key) {
+            return accessParser;
+        }
+        if (signKey == refreshKey) {
+            return refreshParser;
+        }
+        return Jwts.parser().verifyWith(signKey).build();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
-    private Date extractExpiration(String token, SecretKey signKey) {
-        return extractClaim(token, Claims::getExpiration, signKey);
+    /** Keeps cached claims for the configured TTL, but never past the token's own expiry. */
+    private record ClaimsExpiry(Duration ttl) implements Expiry<String, JwtClaims> {
+
+        @Override
+        public long expireAfterCreate(String digest, JwtClaims claims, long currentTime) {
+            long untilExpiry = Duration.between(Instant.now(), claims.expiresAt()).toNanos();
+            return Math.max(0, Math.min(ttl.toNanos(), untilExpiry));
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, JwtClaims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String digest, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
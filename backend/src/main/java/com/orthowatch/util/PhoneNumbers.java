@@ -0,0 +1,37 @@
+package com.orthowatch.util;
+
+/**
+ * E.164 normalization for phone numbers. Patient numbers are stored as {@code +<country><number>};
+ * messaging providers send bare digits or formatted numbers, so both sides are normalized before
+ * they are compared.
+ */
+public final class PhoneNumbers {
+
+  private PhoneNumbers() {}
+
+  /**
+   * Returns the number as {@code +} followed by its digits, dropping spaces, dashes and brackets
+   * and treating a {@code 00} international prefix as {@code +}.
+   *
+   * @return the E.164 form, or null if the number has no digits
+   */
+  public static String toE164(String number) {
+    if (number == null) {
+      return null;
+    }
+    StringBuilder digits = new StringBuilder(number.length() + 1);
+    for (int i = 0; i < number.length(); i++) {
+      char c = number.charAt(i);
+      if (c >= '0' && c <= '9') {
+        digits.append(c);
+      }
+    }
+    if (digits.isEmpty()) {
+      return null;
+    }
+    if (!number.stripLeading().startsWith("+") && digits.indexOf("00") == 0) {
+      digits.delete(0, 2);
+    }
+    return digits.insert(0, '+').toString();
+  }
+}
@@ -0,0 +1,19 @@
+-- Initial risk rules evaluated by RiskEngine. Expressions use the grammar in RuleExpressionParser.
+
+INSERT INTO risk_rules (rule_name, condition_expression, risk_level, weight, is_active, version, created_by, created_at, updated_at)
+VALUES
+('high_fever', 'fever_level = ''ABOVE_102''', 'HIGH', 40, true, 1,
+  (SELECT id FROM users WHERE email = 'admin@orthowatch.com'), NOW(), NOW()),
+('moderate_fever', 'fever_level = ''100_TO_102''', 'MEDIUM', 20, true, 1,
+  (SELECT id FROM users WHERE email = 'admin@orthowatch.com'), NOW(), NOW()),
+('dvt_symptoms_reported', 'dvt_symptoms IS NOT EMPTY', 'HIGH', 40, true, 1,
+  (SELECT id FROM users WHERE email = 'admin@orthowatch.com'), NOW(), NOW()),
+('severe_pain', 'pain_score >= 8', 'HIGH', 30, true, 1,
+  (SELECT id FROM users WHERE email = 'admin@orthowatch.com'), NOW(), NOW()),
+('severe_swelling_with_pain', 'swelling_level = ''SEVERE'' AND pain_score >= 6', 'MEDIUM', 25, true, 1,
+  (SELECT id FROM users WHERE email = 'admin@orthowatch.com'), NOW(), NOW()),
+('missed_medication', 'medication_adherence IN (''MISSED_SOME'', ''DIDNT_TAKE'')', 'LOW', 10, true, 1,
+  (SELECT id FROM users WHERE email = 'admin@orthowatch.com'), NOW(), NOW()),
+('no_mobility_after_day_3', 'mobility_achieved = FALSE AND day_number > 3', 'MEDIUM', 15, true, 1,
+  (SELECT id FROM users WHERE email = 'admin@orthowatch.com'), NOW(), NOW())
+ON CONFLICT (rule_name) DO NOTHING;
@@ -0,0 +1,26 @@
+-- Content-addressed store of rule-set snapshots. Each risk score references the rule set it was
+-- computed with instead of embedding a copy of it.
+
+CREATE TABLE rule_set_versions (
+    id VARCHAR(50) PRIMARY KEY,
+    snapshot JSONB NOT NULL,
+    rule_count INTEGER NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW() NOT NULL
+);
+
+-- Keep one snapshot per version id already referenced by existing scores.
+INSERT INTO rule_set_versions (id, snapshot, rule_count, created_at)
+SELECT DISTINCT ON (rule_version_id)
+    rule_version_id,
+    rule_set_snapshot,
+    CASE WHEN jsonb_typeof(rule_set_snapshot -> 'rules') = 'array'
+         THEN jsonb_array_length(rule_set_snapshot -> 'rules') ELSE 0 END,
+    created_at
+FROM risk_scores
+ORDER BY rule_version_id, created_at;
+
+ALTER TABLE risk_scores DROP COLUMN rule_set_snapshot;
+
+ALTER TABLE risk_scores
+    ADD CONSTRAINT fk_risk_scores_rule_version
+    FOREIGN KEY (rule_version_id) REFERENCES rule_set_versions(id);
@@ -0,0 +1,14 @@
+-- Rolling per-episode trend of composite risk scores, updated as each score arrives so that
+-- trajectory never needs the episode's full score history. See RiskTrend.
+
+CREATE TABLE episode_risk_trends (
+    episode_id UUID PRIMARY KEY REFERENCES episodes(id) ON DELETE CASCADE,
+    recent_days INTEGER[] NOT NULL,
+    recent_scores INTEGER[] NOT NULL,
+    ewma DOUBLE PRECISION NOT NULL,
+    prior_ewma DOUBLE PRECISION NOT NULL,
+    slope DOUBLE PRECISION NOT NULL,
+    sample_count INTEGER NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW() NOT NULL
+);
+
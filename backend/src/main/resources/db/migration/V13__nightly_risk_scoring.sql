@@ -0,0 +1,45 @@
+-- Supports NightlyRiskScorer: keyset scans of active episodes, one score per episode and day, and
+-- restartable runs.
+
+-- Keyset pagination over active episodes walks this index in id order.
+CREATE INDEX idx_episodes_active_id ON episodes(id) WHERE status = 'ACTIVE';
+
+-- Keep the latest score per episode and day, re-pointing alerts at it, before enforcing uniqueness.
+CREATE TEMPORARY TABLE risk_score_duplicates AS
+SELECT id, keep_id
+FROM (
+    SELECT id,
+           first_value(id) OVER (
+               PARTITION BY episode_id, day_number ORDER BY calculated_at DESC, id DESC) AS keep_id
+    FROM risk_scores
+) ranked
+WHERE id <> keep_id;
+
+UPDATE alerts a
+SET risk_score_id = d.keep_id
+FROM risk_score_duplicates d
+WHERE a.risk_score_id = d.id;
+
+DELETE FROM risk_scores r
+USING risk_score_duplicates d
+WHERE r.id = d.id;
+
+DROP TABLE risk_score_duplicates;
+
+CREATE UNIQUE INDEX uq_risk_scores_episode_day ON risk_scores(episode_id, day_number);
+DROP INDEX idx_risk_scores_episode_day;
+
+-- Progress of chunked batch runs; one row per job and run (e.g. nightly-risk-scoring, 2026-10-17).
+CREATE TABLE batch_checkpoints (
+    id VARCHAR(150) PRIMARY KEY,
+    job_name VARCHAR(100) NOT NULL,
+    run_key VARCHAR(50) NOT NULL,
+    status VARCHAR(20) NOT NULL CHECK (status IN ('RUNNING', 'COMPLETED', 'FAILED')),
+    last_key UUID,
+    items_processed BIGINT DEFAULT 0 NOT NULL,
+    records_written BIGINT DEFAULT 0 NOT NULL,
+    alerts_written BIGINT DEFAULT 0 NOT NULL,
+    started_at TIMESTAMP WITH TIME ZONE DEFAULT NOW() NOT NULL,
+    updated_at TIMESTAMP WITH TIME ZONE DEFAULT NOW() NOT NULL,
+    completed_at TIMESTAMP WITH TIME ZONE
+);
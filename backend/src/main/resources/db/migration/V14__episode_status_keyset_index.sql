@@ -0,0 +1,5 @@
+-- Keyset pages and streams over episodes by status read in id order; (status, id) serves both
+-- "WHERE status = ? ORDER BY id" and "WHERE status = ? AND id > ?" without a sort, and still
+-- covers plain status lookups, so it replaces the single-column index.
+CREATE INDEX idx_episodes_status_id ON episodes(status, id);
+DROP INDEX IF EXISTS idx_episodes_status;
@@ -0,0 +1,25 @@
+-- When the episode's next daily checklist is due, in UTC. Set at enrollment to the episode's local
+-- checklist_time on the day after discharge, advanced one local day by each dispatch, and cleared
+-- after the template's last monitoring day. Stored rather than derived at query time so the due
+-- set is a single range scan.
+ALTER TABLE episodes ADD COLUMN next_checklist_at TIMESTAMPTZ;
+
+-- Backfill active episodes with their next occurrence from now
+UPDATE episodes e
+SET next_checklist_at = (n.next_date + e.checklist_time) AT TIME ZONE e.timezone
+FROM (
+    SELECT e2.id,
+           GREATEST(e2.discharge_date + 1,
+                    (now() AT TIME ZONE e2.timezone)::date
+                        + CASE WHEN (now() AT TIME ZONE e2.timezone)::time < e2.checklist_time
+                               THEN 0 ELSE 1 END) AS next_date,
+           t.monitoring_days
+    FROM episodes e2
+    JOIN recovery_templates t ON t.id = e2.template_id
+    WHERE e2.status = 'ACTIVE'
+) n
+WHERE e.id = n.id
+  AND n.next_date - e.discharge_date <= n.monitoring_days;
+
+CREATE INDEX idx_episodes_next_checklist_at ON episodes(next_checklist_at)
+    WHERE status = 'ACTIVE' AND next_checklist_at IS NOT NULL;
@@ -0,0 +1,28 @@
+-- Outbox for patient-facing messages. Producers insert rows in their own transaction; outbox
+-- workers claim due rows with SKIP LOCKED, send them through the messaging provider and record the
+-- outcome. A claimed row is leased by pushing next_attempt_at forward, so a row left in SENDING by a
+-- crashed worker is claimed again once the lease runs out.
+CREATE TABLE outbound_messages (
+    id UUID PRIMARY KEY,
+    episode_id UUID REFERENCES episodes(id) ON DELETE CASCADE,
+    recipient VARCHAR(20) NOT NULL,
+    message_type VARCHAR(30) NOT NULL
+        CHECK (message_type IN ('CONSENT_REQUEST', 'DAILY_CHECKLIST', 'REMINDER')),
+    day_number INTEGER,
+    language VARCHAR(10) DEFAULT 'en' NOT NULL,
+    -- One message per (type, episode, day): re-enqueueing the same message is a no-op
+    dedupe_key VARCHAR(120) NOT NULL UNIQUE,
+    status VARCHAR(20) DEFAULT 'PENDING' NOT NULL
+        CHECK (status IN ('PENDING', 'SENDING', 'SENT', 'FAILED')),
+    attempts INTEGER DEFAULT 0 NOT NULL,
+    next_attempt_at TIMESTAMPTZ DEFAULT NOW() NOT NULL,
+    scheduled_for TIMESTAMPTZ,
+    provider_message_id VARCHAR(100),
+    last_error TEXT,
+    created_at TIMESTAMPTZ DEFAULT NOW() NOT NULL,
+    sent_at TIMESTAMPTZ
+);
+
+CREATE INDEX idx_outbound_messages_due ON outbound_messages(next_attempt_at)
+    WHERE status IN ('PENDING', 'SENDING');
+CREATE INDEX idx_outbound_messages_episode_id ON outbound_messages(episode_id);
@@ -0,0 +1,15 @@
+-- Every message received through the WhatsApp webhook, keyed by the provider's message id so that
+-- redelivered webhooks are recognised and applied once.
+CREATE TABLE inbound_messages (
+    provider_message_id VARCHAR(128) PRIMARY KEY,
+    sender VARCHAR(20) NOT NULL,
+    episode_id UUID REFERENCES episodes(id) ON DELETE SET NULL,
+    body TEXT,
+    -- APPLIED, UNROUTED (no active episode for the number), UNPARSED (not a checklist answer),
+    -- IGNORED (no checklist sent yet)
+    outcome VARCHAR(20) NOT NULL,
+    sent_at TIMESTAMPTZ NOT NULL,
+    received_at TIMESTAMPTZ DEFAULT NOW() NOT NULL
+);
+
+CREATE INDEX idx_inbound_messages_episode_id ON inbound_messages(episode_id, sent_at);
@@ -0,0 +1,4 @@
+-- Inbound messages are routed by sender number, which may be the patient's caregiver; only the
+-- primary number was indexed. Most patients have no caregiver number, so the index is partial.
+CREATE INDEX idx_patients_phone_caregiver ON patients(phone_caregiver)
+    WHERE phone_caregiver IS NOT NULL;
@@ -0,0 +1,9 @@
+-- The monitoring day a NON_RESPONSE alert is about. Other alert types leave it NULL.
+ALTER TABLE alerts ADD COLUMN day_number INTEGER;
+
+-- Idempotency guard for the non-response sweeper: at most one NON_RESPONSE alert per episode and
+-- day, however often or on however many nodes the sweep runs. Also serves the sweeper's lookups of
+-- the same day's and the previous day's alert.
+CREATE UNIQUE INDEX uq_alerts_non_response_episode_day
+    ON alerts(episode_id, day_number)
+    WHERE alert_type = 'NON_RESPONSE';
@@ -0,0 +1,6 @@
+-- Serves AlertSlaEnforcer: the full read of pending deadlines when a node takes ownership, and the
+-- periodic read of pending alerts changed since the last sync. Only alerts that can still time out
+-- are indexed.
+CREATE INDEX idx_alerts_pending_sla_updated_at
+    ON alerts(updated_at) INCLUDE (id, sla_deadline)
+    WHERE status = 'PENDING' AND sla_deadline IS NOT NULL;
@@ -0,0 +1,6 @@
+-- Clinician inbox (AlertInboxService): a clinician's alerts in one status, most urgent deadline
+-- first, paged by (sla_deadline, id). The trailing id makes the keyset seek and the sort fully
+-- indexed. Leads with assigned_to, so it replaces the single-column index.
+CREATE INDEX idx_alerts_assigned_to_status_sla
+    ON alerts(assigned_to, status, sla_deadline, id);
+DROP INDEX IF EXISTS idx_alerts_assigned_to;
@@ -0,0 +1,6 @@
+-- AlertSlaEnforcer's periodic sync now also reads alerts that left PENDING or lost their deadline
+-- since the last sync, to cancel their timers, so the index can no longer be limited to pending
+-- alerts. The full read on taking ownership uses idx_alerts_status.
+CREATE INDEX idx_alerts_updated_at
+    ON alerts(updated_at) INCLUDE (id, status, sla_deadline);
+DROP INDEX IF EXISTS idx_alerts_pending_sla_updated_at;
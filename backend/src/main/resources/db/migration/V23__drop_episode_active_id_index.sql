@@ -0,0 +1,3 @@
+-- idx_episodes_status_id (V14) serves keyset pages and streams over episodes in any status,
+-- ACTIVE included, so the partial index over active episodes (V13) is redundant.
+DROP INDEX IF EXISTS idx_episodes_active_id;
@@ -0,0 +1,7 @@
+-- AlertSlaEnforcer no longer reads alerts by updated_at: changes are pushed to the owner, which
+-- re-reads them by id. What remains is the full read of pending deadlines when a node takes
+-- ownership and at each resync, served from this index alone.
+CREATE INDEX idx_alerts_pending_sla
+    ON alerts(id) INCLUDE (sla_deadline)
+    WHERE status = 'PENDING' AND sla_deadline IS NOT NULL;
+DROP INDEX IF EXISTS idx_alerts_updated_at;
@@ -0,0 +1,11 @@
+-- Raw WhatsApp webhook deliveries, written before the provider is acknowledged and deleted by the
+-- ingest batch that applies them, so an acknowledged delivery survives a crash.
+CREATE TABLE inbound_payloads (
+    id BIGSERIAL PRIMARY KEY,
+    payload BYTEA NOT NULL,
+    received_at TIMESTAMPTZ DEFAULT NOW() NOT NULL,
+    -- Set when the payload failed to apply on its own; kept for inspection, never claimed again
+    failed_at TIMESTAMPTZ
+);
+
+CREATE INDEX idx_inbound_payloads_pending ON inbound_payloads(id) WHERE failed_at IS NULL;
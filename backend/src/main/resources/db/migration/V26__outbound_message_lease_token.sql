@@ -0,0 +1,4 @@
+-- Lease token of the worker batch that claimed a SENDING row. Settling a send requires the token to
+-- still match, so a worker whose lease ran out (and whose row was claimed again) cannot overwrite
+-- the new claimant's outcome.
+ALTER TABLE outbound_messages ADD COLUMN claimed_by UUID;
@@ -0,0 +1,20 @@
+-- Supports the batch consent-timeout sweeper (ConsentTimeoutSweepJob).
+
+-- Only episodes still awaiting consent are ever swept, so index just those rows.
+CREATE INDEX idx_episodes_consent_pending_created_at
+    ON episodes(created_at)
+    WHERE consent_status = 'PENDING';
+
+-- Per-episode jobs could fire more than once (misfire "fire now" after restarts); keep the oldest
+-- CONSENT_TIMEOUT alert per episode before enforcing uniqueness.
+DELETE FROM alerts a
+USING alerts b
+WHERE a.alert_type = 'CONSENT_TIMEOUT'
+  AND b.alert_type = 'CONSENT_TIMEOUT'
+  AND a.episode_id = b.episode_id
+  AND (a.created_at, a.id) > (b.created_at, b.id);
+
+-- Idempotency guard: at most one CONSENT_TIMEOUT alert per episode, whichever path creates it.
+CREATE UNIQUE INDEX uq_alerts_consent_timeout_episode
+    ON alerts(episode_id)
+    WHERE alert_type = 'CONSENT_TIMEOUT';
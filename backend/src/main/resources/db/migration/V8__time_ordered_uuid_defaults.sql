@@ -0,0 +1,31 @@
+-- Time-ordered (version 7) UUID defaults, matching the IDs Hibernate generates through
+-- @TimeOrderedUuid, so that rows inserted by native SQL (e.g. the consent-timeout sweep) are also
+-- appended to the right-hand edge of the primary-key index instead of a random page.
+
+CREATE OR REPLACE FUNCTION uuid_generate_v7() RETURNS uuid AS $$
+DECLARE
+    unix_ts_ms bytea;
+    uuid_bytes bytea;
+BEGIN
+    unix_ts_ms = substring(int8send(floor(extract(epoch FROM clock_timestamp()) * 1000)::bigint) FROM 3);
+    -- Start from a random v4 UUID and overwrite the first 48 bits with the timestamp
+    uuid_bytes = overlay(uuid_send(gen_random_uuid()) PLACING unix_ts_ms FROM 1 FOR 6);
+    -- Version 7: set bits 52 and 53 of the 0100 version nibble to get 0111
+    uuid_bytes = set_bit(set_bit(uuid_bytes, 52, 1), 53, 1);
+    RETURN encode(uuid_bytes, 'hex')::uuid;
+END
+$$ LANGUAGE plpgsql VOLATILE;
+
+ALTER TABLE users ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE patients ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE recovery_templates ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE episodes ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE daily_responses ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE risk_scores ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE alerts ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE wound_images ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE consent_logs ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE clinical_audit_log ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE risk_rules ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE sessions ALTER COLUMN id SET DEFAULT uuid_generate_v7();
+ALTER TABLE hospital_settings ALTER COLUMN id SET DEFAULT uuid_generate_v7();
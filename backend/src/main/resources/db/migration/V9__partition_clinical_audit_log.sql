@@ -0,0 +1,72 @@
+-- Converts clinical_audit_log to monthly range partitions on created_at (UTC month boundaries).
+-- Partitions are named clinical_audit_log_yYYYYmMM; AuditPartitionMaintenanceJob creates them ahead
+-- of time and detaches/archives the ones older than the hot retention window.
+
+ALTER TABLE clinical_audit_log RENAME TO clinical_audit_log_legacy;
+ALTER INDEX idx_audit_user_id RENAME TO idx_audit_legacy_user_id;
+ALTER INDEX idx_audit_created_at RENAME TO idx_audit_legacy_created_at;
+
+-- The partition key has to be part of the primary key; ids are still unique on their own.
+CREATE TABLE clinical_audit_log (
+    id UUID NOT NULL DEFAULT uuid_generate_v7(),
+    user_id UUID NOT NULL REFERENCES users(id),
+    episode_id UUID REFERENCES episodes(id),
+    action VARCHAR(50) NOT NULL,
+    resource_type VARCHAR(50),
+    resource_id UUID,
+    risk_score_at_action INTEGER,
+    details JSONB,
+    ip_address VARCHAR(45),
+    user_agent TEXT,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW() NOT NULL,
+    PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+-- Every lookup is windowed on created_at, so the secondary keys lead with the filter column and
+-- end with created_at for ordering within the pruned partitions.
+CREATE INDEX idx_audit_created_at ON clinical_audit_log(created_at DESC);
+CREATE INDEX idx_audit_user_id_created_at ON clinical_audit_log(user_id, created_at DESC);
+CREATE INDEX idx_audit_episode_id_created_at ON clinical_audit_log(episode_id, created_at DESC);
+
+-- Safety net so an insert never fails for want of a partition. The maintenance job keeps
+-- partitions created months ahead, so this should stay empty.
+CREATE TABLE clinical_audit_log_default PARTITION OF clinical_audit_log DEFAULT;
+
+CREATE OR REPLACE FUNCTION ensure_clinical_audit_log_partition(month_start DATE)
+RETURNS TEXT AS $$
+DECLARE
+    start_date DATE := date_trunc('month', month_start)::DATE;
+    partition_name TEXT := 'clinical_audit_log_y' || to_char(start_date, 'YYYY')
+        || 'm' || to_char(start_date, 'MM');
+BEGIN
+    IF to_regclass(partition_name) IS NULL THEN
+        EXECUTE format(
+            'CREATE TABLE %I PARTITION OF clinical_audit_log FOR VALUES FROM (%L) TO (%L)',
+            partition_name,
+            start_date::TIMESTAMP AT TIME ZONE 'UTC',
+            (start_date + INTERVAL '1 month')::TIMESTAMP AT TIME ZONE 'UTC');
+    END IF;
+    RETURN partition_name;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Partitions for every month that already has rows, plus the current and next three months.
+SELECT ensure_clinical_audit_log_partition(month::DATE)
+FROM (
+    SELECT DISTINCT date_trunc('month', created_at AT TIME ZONE 'UTC') AS month
+    FROM clinical_audit_log_legacy
+    UNION
+    SELECT generate_series(
+        date_trunc('month', NOW() AT TIME ZONE 'UTC'),
+        date_trunc('month', NOW() AT TIME ZONE 'UTC') + INTERVAL '3 months',
+        INTERVAL '1 month')
+) months;
+
+INSERT INTO clinical_audit_log (
+    id, user_id, episode_id, action, resource_type, resource_id, risk_score_at_action, details,
+    ip_address, user_agent, created_at)
+SELECT id, user_id, episode_id, action, resource_type, resource_id, risk_score_at_action, details,
+    ip_address, user_agent, created_at
+FROM clinical_audit_log_legacy;
+
+DROP TABLE clinical_audit_log_legacy;
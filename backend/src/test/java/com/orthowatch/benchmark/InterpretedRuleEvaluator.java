@@ -0,0 +1,84 @@
+package com.orthowatch.benchmark;
+
+import com.orthowatch.model.DailyResponse;
+import com.orthowatch.risk.RuleExpression;
+import com.orthowatch.risk.RuleExpression.And;
+import com.orthowatch.risk.RuleExpression.Compare;
+import com.orthowatch.risk.RuleExpression.Contains;
+import com.orthowatch.risk.RuleExpression.In;
+import com.orthowatch.risk.RuleExpression.IsEmpty;
+import com.orthowatch.risk.RuleExpression.IsNull;
+import com.orthowatch.risk.RuleExpression.Not;
+import com.orthowatch.risk.RuleExpression.Or;
+import java.util.Arrays;
+
+/**
+ * Baseline for the rule-engine benchmark: walks the syntax tree on every evaluation and resolves
+ * fields by name, the way a straightforward interpreter would.
+ */
+final class InterpretedRuleEvaluator {
+
+  private InterpretedRuleEvaluator() {}
+
+  static boolean evaluate(RuleExpression expression, DailyResponse response) {
+    return switch (expression) {
+      case And and -> and.operands().stream().allMatch(operand -> evaluate(operand, response));
+      case Or or -> or.operands().stream().anyMatch(operand -> evaluate(operand, response));
+      case Not not -> !evaluate(not.operand(), response);
+      case Compare compare -> compare(compare, response);
+      case In in -> {
+        Object value = field(in.field().expressionName(), response);
+        yield value != null && in.literals().contains(value);
+      }
+      case IsNull isNull -> (field(isNull.field().expressionName(), response) == null)
+          != isNull.negated();
+      case IsEmpty isEmpty -> {
+        Object value = field(isEmpty.field().expressionName(), response);
+        boolean empty = !(value instanceof String[] values) || values.length == 0;
+        yield empty != isEmpty.negated();
+      }
+      case Contains contains -> field(contains.field().expressionName(), response)
+              instanceof String[] values
+          && Arrays.asList(values).contains(contains.literal());
+    };
+  }
+
+  private static boolean compare(Compare compare, DailyResponse response) {
+    Object value = field(compare.field().expressionName(), response);
+    if (value == null) {
+      return false;
+    }
+    if (value instanceof Integer number) {
+      int expected = (Integer) compare.literal();
+      return switch (compare.operator()) {
+        case EQ -> number == expected;
+        case NE -> number != expected;
+        case LT -> number < expected;
+        case LE -> number <= expected;
+        case GT -> number > expected;
+        case GE -> number >= expected;
+      };
+    }
+    boolean equal = value.equals(compare.literal());
+    return switch (compare.operator()) {
+      case EQ -> equal;
+      case NE -> !equal;
+      default -> throw new IllegalArgumentException("Unsupported operator for " + value);
+    };
+  }
+
+  private static Object field(String name, DailyResponse response) {
+    return switch (name) {
+      case "day_number" -> response.getDayNumber();
+      case "pain_score" -> response.getPainScore();
+      case "swelling_level" -> response.getSwellingLevel();
+      case "fever_level" -> response.getFeverLevel();
+      case "dvt_symptoms" -> response.getDvtSymptoms();
+      case "mobility_achieved" -> response.getMobilityAchieved();
+      case "medication_adherence" -> response.getMedicationAdherence();
+      case "responder_type" -> response.getResponderType();
+      case "emergency_override" -> response.isEmergencyOverride();
+      default -> throw new IllegalArgumentException("Unknown field " + name);
+    };
+  }
+}
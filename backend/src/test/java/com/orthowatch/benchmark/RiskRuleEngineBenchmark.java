@@ -0,0 +1,114 @@
+package com.orthowatch.benchmark;
+
+import com.orthowatch.model.DailyResponse;
+import com.orthowatch.model.RiskRule;
+import com.orthowatch.risk.CompiledRuleSet;
+import com.orthowatch.risk.RuleExpression;
+import com.orthowatch.risk.RuleExpressionParser;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Scores one daily response per operation against the seeded rule set (V10), compiled versus
+ * interpreted. Run through {@link RiskRuleEngineBenchmarkTest}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class RiskRuleEngineBenchmark {
+
+  static final List<RiskRule> RULES =
+      List.of(
+          rule("high_fever", "fever_level = 'ABOVE_102'", "HIGH", 40),
+          rule("moderate_fever", "fever_level = '100_TO_102'", "MEDIUM", 20),
+          rule("dvt_symptoms_reported", "dvt_symptoms IS NOT EMPTY", "HIGH", 40),
+          rule("severe_pain", "pain_score >= 8", "HIGH", 30),
+          rule(
+              "severe_swelling_with_pain",
+              "swelling_level = 'SEVERE' AND pain_score >= 6",
+              "MEDIUM",
+              25),
+          rule(
+              "missed_medication",
+              "medication_adherence IN ('MISSED_SOME', 'DIDNT_TAKE')",
+              "LOW",
+              10),
+          rule(
+              "no_mobility_after_day_3",
+              "mobility_achieved = FALSE AND day_number > 3",
+              "MEDIUM",
+              15));
+
+  private static final String[] SWELLING = {"NONE", "MILD", "MODERATE", "SEVERE"};
+  private static final String[] FEVER = {"NO_FEVER", "BELOW_100", "100_TO_102", "ABOVE_102"};
+  private static final String[] ADHERENCE = {"TOOK_ALL", "MISSED_SOME", "DIDNT_TAKE"};
+
+  private CompiledRuleSet compiled;
+  private RuleExpression[] parsed;
+  private int[] weights;
+  private DailyResponse[] responses;
+  private int next;
+
+  @Setup
+  public void setUp() {
+    compiled = CompiledRuleSet.compile(RULES);
+    parsed =
+        RULES.stream()
+            .map(rule -> RuleExpressionParser.parse(rule.getConditionExpression()))
+            .toArray(RuleExpression[]::new);
+    weights = RULES.stream().mapToInt(RiskRule::getWeight).toArray();
+    SplittableRandom random = new SplittableRandom(42);
+    responses = new DailyResponse[1024];
+    for (int i = 0; i < responses.length; i++) {
+      responses[i] =
+          DailyResponse.builder()
+              .dayNumber(1 + random.nextInt(14))
+              .responderType("PATIENT")
+              .painScore(random.nextInt(11))
+              .swellingLevel(SWELLING[random.nextInt(SWELLING.length)])
+              .feverLevel(FEVER[random.nextInt(FEVER.length)])
+              .dvtSymptoms(random.nextInt(10) == 0 ? new String[] {"CALF_PAIN"} : new String[0])
+              .mobilityAchieved(random.nextBoolean())
+              .medicationAdherence(ADHERENCE[random.nextInt(ADHERENCE.length)])
+              .build();
+    }
+  }
+
+  private DailyResponse nextResponse() {
+    return responses[next++ & (responses.length - 1)];
+  }
+
+  @Benchmark
+  public int compiled() {
+    return compiled.evaluate(nextResponse()).compositeScore();
+  }
+
+  @Benchmark
+  public int interpreted() {
+    DailyResponse response = nextResponse();
+    int score = 0;
+    for (int i = 0; i < parsed.length; i++) {
+      if (InterpretedRuleEvaluator.evaluate(parsed[i], response)) {
+        score += weights[i];
+      }
+    }
+    return Math.min(score, 100);
+  }
+
+  private static RiskRule rule(String name, String expression, String level, int weight) {
+    return RiskRule.builder()
+        .ruleName(name)
+        .conditionExpression(expression)
+        .riskLevel(level)
+        .weight(weight)
+        .build();
+  }
+}
@@ -0,0 +1,51 @@
+package com.orthowatch.benchmark;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs {@link RiskRuleEngineBenchmark} under JMH. Run with {@code mvn test -Pbenchmark}; excluded
+ * from the default build.
+ */
+@Tag("benchmark")
+class RiskRuleEngineBenchmarkTest {
+
+  @Test
+  @DisplayName("Compiled rule set scores more responses per millisecond than the interpreter")
+  void compareCompiledAndInterpretedRules() throws RunnerException {
+    Collection<RunResult> results =
+        new Runner(
+                new OptionsBuilder()
+                    .include(RiskRuleEngineBenchmark.class.getName())
+                    .forks(1)
+                    .warmupIterations(3)
+                    .warmupTime(TimeValue.seconds(1))
+                    .measurementIterations(5)
+                    .measurementTime(TimeValue.seconds(1))
+                    .build())
+            .run();
+
+    Map<String, Double> opsPerMs =
+        results.stream()
+            .collect(
+                Collectors.toMap(
+                    result -> result.getParams().getBenchmark().replaceAll(".*\\.", ""),
+                    result -> result.getPrimaryResult().getScore()));
+    System.out.printf(
+        "%nrisk rules: compiled %.0f ops/ms, interpreted %.0f ops/ms%n",
+        opsPerMs.get("compiled"), opsPerMs.get("interpreted"));
+
+    assertThat(opsPerMs.get("compiled")).isGreaterThan(opsPerMs.get("interpreted"));
+  }
+}
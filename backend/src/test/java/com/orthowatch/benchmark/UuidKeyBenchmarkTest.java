@@ -0,0 +1,129 @@
+package com.orthowatch.benchmark;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.orthowatch.util.UuidV7;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Compares random (v4) and time-ordered (v7) primary keys on an insert-heavy table shaped like
+ * {@code clinical_audit_log}: batched insert throughput plus the resulting primary-key and
+ * foreign-key index sizes.
+ *
+ * <p>Run with {@code mvn test -Pbenchmark}; excluded from the default build.
+ */
+@Tag("benchmark")
+@Testcontainers(disabledWithoutDocker = true)
+class UuidKeyBenchmarkTest {
+
+  private static final int ROWS = 200_000;
+  private static final int BATCH_SIZE = 50;
+
+  @Container
+  static PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:16-alpine")
+          .withDatabaseName("orthowatch_bench")
+          .withUsername("bench")
+          .withPassword("bench");
+
+  @Test
+  @DisplayName("Time-ordered UUID keys insert faster and produce smaller indexes than random keys")
+  void compareRandomAndTimeOrderedKeys() throws SQLException {
+    Result random = run("audit_v4", UUID::randomUUID);
+    Result timeOrdered = run("audit_v7", UuidV7::randomUuid);
+
+    System.out.printf("%n%-14s %12s %14s %14s%n", "key", "rows/s", "pkey index", "episode index");
+    System.out.println(random);
+    System.out.println(timeOrdered);
+
+    assertThat(timeOrdered.pkeyIndexBytes()).isLessThan(random.pkeyIndexBytes());
+  }
+
+  private Result run(String table, Supplier<UUID> ids) throws SQLException {
+    try (Connection connection =
+        DriverManager.getConnection(
+            postgres.getJdbcUrl() + "&reWriteBatchedInserts=true",
+            postgres.getUsername(),
+            postgres.getPassword())) {
+      try (Statement ddl = connection.createStatement()) {
+        ddl.execute(
+            "CREATE TABLE "
+                + table
+                + " (id UUID PRIMARY KEY, episode_id UUID NOT NULL, action VARCHAR(50) NOT NULL,"
+                + " created_at TIMESTAMP WITH TIME ZONE NOT NULL)");
+        ddl.execute("CREATE INDEX " + table + "_episode_idx ON " + table + "(episode_id)");
+      }
+      connection.setAutoCommit(false);
+
+      // Episodes are themselves keyed the same way, so the FK index sees the same ordering
+      UUID[] episodes = new UUID[1000];
+      for (int i = 0; i < episodes.length; i++) {
+        episodes[i] = ids.get();
+      }
+
+      long start = System.nanoTime();
+      try (PreparedStatement insert =
+          connection.prepareStatement(
+              "INSERT INTO "
+                  + table
+                  + " (id, episode_id, action, created_at) VALUES (?, ?, ?, ?)")) {
+        for (int i = 1; i <= ROWS; i++) {
+          insert.setObject(1, ids.get());
+          insert.setObject(2, episodes[i % episodes.length]);
+          insert.setString(3, "SUBMIT_RESPONSE");
+          insert.setTimestamp(4, new Timestamp(System.currentTimeMillis()));
+          insert.addBatch();
+          if (i % BATCH_SIZE == 0) {
+            insert.executeBatch();
+          }
+          if (i % 10_000 == 0) {
+            connection.commit();
+          }
+        }
+        insert.executeBatch();
+        connection.commit();
+      }
+      double seconds = (System.nanoTime() - start) / 1e9;
+
+      return new Result(
+          table,
+          ROWS / seconds,
+          relationSize(connection, table + "_pkey"),
+          relationSize(connection, table + "_episode_idx"));
+    }
+  }
+
+  private static long relationSize(Connection connection, String relation) throws SQLException {
+    try (PreparedStatement query =
+        connection.prepareStatement("SELECT pg_relation_size(?::regclass)")) {
+      query.setString(1, relation);
+      try (ResultSet rs = query.executeQuery()) {
+        rs.next();
+        return rs.getLong(1);
+      }
+    }
+  }
+
+  record Result(String table, double rowsPerSecond, long pkeyIndexBytes, long fkIndexBytes) {
+    @Override
+    public String toString() {
+      return String.format(
+          "%-14s %12.0f %11d kB %11d kB",
+          table, rowsPerSecond, pkeyIndexBytes / 1024, fkIndexBytes / 1024);
+    }
+  }
+}
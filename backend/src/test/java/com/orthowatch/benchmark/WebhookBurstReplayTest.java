@@ -0,0 +1,307 @@
+package com.orthowatch.benchmark;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orthowatch.controller.WhatsAppWebhookController;
+import com.orthowatch.messaging.ConversationEngine;
+import com.orthowatch.messaging.ConversationSessions;
+import com.orthowatch.messaging.DailyResponseDraft;
+import com.orthowatch.messaging.EpisodeRoute;
+import com.orthowatch.messaging.EpisodeRoutingIndex;
+import com.orthowatch.messaging.InboundMessage;
+import com.orthowatch.messaging.InboundMessageStore;
+import com.orthowatch.messaging.StagedPayload;
+import com.orthowatch.messaging.WebhookIngestor;
+import com.orthowatch.messaging.WhatsAppWebhookParser;
+import com.orthowatch.messaging.WhatsAppWebhookVerifier;
+import com.orthowatch.model.RecoveryTemplate;
+import com.orthowatch.service.DashboardEventBroker;
+import com.orthowatch.service.DashboardStreams;
+import com.orthowatch.service.RecoveryTemplateCache;
+import com.orthowatch.template.ChecklistQuestion;
+import com.orthowatch.template.CompiledTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+/**
+ * Load harness for webhook ingest: replays a checklist-time burst built from the recorded reply in
+ * {@code webhook/checklist-reply.json} (every patient answering six questions, with a share of
+ * provider redeliveries) against the real controller and ingestor, backed by an in-memory stub
+ * store (staging included). Run with {@code mvn test -Pbenchmark}; excluded from the default build.
+ */
+@Tag("benchmark")
+class WebhookBurstReplayTest {
+
+  private static final int PATIENTS = 5_000;
+  private static final String APP_SECRET = "replay-secret";
+  private static final UUID TEMPLATE_ID = UUID.randomUUID();
+  private static final List<String> ANSWERS =
+      List.of(
+          "pain_score:4",
+          "swelling_level:MILD",
+          "fever_level:NO_FEVER",
+          "dvt_symptoms:NONE",
+          "mobility_achieved:YES",
+          "medication_adherence:TOOK_ALL");
+
+  @Test
+  @DisplayName("Acknowledges a checklist burst in under 10 ms and writes each checklist once")
+  void replayChecklistBurst() throws Exception {
+    StubStore store = new StubStore();
+    EpisodeRoutingIndex routingIndex =
+        new EpisodeRoutingIndex(
+            store, null, new SimpleMeterRegistry(), 100_000, 3600, 60, false, false);
+    CompiledTemplate everyQuestion =
+        CompiledTemplate.compile(
+            RecoveryTemplate.builder()
+                .id(TEMPLATE_ID)
+                .surgeryType("TKR")
+                .checklistConfig(
+                    Map.of(
+                        "days",
+                        Map.of(
+                            "1",
+                            Map.of(
+                                "questions",
+                                Arrays.stream(ChecklistQuestion.values())
+                                    .map(ChecklistQuestion::configName)
+                                    .toList()))))
+                .milestoneConfig(Map.of())
+                .build());
+    RecoveryTemplateCache templateCache =
+        new RecoveryTemplateCache(null, 3600) {
+          @Override
+          public CompiledTemplate get(UUID templateId) {
+            return everyQuestion;
+          }
+        };
+    ConversationEngine conversationEngine =
+        new ConversationEngine(
+            new ConversationSessions(null, false, 120, false),
+            templateCache,
+            store,
+            new SimpleMeterRegistry(),
+            120,
+            1000);
+    WebhookIngestor ingestor =
+        new WebhookIngestor(
+            new WhatsAppWebhookParser(new ObjectMapper()),
+            store,
+            routingIndex,
+            conversationEngine,
+            new DashboardEventBroker(
+                new DashboardStreams(null, new SimpleMeterRegistry(), 30, 25, 256, 5),
+                null,
+                null,
+                new ObjectMapper(),
+                new SimpleMeterRegistry(),
+                false,
+                false),
+            new NoOpTransactionManager(),
+            new SimpleMeterRegistry(),
+            50_000,
+            500,
+            20,
+            10);
+    ReflectionTestUtils.invokeMethod(ingestor, "start");
+    MockMvc mockMvc =
+        MockMvcBuilders.standaloneSetup(
+                new WhatsAppWebhookController(
+                    ingestor, new WhatsAppWebhookVerifier(APP_SECRET, "token", false)))
+            .build();
+
+    List<byte[]> burst = recordedBurst();
+    // Warm up the request path before measuring
+    for (int i = 0; i < 500; i++) {
+      deliver(mockMvc, burst.get(i));
+    }
+    long[] ackNanos = new long[burst.size()];
+    for (int i = 0; i < burst.size(); i++) {
+      long started = System.nanoTime();
+      deliver(mockMvc, burst.get(i));
+      ackNanos[i] = System.nanoTime() - started;
+    }
+
+    Instant deadline = Instant.now().plusSeconds(60);
+    while (store.applied.get() < PATIENTS * ANSWERS.size() && Instant.now().isBefore(deadline)) {
+      Thread.sleep(50);
+    }
+    ReflectionTestUtils.invokeMethod(ingestor, "stop");
+
+    Arrays.sort(ackNanos);
+    Duration p99 = Duration.ofNanos(ackNanos[(int) (ackNanos.length * 0.99)]);
+    System.out.printf(
+        "Webhook replay: %d deliveries, ack p50 %d us, p99 %d us; %d answers in %d upserts%n",
+        burst.size(),
+        ackNanos[ackNanos.length / 2] / 1_000,
+        p99.toNanos() / 1_000,
+        store.applied.get(),
+        store.upserts.get());
+    assertThat(p99).isLessThan(Duration.ofMillis(10));
+    assertThat(store.applied.get()).isEqualTo(PATIENTS * ANSWERS.size());
+    // Answers are held in the conversation; each completed checklist is written once
+    assertThat(store.upserts.get()).isEqualTo(PATIENTS);
+  }
+
+  private static void deliver(MockMvc mockMvc, byte[] payload) throws Exception {
+    int status =
+        mockMvc
+            .perform(
+                post("/api/v1/webhook/whatsapp")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header("X-Hub-Signature-256", sign(payload))
+                    .content(payload))
+            .andReturn()
+            .getResponse()
+            .getStatus();
+    assertThat(status).isEqualTo(200);
+  }
+
+  private static List<byte[]> recordedBurst() throws Exception {
+    String template;
+    try (InputStream in =
+        WebhookBurstReplayTest.class.getResourceAsStream("/webhook/checklist-reply.json")) {
+      template = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+    List<byte[]> burst = new ArrayList<>();
+    long timestamp = 1_760_000_000L;
+    // Answers arrive question by question, interleaved across patients as they do at checklist time
+    for (int question = 0; question < ANSWERS.size(); question++) {
+      for (int patient = 0; patient < PATIENTS; patient++) {
+        byte[] payload =
+            template
+                .replace("${id}", "wamid." + patient + "." + question)
+                .replace("${from}", Long.toString(919_800_000_000L + patient))
+                .replace("${reply}", ANSWERS.get(question))
+                .replace("${timestamp}", Long.toString(timestamp + question * 30L))
+                .getBytes(StandardCharsets.UTF_8);
+        burst.add(payload);
+        // One delivery in ten is redelivered by the provider
+        if (patient % 10 == 0) {
+          burst.add(payload);
+        }
+      }
+    }
+    return burst;
+  }
+
+  private static String sign(byte[] payload) throws Exception {
+    Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec(APP_SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+    return "sha256=" + HexFormat.of().formatHex(mac.doFinal(payload));
+  }
+
+  /** Routes every number to its own active episode on day 3 and keeps state in memory. */
+  private static final class StubStore extends InboundMessageStore {
+
+    private final Queue<StagedPayload> staged = new ConcurrentLinkedQueue<>();
+    private final AtomicLong stagedIds = new AtomicLong();
+    private final Map<String, UUID> episodes = new ConcurrentHashMap<>();
+    private final Set<String> seen = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger applied = new AtomicInteger();
+    private final AtomicInteger upserts = new AtomicInteger();
+
+    StubStore() {
+      super(null);
+    }
+
+    @Override
+    public void stagePayload(byte[] payload) {
+      staged.add(new StagedPayload(stagedIds.incrementAndGet(), payload));
+    }
+
+    @Override
+    public List<StagedPayload> claimPayloads(int limit) {
+      List<StagedPayload> claimed = new ArrayList<>(limit);
+      StagedPayload payload;
+      while (claimed.size() < limit && (payload = staged.poll()) != null) {
+        claimed.add(payload);
+      }
+      return claimed;
+    }
+
+    @Override
+    public Map<String, EpisodeRoute> routeBySender(Collection<String> senders) {
+      Map<String, EpisodeRoute> routes = new HashMap<>();
+      for (String sender : senders) {
+        UUID episodeId = episodes.computeIfAbsent(sender, s -> UUID.randomUUID());
+        routes.put(sender, new EpisodeRoute(episodeId, 3, "PATIENT", "GRANTED", TEMPLATE_ID));
+      }
+      return routes;
+    }
+
+    @Override
+    public Set<String> recordNew(
+        List<InboundMessage> messages,
+        Map<String, EpisodeRoute> routes,
+        Map<String, String> outcomes) {
+      Set<String> fresh = new HashSet<>();
+      for (InboundMessage message : messages) {
+        if (seen.add(message.providerMessageId())) {
+          fresh.add(message.providerMessageId());
+          if ("APPLIED".equals(outcomes.get(message.providerMessageId()))) {
+            applied.incrementAndGet();
+          }
+        }
+      }
+      return fresh;
+    }
+
+    @Override
+    public void upsertResponses(Collection<DailyResponseDraft> drafts) {
+      upserts.addAndGet(drafts.size());
+    }
+
+    @Override
+    public void applyConsent(Map<UUID, String> decisions, Instant decidedAt) {}
+  }
+
+  private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+    @Override
+    protected Object doGetTransaction() {
+      return new Object();
+    }
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {}
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {}
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {}
+  }
+}
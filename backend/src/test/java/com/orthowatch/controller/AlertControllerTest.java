@@ -0,0 +1,96 @@
+package com.orthowatch.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.orthowatch.dto.AlertInboxItem;
+import com.orthowatch.dto.AlertInboxPage;
+import com.orthowatch.exception.GlobalExceptionHandler;
+import com.orthowatch.service.AlertInboxService;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest
+@ContextConfiguration(classes = {AlertController.class, GlobalExceptionHandler.class})
+class AlertControllerTest {
+
+  private static final String SURGEON = "surgeon@orthowatch.com";
+  private static final String ETAG = "W/\"5f2b7c0e9a1d4e3f8b6a2c1d0e9f8a7b\"";
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockBean private AlertInboxService alertInboxService;
+
+  private AlertInboxService.Inbox inbox() {
+    AlertInboxItem item =
+        AlertInboxItem.builder()
+            .alertId(UUID.randomUUID())
+            .alertType("HIGH_RISK")
+            .severity("HIGH")
+            .status("PENDING")
+            .slaDeadline(OffsetDateTime.parse("2026-03-04T11:00:00Z"))
+            .slaRemainingSeconds(1800L)
+            .episodeId(UUID.randomUUID())
+            .patientName("Asha Verma")
+            .dayNumber(3)
+            .compositeScore(70)
+            .build();
+    return new AlertInboxService.Inbox(new AlertInboxPage(List.of(item), "next-page"), ETAG);
+  }
+
+  @Test
+  @DisplayName("Should return the clinician's inbox page with an ETag")
+  @WithMockUser(username = SURGEON, roles = "SURGEON")
+  void shouldReturnInboxPage() throws Exception {
+    when(alertInboxService.fetch(eq(SURGEON), eq("PENDING"), isNull(), eq(50), any()))
+        .thenReturn(inbox());
+
+    mockMvc
+        .perform(get("/api/v1/alerts/inbox"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("ETag", ETAG))
+        .andExpect(jsonPath("$.items[0].patientName").value("Asha Verma"))
+        .andExpect(jsonPath("$.items[0].compositeScore").value(70))
+        .andExpect(jsonPath("$.items[0].slaRemainingSeconds").value(1800))
+        .andExpect(jsonPath("$.nextCursor").value("next-page"));
+  }
+
+  @Test
+  @DisplayName("Should return 304 when the page is unchanged since the client's ETag")
+  @WithMockUser(username = SURGEON, roles = "SURGEON")
+  void shouldReturn304ForMatchingEtag() throws Exception {
+    when(alertInboxService.fetch(eq(SURGEON), eq("PENDING"), isNull(), eq(50), any()))
+        .thenReturn(inbox());
+
+    mockMvc
+        .perform(get("/api/v1/alerts/inbox").header("If-None-Match", ETAG))
+        .andExpect(status().isNotModified());
+  }
+
+  @Test
+  @DisplayName("Should return 400 for an invalid status or cursor")
+  @WithMockUser(username = SURGEON, roles = "SURGEON")
+  void shouldReturn400ForInvalidRequest() throws Exception {
+    when(alertInboxService.fetch(eq(SURGEON), eq("OPEN"), isNull(), eq(50), any()))
+        .thenThrow(new IllegalArgumentException("Unknown alert status: OPEN"));
+
+    mockMvc
+        .perform(get("/api/v1/alerts/inbox").param("status", "OPEN"))
+        .andExpect(status().isBadRequest());
+  }
+}
@@ -5,6 +5,7 @@ import com.orthowatch.config.JwtAuthenticationFilter;
 import com.orthowatch.dto.LoginRequest;
 import com.orthowatch.dto.LoginResponse;
 import com.orthowatch.service.AuthService;
+import com.orthowatch.service.LoginRateLimiter;
 import com.orthowatch.service.UserDetailsServiceImpl;
 import com.orthowatch.util.JwtUtil;
 import jakarta.servlet.http.Cookie;
@@ -34,6 +35,9 @@ public class AuthControllerTest {
     @MockBean
     private AuthService authService;
 
+    @MockBean
+    private LoginRateLimiter loginRateLimiter;
+
     @MockBean
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
@@ -1,6 +1,7 @@
 package com.orthowatch.controller;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.when;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -8,6 +9,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orthowatch.dto.BulkEnrollmentRequest;
+import com.orthowatch.dto.BulkEnrollmentResponse;
+import com.orthowatch.dto.BulkEnrollmentResult;
 import com.orthowatch.dto.EnrollmentRequest;
 import com.orthowatch.dto.EnrollmentResponse;
 import com.orthowatch.exception.GlobalExceptionHandler;
@@ -15,6 +19,7 @@ import com.orthowatch.model.User;
 import com.orthowatch.repository.UserRepository;
 import com.orthowatch.service.EnrollmentService;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.DisplayName;
@@ -218,4 +223,67 @@ class EnrollmentControllerTest {
                 .content(objectMapper.writeValueAsString(request)))
         .andExpect(status().isBadRequest());
   }
+
+  @Test
+  @DisplayName("Should return per-row results for a bulk enrollment")
+  @WithMockUser(username = "nurse@orthowatch.com", roles = "NURSE")
+  void shouldReturnPerRowResultsForBulkEnrollment() throws Exception {
+    EnrollmentRequest invalid = createValidRequest();
+    invalid.setPatientName("");
+    BulkEnrollmentRequest request =
+        BulkEnrollmentRequest.builder()
+            .enrollments(List.of(createValidRequest(), invalid))
+            .build();
+
+    UUID episodeId = UUID.randomUUID();
+    BulkEnrollmentResponse response =
+        BulkEnrollmentResponse.builder()
+            .total(2)
+            .created(1)
+            .failed(1)
+            .results(
+                List.of(
+                    BulkEnrollmentResult.builder()
+                        .index(0)
+                        .status("CREATED")
+                        .episodeId(episodeId)
+                        .build(),
+                    BulkEnrollmentResult.builder()
+                        .index(1)
+                        .status("FAILED")
+                        .error("patientName: Patient name is required")
+                        .build()))
+            .build();
+
+    User nurse = User.builder().id(UUID.randomUUID()).email("nurse@orthowatch.com").build();
+    when(userRepository.findByEmail("nurse@orthowatch.com")).thenReturn(Optional.of(nurse));
+    when(enrollmentService.enrollAll(anyList(), any(User.class), any(), any()))
+        .thenReturn(response);
+
+    // Row-level validation is left to the service, so an invalid row does not reject the batch
+    mockMvc
+        .perform(
+            post("/api/v1/enrollments/bulk")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+        .andExpect(status().isOk())
+        .andExpect(jsonPath("$.created").value(1))
+        .andExpect(jsonPath("$.failed").value(1))
+        .andExpect(jsonPath("$.results[0].episodeId").value(episodeId.toString()))
+        .andExpect(jsonPath("$.results[1].status").value("FAILED"));
+  }
+
+  @Test
+  @DisplayName("Should return 400 for an empty bulk enrollment")
+  @WithMockUser(username = "nurse@orthowatch.com", roles = "NURSE")
+  void shouldReturn400ForEmptyBulkEnrollment() throws Exception {
+    mockMvc
+        .perform(
+            post("/api/v1/enrollments/bulk")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"enrollments\": []}"))
+        .andExpect(status().isBadRequest());
+  }
 }
@@ -0,0 +1,61 @@
+package com.orthowatch.controller;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.orthowatch.exception.GlobalExceptionHandler;
+import com.orthowatch.service.RuleSetVersionService;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest
+@ContextConfiguration(classes = {RuleSetController.class, GlobalExceptionHandler.class})
+class RuleSetControllerTest {
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockBean private RuleSetVersionService ruleSetVersionService;
+
+  @Test
+  @DisplayName("Should return the stored snapshot for a rule version id")
+  @WithMockUser(username = "surgeon@orthowatch.com", roles = "SURGEON")
+  void shouldReturnSnapshot() throws Exception {
+    when(ruleSetVersionService.findSnapshot("rs-0a1f3df493a891b3"))
+        .thenReturn(
+            Optional.of(
+                Map.of(
+                    "ruleVersionId",
+                    "rs-0a1f3df493a891b3",
+                    "rules",
+                    List.of(Map.of("ruleName", "severe_pain", "weight", 30)))));
+
+    mockMvc
+        .perform(get("/api/v1/rule-sets/rs-0a1f3df493a891b3"))
+        .andExpect(status().isOk())
+        .andExpect(header().string("Cache-Control", containsString("immutable")))
+        .andExpect(jsonPath("$.ruleVersionId").value("rs-0a1f3df493a891b3"))
+        .andExpect(jsonPath("$.rules[0].ruleName").value("severe_pain"));
+  }
+
+  @Test
+  @DisplayName("Should return 404 for an unknown rule version id")
+  @WithMockUser(username = "surgeon@orthowatch.com", roles = "SURGEON")
+  void shouldReturn404ForUnknownVersion() throws Exception {
+    when(ruleSetVersionService.findSnapshot("rs-unknown")).thenReturn(Optional.empty());
+
+    mockMvc.perform(get("/api/v1/rule-sets/rs-unknown")).andExpect(status().isNotFound());
+  }
+}
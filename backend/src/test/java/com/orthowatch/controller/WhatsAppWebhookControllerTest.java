@@ -0,0 +1,82 @@
+package com.orthowatch.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.orthowatch.messaging.WebhookIngestor;
+import com.orthowatch.messaging.WhatsAppWebhookVerifier;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+
+@WebMvcTest
+@ContextConfiguration(classes = WhatsAppWebhookController.class)
+@WithMockUser
+class WhatsAppWebhookControllerTest {
+
+  private static final String PAYLOAD = "{\"object\":\"whatsapp_business_account\",\"entry\":[]}";
+
+  @Autowired private MockMvc mockMvc;
+
+  @MockBean private WebhookIngestor webhookIngestor;
+  @MockBean private WhatsAppWebhookVerifier webhookVerifier;
+
+  @Test
+  @DisplayName("Should acknowledge a signed delivery once it is staged")
+  void shouldAcknowledgeQueuedDelivery() throws Exception {
+    when(webhookVerifier.isSignatureValid(any(), any())).thenReturn(true);
+    when(webhookIngestor.accept(any())).thenReturn(true);
+
+    mockMvc
+        .perform(
+            post("/api/v1/webhook/whatsapp")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(PAYLOAD))
+        .andExpect(status().isOk());
+  }
+
+  @Test
+  @DisplayName("Should answer 503 with Retry-After when the delivery cannot be staged")
+  void shouldAskForRedeliveryWhenQueueIsFull() throws Exception {
+    when(webhookVerifier.isSignatureValid(any(), any())).thenReturn(true);
+    when(webhookIngestor.accept(any())).thenReturn(false);
+
+    mockMvc
+        .perform(
+            post("/api/v1/webhook/whatsapp")
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(PAYLOAD))
+        .andExpect(status().isServiceUnavailable())
+        .andExpect(header().string("Retry-After", "1"));
+  }
+
+  @Test
+  @DisplayName("Should reject a delivery with an invalid signature without staging it")
+  void shouldRejectInvalidSignature() throws Exception {
+    when(webhookVerifier.isSignatureValid(any(), any())).thenReturn(false);
+
+    mockMvc
+        .perform(
+            post("/api/v1/webhook/whatsapp")
+                .with(csrf())
+                .header("X-Hub-Signature-256", "sha256=00")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(PAYLOAD))
+        .andExpect(status().isUnauthorized());
+    verify(webhookIngestor, never()).accept(any());
+  }
+}
@@ -0,0 +1,180 @@
+package com.orthowatch.integration;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.orthowatch.dto.AlertInboxItem;
+import com.orthowatch.service.AlertInboxService;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers(disabledWithoutDocker = true)
+class AlertInboxIntegrationTest {
+
+  @Container
+  static PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:16-alpine")
+          .withDatabaseName("orthowatch_test")
+          .withUsername("test_user")
+          .withPassword("test_pass");
+
+  private static final String SURGEON = "surgeon@orthowatch.com";
+  private static final Instant NOW = Instant.parse("2026-03-04T10:00:00Z");
+
+  private static DriverManagerDataSource dataSource;
+  private static JdbcTemplate jdbcTemplate;
+
+  @BeforeAll
+  static void migrate() {
+    Flyway.configure()
+        .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+        .load()
+        .migrate();
+    dataSource =
+        new DriverManagerDataSource(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    jdbcTemplate = new JdbcTemplate(dataSource);
+  }
+
+  @BeforeEach
+  void clearAlerts() {
+    jdbcTemplate.update("DELETE FROM alerts");
+    jdbcTemplate.update("DELETE FROM episodes");
+    jdbcTemplate.update("DELETE FROM patients");
+  }
+
+  private UUID episode(String patientName) {
+    UUID patientId =
+        jdbcTemplate.queryForObject(
+            "INSERT INTO patients (full_name, age, phone_primary) VALUES (?, 60, '+919800000001')"
+                + " RETURNING id",
+            UUID.class,
+            patientName);
+    return jdbcTemplate.queryForObject(
+        """
+        INSERT INTO episodes (patient_id, template_id, primary_surgeon_id, surgery_date,
+                              discharge_date, current_day, pain_score_discharge,
+                              swelling_level_discharge)
+        SELECT ?, t.id, u.id, ?, ?, 4, 5, 'MILD'
+        FROM recovery_templates t, users u
+        WHERE t.surgery_type = 'TKR' AND u.email = ?
+        RETURNING id
+        """,
+        UUID.class,
+        patientId,
+        LocalDate.parse("2026-02-27"),
+        LocalDate.parse("2026-03-01"),
+        SURGEON);
+  }
+
+  private void alert(UUID episodeId, Integer minutesToDeadline) {
+    jdbcTemplate.update(
+        "INSERT INTO alerts (episode_id, alert_type, severity, assigned_to, sla_deadline)"
+            + " SELECT ?, 'HIGH_RISK', 'HIGH', u.id, ? FROM users u WHERE u.email = ?",
+        episodeId,
+        minutesToDeadline != null
+            ? OffsetDateTime.ofInstant(NOW.plusSeconds(minutesToDeadline * 60L), ZoneOffset.UTC)
+            : null,
+        SURGEON);
+  }
+
+  @Test
+  @DisplayName("Should page the inbox by deadline, alerts without one last, with stable ETags")
+  void shouldPageByDeadline() {
+    // Given
+    UUID episodeId = episode("Asha Verma");
+    for (Integer minutes : new Integer[] {30, null, -10, 30, 120, null}) {
+      alert(episodeId, minutes);
+    }
+    AlertInboxService service = new AlertInboxService(jdbcTemplate);
+
+    // When
+    List<AlertInboxItem> all = new ArrayList<>();
+    String cursor = null;
+    int pages = 0;
+    do {
+      AlertInboxService.Inbox inbox = service.fetch(SURGEON, "PENDING", cursor, 2, NOW);
+      all.addAll(inbox.page().getItems());
+      cursor = inbox.page().getNextCursor();
+      pages++;
+    } while (cursor != null);
+
+    // Then
+    assertThat(pages).isEqualTo(3);
+    assertThat(all).extracting(AlertInboxItem::getAlertId).doesNotHaveDuplicates().hasSize(6);
+    assertThat(all)
+        .extracting(AlertInboxItem::getSlaRemainingSeconds)
+        .containsExactly(-600L, 1800L, 1800L, 7200L, null, null);
+    assertThat(all.get(0).getPatientName()).isEqualTo("Asha Verma");
+    assertThat(all.get(0).getDayNumber()).isEqualTo(4);
+    assertThat(service.fetch(SURGEON, "PENDING", null, 2, NOW.plusSeconds(60)).etag())
+        .isEqualTo(service.fetch(SURGEON, "PENDING", null, 2, NOW).etag());
+  }
+
+  @Test
+  @DisplayName("Should seek the inbox index for every page, without scanning or sorting alerts")
+  void shouldSeekIndexOnEveryPage() {
+    // Given: enough alerts on another clinician's inbox that a scan would cost more than a seek
+    UUID episodeId = episode("Asha Verma");
+    for (Integer minutes : new Integer[] {30, null, -10, 30, 120, null}) {
+      alert(episodeId, minutes);
+    }
+    jdbcTemplate.update(
+        "INSERT INTO alerts (episode_id, alert_type, severity, assigned_to, sla_deadline) SELECT ?,"
+            + " 'HIGH_RISK', 'HIGH', u.id, CAST(? AS timestamptz) + n * interval '1 minute' FROM"
+            + " users u, generate_series(1, 5000) n WHERE u.email = 'admin@orthowatch.com'",
+        episodeId,
+        OffsetDateTime.ofInstant(NOW, ZoneOffset.UTC));
+    jdbcTemplate.execute("ANALYZE alerts");
+    // Explains each statement the service runs, with its arguments, before running it
+    List<String> plans = new ArrayList<>();
+    JdbcTemplate explaining =
+        new JdbcTemplate(dataSource) {
+          @Override
+          public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            if (!sql.startsWith("EXPLAIN")) {
+              plans.add(String.join("\n", queryForList("EXPLAIN " + sql, String.class, args)));
+            }
+            return super.query(sql, rowMapper, args);
+          }
+        };
+    AlertInboxService service = new AlertInboxService(explaining);
+
+    // When: pages of two, the second one topped up with an alert without a deadline
+    List<AlertInboxItem> all = new ArrayList<>();
+    String cursor = null;
+    do {
+      AlertInboxService.Inbox inbox = service.fetch(SURGEON, "PENDING", cursor, 2, NOW);
+      all.addAll(inbox.page().getItems());
+      cursor = inbox.page().getNextCursor();
+    } while (cursor != null);
+
+    // Then
+    assertThat(all)
+        .extracting(AlertInboxItem::getSlaRemainingSeconds)
+        .containsExactly(-600L, 1800L, 1800L, 7200L, null, null);
+    assertThat(plans).hasSize(5);
+    assertThat(plans)
+        .allSatisfy(
+            plan ->
+                assertThat(plan)
+                    .contains("Index Scan using idx_alerts_assigned_to_status_sla on alerts a")
+                    .doesNotContain("Seq Scan on alerts")
+                    .doesNotContain("Sort Key"));
+  }
+}
@@ -0,0 +1,196 @@
+package com.orthowatch.integration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.orthowatch.service.AlertSlaEnforcer;
+import com.orthowatch.service.DashboardEventBroker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers(disabledWithoutDocker = true)
+class AlertSlaIntegrationTest {
+
+  @Container
+  static PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:16-alpine")
+          .withDatabaseName("orthowatch_test")
+          .withUsername("test_user")
+          .withPassword("test_pass");
+
+  private static final Instant NOW = Instant.parse("2026-03-04T10:00:00Z");
+
+  private static JdbcTemplate jdbcTemplate;
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @BeforeAll
+  static void migrate() {
+    Flyway.configure()
+        .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+        .load()
+        .migrate();
+    jdbcTemplate =
+        new JdbcTemplate(
+            new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+  }
+
+  @BeforeEach
+  void clearAlerts() {
+    jdbcTemplate.update("DELETE FROM alerts");
+    jdbcTemplate.update("DELETE FROM episodes");
+    jdbcTemplate.update("DELETE FROM patients");
+  }
+
+  private AlertSlaEnforcer enforcer() {
+    // Not started: the test drives tick() itself
+    DataSourceProperties properties = new DataSourceProperties();
+    properties.setUrl(postgres.getJdbcUrl());
+    properties.setUsername(postgres.getUsername());
+    properties.setPassword(postgres.getPassword());
+    return new AlertSlaEnforcer(
+        properties,
+        jdbcTemplate,
+        null,
+        mock(DashboardEventBroker.class),
+        meterRegistry,
+        false,
+        1000,
+        30,
+        15,
+        2,
+        false,
+        false);
+  }
+
+  private UUID userId(String email) {
+    return jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = ?", UUID.class, email);
+  }
+
+  private UUID alert(boolean withSecondary, Instant slaDeadline) {
+    UUID patientId =
+        jdbcTemplate.queryForObject(
+            "INSERT INTO patients (full_name, age, phone_primary) VALUES ('Test Patient', 60,"
+                + " '+919800000001') RETURNING id",
+            UUID.class);
+    UUID admin = userId("admin@orthowatch.com");
+    UUID episodeId =
+        jdbcTemplate.queryForObject(
+            """
+            INSERT INTO episodes (patient_id, template_id, primary_surgeon_id,
+                                  secondary_clinician_id, surgery_date, discharge_date,
+                                  pain_score_discharge, swelling_level_discharge)
+            SELECT ?, t.id, ?, ?, ?, ?, 5, 'MILD'
+            FROM recovery_templates t WHERE t.surgery_type = 'TKR'
+            RETURNING id
+            """,
+            UUID.class,
+            patientId,
+            admin,
+            withSecondary ? userId("surgeon@orthowatch.com") : null,
+            LocalDate.parse("2026-02-27"),
+            LocalDate.parse("2026-03-01"));
+    return jdbcTemplate.queryForObject(
+        "INSERT INTO alerts (episode_id, alert_type, severity, assigned_to, sla_deadline)"
+            + " VALUES (?, 'HIGH_RISK', 'HIGH', ?, ?) RETURNING id",
+        UUID.class,
+        episodeId,
+        admin,
+        OffsetDateTime.ofInstant(slaDeadline, ZoneOffset.UTC));
+  }
+
+  private double pendingTimers() {
+    return meterRegistry.get("orthowatch.alerts.sla.timers").gauge().value();
+  }
+
+  private Map<String, Object> row(UUID alertId) {
+    return jdbcTemplate.queryForMap(
+        "SELECT status, auto_forwarded, assigned_to, sla_deadline FROM alerts WHERE id = ?",
+        alertId);
+  }
+
+  @Test
+  @DisplayName("Should forward an overdue alert once, then expire it at the new deadline")
+  void shouldForwardThenExpire() {
+    // Given
+    UUID alertId = alert(true, NOW.plusSeconds(30));
+    AlertSlaEnforcer enforcer = enforcer();
+    assertThat(enforcer.tick(NOW)).isZero();
+
+    // When
+    int forwarded = enforcer.tick(NOW.plusSeconds(30));
+
+    // Then
+    assertThat(forwarded).isEqualTo(1);
+    Map<String, Object> afterForward = row(alertId);
+    assertThat(afterForward.get("status")).isEqualTo("PENDING");
+    assertThat(afterForward.get("auto_forwarded")).isEqualTo(true);
+    assertThat(afterForward.get("assigned_to")).isEqualTo(userId("surgeon@orthowatch.com"));
+
+    // When: the forwarded alert's new two-hour deadline passes
+    assertThat(enforcer.tick(NOW.plusSeconds(30 + 2 * 3600))).isEqualTo(1);
+
+    // Then
+    assertThat(row(alertId).get("status")).isEqualTo("EXPIRED");
+  }
+
+  @Test
+  @DisplayName("Should expire alerts with no one to forward to and skip acknowledged ones")
+  void shouldExpireWithoutSecondary() {
+    // Given
+    UUID unassigned = alert(false, NOW.minusSeconds(60));
+    UUID acknowledged = alert(true, NOW.minusSeconds(60));
+    jdbcTemplate.update("UPDATE alerts SET status = 'ACKNOWLEDGED' WHERE id = ?", acknowledged);
+
+    // When
+    int handled = enforcer().tick(NOW);
+
+    // Then
+    assertThat(handled).isEqualTo(1);
+    assertThat(row(unassigned).get("status")).isEqualTo("EXPIRED");
+    assertThat(row(acknowledged).get("status")).isEqualTo("ACKNOWLEDGED");
+  }
+
+  @Test
+  @DisplayName("Should time alerts reported after the wheel was built and cancel acknowledged ones")
+  void shouldApplyReportedChanges() {
+    // Given
+    UUID acknowledged = alert(true, NOW.plusSeconds(600));
+    UUID pending = alert(true, NOW.plusSeconds(600));
+    AlertSlaEnforcer enforcer = enforcer();
+    enforcer.tick(NOW);
+    assertThat(pendingTimers()).isEqualTo(2);
+    UUID raised = alert(true, NOW.plusSeconds(300));
+    jdbcTemplate.update("UPDATE alerts SET status = 'ACKNOWLEDGED' WHERE id = ?", acknowledged);
+
+    // When: both changes are reported, outside a transaction so at once
+    enforcer.deadlinesChangedAfterCommit(List.of(raised, acknowledged));
+    enforcer.tick(NOW.plusSeconds(1));
+
+    // Then
+    assertThat(pendingTimers()).isEqualTo(2);
+    assertThat(enforcer.tick(NOW.plusSeconds(300))).isEqualTo(1);
+    assertThat(row(raised).get("auto_forwarded")).isEqualTo(true);
+    assertThat(enforcer.tick(NOW.plusSeconds(600))).isEqualTo(1);
+    assertThat(row(pending).get("auto_forwarded")).isEqualTo(true);
+    assertThat(row(acknowledged).get("status")).isEqualTo("ACKNOWLEDGED");
+  }
+}
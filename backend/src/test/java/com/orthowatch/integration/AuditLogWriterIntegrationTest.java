@@ -0,0 +1,98 @@
+package com.orthowatch.integration;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orthowatch.model.ClinicalAuditLog;
+import com.orthowatch.model.User;
+import com.orthowatch.service.AuditLogWriter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers(disabledWithoutDocker = true)
+class AuditLogWriterIntegrationTest {
+
+  @Container
+  static PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:16-alpine")
+          .withDatabaseName("orthowatch_test")
+          .withUsername("test_user")
+          .withPassword("test_pass");
+
+  private static JdbcTemplate jdbcTemplate;
+  private static DataSourceTransactionManager transactionManager;
+
+  @BeforeAll
+  static void migrate() {
+    Flyway.configure()
+        .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+        .load()
+        .migrate();
+    DriverManagerDataSource dataSource =
+        new DriverManagerDataSource(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    transactionManager = new DataSourceTransactionManager(dataSource);
+  }
+
+  private ClinicalAuditLog auditLog(UUID userId, String marker) {
+    return ClinicalAuditLog.builder()
+        .user(User.builder().id(userId).build())
+        .action("LOGIN")
+        .resourceType("USER")
+        .details(Map.of("marker", marker))
+        .build();
+  }
+
+  private int countMarked(String marker) {
+    return jdbcTemplate.queryForObject(
+        "SELECT COUNT(*) FROM clinical_audit_log WHERE details ->> 'marker' = ?",
+        Integer.class,
+        marker);
+  }
+
+  @Test
+  @DisplayName("Should leave overflowing records to the writer thread after a commit")
+  void shouldHandOffOverflowToWriter() throws Exception {
+    // Given
+    AuditLogWriter writer =
+        new AuditLogWriter(
+            null,
+            jdbcTemplate,
+            new ObjectMapper(),
+            new SimpleMeterRegistry(),
+            "async",
+            1,
+            100,
+            200,
+            50,
+            10);
+    UUID userId =
+        jdbcTemplate.queryForObject("SELECT id FROM users ORDER BY email LIMIT 1", UUID.class);
+    String marker = UUID.randomUUID().toString();
+
+    // When: two records into a queue of one, from inside a real transaction
+    new TransactionTemplate(transactionManager)
+        .executeWithoutResult(
+            status -> writer.writeAll(List.of(auditLog(userId, marker), auditLog(userId, marker))));
+
+    // Then: the request thread wrote nothing; the writer commits both records in one drain
+    assertThat(countMarked(marker)).isZero();
+    ReflectionTestUtils.invokeMethod(writer, "drainOnce", 0L);
+    assertThat(countMarked(marker)).isEqualTo(2);
+  }
+}
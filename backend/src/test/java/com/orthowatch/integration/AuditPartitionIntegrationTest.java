@@ -0,0 +1,121 @@
+package com.orthowatch.integration;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orthowatch.service.AuditPartitionService;
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers(disabledWithoutDocker = true)
+class AuditPartitionIntegrationTest {
+
+  @Container
+  static PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:16-alpine")
+          .withDatabaseName("orthowatch_test")
+          .withUsername("test_user")
+          .withPassword("test_pass");
+
+  private static JdbcTemplate jdbcTemplate;
+
+  @TempDir Path archiveDirectory;
+
+  @BeforeAll
+  static void migrate() {
+    Flyway.configure()
+        .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+        .load()
+        .migrate();
+    jdbcTemplate =
+        new JdbcTemplate(
+            new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+  }
+
+  private AuditPartitionService service() {
+    return new AuditPartitionService(
+        jdbcTemplate,
+        new DataSourceTransactionManager(jdbcTemplate.getDataSource()),
+        new ObjectMapper(),
+        3,
+        13,
+        archiveDirectory.toString());
+  }
+
+  private void insertAuditRow(OffsetDateTime createdAt) {
+    jdbcTemplate.update(
+        "INSERT INTO clinical_audit_log (user_id, action, details, created_at)"
+            + " SELECT id, 'LOGIN', '{\"source\":\"test\"}'::jsonb, ? FROM users LIMIT 1",
+        createdAt);
+  }
+
+  @Test
+  @DisplayName("Should create partitions ahead and archive cold months to compressed files")
+  void shouldCreateAndArchivePartitions() throws Exception {
+    // Given
+    AuditPartitionService service = service();
+    service.ensurePartitions();
+    jdbcTemplate.queryForObject(
+        "SELECT ensure_clinical_audit_log_partition(?)", String.class, LocalDate.of(2020, 1, 1));
+    insertAuditRow(OffsetDateTime.of(2020, 1, 15, 10, 0, 0, 0, ZoneOffset.UTC));
+    insertAuditRow(OffsetDateTime.of(2020, 1, 20, 10, 0, 0, 0, ZoneOffset.UTC));
+    insertAuditRow(OffsetDateTime.now());
+
+    // When
+    List<String> archived = service.archiveColdPartitions();
+
+    // Then
+    assertThat(archived).containsExactly("clinical_audit_log_y2020m01");
+    YearMonth ahead = YearMonth.now(ZoneOffset.UTC).plusMonths(3);
+    assertThat(
+            tableExists(
+                String.format(
+                    "clinical_audit_log_y%dm%02d", ahead.getYear(), ahead.getMonthValue())))
+        .isTrue();
+    assertThat(tableExists("clinical_audit_log_y2020m01")).isFalse();
+    assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM clinical_audit_log", Long.class))
+        .isEqualTo(1L);
+    assertThat(
+            jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM clinical_audit_log_default", Long.class))
+        .isZero();
+
+    Path archive = archiveDirectory.resolve("clinical_audit_log_y2020m01.ndjson.gz");
+    try (BufferedReader reader =
+        new BufferedReader(
+            new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(archive)), StandardCharsets.UTF_8))) {
+      List<String> lines = reader.lines().toList();
+      assertThat(lines).hasSize(2);
+      JsonNode first = new ObjectMapper().readTree(lines.get(0));
+      assertThat(first.get("action").asText()).isEqualTo("LOGIN");
+      assertThat(first.get("details").get("source").asText()).isEqualTo("test");
+    }
+  }
+
+  private boolean tableExists(String name) {
+    return jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, name);
+  }
+}
@@ -0,0 +1,270 @@
+package com.orthowatch.integration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.orthowatch.messaging.EpisodeRoutingIndex;
+import com.orthowatch.messaging.OutboundMessage;
+import com.orthowatch.service.ChecklistDispatcher;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/** Runs the dispatcher's claim query against PostgreSQL, where its date arithmetic happens. */
+@Testcontainers(disabledWithoutDocker = true)
+class ChecklistDispatchIntegrationTest {
+
+  @Container
+  static PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:16-alpine")
+          .withDatabaseName("orthowatch_test")
+          .withUsername("test_user")
+          .withPassword("test_pass");
+
+  // 09:00 in Asia/Kolkata, the default episode timezone
+  private static final Instant NOW = Instant.parse("2026-03-05T03:30:00Z");
+  private static final LocalDate DISCHARGE = LocalDate.parse("2026-03-01");
+
+  private static DriverManagerDataSource dataSource;
+  private static JdbcTemplate jdbcTemplate;
+
+  private final List<OutboundMessage> sent = new CopyOnWriteArrayList<>();
+
+  @BeforeAll
+  static void migrate() {
+    Flyway.configure()
+        .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+        .load()
+        .migrate();
+    dataSource =
+        new DriverManagerDataSource(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    jdbcTemplate = new JdbcTemplate(dataSource);
+  }
+
+  @BeforeEach
+  void clearEpisodes() {
+    jdbcTemplate.update("DELETE FROM episodes");
+  }
+
+  private ChecklistDispatcher dispatcher(int batchSize) {
+    return new ChecklistDispatcher(
+        jdbcTemplate,
+        new DataSourceTransactionManager(dataSource),
+        sent::addAll,
+        mock(EpisodeRoutingIndex.class),
+        new SimpleMeterRegistry(),
+        batchSize,
+        15,
+        360);
+  }
+
+  private UUID enroll(
+      LocalDate discharge, String timezone, String consentStatus, Instant nextChecklistAt) {
+    UUID patientId =
+        jdbcTemplate.queryForObject(
+            "INSERT INTO patients (full_name, age, phone_primary) VALUES ('Test Patient', 60,"
+                + " '+919800000001') RETURNING id",
+            UUID.class);
+    return jdbcTemplate.queryForObject(
+        """
+        INSERT INTO episodes (patient_id, template_id, primary_surgeon_id, surgery_date,
+                              discharge_date, current_day, pain_score_discharge,
+                              swelling_level_discharge, consent_status, checklist_time, timezone,
+                              next_checklist_at)
+        SELECT ?, t.id, u.id, ?, ?, 0, 5, 'MILD', ?, '09:00', ?, ?
+        FROM recovery_templates t, users u
+        WHERE t.surgery_type = 'TKR' AND u.email = 'admin@orthowatch.com'
+        RETURNING id
+        """,
+        UUID.class,
+        patientId,
+        discharge.minusDays(2),
+        discharge,
+        consentStatus,
+        timezone,
+        OffsetDateTime.ofInstant(nextChecklistAt, ZoneOffset.UTC));
+  }
+
+  private Instant nextChecklistAt(UUID episodeId) {
+    OffsetDateTime next =
+        jdbcTemplate.queryForObject(
+            "SELECT next_checklist_at FROM episodes WHERE id = ?", OffsetDateTime.class, episodeId);
+    return next != null ? next.toInstant() : null;
+  }
+
+  private int currentDay(UUID episodeId) {
+    return jdbcTemplate.queryForObject(
+        "SELECT current_day FROM episodes WHERE id = ?", Integer.class, episodeId);
+  }
+
+  @Test
+  @DisplayName("Should keep the local checklist time across a daylight saving transition")
+  void shouldFollowLocalTimeAcrossDst() {
+    // Given: New York moves to EDT on 2026-03-08, so 09:00 local goes from 14:00Z to 13:00Z
+    LocalDate discharge = LocalDate.parse("2026-03-06");
+    Instant day1 = Instant.parse("2026-03-07T14:00:00Z");
+    UUID episodeId = enroll(discharge, "America/New_York", "GRANTED", day1);
+
+    // When
+    int first = dispatcher(10).tick(day1);
+    Instant day2 = nextChecklistAt(episodeId);
+    int second = dispatcher(10).tick(day2);
+
+    // Then
+    assertThat(first).isEqualTo(1);
+    assertThat(day2).isEqualTo(Instant.parse("2026-03-08T13:00:00Z"));
+    assertThat(second).isEqualTo(1);
+    assertThat(nextChecklistAt(episodeId)).isEqualTo(Instant.parse("2026-03-09T13:00:00Z"));
+    assertThat(sent).extracting(OutboundMessage::dayNumber).containsExactly(1, 2);
+    assertThat(sent.get(1).scheduledFor().toInstant()).isEqualTo(day2);
+    assertThat(currentDay(episodeId)).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should send the last monitoring day's checklist and then stop scheduling")
+  void shouldStopAfterLastMonitoringDay() {
+    // Given
+    int monitoringDays =
+        jdbcTemplate.queryForObject(
+            "SELECT monitoring_days FROM recovery_templates WHERE surgery_type = 'TKR'",
+            Integer.class);
+    LocalDate today = LocalDate.parse("2026-03-05");
+    UUID last = enroll(today.minusDays(monitoringDays), "Asia/Kolkata", "GRANTED", NOW);
+    UUID penultimate = enroll(today.minusDays(monitoringDays - 1), "Asia/Kolkata", "GRANTED", NOW);
+
+    // When
+    int dispatched = dispatcher(10).tick(NOW);
+
+    // Then
+    assertThat(dispatched).isEqualTo(2);
+    assertThat(nextChecklistAt(last)).isNull();
+    assertThat(currentDay(last)).isEqualTo(monitoringDays);
+    assertThat(nextChecklistAt(penultimate)).isEqualTo(NOW.plusSeconds(24 * 60 * 60));
+    assertThat(dispatcher(10).tick(NOW.plusSeconds(24 * 60 * 60))).isEqualTo(1);
+    assertThat(nextChecklistAt(penultimate)).isNull();
+  }
+
+  @Test
+  @DisplayName("Should skip stale and consent-pending checklists but still move them on")
+  void shouldSkipStaleAndPendingConsent() {
+    // Given
+    UUID due = enroll(DISCHARGE, "Asia/Kolkata", "GRANTED", NOW);
+    UUID pending = enroll(DISCHARGE, "Asia/Kolkata", "PENDING", NOW);
+    UUID stale = enroll(DISCHARGE, "Asia/Kolkata", "GRANTED", NOW.minusSeconds(24 * 60 * 60));
+
+    // When
+    int dispatched = dispatcher(10).tick(NOW);
+
+    // Then
+    assertThat(dispatched).isEqualTo(1);
+    assertThat(sent).extracting(OutboundMessage::episodeId).containsExactly(due);
+    assertThat(sent.get(0).dayNumber()).isEqualTo(4);
+    Instant tomorrow = NOW.plusSeconds(24 * 60 * 60);
+    assertThat(List.of(due, pending, stale))
+        .extracting(this::nextChecklistAt)
+        .containsOnly(tomorrow);
+    assertThat(currentDay(due)).isEqualTo(4);
+    assertThat(currentDay(pending)).isZero();
+    // The missed day still counts towards the episode's progress
+    assertThat(currentDay(stale)).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("Should skip episodes another transaction has locked")
+  void shouldSkipLockedEpisodes() throws Exception {
+    // Given
+    UUID locked = enroll(DISCHARGE, "Asia/Kolkata", "GRANTED", NOW);
+    UUID free = enroll(DISCHARGE, "Asia/Kolkata", "GRANTED", NOW);
+
+    // When
+    int dispatched;
+    try (Connection connection = dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+      try (PreparedStatement lock =
+          connection.prepareStatement("SELECT id FROM episodes WHERE id = ? FOR UPDATE")) {
+        lock.setObject(1, locked);
+        lock.executeQuery().close();
+      }
+      dispatched = dispatcher(10).tick(NOW);
+      connection.rollback();
+    }
+
+    // Then
+    assertThat(dispatched).isEqualTo(1);
+    assertThat(sent).extracting(OutboundMessage::episodeId).containsExactly(free);
+    assertThat(nextChecklistAt(locked)).isEqualTo(NOW);
+    assertThat(currentDay(locked)).isZero();
+  }
+
+  @Test
+  @DisplayName("Should never send the same checklist from two concurrent claimers")
+  void shouldNotDoubleSendFromConcurrentClaimers() throws Exception {
+    // Given
+    List<UUID> episodes = new ArrayList<>();
+    for (int i = 0; i < 40; i++) {
+      episodes.add(enroll(DISCHARGE, "Asia/Kolkata", "GRANTED", NOW));
+    }
+    ChecklistDispatcher first = dispatcher(3);
+    ChecklistDispatcher second = dispatcher(3);
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    // When
+    int total;
+    try {
+      Future<Integer> a =
+          executor.submit(
+              () -> {
+                start.await();
+                return first.tick(NOW);
+              });
+      Future<Integer> b =
+          executor.submit(
+              () -> {
+                start.await();
+                return second.tick(NOW);
+              });
+      start.countDown();
+      total = a.get() + b.get();
+    } finally {
+      executor.shutdown();
+    }
+
+    // Then
+    assertThat(total).isEqualTo(episodes.size());
+    assertThat(sent)
+        .extracting(OutboundMessage::episodeId)
+        .doesNotHaveDuplicates()
+        .containsExactlyInAnyOrderElementsOf(episodes);
+    assertThat(
+            jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM episodes WHERE next_checklist_at <= ?",
+                Integer.class,
+                OffsetDateTime.ofInstant(NOW, ZoneOffset.UTC)))
+        .isZero();
+  }
+}
@@ -0,0 +1,152 @@
+package com.orthowatch.integration;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.orthowatch.messaging.InboundMessageStore;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers(disabledWithoutDocker = true)
+class ConsentDecisionIntegrationTest {
+
+  @Container
+  static PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:16-alpine")
+          .withDatabaseName("orthowatch_test")
+          .withUsername("test_user")
+          .withPassword("test_pass");
+
+  private static final Instant DECIDED_AT = Instant.parse("2026-03-02T05:00:00Z");
+
+  private static JdbcTemplate jdbcTemplate;
+
+  @BeforeAll
+  static void migrate() {
+    Flyway.configure()
+        .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+        .load()
+        .migrate();
+    jdbcTemplate =
+        new JdbcTemplate(
+            new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+  }
+
+  @BeforeEach
+  void clearEpisodes() {
+    jdbcTemplate.update("DELETE FROM clinical_audit_log");
+    jdbcTemplate.update("DELETE FROM episodes");
+  }
+
+  // Enrolled as EnrollmentService does: consent pending, with the monitoring consent log opened
+  private UUID enroll(String consentStatus) {
+    UUID patientId =
+        jdbcTemplate.queryForObject(
+            "INSERT INTO patients (full_name, age, phone_primary) VALUES ('Test Patient', 60,"
+                + " '+919800000001') RETURNING id",
+            UUID.class);
+    UUID episodeId =
+        jdbcTemplate.queryForObject(
+            """
+            INSERT INTO episodes (patient_id, template_id, primary_surgeon_id, surgery_date,
+                                  discharge_date, pain_score_discharge, swelling_level_discharge,
+                                  consent_status)
+            SELECT ?, t.id, u.id, ?, ?, 5, 'MILD', ?
+            FROM recovery_templates t, users u
+            WHERE t.surgery_type = 'TKR' AND u.email = 'surgeon@orthowatch.com'
+            RETURNING id
+            """,
+            UUID.class,
+            patientId,
+            LocalDate.parse("2026-02-27"),
+            LocalDate.parse("2026-03-01"),
+            consentStatus);
+    jdbcTemplate.update(
+        "INSERT INTO consent_logs (episode_id, patient_id, consent_type, status, method,"
+            + " consent_text) VALUES (?, ?, 'MONITORING', 'GRANTED', 'WHATSAPP', 'Consent text')",
+        episodeId,
+        patientId);
+    return episodeId;
+  }
+
+  private Map<String, Object> consentLog(UUID episodeId) {
+    return jdbcTemplate.queryForMap(
+        "SELECT status, granted_at, revoked_at FROM consent_logs WHERE episode_id = ?", episodeId);
+  }
+
+  private List<Map<String, Object>> audit(UUID episodeId) {
+    return jdbcTemplate.queryForList(
+        "SELECT a.action, a.details ->> 'consentStatus' AS consent_status, u.email, a.created_at"
+            + " FROM clinical_audit_log a JOIN users u ON u.id = a.user_id"
+            + " WHERE a.episode_id = ?",
+        episodeId);
+  }
+
+  @Test
+  @DisplayName("Should record the decision on the episode, its consent log and the audit log")
+  void shouldRecordDecisionEverywhere() {
+    // Given
+    UUID granted = enroll("PENDING");
+    UUID declined = enroll("PENDING");
+
+    // When
+    new InboundMessageStore(jdbcTemplate)
+        .applyConsent(Map.of(granted, "GRANTED", declined, "DECLINED"), DECIDED_AT);
+
+    // Then
+    assertThat(
+            jdbcTemplate.queryForObject(
+                "SELECT consent_status FROM episodes WHERE id = ?", String.class, granted))
+        .isEqualTo("GRANTED");
+    Map<String, Object> grantedLog = consentLog(granted);
+    assertThat(grantedLog.get("status")).isEqualTo("GRANTED");
+    assertThat(((Timestamp) grantedLog.get("granted_at")).toInstant()).isEqualTo(DECIDED_AT);
+    assertThat(grantedLog.get("revoked_at")).isNull();
+
+    Map<String, Object> declinedLog = consentLog(declined);
+    assertThat(declinedLog.get("status")).isEqualTo("DECLINED");
+    assertThat(declinedLog.get("granted_at")).isNull();
+    assertThat(((Timestamp) declinedLog.get("revoked_at")).toInstant()).isEqualTo(DECIDED_AT);
+
+    List<Map<String, Object>> audit = audit(granted);
+    assertThat(audit).hasSize(1);
+    assertThat(audit.get(0).get("action")).isEqualTo("RECORD_CONSENT");
+    assertThat(audit.get(0).get("consent_status")).isEqualTo("GRANTED");
+    assertThat(audit.get(0).get("email")).isEqualTo("surgeon@orthowatch.com");
+    assertThat(audit(declined))
+        .extracting(row -> row.get("consent_status"))
+        .containsExactly("DECLINED");
+  }
+
+  @Test
+  @DisplayName("Should leave an episode that already has a decision untouched")
+  void shouldIgnoreDecidedEpisodes() {
+    // Given
+    UUID episodeId = enroll("GRANTED");
+
+    // When
+    new InboundMessageStore(jdbcTemplate).applyConsent(Map.of(episodeId, "DECLINED"), DECIDED_AT);
+
+    // Then
+    assertThat(
+            jdbcTemplate.queryForObject(
+                "SELECT consent_status FROM episodes WHERE id = ?", String.class, episodeId))
+        .isEqualTo("GRANTED");
+    assertThat(consentLog(episodeId).get("revoked_at")).isNull();
+    assertThat(audit(episodeId)).isEmpty();
+  }
+}
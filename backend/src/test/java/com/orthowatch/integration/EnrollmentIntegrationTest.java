@@ -13,6 +13,7 @@ import com.orthowatch.repository.PatientRepository;
 import com.orthowatch.repository.RecoveryTemplateRepository;
 import com.orthowatch.repository.UserRepository;
 import java.time.LocalDate;
+import java.time.OffsetDateTime;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -60,6 +61,8 @@ class EnrollmentIntegrationTest {
         "app.jwt.refresh-secret", () -> "ZGV2cmVmcmVzaHNlY3JldG1pbmltdW0zMmNoYXJhY3RlcnM=");
     registry.add("app.jwt.expiration", () -> "1800000");
     registry.add("app.jwt.refresh-expiration", () -> "604800000");
+    // Write audit records in the request transaction so they can be asserted straight away
+    registry.add("app.audit.mode", () -> "sync");
   }
 
   @Autowired private MockMvc mockMvc;
@@ -139,7 +142,11 @@ class EnrollmentIntegrationTest {
     assertThat(consentLogRepository.findByEpisodeId(response.getEpisodeId())).isNotEmpty();
 
     // Verify audit log was created
-    assertThat(clinicalAuditLogRepository.findByEpisodeId(response.getEpisodeId())).isNotEmpty();
+    OffsetDateTime now = OffsetDateTime.now();
+    assertThat(
+            clinicalAuditLogRepository.findByEpisodeIdWithin(
+                response.getEpisodeId(), now.minusHours(1), now.plusMinutes(1)))
+        .isNotEmpty();
   }
 
   @Test
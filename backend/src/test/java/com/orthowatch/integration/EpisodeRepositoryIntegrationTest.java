@@ -0,0 +1,145 @@
+package com.orthowatch.integration;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.orthowatch.repository.EpisodeRepository;
+import com.orthowatch.repository.EpisodeRepository.EpisodeSummary;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class EpisodeRepositoryIntegrationTest {
+
+  private static final UUID FIRST_KEY = new UUID(0L, 0L);
+  private static final LocalDate DISCHARGE = LocalDate.parse("2026-03-01");
+
+  @Container
+  static PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:16-alpine")
+          .withDatabaseName("orthowatch_test")
+          .withUsername("test_user")
+          .withPassword("test_pass");
+
+  @DynamicPropertySource
+  static void configureProperties(DynamicPropertyRegistry registry) {
+    registry.add("spring.datasource.url", postgres::getJdbcUrl);
+    registry.add("spring.datasource.username", postgres::getUsername);
+    registry.add("spring.datasource.password", postgres::getPassword);
+    registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+    registry.add("spring.flyway.enabled", () -> "true");
+  }
+
+  @Autowired private EpisodeRepository episodeRepository;
+  @Autowired private JdbcTemplate jdbcTemplate;
+
+  @BeforeEach
+  void clearEpisodes() {
+    jdbcTemplate.update("DELETE FROM episodes");
+  }
+
+  private UUID enroll(String status, String consentStatus, int currentDay) {
+    UUID patientId =
+        jdbcTemplate.queryForObject(
+            "INSERT INTO patients (full_name, age, phone_primary) VALUES ('Test Patient', 60,"
+                + " '+919800000001') RETURNING id",
+            UUID.class);
+    return jdbcTemplate.queryForObject(
+        """
+        INSERT INTO episodes (patient_id, template_id, primary_surgeon_id, surgery_date,
+                              discharge_date, current_day, pain_score_discharge,
+                              swelling_level_discharge, consent_status, status)
+        SELECT ?, t.id, u.id, ?, ?, ?, 5, 'MILD', ?, ?
+        FROM recovery_templates t, users u
+        WHERE t.surgery_type = 'TKR' AND u.email = 'admin@orthowatch.com'
+        RETURNING id
+        """,
+        UUID.class,
+        patientId,
+        DISCHARGE.minusDays(2),
+        DISCHARGE,
+        currentDay,
+        consentStatus,
+        status);
+  }
+
+  @Test
+  @DisplayName("Should page through episodes in a status by id without skipping or repeating any")
+  void shouldPageSummariesByStatus() {
+    // Given
+    List<UUID> active = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      active.add(enroll("ACTIVE", "GRANTED", i));
+    }
+    enroll("COMPLETED", "GRANTED", 30);
+    UUID adminId =
+        jdbcTemplate.queryForObject(
+            "SELECT id FROM users WHERE email = 'admin@orthowatch.com'", UUID.class);
+
+    // When
+    List<EpisodeSummary> seen = new ArrayList<>();
+    List<EpisodeSummary> page =
+        episodeRepository.findSummariesByStatusAfter("ACTIVE", FIRST_KEY, Limit.of(2));
+    int pages = 0;
+    while (!page.isEmpty()) {
+      pages++;
+      seen.addAll(page);
+      UUID last = page.get(page.size() - 1).getId();
+      page = episodeRepository.findSummariesByStatusAfter("ACTIVE", last, Limit.of(2));
+    }
+
+    // Then
+    assertThat(pages).isEqualTo(3);
+    assertThat(seen)
+        .extracting(EpisodeSummary::getId)
+        .containsExactlyElementsOf(
+            active.stream().sorted(Comparator.comparing(UUID::toString)).toList());
+    EpisodeSummary first = seen.get(0);
+    assertThat(first.getPrimarySurgeonId()).isEqualTo(adminId);
+    assertThat(first.getPatientId()).isNotNull();
+    assertThat(first.getSecondaryClinicianId()).isNull();
+    assertThat(first.getDischargeDate()).isEqualTo(DISCHARGE);
+    assertThat(first.getSurgeryDate()).isEqualTo(DISCHARGE.minusDays(2));
+    assertThat(first.getConsentStatus()).isEqualTo("GRANTED");
+  }
+
+  @Test
+  @DisplayName("Should stream every episode in a status in id order")
+  void shouldStreamSummariesByStatus() {
+    // Given
+    List<UUID> active = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      active.add(enroll("ACTIVE", "GRANTED", i));
+    }
+    enroll("COMPLETED", "GRANTED", 30);
+
+    // When
+    List<UUID> streamed;
+    try (Stream<EpisodeSummary> summaries = episodeRepository.streamSummariesByStatus("ACTIVE")) {
+      streamed = summaries.map(EpisodeSummary::getId).toList();
+    }
+
+    // Then
+    assertThat(streamed)
+        .containsExactlyElementsOf(
+            active.stream().sorted(Comparator.comparing(UUID::toString)).toList());
+  }
+}
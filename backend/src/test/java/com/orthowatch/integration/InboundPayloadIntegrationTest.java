@@ -0,0 +1,105 @@
+package com.orthowatch.integration;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.orthowatch.messaging.InboundMessageStore;
+import com.orthowatch.messaging.StagedPayload;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers(disabledWithoutDocker = true)
+class InboundPayloadIntegrationTest {
+
+  @Container
+  static PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:16-alpine")
+          .withDatabaseName("orthowatch_test")
+          .withUsername("test_user")
+          .withPassword("test_pass");
+
+  private static JdbcTemplate jdbcTemplate;
+  private static TransactionTemplate transactionTemplate;
+
+  @BeforeAll
+  static void migrate() {
+    Flyway.configure()
+        .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+        .load()
+        .migrate();
+    DriverManagerDataSource dataSource =
+        new DriverManagerDataSource(
+            postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+    jdbcTemplate = new JdbcTemplate(dataSource);
+    transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+  }
+
+  @BeforeEach
+  void clearPayloads() {
+    jdbcTemplate.update("DELETE FROM inbound_payloads");
+  }
+
+  private static byte[] bytes(String payload) {
+    return payload.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private int staged() {
+    return jdbcTemplate.queryForObject("SELECT count(*) FROM inbound_payloads", Integer.class);
+  }
+
+  @Test
+  @DisplayName("Should claim staged payloads oldest first and keep them if the batch rolls back")
+  void shouldClaimInOrderAndRestoreOnRollback() {
+    // Given
+    InboundMessageStore store = new InboundMessageStore(jdbcTemplate);
+    store.stagePayload(bytes("first"));
+    store.stagePayload(bytes("second"));
+    store.stagePayload(bytes("third"));
+
+    // When
+    assertThatThrownBy(
+            () ->
+                transactionTemplate.executeWithoutResult(
+                    status -> {
+                      assertThat(store.claimPayloads(2)).hasSize(2);
+                      throw new IllegalStateException("apply failed");
+                    }))
+        .isInstanceOf(IllegalStateException.class);
+    List<StagedPayload> claimed = transactionTemplate.execute(status -> store.claimPayloads(2));
+
+    // Then
+    assertThat(claimed)
+        .extracting(payload -> new String(payload.payload(), StandardCharsets.UTF_8))
+        .containsExactly("first", "second");
+    assertThat(staged()).isEqualTo(1);
+  }
+
+  @Test
+  @DisplayName("Should never claim a payload marked failed, but keep it")
+  void shouldSkipFailedPayloads() {
+    // Given
+    InboundMessageStore store = new InboundMessageStore(jdbcTemplate);
+    store.stagePayload(bytes("poison"));
+    long id = jdbcTemplate.queryForObject("SELECT max(id) FROM inbound_payloads", Long.class);
+
+    // When
+    store.markPayloadFailed(id);
+
+    // Then
+    List<StagedPayload> claimed = transactionTemplate.execute(status -> store.claimPayloads(10));
+    assertThat(claimed).isEmpty();
+    assertThat(store.claimPayload(id)).isNull();
+    assertThat(staged()).isEqualTo(1);
+  }
+}
@@ -0,0 +1,170 @@
+package com.orthowatch.integration;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.orthowatch.service.AlertSlaEnforcer;
+import com.orthowatch.service.DashboardEventBroker;
+import com.orthowatch.service.NonResponseSweeper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers(disabledWithoutDocker = true)
+class NonResponseSweepIntegrationTest {
+
+  @Container
+  static PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:16-alpine")
+          .withDatabaseName("orthowatch_test")
+          .withUsername("test_user")
+          .withPassword("test_pass");
+
+  private static final LocalDate DISCHARGE = LocalDate.parse("2026-03-01");
+
+  private static JdbcTemplate jdbcTemplate;
+
+  private final DashboardEventBroker eventBroker = mock(DashboardEventBroker.class);
+
+  @BeforeAll
+  static void migrate() {
+    Flyway.configure()
+        .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+        .load()
+        .migrate();
+    jdbcTemplate =
+        new JdbcTemplate(
+            new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+  }
+
+  @BeforeEach
+  void clearEpisodes() {
+    jdbcTemplate.update("DELETE FROM alerts");
+    jdbcTemplate.update("DELETE FROM daily_responses");
+    jdbcTemplate.update("DELETE FROM episodes");
+    jdbcTemplate.update("DELETE FROM patients");
+  }
+
+  private NonResponseSweeper sweeper() {
+    // Chunks of two, so a handful of episodes already spans several keyset pages
+    return new NonResponseSweeper(
+        jdbcTemplate,
+        eventBroker,
+        mock(AlertSlaEnforcer.class),
+        new SimpleMeterRegistry(),
+        2,
+        240,
+        24,
+        120,
+        120);
+  }
+
+  // Checklist day N is due at 09:00 UTC on discharge + N
+  private static Instant dueAt(int day) {
+    return DISCHARGE.plusDays(day).atTime(9, 0).toInstant(ZoneOffset.UTC);
+  }
+
+  private UUID enroll(int currentDay, String consentStatus) {
+    UUID patientId =
+        jdbcTemplate.queryForObject(
+            "INSERT INTO patients (full_name, age, phone_primary) VALUES ('Test Patient', 60,"
+                + " '+919800000001') RETURNING id",
+            UUID.class);
+    return jdbcTemplate.queryForObject(
+        """
+        INSERT INTO episodes (patient_id, template_id, primary_surgeon_id, surgery_date,
+                              discharge_date, current_day, pain_score_discharge,
+                              swelling_level_discharge, consent_status, checklist_time, timezone)
+        SELECT ?, t.id, u.id, ?, ?, ?, 5, 'MILD', ?, '09:00', 'UTC'
+        FROM recovery_templates t, users u
+        WHERE t.surgery_type = 'TKR' AND u.email = 'admin@orthowatch.com'
+        RETURNING id
+        """,
+        UUID.class,
+        patientId,
+        DISCHARGE.minusDays(2),
+        DISCHARGE,
+        currentDay,
+        consentStatus);
+  }
+
+  private void respond(UUID episodeId, int day, String completionStatus) {
+    jdbcTemplate.update(
+        "INSERT INTO daily_responses (episode_id, day_number, responder_type, completion_status)"
+            + " VALUES (?, ?, 'PATIENT', ?)",
+        episodeId,
+        day,
+        completionStatus);
+  }
+
+  private List<String> severities(UUID episodeId) {
+    return jdbcTemplate.queryForList(
+        "SELECT severity FROM alerts WHERE episode_id = ? AND alert_type = 'NON_RESPONSE'"
+            + " ORDER BY day_number",
+        String.class,
+        episodeId);
+  }
+
+  @Test
+  @DisplayName("Should alert once per unanswered checklist past the grace window")
+  void shouldAlertOncePerMissedChecklist() {
+    // Given
+    UUID missed = enroll(3, "GRANTED");
+    UUID pendingRow = enroll(3, "GRANTED");
+    respond(pendingRow, 3, "PENDING");
+    UUID answered = enroll(3, "GRANTED");
+    respond(answered, 3, "PARTIAL");
+    UUID noConsent = enroll(3, "PENDING");
+    Instant now = dueAt(3).plusSeconds(5 * 3600);
+
+    // When
+    int created = sweeper().sweep(now);
+    int rerun = sweeper().sweep(now.plusSeconds(600));
+
+    // Then
+    assertThat(created).isEqualTo(2);
+    assertThat(rerun).isZero();
+    assertThat(severities(missed)).containsExactly("LOW");
+    assertThat(severities(pendingRow)).containsExactly("LOW");
+    assertThat(severities(answered)).isEmpty();
+    verify(eventBroker)
+        .publishAfterCommit(any(), argThat(event -> missed.equals(event.getEpisodeId())));
+    verify(eventBroker)
+        .publishAfterCommit(any(), argThat(event -> pendingRow.equals(event.getEpisodeId())));
+    verifyNoMoreInteractions(eventBroker);
+    assertThat(severities(noConsent)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should wait out the grace window and escalate on consecutive misses")
+  void shouldEscalateConsecutiveMisses() {
+    // Given
+    UUID episodeId = enroll(2, "GRANTED");
+    assertThat(sweeper().sweep(dueAt(2).plusSeconds(3600))).isZero();
+    sweeper().sweep(dueAt(2).plusSeconds(5 * 3600));
+
+    // When
+    jdbcTemplate.update("UPDATE episodes SET current_day = 3 WHERE id = ?", episodeId);
+    sweeper().sweep(dueAt(3).plusSeconds(5 * 3600));
+    jdbcTemplate.update("UPDATE episodes SET current_day = 4 WHERE id = ?", episodeId);
+    sweeper().sweep(dueAt(4).plusSeconds(5 * 3600));
+
+    // Then
+    assertThat(severities(episodeId)).containsExactly("LOW", "MEDIUM", "HIGH");
+  }
+}
@@ -0,0 +1,221 @@
+package com.orthowatch.integration;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.orthowatch.messaging.FakeMessagingProvider;
+import com.orthowatch.messaging.MessagingProvider;
+import com.orthowatch.messaging.OutboundMessage;
+import com.orthowatch.messaging.OutboxDispatcher;
+import com.orthowatch.messaging.OutboxMessenger;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers(disabledWithoutDocker = true)
+class OutboxIntegrationTest {
+
+  @Container
+  static PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:16-alpine")
+          .withDatabaseName("orthowatch_test")
+          .withUsername("test_user")
+          .withPassword("test_pass");
+
+  private static JdbcTemplate jdbcTemplate;
+
+  @BeforeAll
+  static void migrate() {
+    Flyway.configure()
+        .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+        .load()
+        .migrate();
+    jdbcTemplate =
+        new JdbcTemplate(
+            new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+  }
+
+  @BeforeEach
+  void clearOutbox() {
+    jdbcTemplate.update("DELETE FROM outbound_messages");
+  }
+
+  private static ObjectProvider<MessagingProvider> providerOf(MessagingProvider provider) {
+    return new StaticListableBeanFactory(Map.of("messagingProvider", provider))
+        .getBeanProvider(MessagingProvider.class);
+  }
+
+  private OutboxDispatcher dispatcher(MessagingProvider provider) {
+    return new OutboxDispatcher(
+        jdbcTemplate,
+        providerOf(provider),
+        new SimpleMeterRegistry(),
+        false,
+        1,
+        50,
+        100,
+        60,
+        3,
+        0,
+        0,
+        0,
+        0);
+  }
+
+  private OutboundMessage checklist(String recipient, int day) {
+    // episode_id is nullable, so the outbox can be exercised without enrolling anyone
+    return new OutboundMessage(null, recipient, "DAILY_CHECKLIST", day, "en", null);
+  }
+
+  @Test
+  @DisplayName("Should deliver each queued message once and ignore re-enqueued duplicates")
+  void shouldDeliverQueuedMessagesOnce() throws Exception {
+    // Given
+    OutboxMessenger messenger = new OutboxMessenger(jdbcTemplate);
+    messenger.send(List.of(checklist("+919800000001", 3), checklist("+919800000002", 3)));
+    messenger.send(List.of(checklist("+919800000001", 3)));
+    FakeMessagingProvider provider = new FakeMessagingProvider(0, 0.0);
+
+    // When
+    int claimed = dispatcher(provider).processBatch();
+
+    // Then
+    assertThat(claimed).isEqualTo(2);
+    assertThat(provider.sentCount()).isEqualTo(2);
+    assertThat(jdbcTemplate.queryForList("SELECT status FROM outbound_messages", String.class))
+        .containsOnly("SENT");
+    assertThat(dispatcher(provider).processBatch()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should reschedule failed sends and give up after the maximum attempts")
+  void shouldRetryThenFail() throws Exception {
+    // Given
+    new OutboxMessenger(jdbcTemplate).send(List.of(checklist("+919800000003", 4)));
+    OutboxDispatcher dispatcher = dispatcher(new FakeMessagingProvider(0, 1.0));
+
+    // When: zero backoff, so every attempt is immediately due again
+    for (int attempt = 0; attempt < 3; attempt++) {
+      dispatcher.processBatch();
+    }
+
+    // Then
+    Map<String, Object> row =
+        jdbcTemplate.queryForMap("SELECT status, attempts, last_error FROM outbound_messages");
+    assertThat(row.get("status")).isEqualTo("FAILED");
+    assertThat(row.get("attempts")).isEqualTo(3);
+    assertThat(row.get("last_error")).isEqualTo("Simulated provider failure");
+  }
+
+  @Test
+  @DisplayName("Should settle messages already sent when interrupted mid-batch")
+  void shouldSettleSentMessagesWhenInterrupted() {
+    // Given: one send per second, so the second message waits on the global limit
+    new OutboxMessenger(jdbcTemplate)
+        .send(
+            List.of(
+                checklist("+919800000004", 5),
+                checklist("+919800000005", 5),
+                checklist("+919800000006", 5)));
+    FakeMessagingProvider fake = new FakeMessagingProvider(0, 0.0);
+    MessagingProvider provider =
+        message -> {
+          // Stands in for stop() interrupting the worker while it waits for the next permit
+          Thread.currentThread().interrupt();
+          return fake.send(message);
+        };
+    OutboxDispatcher dispatcher =
+        new OutboxDispatcher(
+            jdbcTemplate,
+            providerOf(provider),
+            new SimpleMeterRegistry(),
+            false,
+            1,
+            50,
+            100,
+            60,
+            3,
+            0,
+            0,
+            1,
+            0);
+
+    // When
+    assertThatThrownBy(dispatcher::processBatch).isInstanceOf(InterruptedException.class);
+    Thread.interrupted();
+
+    // Then
+    assertThat(fake.sentCount()).isEqualTo(1);
+    assertThat(
+            jdbcTemplate.queryForList(
+                "SELECT status FROM outbound_messages WHERE recipient = ?",
+                String.class,
+                fake.sentMessages().get(0).recipient()))
+        .containsExactly("SENT");
+    assertThat(
+            jdbcTemplate.queryForList(
+                "SELECT status FROM outbound_messages WHERE next_attempt_at <= now()"
+                    + " AND attempts = 0",
+                String.class))
+        .containsExactly("PENDING", "PENDING");
+  }
+
+  @Test
+  @DisplayName("Should not settle a message whose lease was taken over by another worker")
+  void shouldNotSettleAfterLosingLease() throws Exception {
+    // Given
+    new OutboxMessenger(jdbcTemplate).send(List.of(checklist("+919800000007", 6)));
+    FakeMessagingProvider fake = new FakeMessagingProvider(0, 0.0);
+    MessagingProvider provider =
+        message -> {
+          // Stands in for the lease running out and another worker claiming the row mid-send
+          jdbcTemplate.update("UPDATE outbound_messages SET claimed_by = gen_random_uuid()");
+          return fake.send(message);
+        };
+
+    // When
+    dispatcher(provider).processBatch();
+
+    // Then
+    Map<String, Object> row =
+        jdbcTemplate.queryForMap("SELECT status, attempts, sent_at FROM outbound_messages");
+    assertThat(row.get("status")).isEqualTo("SENDING");
+    assertThat(row.get("attempts")).isEqualTo(0);
+    assertThat(row.get("sent_at")).isNull();
+  }
+
+  @Test
+  @DisplayName("Should refuse to start without a messaging provider")
+  void shouldRequireMessagingProvider() {
+    assertThatThrownBy(
+            () ->
+                new OutboxDispatcher(
+                    jdbcTemplate,
+                    new StaticListableBeanFactory().getBeanProvider(MessagingProvider.class),
+                    new SimpleMeterRegistry(),
+                    false,
+                    1,
+                    50,
+                    100,
+                    60,
+                    3,
+                    0,
+                    0,
+                    0,
+                    0))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("No MessagingProvider");
+  }
+}
@@ -0,0 +1,162 @@
+package com.orthowatch.integration;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.quartz.Job;
+import org.quartz.JobBuilder;
+import org.quartz.JobExecutionContext;
+import org.quartz.Scheduler;
+import org.quartz.SchedulerException;
+import org.quartz.SimpleScheduleBuilder;
+import org.quartz.TriggerBuilder;
+import org.quartz.impl.SchedulerRepository;
+import org.quartz.impl.StdSchedulerFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+/**
+ * Load test for the clustered JDBC job store: several scheduler instances share one database, the
+ * same way multiple backend replicas do, and a burst of one-shot consent-timeout style triggers
+ * must each fire exactly once while the work is spread across instances.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class QuartzClusterIntegrationTest {
+
+  private static final int NODES = 3;
+  private static final int TRIGGERS = 300;
+
+  @Container
+  static PostgreSQLContainer<?> postgres =
+      new PostgreSQLContainer<>("postgres:16-alpine")
+          .withDatabaseName("orthowatch_test")
+          .withUsername("test_user")
+          .withPassword("test_pass");
+
+  static final Map<String, AtomicInteger> executions = new ConcurrentHashMap<>();
+  static final Set<String> participatingNodes = ConcurrentHashMap.newKeySet();
+
+  private final List<Scheduler> schedulers = new ArrayList<>();
+
+  @BeforeAll
+  static void migrate() {
+    // Same migrations as the application, including the QRTZ_ tables from V7
+    Flyway.configure()
+        .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+        .load()
+        .migrate();
+  }
+
+  @AfterEach
+  void shutdown() throws SchedulerException {
+    for (Scheduler scheduler : schedulers) {
+      scheduler.shutdown(true);
+    }
+  }
+
+  @Test
+  @DisplayName("Should fire each trigger exactly once across clustered instances")
+  void shouldShareTriggersWithoutDoubleExecution() throws Exception {
+    // Given
+    for (int i = 1; i <= NODES; i++) {
+      schedulers.add(newClusteredScheduler(i));
+    }
+    Date fireAt = Date.from(Instant.now().plusSeconds(2));
+    Scheduler first = schedulers.get(0);
+    for (int i = 0; i < TRIGGERS; i++) {
+      first.scheduleJob(
+          JobBuilder.newJob(RecordingJob.class)
+              .withIdentity("consent-timeout-" + i, "enrollment")
+              .build(),
+          TriggerBuilder.newTrigger()
+              .withIdentity("consent-timeout-trigger-" + i, "enrollment")
+              .startAt(fireAt)
+              .withSchedule(
+                  SimpleScheduleBuilder.simpleSchedule().withMisfireHandlingInstructionFireNow())
+              .build());
+    }
+
+    // When
+    for (Scheduler scheduler : schedulers) {
+      scheduler.start();
+    }
+    Instant deadline = Instant.now().plus(Duration.ofSeconds(60));
+    while (totalExecutions() < TRIGGERS && Instant.now().isBefore(deadline)) {
+      Thread.sleep(100);
+    }
+    // Give any duplicate firing a chance to show up
+    Thread.sleep(3000);
+
+    // Then
+    assertThat(executions).hasSize(TRIGGERS);
+    assertThat(executions.values()).allSatisfy(count -> assertThat(count.get()).isEqualTo(1));
+    assertThat(participatingNodes).hasSizeGreaterThan(1);
+  }
+
+  private static int totalExecutions() {
+    return executions.values().stream().mapToInt(AtomicInteger::get).sum();
+  }
+
+  private static Scheduler newClusteredScheduler(int node) throws SchedulerException {
+    Properties props = new Properties();
+    props.setProperty("org.quartz.scheduler.instanceName", "orthowatch-cluster-test");
+    props.setProperty("org.quartz.scheduler.instanceId", "node-" + node);
+    props.setProperty("org.quartz.scheduler.batchTriggerAcquisitionMaxCount", "10");
+    props.setProperty("org.quartz.scheduler.batchTriggerAcquisitionFireAheadTimeWindow", "1000");
+    props.setProperty("org.quartz.threadPool.threadCount", "4");
+    props.setProperty("org.quartz.jobStore.class", "org.quartz.impl.jdbcjobstore.JobStoreTX");
+    props.setProperty(
+        "org.quartz.jobStore.driverDelegateClass",
+        "org.quartz.impl.jdbcjobstore.PostgreSQLDelegate");
+    props.setProperty("org.quartz.jobStore.useProperties", "true");
+    props.setProperty("org.quartz.jobStore.isClustered", "true");
+    props.setProperty("org.quartz.jobStore.clusterCheckinInterval", "1000");
+    props.setProperty("org.quartz.jobStore.acquireTriggersWithinLock", "true");
+    props.setProperty("org.quartz.jobStore.dataSource", "ds" + node);
+    props.setProperty("org.quartz.dataSource.ds" + node + ".provider", "hikaricp");
+    props.setProperty("org.quartz.dataSource.ds" + node + ".driver", "org.postgresql.Driver");
+    props.setProperty("org.quartz.dataSource.ds" + node + ".URL", postgres.getJdbcUrl());
+    props.setProperty("org.quartz.dataSource.ds" + node + ".user", postgres.getUsername());
+    props.setProperty("org.quartz.dataSource.ds" + node + ".password", postgres.getPassword());
+    props.setProperty("org.quartz.dataSource.ds" + node + ".maxConnections", "6");
+
+    Scheduler scheduler = new StdSchedulerFactory(props).getScheduler();
+    // Schedulers are registered per JVM by name; unregister so the next instance of the same
+    // cluster is created rather than looked up. The instance itself keeps running.
+    SchedulerRepository.getInstance().remove(scheduler.getSchedulerName());
+    return scheduler;
+  }
+
+  /** Stands in for ConsentTimeoutJob and records which instance fired which trigger. */
+  public static class RecordingJob implements Job {
+    @Override
+    public void execute(JobExecutionContext context) {
+      executions
+          .computeIfAbsent(context.getTrigger().getKey().getName(), k -> new AtomicInteger())
+          .incrementAndGet();
+      try {
+        participatingNodes.add(context.getScheduler().getSchedulerInstanceId());
+        Thread.sleep(20);
+      } catch (SchedulerException e) {
+        throw new IllegalStateException(e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+}
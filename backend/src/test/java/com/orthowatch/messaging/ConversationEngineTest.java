@@ -0,0 +1,188 @@
+package com.orthowatch.messaging;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.orthowatch.model.RecoveryTemplate;
+import com.orthowatch.service.RecoveryTemplateCache;
+import com.orthowatch.template.CompiledTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+@ExtendWith(MockitoExtension.class)
+class ConversationEngineTest {
+
+  @Mock private RecoveryTemplateCache templateCache;
+  @Mock private InboundMessageStore store;
+
+  private ConversationSessions sessions;
+  private ConversationEngine engine;
+  private final UUID episodeId = UUID.randomUUID();
+  private final UUID templateId = UUID.randomUUID();
+  private final Instant start = Instant.parse("2026-03-10T04:00:00Z");
+
+  @BeforeEach
+  void setUp() {
+    sessions = new ConversationSessions(null, false, 120, false);
+    engine =
+        new ConversationEngine(
+            sessions, templateCache, store, new SimpleMeterRegistry(), 120, 1000);
+    RecoveryTemplate template =
+        RecoveryTemplate.builder()
+            .id(templateId)
+            .surgeryType("TKR")
+            .checklistConfig(
+                Map.of(
+                    "days",
+                    Map.of(
+                        "3",
+                        Map.of(
+                            "questions", List.of("pain_score", "swelling_level", "fever_check")))))
+            .milestoneConfig(Map.of())
+            .build();
+    lenient().when(templateCache.get(templateId)).thenReturn(CompiledTemplate.compile(template));
+  }
+
+  private ConversationTurn turn(String field, String value, long secondsAfterStart) {
+    return new ConversationTurn(
+        new EpisodeRoute(episodeId, 3, "PATIENT", "GRANTED", templateId),
+        new ChecklistAnswer(field, value),
+        start.plusSeconds(secondsAfterStart));
+  }
+
+  @SuppressWarnings("unchecked")
+  private DailyResponseDraft writtenDraft() {
+    ArgumentCaptor<Collection<DailyResponseDraft>> drafts =
+        ArgumentCaptor.forClass(Collection.class);
+    verify(store).upsertResponses(drafts.capture());
+    assertThat(drafts.getValue()).hasSize(1);
+    return drafts.getValue().iterator().next();
+  }
+
+  @Test
+  @DisplayName(
+      "Should hold answers in the session and write once when the day's questions are done")
+  void shouldWriteOnceOnCompletion() {
+    // Given
+    engine.record(List.of(turn("pain_score", "4", 0)));
+    engine.record(List.of(turn("swelling_level", "MILD", 30)));
+    verify(store, never()).upsertResponses(any());
+
+    // When
+    engine.record(List.of(turn("fever_level", "NO_FEVER", 60)));
+
+    // Then
+    DailyResponseDraft draft = writtenDraft();
+    assertThat(draft.painScore()).isEqualTo(4);
+    assertThat(draft.swellingLevel()).isEqualTo("MILD");
+    assertThat(draft.feverLevel()).isEqualTo("NO_FEVER");
+    assertThat(draft.firstAnswerAt()).isEqualTo(start);
+    assertThat(draft.completedAt()).isEqualTo(start.plusSeconds(60));
+    assertThat(sessions.localSize()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should write an emergency at once even though the checklist is unfinished")
+  void shouldWriteEmergencyImmediately() {
+    // When
+    engine.record(List.of(turn("pain_score", "9", 0), turn("emergency_override", "true", 5)));
+
+    // Then
+    DailyResponseDraft draft = writtenDraft();
+    assertThat(draft.emergencyOverride()).isTrue();
+    assertThat(draft.isComplete()).isFalse();
+    assertThat(sessions.localSize()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should write an idle conversation as partial once it times out")
+  void shouldFlushIdleConversationOnTimeout() {
+    // Given
+    engine.record(List.of(turn("pain_score", "5", 0)));
+
+    // When
+    int beforeTimeout = engine.flushExpired(Instant.now());
+    int afterTimeout = engine.flushExpired(Instant.now().plus(Duration.ofMinutes(121)));
+
+    // Then
+    assertThat(beforeTimeout).isZero();
+    assertThat(afterTimeout).isEqualTo(1);
+    DailyResponseDraft draft = writtenDraft();
+    assertThat(draft.painScore()).isEqualTo(5);
+    assertThat(draft.isComplete()).isFalse();
+    assertThat(sessions.localSize()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should refuse in-memory sessions when Quartz is clustered")
+  void shouldRejectLocalSessionsWithClusteredQuartz() {
+    assertThatThrownBy(() -> new ConversationSessions(null, false, 120, true))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("app.conversation.redis-enabled");
+  }
+
+  @Test
+  @DisplayName("Should put back a timed-out conversation it cannot read and still write the rest")
+  void shouldPutBackUnreadableConversations() {
+    // Given: the second conversation's template can no longer be loaded when it times out
+    UUID otherEpisode = UUID.randomUUID();
+    UUID missingTemplate = UUID.randomUUID();
+    CompiledTemplate compiled = templateCache.get(templateId);
+    when(templateCache.get(missingTemplate))
+        .thenReturn(compiled)
+        .thenThrow(new IllegalStateException("Template not found"));
+    engine.record(List.of(turn("pain_score", "5", 0)));
+    engine.record(
+        List.of(
+            new ConversationTurn(
+                new EpisodeRoute(otherEpisode, 3, "PATIENT", "GRANTED", missingTemplate),
+                new ChecklistAnswer("pain_score", "7"),
+                start)));
+    Instant timedOut = Instant.now().plus(Duration.ofMinutes(121));
+
+    // When
+    int flushed = engine.flushExpired(timedOut);
+
+    // Then
+    assertThat(flushed).isEqualTo(1);
+    assertThat(writtenDraft().episodeId()).isEqualTo(episodeId);
+    assertThat(sessions.localSize()).isEqualTo(1);
+    assertThat(sessions.claimExpired(timedOut.plusSeconds(1), 10))
+        .containsOnlyKeys(ConversationEngine.key(otherEpisode, 3));
+  }
+
+  @Test
+  @DisplayName("Should put back timed-out conversations when the write fails")
+  void shouldPutBackConversationsWhenWriteFails() {
+    // Given
+    engine.record(List.of(turn("pain_score", "5", 0)));
+    doThrow(new QueryTimeoutException("timeout"))
+        .doNothing()
+        .when(store)
+        .upsertResponses(anyCollection());
+    Instant timedOut = Instant.now().plus(Duration.ofMinutes(121));
+
+    // When
+    assertThatThrownBy(() -> engine.flushExpired(timedOut))
+        .isInstanceOf(QueryTimeoutException.class);
+    int retried = engine.flushExpired(timedOut.plusSeconds(60));
+
+    // Then
+    assertThat(retried).isEqualTo(1);
+    assertThat(sessions.localSize()).isZero();
+  }
+}
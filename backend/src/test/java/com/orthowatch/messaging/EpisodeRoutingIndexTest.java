@@ -0,0 +1,144 @@
+package com.orthowatch.messaging;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.connection.RedisStringCommands.SetOption;
+import org.springframework.data.redis.connection.StringRedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.types.Expiration;
+
+@ExtendWith(MockitoExtension.class)
+class EpisodeRoutingIndexTest {
+
+  private static final String PATIENT = "+919876543210";
+  private static final String CAREGIVER = "+919812345678";
+
+  @Mock private InboundMessageStore store;
+  @Mock private StringRedisTemplate redisTemplate;
+
+  private EpisodeRoutingIndex routingIndex;
+  private final UUID episodeId = UUID.randomUUID();
+  private final UUID templateId = UUID.randomUUID();
+
+  @BeforeEach
+  void setUp() {
+    routingIndex =
+        new EpisodeRoutingIndex(
+            store, redisTemplate, new SimpleMeterRegistry(), 100, 3600, 60, false, false);
+  }
+
+  @Test
+  @DisplayName("Should load unknown numbers in one query and answer repeats from memory")
+  void shouldCacheRoutesAndMisses() {
+    // Given
+    EpisodeRoute route = new EpisodeRoute(episodeId, 4, "CAREGIVER", "GRANTED", templateId);
+    when(store.routeBySender(List.of(CAREGIVER, "+919800000009")))
+        .thenReturn(Map.of(CAREGIVER, route));
+
+    // When
+    Map<String, EpisodeRoute> first = routingIndex.resolve(List.of(CAREGIVER, "+919800000009"));
+    Map<String, EpisodeRoute> second = routingIndex.resolve(List.of(CAREGIVER, "+919800000009"));
+
+    // Then
+    assertThat(first).containsOnly(entry(CAREGIVER, route));
+    assertThat(second).isEqualTo(first);
+    verify(store, times(1)).routeBySender(anyList());
+    verifyNoInteractions(redisTemplate);
+  }
+
+  @Test
+  @DisplayName("Should normalize provider and formatted numbers to E.164 before lookup")
+  void shouldNormalizeNumbers() {
+    // Given
+    EpisodeRoute route = new EpisodeRoute(episodeId, 2, "PATIENT", "GRANTED", templateId);
+    when(store.routeBySender(List.of(PATIENT))).thenReturn(Map.of(PATIENT, route));
+
+    // When
+    Map<String, EpisodeRoute> routes =
+        routingIndex.resolve(List.of("919876543210", "+91 98765-43210", "0091 9876543210"));
+
+    // Then
+    assertThat(routes).containsOnly(entry(PATIENT, route));
+  }
+
+  @Test
+  @DisplayName("Should replace a cached route when the episode is refreshed")
+  void shouldReloadOnRefresh() {
+    // Given
+    when(store.routeBySender(List.of(PATIENT)))
+        .thenReturn(
+            Map.of(PATIENT, new EpisodeRoute(episodeId, 0, "PATIENT", "PENDING", templateId)))
+        .thenReturn(
+            Map.of(PATIENT, new EpisodeRoute(episodeId, 0, "PATIENT", "GRANTED", templateId)));
+    when(store.phonesOfEpisodes(Set.of(episodeId))).thenReturn(Set.of(PATIENT));
+    routingIndex.resolve(List.of(PATIENT));
+
+    // When
+    routingIndex.refreshEpisodesAfterCommit(Set.of(episodeId));
+
+    // Then
+    assertThat(routingIndex.resolve(List.of(PATIENT)).get(PATIENT).consentStatus())
+        .isEqualTo("GRANTED");
+    verify(store, times(2)).routeBySender(anyList());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  @DisplayName("Should add lookup misses to Redis only where absent but overwrite on refresh")
+  void shouldNotOverwriteSharedRoutesOnReadThrough() {
+    // Given
+    EpisodeRoutingIndex shared =
+        new EpisodeRoutingIndex(
+            store, redisTemplate, new SimpleMeterRegistry(), 100, 3600, 60, true, false);
+    ValueOperations<String, String> values = mock(ValueOperations.class);
+    when(redisTemplate.opsForValue()).thenReturn(values);
+    when(values.multiGet(anyList())).thenReturn(Arrays.asList((String) null));
+    StringRedisConnection connection = mock(StringRedisConnection.class);
+    when(redisTemplate.executePipelined(any(RedisCallback.class)))
+        .thenAnswer(
+            invocation -> {
+              invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection);
+              return List.of();
+            });
+    EpisodeRoute route = new EpisodeRoute(episodeId, 3, "PATIENT", "GRANTED", templateId);
+    when(store.routeBySender(List.of(PATIENT))).thenReturn(Map.of(PATIENT, route));
+
+    // When
+    shared.resolve(List.of(PATIENT));
+    shared.refresh(List.of(PATIENT));
+
+    // Then
+    String key = EpisodeRoutingIndex.REDIS_KEY_PREFIX + PATIENT;
+    String value = EpisodeRoutingIndex.encode(route);
+    verify(connection).set(eq(key), eq(value), any(Expiration.class), eq(SetOption.ifAbsent()));
+    verify(connection).set(eq(key), eq(value), any(Expiration.class), eq(SetOption.upsert()));
+    verify(connection).publish(EpisodeRoutingIndex.EVICTION_CHANNEL, PATIENT);
+  }
+
+  @Test
+  @DisplayName("Should refuse a local-only index when Quartz is clustered")
+  void shouldRejectLocalIndexWithClusteredQuartz() {
+    assertThatThrownBy(
+            () ->
+                new EpisodeRoutingIndex(
+                    store, redisTemplate, new SimpleMeterRegistry(), 100, 3600, 60, false, true))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("app.routing.redis-enabled");
+  }
+}
@@ -0,0 +1,63 @@
+package com.orthowatch.messaging;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SendRateLimiterTest {
+
+  private final AtomicLong clock = new AtomicLong(1_000_000_000L);
+
+  @Test
+  @DisplayName("Should space global sends evenly at the configured rate")
+  void shouldSpaceGlobalSends() {
+    // Given
+    SendRateLimiter limiter = new SendRateLimiter(10, Duration.ofSeconds(1), clock::get);
+
+    // Then: 10 per second is one slot every 100 ms
+    assertThat(limiter.reserveGlobal()).isZero();
+    assertThat(limiter.reserveGlobal()).isEqualTo(Duration.ofMillis(100));
+    assertThat(limiter.reserveGlobal()).isEqualTo(Duration.ofMillis(200));
+
+    clock.addAndGet(Duration.ofSeconds(1).toNanos());
+    assertThat(limiter.reserveGlobal()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should hold back a second message to the same number until its interval passes")
+  void shouldLimitPerRecipient() {
+    // Given
+    SendRateLimiter limiter = new SendRateLimiter(0, Duration.ofSeconds(1), clock::get);
+
+    // When
+    Duration first = limiter.tryAcquireRecipient("+919876543210");
+    clock.addAndGet(Duration.ofMillis(400).toNanos());
+    Duration tooSoon = limiter.tryAcquireRecipient("+919876543210");
+    Duration otherNumber = limiter.tryAcquireRecipient("+919800000001");
+    clock.addAndGet(Duration.ofMillis(600).toNanos());
+    Duration afterInterval = limiter.tryAcquireRecipient("+919876543210");
+
+    // Then
+    assertThat(first).isZero();
+    assertThat(tooSoon).isEqualTo(Duration.ofMillis(600));
+    assertThat(otherNumber).isZero();
+    assertThat(afterInterval).isZero();
+  }
+
+  @Test
+  @DisplayName("Should keep retry backoff within the exponential ceiling and the maximum")
+  void shouldBoundBackoff() {
+    Duration base = Duration.ofSeconds(2);
+    Duration max = Duration.ofMinutes(10);
+
+    for (int i = 0; i < 100; i++) {
+      assertThat(OutboxDispatcher.backoff(1, base, max)).isBetween(Duration.ZERO, base);
+      assertThat(OutboxDispatcher.backoff(3, base, max))
+          .isBetween(Duration.ZERO, Duration.ofSeconds(8));
+      assertThat(OutboxDispatcher.backoff(40, base, max)).isBetween(Duration.ZERO, max);
+    }
+  }
+}
@@ -0,0 +1,229 @@
+package com.orthowatch.messaging;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orthowatch.dto.DashboardEvent;
+import com.orthowatch.service.DashboardEventBroker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class WebhookIngestorTest {
+
+  private static final String PATIENT = "919876543210";
+
+  @Mock private InboundMessageStore store;
+  @Mock private EpisodeRoutingIndex routingIndex;
+  @Mock private ConversationEngine conversationEngine;
+  @Mock private DashboardEventBroker eventBroker;
+  @Mock private PlatformTransactionManager transactionManager;
+
+  private WebhookIngestor ingestor;
+  private final List<StagedPayload> staged = new ArrayList<>();
+  private final UUID episodeId = UUID.randomUUID();
+  private final UUID templateId = UUID.randomUUID();
+
+  @BeforeEach
+  void setUp() {
+    lenient()
+        .doAnswer(
+            invocation ->
+                staged.add(new StagedPayload(staged.size() + 1, invocation.getArgument(0))))
+        .when(store)
+        .stagePayload(any());
+    lenient()
+        .when(store.claimPayloads(anyInt()))
+        .thenAnswer(
+            invocation -> {
+              List<StagedPayload> claimed = new ArrayList<>(staged);
+              staged.clear();
+              return claimed;
+            });
+    ingestor =
+        new WebhookIngestor(
+            new WhatsAppWebhookParser(new ObjectMapper()),
+            store,
+            routingIndex,
+            conversationEngine,
+            eventBroker,
+            transactionManager,
+            new SimpleMeterRegistry(),
+            3,
+            500,
+            0,
+            1);
+  }
+
+  static byte[] payload(String id, String from, String reply, long timestamp) throws IOException {
+    try (InputStream template =
+        WebhookIngestorTest.class.getResourceAsStream("/webhook/checklist-reply.json")) {
+      return new String(template.readAllBytes(), StandardCharsets.UTF_8)
+          .replace("${id}", id)
+          .replace("${from}", from)
+          .replace("${reply}", reply)
+          .replace("${timestamp}", Long.toString(timestamp))
+          .getBytes(StandardCharsets.UTF_8);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private List<ConversationTurn> recordedTurns() {
+    ArgumentCaptor<List<ConversationTurn>> turns = ArgumentCaptor.forClass(List.class);
+    verify(conversationEngine).record(turns.capture());
+    return turns.getValue();
+  }
+
+  @Test
+  @DisplayName("Should pass fresh answers to the conversation in order and skip redeliveries")
+  void shouldPassAnswersToConversationAndSkipDuplicates() throws Exception {
+    // Given
+    when(routingIndex.resolve(anyCollection()))
+        .thenReturn(
+            Map.of(
+                "+" + PATIENT, new EpisodeRoute(episodeId, 3, "PATIENT", "GRANTED", templateId)));
+    when(store.recordNew(anyList(), anyMap(), anyMap())).thenReturn(Set.of("wamid.1", "wamid.2"));
+    ingestor.accept(payload("wamid.1", PATIENT, "pain_score:6", 1_760_000_000L));
+    ingestor.accept(payload("wamid.2", PATIENT, "swelling_level:MILD", 1_760_000_005L));
+    ingestor.accept(payload("wamid.0", PATIENT, "fever_level:ABOVE_102", 1_759_999_000L));
+
+    // When
+    ingestor.drainOnce(0);
+
+    // Then
+    // wamid.0 was already recorded by an earlier delivery
+    assertThat(recordedTurns())
+        .extracting(ConversationTurn::answer)
+        .containsExactly(
+            new ChecklistAnswer("pain_score", "6"), new ChecklistAnswer("swelling_level", "MILD"));
+    assertThat(recordedTurns()).allMatch(turn -> turn.route().episodeId().equals(episodeId));
+    verify(store, never()).upsertResponses(any());
+  }
+
+  @Test
+  @DisplayName("Should record unrouted and free-text messages without applying them")
+  @SuppressWarnings("unchecked")
+  void shouldRecordButNotApplyUnusableMessages() throws Exception {
+    // Given
+    when(routingIndex.resolve(anyCollection()))
+        .thenReturn(
+            Map.of(
+                "+" + PATIENT, new EpisodeRoute(episodeId, 3, "PATIENT", "GRANTED", templateId)));
+    when(store.recordNew(anyList(), anyMap(), anyMap())).thenReturn(Set.of("wamid.3", "wamid.4"));
+    ingestor.accept(payload("wamid.3", "919800000009", "pain_score:2", 1_760_000_000L));
+    ingestor.accept(payload("wamid.4", PATIENT, "feeling a bit better today", 1_760_000_001L));
+
+    // When
+    ingestor.drainOnce(0);
+
+    // Then
+    ArgumentCaptor<Map<String, String>> outcomes = ArgumentCaptor.forClass(Map.class);
+    verify(store).recordNew(anyList(), anyMap(), outcomes.capture());
+    assertThat(outcomes.getValue())
+        .containsEntry("wamid.3", "UNROUTED")
+        .containsEntry("wamid.4", "UNPARSED");
+    assertThat(recordedTurns()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should apply a consent reply to the sender's episode")
+  void shouldApplyConsent() throws Exception {
+    // Given
+    when(routingIndex.resolve(anyCollection()))
+        .thenReturn(
+            Map.of(
+                "+" + PATIENT, new EpisodeRoute(episodeId, 0, "PATIENT", "PENDING", templateId)));
+    when(store.recordNew(anyList(), anyMap(), anyMap())).thenReturn(Set.of("wamid.5"));
+    ingestor.accept(payload("wamid.5", PATIENT, "consent:granted", 1_760_000_000L));
+
+    // When
+    ingestor.drainOnce(0);
+
+    // Then
+    verify(store).applyConsent(eq(Map.of(episodeId, "GRANTED")), any());
+    verify(routingIndex).refreshEpisodesAfterCommit(Set.of(episodeId));
+    verify(eventBroker)
+        .publishToCareTeamAfterCommit(
+            argThat(
+                event ->
+                    DashboardEvent.CONSENT.equals(event.getType())
+                        && episodeId.equals(event.getEpisodeId())
+                        && "GRANTED".equals(event.getConsentStatus())));
+  }
+
+  @Test
+  @DisplayName("Should refuse payloads once the backlog is full, and take them again once applied")
+  void shouldRejectWhenBacklogIsFull() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      assertThat(ingestor.accept(payload("wamid." + i, PATIENT, "pain_score:1", 1L))).isTrue();
+    }
+
+    assertThat(ingestor.accept(payload("wamid.9", PATIENT, "pain_score:1", 1L))).isFalse();
+    verify(store, times(3)).stagePayload(any());
+
+    when(store.recordNew(anyList(), anyMap(), anyMap())).thenReturn(Set.of());
+    ingestor.drainOnce(0);
+    assertThat(ingestor.accept(payload("wamid.9", PATIENT, "pain_score:1", 1L))).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should not acknowledge a payload that could not be staged")
+  void shouldRejectWhenStagingFails() throws Exception {
+    // Given
+    doThrow(new DataAccessResourceFailureException("connection refused"))
+        .when(store)
+        .stagePayload(any());
+
+    // When / Then
+    assertThat(ingestor.accept(payload("wamid.1", PATIENT, "pain_score:1", 1L))).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should keep a payload that fails on its own staged as failed, and apply the rest")
+  void shouldMarkFailingPayload() throws Exception {
+    // Given
+    when(routingIndex.resolve(anyCollection()))
+        .thenReturn(
+            Map.of(
+                "+" + PATIENT, new EpisodeRoute(episodeId, 3, "PATIENT", "GRANTED", templateId)));
+    ingestor.accept(payload("wamid.1", PATIENT, "pain_score:6", 1_760_000_000L));
+    ingestor.accept(payload("wamid.2", PATIENT, "swelling_level:MILD", 1_760_000_005L));
+    StagedPayload first = staged.get(0);
+    StagedPayload second = staged.get(1);
+    when(store.recordNew(anyList(), anyMap(), anyMap()))
+        .thenThrow(new DataIntegrityViolationException("batch"))
+        .thenThrow(new DataIntegrityViolationException("wamid.1"))
+        .thenReturn(Set.of("wamid.2"));
+    when(store.claimPayload(first.id())).thenReturn(first);
+    when(store.claimPayload(second.id())).thenReturn(second);
+
+    // When
+    ingestor.drainOnce(0);
+
+    // Then
+    verify(store).markPayloadFailed(first.id());
+    verify(store, never()).markPayloadFailed(second.id());
+    assertThat(recordedTurns())
+        .extracting(ConversationTurn::answer)
+        .containsExactly(new ChecklistAnswer("swelling_level", "MILD"));
+  }
+}
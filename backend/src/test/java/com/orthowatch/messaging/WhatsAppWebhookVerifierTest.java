@@ -0,0 +1,56 @@
+package com.orthowatch.messaging;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class WhatsAppWebhookVerifierTest {
+
+  private static final String APP_SECRET = "test-app-secret";
+  private static final byte[] BODY = "{\"object\":\"whatsapp_business_account\"}".getBytes();
+
+  private static String sign(byte[] body) throws Exception {
+    Mac mac = Mac.getInstance("HmacSHA256");
+    mac.init(new SecretKeySpec(APP_SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+    return "sha256=" + HexFormat.of().formatHex(mac.doFinal(body));
+  }
+
+  @Test
+  @DisplayName("Should accept only deliveries signed with the app secret")
+  void shouldCheckSignatures() throws Exception {
+    // Given
+    WhatsAppWebhookVerifier verifier = new WhatsAppWebhookVerifier(APP_SECRET, "token", false);
+
+    // Then
+    assertThat(verifier.isSignatureValid(BODY, sign(BODY))).isTrue();
+    assertThat(verifier.isSignatureValid("{}".getBytes(), sign(BODY))).isFalse();
+    assertThat(verifier.isSignatureValid(BODY, null)).isFalse();
+    assertThat(verifier.isSignatureValid(BODY, "sha256=not-hex")).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should reject every delivery when no app secret is configured")
+  void shouldFailClosedWithoutSecret() throws Exception {
+    // Given
+    WhatsAppWebhookVerifier verifier = new WhatsAppWebhookVerifier("", "token", false);
+
+    // Then
+    assertThat(verifier.isSignatureValid(BODY, null)).isFalse();
+    assertThat(verifier.isSignatureValid(BODY, sign(BODY))).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should accept unsigned deliveries without a secret only when explicitly allowed")
+  void shouldAcceptUnsignedWhenAllowed() {
+    // Given
+    WhatsAppWebhookVerifier verifier = new WhatsAppWebhookVerifier("", "token", true);
+
+    // Then
+    assertThat(verifier.isSignatureValid(BODY, null)).isTrue();
+  }
+}
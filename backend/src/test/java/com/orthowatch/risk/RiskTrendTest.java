@@ -0,0 +1,52 @@
+package com.orthowatch.risk;
+
+import static org.assertj.core.api.Assertions.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RiskTrendTest {
+
+  private static final int WINDOW = 3;
+  private static final double ALPHA = 0.5;
+
+  private RiskTrend trendOf(int... scores) {
+    RiskTrend trend = RiskTrend.empty();
+    for (int i = 0; i < scores.length; i++) {
+      trend = trend.add(i + 1, scores[i], WINDOW, ALPHA);
+    }
+    return trend;
+  }
+
+  @Test
+  @DisplayName("Should classify rising, falling and flat scores by slope")
+  void shouldClassifyTrajectory() {
+    assertThat(trendOf(40).trajectory(2)).isNull();
+    assertThat(trendOf(20, 30, 40).trajectory(2)).isEqualTo(RiskTrend.WORSENING);
+    assertThat(trendOf(60, 45, 30).trajectory(2)).isEqualTo(RiskTrend.IMPROVING);
+    assertThat(trendOf(30, 31, 30).trajectory(2)).isEqualTo(RiskTrend.STABLE);
+  }
+
+  @Test
+  @DisplayName("Should keep only the last window of scores and an exact moving average")
+  void shouldKeepWindowAndEwma() {
+    RiskTrend trend = trendOf(80, 10, 20, 30);
+
+    assertThat(trend.recentScores()).containsExactly(10, 20, 30);
+    assertThat(trend.recentDays()).containsExactly(2, 3, 4);
+    assertThat(trend.slope()).isEqualTo(10.0);
+    assertThat(trend.sampleCount()).isEqualTo(4);
+    // 80 -> 45 -> 32.5 -> 31.25
+    assertThat(trend.ewma()).isEqualTo(31.25);
+  }
+
+  @Test
+  @DisplayName("Should replace the latest day when it is scored again")
+  void shouldReplaceLatestDay() {
+    RiskTrend rescored = trendOf(20, 30, 40).add(3, 20, WINDOW, ALPHA);
+
+    assertThat(rescored).usingRecursiveComparison().isEqualTo(trendOf(20, 30, 20));
+    assertThatThrownBy(() -> rescored.add(2, 10, WINDOW, ALPHA))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,79 @@
+package com.orthowatch.risk;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.orthowatch.model.DailyResponse;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class RuleCompilerTest {
+
+  private DailyResponse response(Integer painScore, String swelling, String... dvtSymptoms) {
+    return DailyResponse.builder()
+        .dayNumber(5)
+        .responderType("PATIENT")
+        .painScore(painScore)
+        .swellingLevel(swelling)
+        .feverLevel("NO_FEVER")
+        .dvtSymptoms(dvtSymptoms)
+        .mobilityAchieved(false)
+        .build();
+  }
+
+  @Test
+  @DisplayName("Should evaluate comparisons combined with AND, OR, NOT and parentheses")
+  void shouldEvaluateBooleanCombinations() {
+    Predicate<DailyResponse> rule =
+        RuleCompiler.compile(
+            "(swelling_level = 'SEVERE' AND pain_score >= 6) OR NOT (day_number <= 10)");
+
+    assertThat(rule.test(response(7, "SEVERE"))).isTrue();
+    assertThat(rule.test(response(5, "SEVERE"))).isFalse();
+    assertThat(rule.test(response(9, "MILD"))).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should support IN, CONTAINS, IS EMPTY, booleans and case-insensitive keywords")
+  void shouldSupportSetAndListConditions() {
+    assertThat(
+            RuleCompiler.compile("swelling_level in ('MODERATE', 'SEVERE')")
+                .test(response(3, "MODERATE")))
+        .isTrue();
+    assertThat(
+            RuleCompiler.compile("dvt_symptoms CONTAINS 'CALF_PAIN'")
+                .test(response(3, "NONE", "CALF_PAIN")))
+        .isTrue();
+    assertThat(RuleCompiler.compile("dvt_symptoms IS NOT EMPTY").test(response(3, "NONE")))
+        .isFalse();
+    assertThat(
+            RuleCompiler.compile("mobility_achieved = FALSE AND day_number > 3")
+                .test(response(3, "NONE")))
+        .isTrue();
+  }
+
+  @Test
+  @DisplayName("Should never match a comparison against a missing answer")
+  void shouldNotMatchNullValues() {
+    DailyResponse unanswered = response(null, null);
+
+    assertThat(RuleCompiler.compile("pain_score < 3").test(unanswered)).isFalse();
+    assertThat(RuleCompiler.compile("swelling_level != 'NONE'").test(unanswered)).isFalse();
+    assertThat(RuleCompiler.compile("pain_score IS NULL").test(unanswered)).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should reject unknown fields, bad syntax and mistyped values")
+  void shouldRejectInvalidExpressions() {
+    assertThatThrownBy(() -> RuleCompiler.compile("temperature > 100"))
+        .isInstanceOf(RuleExpressionException.class)
+        .hasMessageContaining("Unknown field 'temperature'");
+    assertThatThrownBy(() -> RuleCompiler.compile("pain_score >= 8 AND"))
+        .isInstanceOf(RuleExpressionException.class);
+    assertThatThrownBy(() -> RuleCompiler.compile("pain_score = 'HIGH'"))
+        .isInstanceOf(RuleExpressionException.class)
+        .hasMessageContaining("expects a number");
+    assertThatThrownBy(() -> RuleCompiler.compile("swelling_level > 'MILD'"))
+        .isInstanceOf(RuleExpressionException.class);
+  }
+}
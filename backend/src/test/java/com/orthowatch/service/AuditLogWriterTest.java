@@ -0,0 +1,108 @@
+package com.orthowatch.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orthowatch.model.ClinicalAuditLog;
+import com.orthowatch.model.User;
+import com.orthowatch.repository.ClinicalAuditLogRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogWriterTest {
+
+  @Mock private ClinicalAuditLogRepository clinicalAuditLogRepository;
+  @Mock private JdbcTemplate jdbcTemplate;
+
+  private AuditLogWriter writer(String mode, int queueCapacity) {
+    return new AuditLogWriter(
+        clinicalAuditLogRepository,
+        jdbcTemplate,
+        new ObjectMapper(),
+        new SimpleMeterRegistry(),
+        mode,
+        queueCapacity,
+        100,
+        200,
+        50,
+        10);
+  }
+
+  private ClinicalAuditLog auditLog() {
+    return ClinicalAuditLog.builder()
+        .user(User.builder().id(UUID.randomUUID()).build())
+        .episodeId(UUID.randomUUID())
+        .action("ENROLL_PATIENT")
+        .resourceType("EPISODE")
+        .details(Map.of("surgeryType", "TKR"))
+        .build();
+  }
+
+  @Test
+  @DisplayName("Should save through the repository in sync mode")
+  void shouldSaveSynchronously() {
+    // Given
+    AuditLogWriter writer = writer("sync", 10);
+
+    // When
+    writer.write(auditLog());
+
+    // Then
+    verify(clinicalAuditLogRepository).saveAll(argThat(logs -> logs.iterator().hasNext()));
+    verifyNoInteractions(jdbcTemplate);
+  }
+
+  @Test
+  @DisplayName("Should flush queued records as one multi-row insert in async mode")
+  void shouldFlushQueuedRecordsAsOneInsert() throws InterruptedException {
+    // Given
+    AuditLogWriter writer = writer("async", 10);
+    ClinicalAuditLog first = auditLog();
+    writer.writeAll(List.of(first, auditLog(), auditLog()));
+    verifyNoInteractions(jdbcTemplate);
+
+    // When
+    writer.drainOnce(0);
+
+    // Then
+    ArgumentCaptor<String> sql = ArgumentCaptor.forClass(String.class);
+    ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+    verify(jdbcTemplate).update(sql.capture(), args.capture());
+    assertThat(sql.getValue()).startsWith("INSERT INTO clinical_audit_log");
+    assertThat(sql.getValue().split("\\?::jsonb", -1)).hasSize(4);
+    assertThat(args.getValue()).hasSize(33);
+    assertThat(args.getValue()[0]).isEqualTo(first.getId()).isNotNull();
+    assertThat(args.getValue()[7]).isEqualTo("{\"surgeryType\":\"TKR\"}");
+    assertThat(args.getValue()[10]).isNotNull();
+    verifyNoInteractions(clinicalAuditLogRepository);
+  }
+
+  @Test
+  @DisplayName("Should hand records to the writer instead of writing or dropping when full")
+  void shouldHandOffWhenQueueIsFull() throws InterruptedException {
+    // Given
+    AuditLogWriter writer = writer("async", 1);
+
+    // When
+    writer.writeAll(List.of(auditLog(), auditLog()));
+
+    // Then: nothing is written on the caller's thread; the writer takes both in one insert
+    verifyNoInteractions(jdbcTemplate);
+    writer.drainOnce(0);
+    ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+    verify(jdbcTemplate, times(1)).update(anyString(), args.capture());
+    assertThat(args.getValue()).hasSize(22);
+  }
+}
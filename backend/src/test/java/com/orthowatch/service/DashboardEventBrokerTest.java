@@ -0,0 +1,164 @@
+package com.orthowatch.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.orthowatch.dto.DashboardEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.ResultSet;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardEventBrokerTest {
+
+  @Mock private DashboardStreams streams;
+  @Mock private JdbcTemplate jdbcTemplate;
+  @Mock private StringRedisTemplate redisTemplate;
+
+  private final UUID episodeId = UUID.randomUUID();
+  private final UUID surgeonId = UUID.randomUUID();
+  private final UUID nurseId = UUID.randomUUID();
+
+  @AfterEach
+  void clearSynchronization() {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.clearSynchronization();
+    }
+  }
+
+  private DashboardEventBroker broker(boolean redisEnabled) {
+    return new DashboardEventBroker(
+        streams,
+        jdbcTemplate,
+        redisTemplate,
+        new ObjectMapper(),
+        new SimpleMeterRegistry(),
+        redisEnabled,
+        false);
+  }
+
+  private DashboardEvent alert() {
+    return DashboardEvent.builder()
+        .type(DashboardEvent.ALERT)
+        .episodeId(episodeId)
+        .severity("HIGH")
+        .status("PENDING")
+        .build();
+  }
+
+  private static void complete(int status) {
+    for (TransactionSynchronization synchronization :
+        TransactionSynchronizationManager.getSynchronizations()) {
+      synchronization.afterCompletion(status);
+    }
+  }
+
+  @Test
+  @DisplayName("Should hold events until the transaction commits and drop them on rollback")
+  void shouldPublishOnlyAfterCommit() {
+    // Given
+    when(streams.size()).thenReturn(1);
+    DashboardEventBroker broker = broker(false);
+
+    // When
+    TransactionSynchronizationManager.initSynchronization();
+    broker.publishAfterCommit(surgeonId, alert());
+    verifyNoInteractions(streams);
+    complete(TransactionSynchronization.STATUS_COMMITTED);
+    TransactionSynchronizationManager.clearSynchronization();
+
+    TransactionSynchronizationManager.initSynchronization();
+    broker.publishAfterCommit(surgeonId, alert());
+    complete(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+    // Then
+    ArgumentCaptor<String> json = ArgumentCaptor.forClass(String.class);
+    verify(streams).deliver(eq(surgeonId), eq(DashboardEvent.ALERT), json.capture());
+    assertThat(json.getValue()).contains("\"severity\":\"HIGH\"").doesNotContain("riskLevel");
+  }
+
+  @Test
+  @DisplayName("Should send care team events to the episode's surgeon and secondary clinician")
+  void shouldResolveCareTeam() throws Exception {
+    // Given
+    when(streams.size()).thenReturn(1);
+    ResultSet row = mock(ResultSet.class);
+    when(row.getObject("id", UUID.class)).thenReturn(episodeId);
+    when(row.getObject("primary_surgeon_id", UUID.class)).thenReturn(surgeonId);
+    when(row.getObject("secondary_clinician_id", UUID.class)).thenReturn(nurseId);
+    doAnswer(
+            invocation -> {
+              invocation.<RowCallbackHandler>getArgument(1).processRow(row);
+              return null;
+            })
+        .when(jdbcTemplate)
+        .query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+
+    // When
+    broker(false)
+        .publishToCareTeamAfterCommit(
+            DashboardEvent.builder()
+                .type(DashboardEvent.RISK_SCORE)
+                .episodeId(episodeId)
+                .compositeScore(72)
+                .riskLevel("HIGH")
+                .build());
+
+    // Then
+    verify(streams).deliver(eq(surgeonId), eq(DashboardEvent.RISK_SCORE), contains("72"));
+    verify(streams).deliver(eq(nurseId), eq(DashboardEvent.RISK_SCORE), contains("72"));
+  }
+
+  @Test
+  @DisplayName("Should fan out through Redis instead of delivering locally when shared")
+  void shouldPublishThroughRedis() {
+    // When
+    broker(true).publishAfterCommit(surgeonId, alert());
+
+    // Then
+    verify(redisTemplate).executePipelined(any(RedisCallback.class));
+    verify(streams, never()).deliver(any(), any(), any());
+  }
+
+  @Test
+  @DisplayName("Should deliver a message received from Redis to local streams")
+  void shouldDeliverReceivedMessages() {
+    // When
+    broker(true).receive(surgeonId + "|consent|{\"consentStatus\":\"GRANTED\"}");
+
+    // Then
+    verify(streams).deliver(surgeonId, "consent", "{\"consentStatus\":\"GRANTED\"}");
+  }
+
+  @Test
+  @DisplayName("Should refuse local-only delivery when Quartz is clustered")
+  void shouldRejectLocalDeliveryWithClusteredQuartz() {
+    assertThatThrownBy(
+            () ->
+                new DashboardEventBroker(
+                    streams,
+                    jdbcTemplate,
+                    redisTemplate,
+                    new ObjectMapper(),
+                    new SimpleMeterRegistry(),
+                    false,
+                    true))
+        .isInstanceOf(IllegalStateException.class)
+        .hasMessageContaining("app.dashboard.redis-enabled");
+  }
+}
@@ -0,0 +1,117 @@
+package com.orthowatch.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import com.orthowatch.controller.DashboardController;
+import com.orthowatch.exception.ResourceNotFoundException;
+import com.orthowatch.model.User;
+import com.orthowatch.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardStreamsTest {
+
+  private static final String SURGEON = "surgeon@orthowatch.com";
+
+  @Mock private UserRepository userRepository;
+
+  private DashboardStreams streams;
+  private MockMvc mockMvc;
+  private final UUID surgeonId = UUID.randomUUID();
+
+  @BeforeEach
+  void setUp() {
+    streams = new DashboardStreams(userRepository, new SimpleMeterRegistry(), 30, 25, 16, 2);
+    mockMvc = MockMvcBuilders.standaloneSetup(new DashboardController(streams)).build();
+  }
+
+  private void givenSurgeon() {
+    when(userRepository.findByEmail(SURGEON))
+        .thenReturn(Optional.of(User.builder().id(surgeonId).email(SURGEON).build()));
+  }
+
+  @AfterEach
+  void tearDown() {
+    streams.closeAll();
+  }
+
+  private MockHttpServletResponse connect() throws Exception {
+    return mockMvc
+        .perform(
+            get("/api/v1/dashboard/stream")
+                .principal(new UsernamePasswordAuthenticationToken(SURGEON, null)))
+        .andExpect(request().asyncStarted())
+        .andReturn()
+        .getResponse();
+  }
+
+  private static String awaitContent(MockHttpServletResponse response, String expected)
+      throws Exception {
+    Instant deadline = Instant.now().plus(Duration.ofSeconds(5));
+    String content = response.getContentAsString();
+    while (!content.contains(expected) && Instant.now().isBefore(deadline)) {
+      Thread.sleep(10);
+      content = response.getContentAsString();
+    }
+    return content;
+  }
+
+  @Test
+  @DisplayName("Should open with a ready event and push events delivered to the clinician")
+  void shouldPushDeliveredEvents() throws Exception {
+    // Given
+    givenSurgeon();
+    MockHttpServletResponse response = connect();
+    assertThat(awaitContent(response, "event:ready")).contains("event:ready");
+
+    // When
+    streams.deliver(UUID.randomUUID(), "alert", "{\"alertId\":\"other\"}");
+    streams.deliver(surgeonId, "alert", "{\"alertId\":\"mine\"}");
+
+    // Then
+    String content = awaitContent(response, "mine");
+    assertThat(content).contains("event:alert\ndata:{\"alertId\":\"mine\"}");
+    assertThat(content).doesNotContain("other");
+  }
+
+  @Test
+  @DisplayName("Should close a clinician's oldest stream beyond the per-clinician limit")
+  void shouldCloseOldestStreamBeyondLimit() {
+    // Given
+    givenSurgeon();
+
+    // When
+    streams.open(SURGEON);
+    streams.open(SURGEON);
+    streams.open(SURGEON);
+
+    // Then
+    assertThat(streams.size()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should refuse a stream for an unknown user")
+  void shouldRejectUnknownUser() {
+    assertThatThrownBy(() -> streams.open("nobody@orthowatch.com"))
+        .isInstanceOf(ResourceNotFoundException.class);
+    assertThat(streams.size()).isZero();
+  }
+}
@@ -0,0 +1,53 @@
+package com.orthowatch.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Map;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class DispatchWheelTest {
+
+  private static final long START = 29_000_000L;
+
+  @Test
+  @DisplayName("Should report work only for minutes that have due checklists")
+  void shouldReportDueMinutes() {
+    // Given
+    DispatchWheel wheel = new DispatchWheel(START, Map.of(START + 30, 120));
+
+    // Then
+    assertThat(wheel.hasDueThrough(START + 29)).isFalse();
+    assertThat(wheel.hasDueThrough(START + 30)).isTrue();
+    assertThat(wheel.pending()).isEqualTo(120);
+  }
+
+  @Test
+  @DisplayName("Should not report a minute again once it has been dispatched")
+  void shouldClearDispatchedMinutes() {
+    // Given
+    DispatchWheel wheel = new DispatchWheel(START, Map.of(START + 5, 3, START + 90, 7));
+
+    // When
+    wheel.markDispatchedThrough(START + 10);
+
+    // Then
+    assertThat(wheel.hasDueThrough(START + 89)).isFalse();
+    assertThat(wheel.hasDueThrough(START + 90)).isTrue();
+    assertThat(wheel.pending()).isEqualTo(7);
+  }
+
+  @Test
+  @DisplayName("Should put overdue checklists in the first minute and ignore those past the window")
+  void shouldBucketOverdueAndIgnoreBeyondWindow() {
+    // Given
+    DispatchWheel wheel =
+        new DispatchWheel(START, Map.of(START - 45, 2, START + DispatchWheel.MINUTES, 9));
+
+    // Then
+    assertThat(wheel.hasDueThrough(START)).isTrue();
+    assertThat(wheel.pending()).isEqualTo(2);
+    assertThat(wheel.covers(START + DispatchWheel.MINUTES - 1)).isTrue();
+    assertThat(wheel.covers(START + DispatchWheel.MINUTES)).isFalse();
+  }
+}
@@ -4,11 +4,14 @@ import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
+import com.orthowatch.dto.BulkEnrollmentResponse;
+import com.orthowatch.dto.BulkEnrollmentResult;
 import com.orthowatch.dto.EnrollmentRequest;
 import com.orthowatch.dto.EnrollmentResponse;
 import com.orthowatch.exception.DuplicateResourceException;
 import com.orthowatch.exception.ResourceNotFoundException;
 import com.orthowatch.mapper.EpisodeMapper;
+import com.orthowatch.messaging.OutboundMessenger;
 import com.orthowatch.mapper.PatientMapper;
 import com.orthowatch.model.ClinicalAuditLog;
 import com.orthowatch.model.ConsentLog;
@@ -16,13 +19,14 @@ import com.orthowatch.model.Episode;
 import com.orthowatch.model.Patient;
 import com.orthowatch.model.RecoveryTemplate;
 import com.orthowatch.model.User;
-import com.orthowatch.repository.ClinicalAuditLogRepository;
 import com.orthowatch.repository.ConsentLogRepository;
 import com.orthowatch.repository.EpisodeRepository;
 import com.orthowatch.repository.PatientRepository;
 import com.orthowatch.repository.RecoveryTemplateRepository;
 import com.orthowatch.repository.UserRepository;
+import jakarta.validation.Validator;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 import org.junit.jupiter.api.BeforeEach;
@@ -36,6 +40,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.quartz.JobDetail;
 import org.quartz.Scheduler;
 import org.quartz.Trigger;
+import org.springframework.test.util.ReflectionTestUtils;
 
 @ExtendWith(MockitoExtension.class)
 class EnrollmentServiceTest {
@@ -45,10 +50,12 @@ class EnrollmentServiceTest {
   @Mock private RecoveryTemplateRepository recoveryTemplateRepository;
   @Mock private UserRepository userRepository;
   @Mock private ConsentLogRepository consentLogRepository;
-  @Mock private ClinicalAuditLogRepository clinicalAuditLogRepository;
+  @Mock private AuditLogWriter auditLogWriter;
   @Mock private PatientMapper patientMapper;
   @Mock private EpisodeMapper episodeMapper;
+  @Mock private OutboundMessenger outboundMessenger;
   @Mock private Scheduler scheduler;
+  @Mock private Validator validator;
 
   @InjectMocks private EnrollmentService enrollmentService;
 
@@ -132,6 +139,8 @@ class EnrollmentServiceTest {
             .painScoreDischarge(6)
             .swellingLevelDischarge("MODERATE")
             .build();
+
+    ReflectionTestUtils.setField(enrollmentService, "consentTimeoutMode", "sweeper");
   }
 
   @Test
@@ -149,8 +158,6 @@ class EnrollmentServiceTest {
     when(episodeRepository.save(any(Episode.class))).thenReturn(episode);
     when(consentLogRepository.save(any(ConsentLog.class)))
         .thenAnswer(i -> i.getArgument(0));
-    when(clinicalAuditLogRepository.save(any(ClinicalAuditLog.class)))
-        .thenAnswer(i -> i.getArgument(0));
 
     // When
     EnrollmentResponse response =
@@ -168,8 +175,16 @@ class EnrollmentServiceTest {
     verify(patientRepository).save(any(Patient.class));
     verify(episodeRepository).save(any(Episode.class));
     verify(consentLogRepository).save(any(ConsentLog.class));
-    verify(clinicalAuditLogRepository).save(any(ClinicalAuditLog.class));
-    verify(scheduler).scheduleJob(any(JobDetail.class), any(Trigger.class));
+    verify(auditLogWriter).write(any(ClinicalAuditLog.class));
+    verify(outboundMessenger)
+        .send(
+            argThat(
+                messages ->
+                    messages.size() == 1
+                        && "CONSENT_REQUEST".equals(messages.get(0).messageType())
+                        && "+919876543210".equals(messages.get(0).recipient())));
+    // Consent timeouts are left to the periodic sweeper by default
+    verifyNoInteractions(scheduler);
   }
 
   @Test
@@ -190,8 +205,6 @@ class EnrollmentServiceTest {
     when(episodeRepository.save(any(Episode.class))).thenReturn(episode);
     when(consentLogRepository.save(any(ConsentLog.class)))
         .thenAnswer(i -> i.getArgument(0));
-    when(clinicalAuditLogRepository.save(any(ClinicalAuditLog.class)))
-        .thenAnswer(i -> i.getArgument(0));
 
     // When
     EnrollmentResponse response =
@@ -295,8 +308,6 @@ class EnrollmentServiceTest {
     when(episodeRepository.save(any(Episode.class))).thenReturn(episode);
     when(consentLogRepository.save(any(ConsentLog.class)))
         .thenAnswer(i -> i.getArgument(0));
-    when(clinicalAuditLogRepository.save(any(ClinicalAuditLog.class)))
-        .thenAnswer(i -> i.getArgument(0));
 
     // When
     enrollmentService.enroll(validRequest, adminUser, "127.0.0.1", "Test-Agent");
@@ -314,9 +325,10 @@ class EnrollmentServiceTest {
   }
 
   @Test
-  @DisplayName("Should schedule Quartz consent timeout job")
+  @DisplayName("Should schedule Quartz consent timeout job in per-episode mode")
   void shouldScheduleQuartzConsentTimeoutJob() throws Exception {
     // Given
+    ReflectionTestUtils.setField(enrollmentService, "consentTimeoutMode", "per-episode");
     when(recoveryTemplateRepository.findBySurgeryTypeAndIsActiveTrue("TKR"))
         .thenReturn(Optional.of(template));
     when(userRepository.findById(validRequest.getPrimarySurgeonId()))
@@ -328,8 +340,6 @@ class EnrollmentServiceTest {
     when(episodeRepository.save(any(Episode.class))).thenReturn(episode);
     when(consentLogRepository.save(any(ConsentLog.class)))
         .thenAnswer(i -> i.getArgument(0));
-    when(clinicalAuditLogRepository.save(any(ClinicalAuditLog.class)))
-        .thenAnswer(i -> i.getArgument(0));
 
     // When
     enrollmentService.enroll(validRequest, adminUser, "127.0.0.1", "Test-Agent");
@@ -358,4 +368,84 @@ class EnrollmentServiceTest {
         .isInstanceOf(IllegalArgumentException.class)
         .hasMessageContaining("Surgery date must be on or before discharge date");
   }
+
+  private EnrollmentRequest bulkRow(String phone, String surgeryType) {
+    return EnrollmentRequest.builder()
+        .patientName("Patient " + phone.substring(phone.length() - 4))
+        .age(60)
+        .gender("F")
+        .phonePrimary(phone)
+        .surgeryType(surgeryType)
+        .surgeryDate(LocalDate.of(2026, 2, 13))
+        .dischargeDate(LocalDate.of(2026, 2, 15))
+        .primarySurgeonId(surgeon.getId())
+        .painScoreDischarge(5)
+        .swellingLevelDischarge("MILD")
+        .build();
+  }
+
+  @Test
+  @DisplayName("Should enroll valid rows and report the rest as failed in a bulk request")
+  void shouldEnrollBulkWithPartialFailures() {
+    // Given
+    EnrollmentRequest valid = bulkRow("+919800000001", "TKR");
+    EnrollmentRequest unknownTemplate = bulkRow("+919800000002", "XYZ");
+    EnrollmentRequest duplicateInBatch = bulkRow("+919800000001", "TKR");
+    EnrollmentRequest badDates = bulkRow("+919800000003", "TKR");
+    badDates.setSurgeryDate(LocalDate.of(2026, 2, 20));
+
+    when(recoveryTemplateRepository.findBySurgeryTypeInAndIsActiveTrue(anyCollection()))
+        .thenReturn(List.of(template));
+    when(userRepository.findAllById(anyIterable())).thenReturn(List.of(surgeon));
+    when(patientRepository.findByPhonePrimaryIn(anyCollection())).thenReturn(List.of());
+    when(patientMapper.toEntity(any(EnrollmentRequest.class)))
+        .thenAnswer(
+            i ->
+                Patient.builder()
+                    .phonePrimary(i.<EnrollmentRequest>getArgument(0).getPhonePrimary())
+                    .build());
+    when(patientRepository.saveAll(anyList()))
+        .thenAnswer(
+            i -> {
+              List<Patient> saved = i.getArgument(0);
+              saved.forEach(p -> p.setId(UUID.randomUUID()));
+              return saved;
+            });
+    when(episodeMapper.toEntity(any(EnrollmentRequest.class)))
+        .thenAnswer(i -> Episode.builder().build());
+    when(episodeRepository.saveAll(anyList()))
+        .thenAnswer(
+            i -> {
+              List<Episode> saved = i.getArgument(0);
+              saved.forEach(e -> e.setId(UUID.randomUUID()));
+              return saved;
+            });
+
+    // When
+    BulkEnrollmentResponse response =
+        enrollmentService.enrollAll(
+            List.of(valid, unknownTemplate, duplicateInBatch, badDates),
+            adminUser,
+            "127.0.0.1",
+            "Test-Agent");
+
+    // Then
+    assertThat(response.getTotal()).isEqualTo(4);
+    assertThat(response.getCreated()).isEqualTo(1);
+    assertThat(response.getFailed()).isEqualTo(3);
+    assertThat(response.getResults())
+        .extracting(BulkEnrollmentResult::getStatus)
+        .containsExactly("CREATED", "FAILED", "FAILED", "FAILED");
+    assertThat(response.getResults().get(0).getEpisodeId()).isNotNull();
+    assertThat(response.getResults().get(1).getError()).contains("No active recovery template");
+    assertThat(response.getResults().get(2).getError()).contains("already has an active episode");
+    assertThat(response.getResults().get(3).getError()).contains("Surgery date");
+
+    verify(patientRepository).saveAll(anyList());
+    verify(episodeRepository).saveAll(anyList());
+    verify(consentLogRepository).saveAll(argThat(logs -> logs.iterator().hasNext()));
+    verify(auditLogWriter).writeAll(argThat(logs -> !logs.isEmpty()));
+    verify(patientRepository, never()).findByPhonePrimary(any());
+    verifyNoInteractions(scheduler);
+  }
 }
@@ -0,0 +1,112 @@
+package com.orthowatch.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.orthowatch.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+@ExtendWith(MockitoExtension.class)
+class LoginRateLimiterTest {
+
+  @Mock private StringRedisTemplate redisTemplate;
+
+  private LoginRateLimiter limiter(boolean redisEnabled) {
+    return new LoginRateLimiter(
+        redisTemplate, new SimpleMeterRegistry(), true, redisEnabled, 5, 900, 3, 900);
+  }
+
+  @Test
+  @DisplayName("Should reject the attempt after the per-email bucket is emptied by failed logins")
+  void shouldRejectWhenEmailBucketEmpty() {
+    LoginRateLimiter limiter = limiter(false);
+    for (int i = 0; i < 3; i++) {
+      limiter.checkLogin("10.0.0." + i, "Surgeon@OrthoWatch.com");
+      limiter.recordFailedLogin("10.0.0." + i, "Surgeon@OrthoWatch.com");
+    }
+
+    assertThatThrownBy(() -> limiter.checkLogin("10.0.0.9", "surgeon@orthowatch.com"))
+        .isInstanceOf(RateLimitExceededException.class)
+        .satisfies(
+            e ->
+                assertThat(((RateLimitExceededException) e).getRetryAfterSeconds())
+                    .isBetween(1L, 300L));
+  }
+
+  @Test
+  @DisplayName("Should reject the attempt after the per-IP bucket is emptied by failed logins")
+  void shouldRejectWhenIpBucketEmpty() {
+    LoginRateLimiter limiter = limiter(false);
+    for (int i = 0; i < 5; i++) {
+      limiter.checkLogin("10.0.0.1", "user" + i + "@orthowatch.com");
+      limiter.recordFailedLogin("10.0.0.1", "user" + i + "@orthowatch.com");
+    }
+
+    assertThatThrownBy(() -> limiter.checkLogin("10.0.0.1", "other@orthowatch.com"))
+        .isInstanceOf(RateLimitExceededException.class);
+  }
+
+  @Test
+  @DisplayName("Should not charge the per-IP bucket for successful logins from a shared address")
+  void shouldNotChargeIpBucketForSuccessfulLogins() {
+    LoginRateLimiter limiter = limiter(false);
+    for (int i = 0; i < 20; i++) {
+      limiter.checkLogin("10.0.0.1", "user" + i + "@orthowatch.com");
+    }
+
+    assertThatCode(() -> limiter.checkLogin("10.0.0.1", "other@orthowatch.com"))
+        .doesNotThrowAnyException();
+  }
+
+  @Test
+  @DisplayName("Should not charge the per-email bucket for successful logins")
+  void shouldNotChargeEmailBucketForSuccessfulLogins() {
+    LoginRateLimiter limiter = limiter(false);
+    for (int i = 0; i < 20; i++) {
+      limiter.checkLogin("10.0.0." + i, "surgeon@orthowatch.com");
+    }
+
+    assertThatCode(() -> limiter.checkLogin("10.0.0.1", "surgeon@orthowatch.com"))
+        .doesNotThrowAnyException();
+  }
+
+  @Test
+  @DisplayName("Should fall back to local buckets when Redis is unavailable")
+  @SuppressWarnings("unchecked")
+  void shouldFallBackToLocalBuckets() {
+    when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+        .thenThrow(new RedisConnectionFailureException("down"));
+    LoginRateLimiter limiter = limiter(true);
+    for (int i = 0; i < 3; i++) {
+      limiter.checkLogin("10.0.0.1", "nurse@orthowatch.com");
+      limiter.recordFailedLogin("10.0.0.1", "nurse@orthowatch.com");
+    }
+
+    assertThatThrownBy(() -> limiter.checkLogin("10.0.0.1", "nurse@orthowatch.com"))
+        .isInstanceOf(RateLimitExceededException.class);
+  }
+
+  @Test
+  @DisplayName("Should use the Redis verdict when Redis is available")
+  @SuppressWarnings("unchecked")
+  void shouldUseSharedBucket() {
+    when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class)))
+        .thenReturn(List.of(1L, 0L))
+        .thenReturn(List.of(0L, 42_000L));
+
+    assertThatThrownBy(() -> limiter(true).checkLogin("10.0.0.1", "nurse@orthowatch.com"))
+        .isInstanceOf(RateLimitExceededException.class)
+        .satisfies(
+            e -> assertThat(((RateLimitExceededException) e).getRetryAfterSeconds()).isEqualTo(42));
+  }
+}
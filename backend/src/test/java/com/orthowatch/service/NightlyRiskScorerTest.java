@@ -0,0 +1,233 @@
+package com.orthowatch.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.orthowatch.model.Alert;
+import com.orthowatch.model.BatchCheckpoint;
+import com.orthowatch.model.DailyResponse;
+import com.orthowatch.model.Episode;
+import com.orthowatch.model.RiskScore;
+import com.orthowatch.model.User;
+import com.orthowatch.repository.AlertRepository;
+import com.orthowatch.repository.BatchCheckpointRepository;
+import com.orthowatch.repository.DailyResponseRepository;
+import com.orthowatch.repository.EpisodeRepository;
+import com.orthowatch.repository.EpisodeRepository.EpisodeSummary;
+import com.orthowatch.repository.RiskScoreRepository;
+import com.orthowatch.repository.UserRepository;
+import com.orthowatch.risk.CompiledRuleSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@ExtendWith(MockitoExtension.class)
+class NightlyRiskScorerTest {
+
+  @Mock private EpisodeRepository episodeRepository;
+  @Mock private DailyResponseRepository dailyResponseRepository;
+  @Mock private RiskScoreRepository riskScoreRepository;
+  @Mock private AlertRepository alertRepository;
+  @Mock private UserRepository userRepository;
+  @Mock private BatchCheckpointRepository batchCheckpointRepository;
+  @Mock private RiskEngine riskEngine;
+  @Mock private RiskTrendService riskTrendService;
+  @Mock private PlatformTransactionManager transactionManager;
+  @Mock private CompiledRuleSet ruleSet;
+
+  private NightlyRiskScorer scorer;
+
+  private final UUID surgeonId = UUID.randomUUID();
+
+  @BeforeEach
+  void setUp() {
+    scorer =
+        new NightlyRiskScorer(
+            episodeRepository,
+            dailyResponseRepository,
+            riskScoreRepository,
+            alertRepository,
+            userRepository,
+            batchCheckpointRepository,
+            riskEngine,
+            riskTrendService,
+            transactionManager,
+            2,
+            2,
+            60);
+    lenient()
+        .when(batchCheckpointRepository.save(any(BatchCheckpoint.class)))
+        .thenAnswer(invocation -> invocation.getArgument(0));
+  }
+
+  @AfterEach
+  void tearDown() {
+    scorer.shutdown();
+  }
+
+  private EpisodeSummary key(UUID id) {
+    return new Summary(id, surgeonId);
+  }
+
+  private record Summary(UUID getId, UUID getPrimarySurgeonId) implements EpisodeSummary {
+    @Override
+    public UUID getPatientId() {
+      return null;
+    }
+
+    @Override
+    public UUID getSecondaryClinicianId() {
+      return null;
+    }
+
+    @Override
+    public LocalDate getSurgeryDate() {
+      return null;
+    }
+
+    @Override
+    public LocalDate getDischargeDate() {
+      return null;
+    }
+
+    @Override
+    public int getCurrentDay() {
+      return 0;
+    }
+
+    @Override
+    public String getConsentStatus() {
+      return "GRANTED";
+    }
+  }
+
+  private DailyResponse response(UUID episodeId, int day) {
+    return DailyResponse.builder()
+        .episode(Episode.builder().id(episodeId).build())
+        .dayNumber(day)
+        .build();
+  }
+
+  private RiskScore score(DailyResponse response, int compositeScore, String riskLevel) {
+    return RiskScore.builder()
+        .episode(response.getEpisode())
+        .dayNumber(response.getDayNumber())
+        .compositeScore(compositeScore)
+        .riskLevel(riskLevel)
+        .build();
+  }
+
+  @Test
+  @DisplayName("Should score each chunk with one response query and raise alerts for HIGH scores")
+  void shouldScoreChunksAndRaiseAlerts() {
+    // Given
+    UUID first = new UUID(0L, 1L);
+    UUID second = new UUID(0L, 2L);
+    UUID third = new UUID(0L, 3L);
+    when(batchCheckpointRepository.findById("nightly-risk-scoring:2026-10-17"))
+        .thenReturn(Optional.empty());
+    when(episodeRepository.findSummariesByStatusAfter("ACTIVE", new UUID(0L, 0L), Limit.of(2)))
+        .thenReturn(List.of(key(first), key(second)));
+    when(episodeRepository.findSummariesByStatusAfter("ACTIVE", second, Limit.of(2)))
+        .thenReturn(List.of(key(third)));
+    when(episodeRepository.findSummariesByStatusAfter("ACTIVE", third, Limit.of(2)))
+        .thenReturn(List.of());
+
+    DailyResponse low = response(first, 3);
+    DailyResponse critical = response(second, 3);
+    DailyResponse high = response(third, 4);
+    when(dailyResponseRepository.findUnscoredByEpisodeIdIn(anyCollection()))
+        .thenReturn(List.of(low, critical))
+        .thenReturn(List.of(high));
+    when(riskEngine.currentRuleSet()).thenReturn(ruleSet);
+    when(riskEngine.score(ruleSet, low)).thenReturn(score(low, 10, "LOW"));
+    when(riskEngine.score(ruleSet, critical)).thenReturn(score(critical, 85, "HIGH"));
+    when(riskEngine.score(ruleSet, high)).thenReturn(score(high, 65, "HIGH"));
+    when(userRepository.getReferenceById(surgeonId))
+        .thenReturn(User.builder().id(surgeonId).build());
+
+    List<Alert> alerts = new ArrayList<>();
+    when(alertRepository.saveAll(anyList()))
+        .thenAnswer(
+            invocation -> {
+              alerts.addAll(invocation.getArgument(0));
+              return invocation.getArgument(0);
+            });
+
+    // When
+    BatchCheckpoint checkpoint = scorer.run("2026-10-17");
+
+    // Then
+    assertThat(checkpoint.getStatus()).isEqualTo("COMPLETED");
+    assertThat(checkpoint.getLastKey()).isEqualTo(third);
+    assertThat(checkpoint.getItemsProcessed()).isEqualTo(3);
+    assertThat(checkpoint.getRecordsWritten()).isEqualTo(3);
+    assertThat(checkpoint.getAlertsWritten()).isEqualTo(2);
+    assertThat(alerts)
+        .extracting(Alert::getAlertType, Alert::getSeverity)
+        .containsExactly(tuple("HIGH_RISK", "CRITICAL"), tuple("HIGH_RISK", "HIGH"));
+    assertThat(alerts).allSatisfy(alert -> assertThat(alert.getSlaDeadline()).isNotNull());
+    verify(dailyResponseRepository, times(2)).findUnscoredByEpisodeIdIn(anyCollection());
+    verify(riskTrendService, times(2)).applyAll(anyList());
+    verify(riskScoreRepository, times(2)).saveAll(anyList());
+  }
+
+  @Test
+  @DisplayName("Should resume an interrupted run after its last committed episode")
+  void shouldResumeFromCheckpoint() {
+    // Given
+    UUID lastCommitted = new UUID(0L, 2L);
+    BatchCheckpoint interrupted =
+        BatchCheckpoint.builder()
+            .id("nightly-risk-scoring:2026-10-17")
+            .jobName(NightlyRiskScorer.JOB_NAME)
+            .runKey("2026-10-17")
+            .status("FAILED")
+            .lastKey(lastCommitted)
+            .itemsProcessed(2)
+            .build();
+    when(batchCheckpointRepository.findById("nightly-risk-scoring:2026-10-17"))
+        .thenReturn(Optional.of(interrupted));
+    when(episodeRepository.findSummariesByStatusAfter("ACTIVE", lastCommitted, Limit.of(2)))
+        .thenReturn(List.of());
+
+    // When
+    BatchCheckpoint checkpoint = scorer.run("2026-10-17");
+
+    // Then
+    assertThat(checkpoint.getStatus()).isEqualTo("COMPLETED");
+    assertThat(checkpoint.getItemsProcessed()).isEqualTo(2);
+    verify(episodeRepository, never())
+        .findSummariesByStatusAfter(eq("ACTIVE"), eq(new UUID(0L, 0L)), any());
+    verifyNoInteractions(dailyResponseRepository, riskScoreRepository);
+  }
+
+  @Test
+  @DisplayName("Should do nothing when the run has already completed")
+  void shouldSkipCompletedRun() {
+    // Given
+    BatchCheckpoint completed =
+        BatchCheckpoint.builder().id("nightly-risk-scoring:2026-10-17").status("COMPLETED").build();
+    when(batchCheckpointRepository.findById("nightly-risk-scoring:2026-10-17"))
+        .thenReturn(Optional.of(completed));
+
+    // When
+    BatchCheckpoint checkpoint = scorer.run("2026-10-17");
+
+    // Then
+    assertThat(checkpoint).isSameAs(completed);
+    verifyNoInteractions(episodeRepository, transactionManager);
+  }
+}
@@ -0,0 +1,83 @@
+package com.orthowatch.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.orthowatch.model.User;
+import com.orthowatch.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+@ExtendWith(MockitoExtension.class)
+class PrincipalCacheTest {
+
+  @Mock private UserRepository userRepository;
+  @Mock private StringRedisTemplate redisTemplate;
+
+  private PrincipalCache principalCache;
+
+  @BeforeEach
+  void setUp() {
+    principalCache =
+        new PrincipalCache(
+            userRepository, redisTemplate, new SimpleMeterRegistry(), 100, 300, false);
+  }
+
+  private User user(String role, boolean active) {
+    return User.builder()
+        .email("surgeon@orthowatch.com")
+        .passwordHash("$2a$12$hash")
+        .fullName("Dr. Ramesh Kumar")
+        .role(role)
+        .isActive(active)
+        .build();
+  }
+
+  @Test
+  @DisplayName("Should hit the database only once for repeated lookups")
+  void shouldCacheAfterFirstLookup() {
+    when(userRepository.findByEmail("surgeon@orthowatch.com"))
+        .thenReturn(Optional.of(user("SURGEON", true)));
+
+    UserDetails first = principalCache.loadPrincipal("surgeon@orthowatch.com");
+    UserDetails second = principalCache.loadPrincipal("surgeon@orthowatch.com");
+
+    assertThat(first.getAuthorities()).extracting("authority").containsExactly("ROLE_SURGEON");
+    assertThat(second.getUsername()).isEqualTo("surgeon@orthowatch.com");
+    assertThat(second.getPassword()).isEmpty();
+    verify(userRepository, times(1)).findByEmail("surgeon@orthowatch.com");
+    verifyNoInteractions(redisTemplate);
+  }
+
+  @Test
+  @DisplayName("Should reload from the database after eviction")
+  void shouldReloadAfterEviction() {
+    when(userRepository.findByEmail("surgeon@orthowatch.com"))
+        .thenReturn(Optional.of(user("SURGEON", true)))
+        .thenReturn(Optional.of(user("SURGEON", false)));
+
+    assertThat(principalCache.loadPrincipal("surgeon@orthowatch.com").isEnabled()).isTrue();
+    principalCache.evict("surgeon@orthowatch.com");
+
+    assertThat(principalCache.loadPrincipal("surgeon@orthowatch.com").isEnabled()).isFalse();
+    verify(userRepository, times(2)).findByEmail("surgeon@orthowatch.com");
+  }
+
+  @Test
+  @DisplayName("Should throw UsernameNotFoundException for unknown users")
+  void shouldThrowForUnknownUser() {
+    when(userRepository.findByEmail("ghost@orthowatch.com")).thenReturn(Optional.empty());
+
+    assertThatThrownBy(() -> principalCache.loadPrincipal("ghost@orthowatch.com"))
+        .isInstanceOf(UsernameNotFoundException.class);
+  }
+}
@@ -0,0 +1,89 @@
+package com.orthowatch.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.orthowatch.exception.ResourceNotFoundException;
+import com.orthowatch.model.RecoveryTemplate;
+import com.orthowatch.repository.RecoveryTemplateRepository;
+import com.orthowatch.template.CompiledTemplate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RecoveryTemplateCacheTest {
+
+  @Mock private RecoveryTemplateRepository templateRepository;
+
+  private RecoveryTemplateCache templateCache;
+  private final UUID templateId = UUID.randomUUID();
+
+  @BeforeEach
+  void setUp() {
+    templateCache = new RecoveryTemplateCache(templateRepository, 3600);
+  }
+
+  private RecoveryTemplate template(String question, String updatedAt) {
+    return RecoveryTemplate.builder()
+        .id(templateId)
+        .surgeryType("TKR")
+        .checklistConfig(Map.of("days", Map.of("1", Map.of("questions", List.of(question)))))
+        .milestoneConfig(Map.of())
+        .updatedAt(OffsetDateTime.parse(updatedAt))
+        .build();
+  }
+
+  @Test
+  @DisplayName("Should compile a template once and recompile it when invalidated after an edit")
+  void shouldRecompileOnInvalidate() {
+    // Given
+    when(templateRepository.findById(templateId))
+        .thenReturn(Optional.of(template("pain_score", "2026-03-01T10:00:00Z")))
+        .thenReturn(Optional.of(template("swelling_level", "2026-03-02T10:00:00Z")));
+    CompiledTemplate first = templateCache.get(templateId);
+    assertThat(templateCache.get(templateId)).isSameAs(first);
+
+    // When
+    templateCache.invalidate(templateId);
+
+    // Then
+    assertThat(templateCache.get(templateId).requiredFields(1)).containsOnly("swelling_level");
+    verify(templateRepository, times(2)).findById(templateId);
+  }
+
+  @Test
+  @DisplayName("Should keep the last good compilation when an edited template fails to compile")
+  void shouldKeepLastGoodTemplate() {
+    // Given
+    when(templateRepository.findById(templateId))
+        .thenReturn(Optional.of(template("pain_score", "2026-03-01T10:00:00Z")))
+        .thenReturn(Optional.of(template("heart_rate", "2026-03-02T10:00:00Z")));
+    CompiledTemplate good = templateCache.get(templateId);
+
+    // When
+    templateCache.invalidate(templateId);
+
+    // Then
+    assertThat(templateCache.get(templateId)).isSameAs(good);
+  }
+
+  @Test
+  @DisplayName("Should throw ResourceNotFoundException for an unknown template")
+  void shouldRejectUnknownTemplate() {
+    // Given
+    when(templateRepository.findById(templateId)).thenReturn(Optional.empty());
+
+    // When / Then
+    assertThatThrownBy(() -> templateCache.get(templateId))
+        .isInstanceOf(ResourceNotFoundException.class);
+  }
+}
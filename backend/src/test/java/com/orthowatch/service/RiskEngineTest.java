@@ -0,0 +1,135 @@
+package com.orthowatch.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.orthowatch.model.DailyResponse;
+import com.orthowatch.model.RiskRule;
+import com.orthowatch.model.RiskScore;
+import com.orthowatch.repository.RiskRuleRepository;
+import com.orthowatch.risk.CompiledRuleSet;
+import com.orthowatch.risk.RuleExpressionException;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RiskEngineTest {
+
+  @Mock private RiskRuleRepository riskRuleRepository;
+  @Mock private RuleSetVersionService ruleSetVersionService;
+
+  private RiskEngine riskEngine;
+
+  @BeforeEach
+  void setUp() {
+    riskEngine = new RiskEngine(riskRuleRepository, ruleSetVersionService, 3600);
+  }
+
+  private RiskRule rule(String name, String expression, String level, int weight) {
+    return RiskRule.builder()
+        .ruleName(name)
+        .conditionExpression(expression)
+        .riskLevel(level)
+        .weight(weight)
+        .build();
+  }
+
+  private List<RiskRule> defaultRules() {
+    return List.of(
+        rule("high_fever", "fever_level = 'ABOVE_102'", "HIGH", 40),
+        rule("severe_pain", "pain_score >= 8", "HIGH", 30),
+        rule(
+            "missed_medication",
+            "medication_adherence IN ('MISSED_SOME', 'DIDNT_TAKE')",
+            "LOW",
+            10),
+        rule("dvt_symptoms_reported", "dvt_symptoms IS NOT EMPTY", "HIGH", 40));
+  }
+
+  @Test
+  @DisplayName("Should sum matched weights, cap at 100 and take the highest matched level")
+  void shouldScoreResponse() {
+    // Given
+    when(riskRuleRepository.findByIsActiveTrue()).thenReturn(defaultRules());
+    DailyResponse response =
+        DailyResponse.builder()
+            .dayNumber(3)
+            .painScore(9)
+            .feverLevel("ABOVE_102")
+            .medicationAdherence("MISSED_SOME")
+            .dvtSymptoms(new String[] {"CALF_PAIN"})
+            .build();
+
+    // When
+    RiskScore score = riskEngine.score(response);
+
+    // Then
+    assertThat(score.getCompositeScore()).isEqualTo(100);
+    assertThat(score.getRiskLevel()).isEqualTo("HIGH");
+    assertThat(score.getDayNumber()).isEqualTo(3);
+    assertThat(score.getContributingFactors())
+        .containsOnlyKeys(
+            "dvt_symptoms_reported", "high_fever", "missed_medication", "severe_pain");
+    assertThat(score.getRuleVersionId()).isEqualTo(CompiledRuleSet.versionOf(defaultRules()));
+  }
+
+  @Test
+  @DisplayName("Should score LOW with no factors when no rule matches")
+  void shouldScoreLowWhenNothingMatches() {
+    // Given
+    when(riskRuleRepository.findByIsActiveTrue()).thenReturn(defaultRules());
+
+    // When
+    RiskScore score = riskEngine.score(DailyResponse.builder().dayNumber(2).painScore(2).build());
+
+    // Then
+    assertThat(score.getCompositeScore()).isZero();
+    assertThat(score.getRiskLevel()).isEqualTo("LOW");
+    assertThat(score.getContributingFactors()).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should reuse the compiled rule set until it is invalidated")
+  void shouldCacheCompiledRuleSet() {
+    // Given
+    when(riskRuleRepository.findByIsActiveTrue()).thenReturn(defaultRules());
+
+    // When
+    CompiledRuleSet first = riskEngine.currentRuleSet();
+    CompiledRuleSet second = riskEngine.currentRuleSet();
+    riskEngine.invalidate();
+    CompiledRuleSet reloaded = riskEngine.currentRuleSet();
+
+    // Then
+    assertThat(second).isSameAs(first);
+    assertThat(reloaded).isSameAs(first);
+    verify(riskRuleRepository, times(2)).findByIsActiveTrue();
+    verify(ruleSetVersionService, times(1)).register(first);
+  }
+
+  @Test
+  @DisplayName("Should keep the last good rule set when an edited rule fails to compile")
+  void shouldKeepLastGoodRuleSetOnCompileError() {
+    // Given
+    when(riskRuleRepository.findByIsActiveTrue())
+        .thenReturn(defaultRules())
+        .thenReturn(List.of(rule("broken", "pain_score >=", "HIGH", 10)));
+    CompiledRuleSet good = riskEngine.currentRuleSet();
+
+    // When
+    riskEngine.invalidate();
+    CompiledRuleSet afterBrokenEdit = riskEngine.currentRuleSet();
+
+    // Then
+    assertThat(afterBrokenEdit).isSameAs(good);
+    assertThatThrownBy(
+            () -> new RiskEngine(riskRuleRepository, ruleSetVersionService, 3600).currentRuleSet())
+        .isInstanceOf(RuleExpressionException.class)
+        .hasMessageContaining("broken");
+  }
+}
@@ -0,0 +1,96 @@
+package com.orthowatch.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.orthowatch.model.Episode;
+import com.orthowatch.model.EpisodeRiskTrend;
+import com.orthowatch.model.RiskScore;
+import com.orthowatch.repository.EpisodeRiskTrendRepository;
+import com.orthowatch.repository.RiskScoreRepository;
+import com.orthowatch.risk.RiskTrend;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class RiskTrendServiceTest {
+
+  @Mock private EpisodeRiskTrendRepository episodeRiskTrendRepository;
+  @Mock private RiskScoreRepository riskScoreRepository;
+
+  private RiskTrendService riskTrendService;
+  private final UUID episodeId = UUID.randomUUID();
+
+  @BeforeEach
+  void setUp() {
+    riskTrendService =
+        new RiskTrendService(episodeRiskTrendRepository, riskScoreRepository, 5, 0.3, 2.0);
+  }
+
+  private RiskScore score(int day, int compositeScore) {
+    return RiskScore.builder()
+        .episode(Episode.builder().id(episodeId).build())
+        .dayNumber(day)
+        .compositeScore(compositeScore)
+        .build();
+  }
+
+  @Test
+  @DisplayName("Should update the stored trend without reading the score history")
+  void shouldUpdateTrendIncrementally() {
+    // Given
+    EpisodeRiskTrend stored =
+        EpisodeRiskTrend.builder()
+            .episodeId(episodeId)
+            .recentDays(new int[] {1, 2})
+            .recentScores(new int[] {20, 30})
+            .ewma(23)
+            .priorEwma(20)
+            .slope(10)
+            .sampleCount(2)
+            .build();
+    when(episodeRiskTrendRepository.findForUpdate(Set.of(episodeId))).thenReturn(List.of(stored));
+    RiskScore score = score(3, 45);
+
+    // When
+    RiskTrend trend = riskTrendService.apply(score);
+
+    // Then
+    assertThat(score.getTrajectory()).isEqualTo(RiskTrend.WORSENING);
+    assertThat(trend.recentScores()).containsExactly(20, 30, 45);
+    assertThat(stored.getSampleCount()).isEqualTo(3);
+    verify(episodeRiskTrendRepository).saveAll(List.of(stored));
+    verifyNoInteractions(riskScoreRepository);
+  }
+
+  @Test
+  @DisplayName("Should seed a missing trend from the episode's earlier scores")
+  void shouldSeedTrendFromHistory() {
+    // Given
+    when(episodeRiskTrendRepository.findForUpdate(Set.of(episodeId))).thenReturn(List.of());
+    when(riskScoreRepository.findByEpisodeIdInOrderByDayNumberAsc(Set.of(episodeId)))
+        .thenReturn(List.of(score(1, 60), score(2, 50)));
+    RiskScore score = score(3, 35);
+
+    // When
+    RiskTrend trend = riskTrendService.apply(score);
+
+    // Then
+    assertThat(score.getTrajectory()).isEqualTo(RiskTrend.IMPROVING);
+    assertThat(trend.recentDays()).containsExactly(1, 2, 3);
+    verify(episodeRiskTrendRepository)
+        .saveAll(
+            argThat(
+                rows -> {
+                  EpisodeRiskTrend row = rows.iterator().next();
+                  return row.isNew() && row.getSampleCount() == 3;
+                }));
+  }
+}
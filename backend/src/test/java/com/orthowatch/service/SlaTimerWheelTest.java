@@ -0,0 +1,60 @@
+package com.orthowatch.service;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SlaTimerWheelTest {
+
+  private static final long START = 1_772_359_200L;
+
+  @Test
+  @DisplayName("Should fire each timer at its deadline tick, across every wheel level")
+  void shouldFireAtDeadline() {
+    // Given
+    SlaTimerWheel wheel = new SlaTimerWheel(START);
+    long[] offsets = {1, 63, 64, 65, 4_095, 4_097, 300_000, 20_000_000};
+    List<UUID> alerts = new ArrayList<>();
+    for (long offset : offsets) {
+      UUID alertId = UUID.randomUUID();
+      alerts.add(alertId);
+      wheel.schedule(alertId, START + offset);
+    }
+
+    // Then
+    for (int i = 0; i < offsets.length; i++) {
+      long deadline = START + offsets[i];
+      assertThat(wheel.advanceTo(deadline - 1)).doesNotContain(alerts.get(i));
+      assertThat(wheel.advanceTo(deadline)).contains(alerts.get(i));
+    }
+    assertThat(wheel.size()).isZero();
+  }
+
+  @Test
+  @DisplayName("Should fire overdue timers on the next advance and rescheduled ones only once")
+  void shouldHandleOverdueAndRescheduledTimers() {
+    // Given
+    SlaTimerWheel wheel = new SlaTimerWheel(START);
+    UUID overdue = UUID.randomUUID();
+    UUID moved = UUID.randomUUID();
+    UUID cancelled = UUID.randomUUID();
+    wheel.schedule(overdue, START - 30);
+    wheel.schedule(moved, START + 10);
+    wheel.schedule(moved, START + 100);
+    wheel.schedule(cancelled, START + 5);
+    wheel.cancel(cancelled);
+
+    // When
+    List<UUID> first = wheel.advanceTo(START + 50);
+    List<UUID> second = wheel.advanceTo(START + 100);
+
+    // Then
+    assertThat(first).containsExactly(overdue);
+    assertThat(second).containsExactly(moved);
+    assertThat(wheel.advanceTo(START + 10_000)).isEmpty();
+  }
+}
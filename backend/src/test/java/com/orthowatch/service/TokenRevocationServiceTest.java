@@ -0,0 +1,110 @@
+package com.orthowatch.service;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.orthowatch.util.JwtClaims;
+import com.orthowatch.util.JwtUtil;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+@ExtendWith(MockitoExtension.class)
+class TokenRevocationServiceTest {
+
+  @Mock private StringRedisTemplate redisTemplate;
+  @Mock private ValueOperations<String, String> valueOperations;
+  @Mock private JwtUtil jwtUtil;
+
+  private TokenRevocationService service;
+
+  private final JwtClaims claims =
+      new JwtClaims(
+          "surgeon@orthowatch.com",
+          "SURGEON",
+          "Dr. Ramesh Kumar",
+          "jti-1",
+          Instant.now(),
+          Instant.now().plusSeconds(1800));
+
+  @BeforeEach
+  void setUp() {
+    when(jwtUtil.getAccessExpiration()).thenReturn(1800000L);
+    service = new TokenRevocationService(redisTemplate, jwtUtil, "claims");
+  }
+
+  private void givenDenyList(String userState, String tokenEntry) {
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    when(valueOperations.multiGet(
+            List.of(
+                "orthowatch:revoked:user:surgeon@orthowatch.com", "orthowatch:revoked:jti:jti-1")))
+        .thenReturn(Arrays.asList(userState, tokenEntry));
+  }
+
+  @Test
+  @DisplayName("Should accept a token when no deny-list entries exist")
+  void shouldAcceptUnrevokedToken() {
+    givenDenyList(null, null);
+
+    assertThat(service.isRevoked(claims)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should reject a token whose role no longer matches, or whose user is disabled")
+  void shouldRejectStaleUserState() {
+    givenDenyList("NURSE|1", null);
+    assertThat(service.isRevoked(claims)).isTrue();
+
+    givenDenyList("SURGEON|0", null);
+    assertThat(service.isRevoked(claims)).isTrue();
+
+    givenDenyList("SURGEON|1", null);
+    assertThat(service.isRevoked(claims)).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should reject a token whose id was revoked at logout")
+  void shouldRejectRevokedTokenId() {
+    givenDenyList(null, "1");
+
+    assertThat(service.isRevoked(claims)).isTrue();
+  }
+
+  @Test
+  @DisplayName("Should fail the logout when the revocation cannot be recorded")
+  void shouldFailWhenRevocationCannotBeRecorded() {
+    // Given
+    when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+    doThrow(new RedisConnectionFailureException("down"))
+        .when(valueOperations)
+        .set(eq("orthowatch:revoked:jti:jti-1"), eq("1"), any(Duration.class));
+
+    // When / Then
+    assertThatThrownBy(() -> service.revokeToken("jti-1", Instant.now().plusSeconds(60)))
+        .isInstanceOf(RedisConnectionFailureException.class);
+  }
+
+  @Test
+  @DisplayName("Should not write to Redis in database mode")
+  void shouldBeNoOpInDatabaseMode() {
+    TokenRevocationService databaseMode =
+        new TokenRevocationService(redisTemplate, jwtUtil, "database");
+
+    databaseMode.revokeUser("surgeon@orthowatch.com", "SURGEON", false);
+    databaseMode.revokeToken("jti-1", Instant.now().plusSeconds(60));
+
+    verify(redisTemplate, never()).opsForValue();
+    verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+  }
+}
@@ -0,0 +1,88 @@
+package com.orthowatch.template;
+
+import static org.assertj.core.api.Assertions.*;
+
+import com.orthowatch.model.RecoveryTemplate;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class CompiledTemplateTest {
+
+  private RecoveryTemplate template(Map<String, Object> days) {
+    return RecoveryTemplate.builder()
+        .id(UUID.randomUUID())
+        .surgeryType("TKR")
+        .checklistConfig(Map.of("days", days))
+        .milestoneConfig(
+            Map.of(
+                "milestones",
+                Map.of(
+                    "5",
+                    Map.of(
+                        "expected", "Patient walking with walker support",
+                        "label", "Assisted Walking"))))
+        .mandatoryImageDays(List.of(3, 5))
+        .monitoringDays(14)
+        .updatedAt(OffsetDateTime.parse("2026-03-01T10:00:00Z"))
+        .build();
+  }
+
+  @Test
+  @DisplayName("Should resolve each day's questions, falling back to the closest earlier day")
+  void shouldResolveQuestionsByDay() {
+    // Given
+    RecoveryTemplate template =
+        template(
+            Map.of(
+                "2", Map.of("questions", List.of("pain_score", "fever_check")),
+                "7", Map.of("questions", List.of("pain_score", "mobility_check", "wound_image"))));
+
+    // When
+    CompiledTemplate compiled = CompiledTemplate.compile(template);
+
+    // Then
+    assertThat(compiled.questions(1)).isEqualTo(CompiledTemplate.DEFAULT_QUESTIONS);
+    assertThat(compiled.requiredFields(4)).containsExactlyInAnyOrder("pain_score", "fever_level");
+    assertThat(compiled.questions(7)).contains(ChecklistQuestion.WOUND_IMAGE);
+    assertThat(compiled.requiredFields(7))
+        .containsExactlyInAnyOrder("pain_score", "mobility_achieved");
+    assertThat(compiled.requiredFields(30)).isEqualTo(compiled.requiredFields(14));
+  }
+
+  @Test
+  @DisplayName("Should look up milestones and mandatory image days by day number")
+  void shouldIndexMilestonesAndImageDays() {
+    // When
+    CompiledTemplate compiled =
+        CompiledTemplate.compile(template(Map.of("1", Map.of("questions", List.of("pain_score")))));
+
+    // Then
+    assertThat(compiled.milestone(5))
+        .isEqualTo(new Milestone(5, "Assisted Walking", "Patient walking with walker support"));
+    assertThat(compiled.milestone(6)).isNull();
+    assertThat(compiled.requiresImage(3)).isTrue();
+    assertThat(compiled.requiresImage(4)).isFalse();
+    assertThat(compiled.versionId()).endsWith("@" + 1772359200000L);
+  }
+
+  @Test
+  @DisplayName("Should reject unknown questions and non-numeric days")
+  void shouldRejectInvalidConfig() {
+    assertThatThrownBy(
+            () ->
+                CompiledTemplate.compile(
+                    template(Map.of("1", Map.of("questions", List.of("heart_rate"))))))
+        .isInstanceOf(TemplateConfigException.class)
+        .hasMessageContaining("heart_rate");
+    assertThatThrownBy(
+            () ->
+                CompiledTemplate.compile(
+                    template(Map.of("day-one", Map.of("questions", List.of("pain_score"))))))
+        .isInstanceOf(TemplateConfigException.class)
+        .hasMessageContaining("day-one");
+  }
+}
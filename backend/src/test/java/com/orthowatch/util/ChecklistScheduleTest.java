@@ -0,0 +1,61 @@
+package com.orthowatch.util;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ChecklistScheduleTest {
+
+  @Test
+  @DisplayName("Should schedule day 1 at the local checklist time, expressed in UTC")
+  void shouldScheduleDayOneInLocalTime() {
+    OffsetDateTime first =
+        ChecklistSchedule.firstChecklistAt(
+            LocalDate.of(2026, 2, 15),
+            LocalTime.of(9, 0),
+            "Asia/Kolkata",
+            Instant.parse("2026-02-10T00:00:00Z"));
+
+    assertThat(first.toInstant()).isEqualTo(Instant.parse("2026-02-16T03:30:00Z"));
+  }
+
+  @Test
+  @DisplayName("Should move to the next local occurrence when day 1 has already passed")
+  void shouldScheduleNextOccurrenceForLateEnrollment() {
+    // 10:00 local on Feb 20th: today's 09:00 has passed, so tomorrow's
+    OffsetDateTime next =
+        ChecklistSchedule.firstChecklistAt(
+            LocalDate.of(2026, 2, 15),
+            LocalTime.of(9, 0),
+            "Asia/Kolkata",
+            Instant.parse("2026-02-20T04:30:00Z"));
+
+    assertThat(next.toInstant()).isEqualTo(Instant.parse("2026-02-21T03:30:00Z"));
+  }
+
+  @Test
+  @DisplayName("Should follow daylight saving changes in the episode's timezone")
+  void shouldFollowDaylightSaving() {
+    // US clocks go forward on March 8th 2026: 09:00 EST is 14:00Z, 09:00 EDT is 13:00Z
+    OffsetDateTime beforeChange =
+        ChecklistSchedule.firstChecklistAt(
+            LocalDate.of(2026, 3, 6),
+            LocalTime.of(9, 0),
+            "America/New_York",
+            Instant.parse("2026-03-01T00:00:00Z"));
+    OffsetDateTime afterChange =
+        ChecklistSchedule.firstChecklistAt(
+            LocalDate.of(2026, 3, 8),
+            LocalTime.of(9, 0),
+            "America/New_York",
+            Instant.parse("2026-03-01T00:00:00Z"));
+
+    assertThat(beforeChange.toInstant()).isEqualTo(Instant.parse("2026-03-07T14:00:00Z"));
+    assertThat(afterChange.toInstant()).isEqualTo(Instant.parse("2026-03-09T13:00:00Z"));
+  }
+}
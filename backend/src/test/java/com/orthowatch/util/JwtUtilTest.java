@@ -0,0 +1,111 @@
+package com.orthowatch.util;
+
+import static org.assertj.core.api.Assertions.*;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class JwtUtilTest {
+
+  private static final String SECRET = "ZGV2c2VjcmV0a2V5bWluaW11bTMyY2hhcmFjdGVyc2xvbmc=";
+  private static final String REFRESH_SECRET = "ZGV2cmVmcmVzaHNlY3JldG1pbmltdW0zMmNoYXJhY3RlcnM=";
+
+  private JwtUtil jwtUtil;
+
+  @BeforeEach
+  void setUp() {
+    jwtUtil = newJwtUtil(1800000, true);
+  }
+
+  private JwtUtil newJwtUtil(long accessExpiration, boolean claimsCacheEnabled) {
+    JwtUtil util = new JwtUtil();
+    ReflectionTestUtils.setField(util, "secret", SECRET);
+    ReflectionTestUtils.setField(util, "refreshSecret", REFRESH_SECRET);
+    ReflectionTestUtils.setField(util, "accessExpiration", accessExpiration);
+    ReflectionTestUtils.setField(util, "refreshExpiration", 604800000L);
+    ReflectionTestUtils.setField(util, "claimsCacheEnabled", claimsCacheEnabled);
+    ReflectionTestUtils.setField(util, "claimsCacheTtlSeconds", 60L);
+    ReflectionTestUtils.setField(util, "claimsCacheMaxSize", 100L);
+    util.init();
+    return util;
+  }
+
+  @Test
+  @DisplayName("Should return subject, role, full name and expiry from a single verification")
+  void shouldVerifyAccessTokenClaims() {
+    String token =
+        jwtUtil.generateAccessToken("surgeon@orthowatch.com", "SURGEON", "Dr. Ramesh Kumar");
+
+    Optional<JwtClaims> claims = jwtUtil.verifyAccessToken(token);
+
+    assertThat(claims).isPresent();
+    assertThat(claims.get().subject()).isEqualTo("surgeon@orthowatch.com");
+    assertThat(claims.get().role()).isEqualTo("SURGEON");
+    assertThat(claims.get().fullName()).isEqualTo("Dr. Ramesh Kumar");
+    assertThat(claims.get().expiresAt()).isAfter(Instant.now());
+  }
+
+  @Test
+  @DisplayName("Should answer repeated verifications of the same token from the cache")
+  void shouldServeRepeatedVerificationFromCache() {
+    String token = jwtUtil.generateAccessToken("nurse@orthowatch.com", "NURSE", "Nurse Asha");
+
+    JwtClaims first = jwtUtil.verifyAccessToken(token).orElseThrow();
+    JwtClaims second = jwtUtil.verifyAccessToken(token).orElseThrow();
+
+    assertThat(second).isSameAs(first);
+  }
+
+  @Test
+  @DisplayName("Should reject a token whose signature was tampered with")
+  void shouldRejectTamperedToken() {
+    String token = jwtUtil.generateAccessToken("admin@orthowatch.com", "ADMIN", "Admin User");
+    jwtUtil.verifyAccessToken(token);
+
+    String tampered = token.substring(0, token.length() - 2) + "xx";
+
+    assertThat(jwtUtil.verifyAccessToken(tampered)).isEmpty();
+  }
+
+  @Test
+  @DisplayName("Should reject an expired token")
+  void shouldRejectExpiredToken() {
+    JwtUtil shortLived = newJwtUtil(-1000, true);
+    String token = shortLived.generateAccessToken("admin@orthowatch.com", "ADMIN", "Admin User");
+
+    assertThat(shortLived.verifyAccessToken(token)).isEmpty();
+    assertThat(shortLived.validateToken(token, "admin@orthowatch.com")).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should reject a validly signed token without an issue time")
+  void shouldRejectTokenWithoutIssuedAt() {
+    String token =
+        Jwts.builder()
+            .subject("admin@orthowatch.com")
+            .claim("role", "ADMIN")
+            .expiration(Date.from(Instant.now().plusSeconds(600)))
+            .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET)))
+            .compact();
+
+    assertThat(jwtUtil.verifyAccessToken(token)).isEmpty();
+    assertThat(jwtUtil.validateToken(token, "admin@orthowatch.com")).isFalse();
+  }
+
+  @Test
+  @DisplayName("Should not accept a refresh token as an access token")
+  void shouldRejectRefreshTokenAsAccessToken() {
+    String refreshToken = jwtUtil.generateRefreshToken("admin@orthowatch.com");
+
+    assertThat(jwtUtil.verifyAccessToken(refreshToken)).isEmpty();
+    assertThat(jwtUtil.validateRefreshToken(refreshToken, "admin@orthowatch.com")).isTrue();
+  }
+}
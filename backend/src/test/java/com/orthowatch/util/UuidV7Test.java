@@ -0,0 +1,30 @@
+package com.orthowatch.util;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.UUID;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class UuidV7Test {
+
+  @Test
+  @DisplayName("Should set the version 7 and IETF variant bits")
+  void shouldSetVersionAndVariant() {
+    UUID uuid = UuidV7.randomUuid();
+
+    assertThat(uuid.version()).isEqualTo(7);
+    assertThat(uuid.variant()).isEqualTo(2);
+  }
+
+  @Test
+  @DisplayName("Should encode the timestamp in the leading 48 bits so IDs sort by creation time")
+  void shouldSortByTimestamp() {
+    UUID earlier = UuidV7.fromEpochMillis(1_771_000_000_000L);
+    UUID later = UuidV7.fromEpochMillis(1_771_000_000_001L);
+
+    assertThat(earlier.getMostSignificantBits() >>> 16).isEqualTo(1_771_000_000_000L);
+    // Postgres compares uuids bytewise, which matches this unsigned string ordering
+    assertThat(earlier.toString()).isLessThan(later.toString());
+  }
+}